@@ -0,0 +1,70 @@
+package com.moktob.benchmarks;
+
+import com.moktob.config.JwtKeyRing;
+import com.moktob.config.JwtUtil;
+import com.moktob.config.VerifiedToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link JwtUtil} on the request path: issuing a token at login, checking a
+ * token not seen before, checking a cached token, and reading a claim from the raw token.
+ * Token revocation needs Redis and is left out ({@code null} service).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKey123456789012345678901234567890";
+
+    private JwtUtil jwtUtil;
+    private UserDetails user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtKeyRing keyRing = new JwtKeyRing(SECRET, "", JwtKeyRing.DEFAULT_KEY_ID);
+        jwtUtil = new JwtUtil(keyRing, null, 86_400_000L, 10_000);
+        user = User.withUsername("teacher@example.com").password("unused").authorities(List.of()).build();
+        token = jwtUtil.generateToken(user, 42L, 7L);
+        jwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtUtil.generateToken(user, 42L, 7L);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyUncached() {
+        return jwtUtil.parse(token);
+    }
+
+    @Benchmark
+    public Optional<VerifiedToken> verifyCached() {
+        return jwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public Long extractClaim() {
+        return jwtUtil.getClientIdFromToken(token);
+    }
+}
@@ -0,0 +1,58 @@
+package com.moktob.attendance;
+
+import com.moktob.common.BaseEntity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * A student's run of consecutive absences in a class that reached
+ * {@code attendance.absence-streak.threshold}. One row per run, identified by the run's
+ * first absent day, so a run is reported once however often it is re-evaluated. Rows
+ * with status {@code PENDING} are the guardian alerts still to be delivered.
+ */
+@Entity
+@Table(name = "absence_streak_alert",
+        uniqueConstraints = @UniqueConstraint(name = "uk_absence_streak_alert",
+                columnNames = {"client_id", "student_id", "class_id", "run_start_date"}),
+        indexes = @Index(name = "idx_absence_streak_alert_status", columnList = "client_id, status"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class AbsenceStreakAlert extends BaseEntity {
+
+    public static final String PENDING = "PENDING";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "class_id", nullable = false)
+    private Long classId;
+
+    @Column(name = "run_start_date", nullable = false)
+    private LocalDate runStartDate;
+
+    @Column(name = "last_absent_date", nullable = false)
+    private LocalDate lastAbsentDate;
+
+    @Column(name = "streak_length", nullable = false)
+    private Integer streakLength;
+
+    @Column(name = "guardian_name", length = 100)
+    private String guardianName;
+
+    @Column(name = "guardian_contact", length = 20)
+    private String guardianContact;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status = PENDING;
+}
@@ -0,0 +1,65 @@
+package com.moktob.attendance;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class AbsenceStreakAlertBatchRepository {
+
+    private static final String INSERT_IGNORING_DUPLICATES = """
+        INSERT INTO absence_streak_alert
+            (client_id, student_id, class_id, run_start_date, last_absent_date, streak_length,
+             guardian_name, guardian_contact, status, created_at, updated_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        ON CONFLICT (client_id, student_id, class_id, run_start_date) DO NOTHING
+        """;
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the alerts in batches and returns the ones that were new; runs that were
+     * already reported are skipped.
+     */
+    public List<AbsenceStreakAlert> insertIgnoringDuplicates(List<AbsenceStreakAlert> alerts) {
+        List<AbsenceStreakAlert> inserted = new ArrayList<>();
+        if (alerts.isEmpty()) {
+            return inserted;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_IGNORING_DUPLICATES, alerts, BATCH_SIZE, (ps, alert) -> {
+            ps.setLong(1, alert.getClientId());
+            ps.setLong(2, alert.getStudentId());
+            ps.setLong(3, alert.getClassId());
+            ps.setDate(4, Date.valueOf(alert.getRunStartDate()));
+            ps.setDate(5, Date.valueOf(alert.getLastAbsentDate()));
+            ps.setInt(6, alert.getStreakLength());
+            ps.setString(7, alert.getGuardianName());
+            ps.setString(8, alert.getGuardianContact());
+            ps.setString(9, alert.getStatus());
+            ps.setTimestamp(10, now);
+            ps.setTimestamp(11, now);
+        });
+
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count != 0) {
+                    inserted.add(alerts.get(index));
+                }
+                index++;
+            }
+        }
+        return inserted;
+    }
+}
@@ -0,0 +1,120 @@
+package com.moktob.attendance;
+
+import com.moktob.communication.Notification;
+import com.moktob.communication.NotificationBatchRepository;
+import com.moktob.core.UserAccountRepository;
+import com.moktob.education.ClassEntityRepository;
+import com.moktob.education.StudentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Persists absence runs found by {@link AbsenceStreakTracker}: one
+ * {@link AbsenceStreakAlert} per run, queued for the guardian, and a notification to every
+ * active staff user of the tenant for each run not reported before.
+ */
+@Service
+@Slf4j
+public class AbsenceStreakAlertService {
+
+    public static final String NOTIFICATION_TYPE = "ABSENCE_STREAK";
+
+    /**
+     * A run of {@code length} consecutive absences for a student in a class.
+     */
+    public record StreakCrossing(Long studentId, Long classId, LocalDate runStart, LocalDate lastAbsence, int length) {
+    }
+
+    private final AbsenceStreakAlertBatchRepository alertBatchRepository;
+    private final NotificationBatchRepository notificationBatchRepository;
+    private final StudentRepository studentRepository;
+    private final ClassEntityRepository classEntityRepository;
+    private final UserAccountRepository userAccountRepository;
+    private final Set<String> staffRoles;
+
+    public AbsenceStreakAlertService(AbsenceStreakAlertBatchRepository alertBatchRepository,
+                                     NotificationBatchRepository notificationBatchRepository,
+                                     StudentRepository studentRepository,
+                                     ClassEntityRepository classEntityRepository,
+                                     UserAccountRepository userAccountRepository,
+                                     @Value("${attendance.absence-streak.staff-roles:ADMIN,TEACHER}") Set<String> staffRoles) {
+        this.alertBatchRepository = alertBatchRepository;
+        this.notificationBatchRepository = notificationBatchRepository;
+        this.studentRepository = studentRepository;
+        this.classEntityRepository = classEntityRepository;
+        this.userAccountRepository = userAccountRepository;
+        this.staffRoles = staffRoles;
+    }
+
+    /**
+     * Records the tenant's runs in one transaction and returns how many were new.
+     */
+    @Transactional
+    public int recordCrossings(Long clientId, List<StreakCrossing> crossings) {
+        Map<Long, Object[]> students = new HashMap<>();
+        Set<Long> studentIds = crossings.stream().map(StreakCrossing::studentId).collect(Collectors.toSet());
+        for (Object[] row : studentRepository.findGuardiansByClientIdAndIds(clientId, studentIds)) {
+            students.put((Long) row[0], row);
+        }
+
+        List<AbsenceStreakAlert> alerts = new ArrayList<>();
+        for (StreakCrossing crossing : crossings) {
+            Object[] student = students.get(crossing.studentId());
+            if (student == null) {
+                // Deleted since the mark was written
+                continue;
+            }
+            AbsenceStreakAlert alert = new AbsenceStreakAlert();
+            alert.setClientId(clientId);
+            alert.setStudentId(crossing.studentId());
+            alert.setClassId(crossing.classId());
+            alert.setRunStartDate(crossing.runStart());
+            alert.setLastAbsentDate(crossing.lastAbsence());
+            alert.setStreakLength(crossing.length());
+            alert.setGuardianName((String) student[2]);
+            alert.setGuardianContact((String) student[3]);
+            alerts.add(alert);
+        }
+
+        List<AbsenceStreakAlert> inserted = alertBatchRepository.insertIgnoringDuplicates(alerts);
+        if (inserted.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> recipients = userAccountRepository.findActiveUserIdsByClientIdAndRoleNames(clientId, staffRoles);
+        Map<Long, String> classNames = new HashMap<>();
+        for (Object[] row : classEntityRepository.findClassNamesByClientId(clientId)) {
+            classNames.put((Long) row[0], (String) row[1]);
+        }
+        List<Notification> notifications = new ArrayList<>(inserted.size() * recipients.size());
+        for (AbsenceStreakAlert alert : inserted) {
+            String studentName = (String) students.get(alert.getStudentId())[1];
+            String title = "Absence streak: " + studentName;
+            String message = studentName + " has been absent from " + classNames.getOrDefault(alert.getClassId(), "class")
+                    + " for " + alert.getStreakLength() + " consecutive sessions since " + alert.getRunStartDate() + ".";
+            for (Long recipient : recipients) {
+                Notification notification = new Notification();
+                notification.setClientId(clientId);
+                notification.setRecipientUserId(recipient);
+                notification.setType(NOTIFICATION_TYPE);
+                notification.setTitle(title);
+                notification.setMessage(message);
+                notifications.add(notification);
+            }
+        }
+        notificationBatchRepository.insert(notifications);
+        log.info("Recorded {} absence streak alerts for client {} ({} staff notifications)",
+                inserted.size(), clientId, notifications.size());
+        return inserted.size();
+    }
+}
@@ -0,0 +1,268 @@
+package com.moktob.attendance;
+
+import com.moktob.common.AttendanceStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Detects runs of consecutive ABSENT marks per student and class as attendance is written.
+ * <p>
+ * Committed changes arrive as {@link AttendanceDeltaEvent}s and are only queued on the
+ * request thread; a scheduled flush applies them to a small window of each pair's most
+ * recent marked sessions, so history is read once per pair (at most
+ * {@code attendance.absence-streak.lookback-days} back) and never rescanned. A run is
+ * reported when it reaches {@code attendance.absence-streak.threshold} sessions through
+ * absences written since the last flush; every run reported in a flush goes to
+ * {@link AbsenceStreakAlertService} in one batch per tenant.
+ * <p>
+ * If the queue overflows, the tenant's windows are dropped and reloaded from the database
+ * when next touched; runs completed by the dropped changes are not reported.
+ */
+@Service
+@Slf4j
+public class AbsenceStreakTracker {
+
+    private record PairKey(Long clientId, Long studentId, Long classId) {
+    }
+
+    /**
+     * The latest marked sessions of a pair. Incomplete once older sessions have been cut
+     * off, so a run reaching back to the first session may be longer than it looks.
+     */
+    private static final class Window {
+        private final TreeMap<LocalDate, AttendanceStatus> sessions = new TreeMap<>();
+        private boolean complete = true;
+    }
+
+    private final AttendanceRepository attendanceRepository;
+    private final AbsenceStreakAlertService absenceStreakAlertService;
+    private final BlockingQueue<AttendanceDeltaEvent> queue;
+    private final Set<Long> staleClients = ConcurrentHashMap.newKeySet();
+    private final Map<PairKey, Window> windows;
+
+    @Value("${attendance.absence-streak.enabled:true}")
+    private boolean enabled;
+
+    @Value("${attendance.absence-streak.threshold:3}")
+    private int threshold;
+
+    @Value("${attendance.absence-streak.lookback-days:120}")
+    private int lookbackDays;
+
+    public AbsenceStreakTracker(AttendanceRepository attendanceRepository,
+                                AbsenceStreakAlertService absenceStreakAlertService,
+                                @Value("${attendance.absence-streak.queue-capacity:10000}") int queueCapacity,
+                                @Value("${attendance.absence-streak.max-tracked-pairs:200000}") int maxTrackedPairs) {
+        this.attendanceRepository = attendanceRepository;
+        this.absenceStreakAlertService = absenceStreakAlertService;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.windows = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<PairKey, Window> eldest) {
+                return size() > maxTrackedPairs;
+            }
+        };
+    }
+
+    @EventListener
+    public void onAttendanceDelta(AttendanceDeltaEvent event) {
+        if (!enabled || event.marks().isEmpty()) {
+            return;
+        }
+        if (!queue.offer(event)) {
+            if (staleClients.add(event.clientId())) {
+                log.warn("Absence streak queue is full; dropping tracked streaks for client {}", event.clientId());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${attendance.absence-streak.flush-interval-ms:2000}")
+    public synchronized void flush() {
+        List<AttendanceDeltaEvent> events = new ArrayList<>();
+        queue.drainTo(events);
+        if (!staleClients.isEmpty()) {
+            Set<Long> stale = new HashSet<>(staleClients);
+            staleClients.removeAll(stale);
+            windows.keySet().removeIf(key -> stale.contains(key.clientId()));
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<AttendanceDeltaEvent.Mark>> marksByClient = new LinkedHashMap<>();
+        for (AttendanceDeltaEvent event : events) {
+            marksByClient.computeIfAbsent(event.clientId(), id -> new ArrayList<>()).addAll(event.marks());
+        }
+        marksByClient.forEach((clientId, marks) -> {
+            try {
+                List<AbsenceStreakAlertService.StreakCrossing> crossings = apply(clientId, marks);
+                if (!crossings.isEmpty()) {
+                    absenceStreakAlertService.recordCrossings(clientId, crossings);
+                }
+            } catch (RuntimeException e) {
+                // Reload from the database next time rather than trust a half-applied window
+                windows.keySet().removeIf(key -> key.clientId().equals(clientId));
+                log.error("Failed to track absence streaks for client {}", clientId, e);
+            }
+        });
+    }
+
+    private List<AbsenceStreakAlertService.StreakCrossing> apply(Long clientId, List<AttendanceDeltaEvent.Mark> marks) {
+        // Sessions marked absent since the last flush, per pair
+        Map<PairKey, Set<LocalDate>> absences = new LinkedHashMap<>();
+        for (AttendanceDeltaEvent.Mark mark : marks) {
+            PairKey key = new PairKey(clientId, mark.studentId(), mark.classId());
+            if (mark.status() == AttendanceStatus.ABSENT) {
+                absences.computeIfAbsent(key, k -> new HashSet<>()).add(mark.date());
+            } else if (absences.containsKey(key)) {
+                absences.get(key).remove(mark.date());
+            }
+        }
+
+        Set<PairKey> loaded = load(clientId, absences);
+        Set<Window> touched = new HashSet<>();
+        for (AttendanceDeltaEvent.Mark mark : marks) {
+            PairKey key = new PairKey(clientId, mark.studentId(), mark.classId());
+            if (loaded.contains(key)) {
+                // Read after these marks committed, so already up to date
+                continue;
+            }
+            Window window = windows.get(key);
+            if (window == null) {
+                continue;
+            }
+            touched.add(window);
+            if (mark.status() == null) {
+                window.sessions.remove(mark.date());
+            } else {
+                window.sessions.put(mark.date(), mark.status());
+            }
+        }
+
+        List<AbsenceStreakAlertService.StreakCrossing> crossings = new ArrayList<>();
+        absences.forEach((key, dates) -> {
+            Window window = windows.get(key);
+            if (window != null && !dates.isEmpty()) {
+                findCrossings(key, window, dates, crossings);
+            }
+        });
+        for (PairKey key : loaded) {
+            Window window = windows.get(key);
+            if (window != null) {
+                touched.add(window);
+            }
+        }
+        touched.forEach(this::trim);
+        return crossings;
+    }
+
+    /**
+     * Reads the recent sessions of pairs with new absences that are not tracked yet, in one
+     * query for the tenant, and returns the pairs it loaded.
+     */
+    private Set<PairKey> load(Long clientId, Map<PairKey, Set<LocalDate>> absences) {
+        Set<PairKey> missing = new HashSet<>();
+        Set<Long> studentIds = new HashSet<>();
+        Set<Long> classIds = new HashSet<>();
+        LocalDate earliest = null;
+        for (Map.Entry<PairKey, Set<LocalDate>> entry : absences.entrySet()) {
+            if (entry.getValue().isEmpty() || windows.containsKey(entry.getKey())) {
+                continue;
+            }
+            missing.add(entry.getKey());
+            studentIds.add(entry.getKey().studentId());
+            classIds.add(entry.getKey().classId());
+            for (LocalDate date : entry.getValue()) {
+                earliest = earliest == null || date.isBefore(earliest) ? date : earliest;
+            }
+        }
+        if (missing.isEmpty()) {
+            return missing;
+        }
+
+        Map<PairKey, Window> read = new HashMap<>();
+        missing.forEach(key -> read.put(key, new Window()));
+        for (Object[] row : attendanceRepository.findMarkStatesSince(clientId, classIds, studentIds,
+                earliest.minusDays(lookbackDays))) {
+            Window window = read.get(new PairKey(clientId, (Long) row[0], (Long) row[1]));
+            if (window != null) {
+                window.sessions.put((LocalDate) row[2], (AttendanceStatus) row[3]);
+            }
+        }
+        windows.putAll(read);
+        return missing;
+    }
+
+    /**
+     * Reports each run that contains a new absence and reaches the threshold, unless it
+     * already did so through older absences alone (those runs were reported before).
+     */
+    private void findCrossings(PairKey key, Window window, Set<LocalDate> newAbsences,
+                               List<AbsenceStreakAlertService.StreakCrossing> crossings) {
+        Set<LocalDate> seen = new HashSet<>();
+        for (LocalDate date : newAbsences) {
+            if (seen.contains(date) || window.sessions.get(date) != AttendanceStatus.ABSENT) {
+                continue;
+            }
+            LocalDate start = date;
+            LocalDate end = date;
+            int length = 0;
+            int olderRun = 0;
+            int longestOlderRun = 0;
+            for (Map.Entry<LocalDate, AttendanceStatus> session : window.sessions.tailMap(date, true).entrySet()) {
+                if (session.getValue() != AttendanceStatus.ABSENT) {
+                    break;
+                }
+                end = session.getKey();
+                seen.add(end);
+                length++;
+                olderRun = newAbsences.contains(end) ? 0 : olderRun + 1;
+                longestOlderRun = Math.max(longestOlderRun, olderRun);
+            }
+            olderRun = 0;
+            for (Map.Entry<LocalDate, AttendanceStatus> session : window.sessions.headMap(date, false).descendingMap().entrySet()) {
+                if (session.getValue() != AttendanceStatus.ABSENT) {
+                    break;
+                }
+                start = session.getKey();
+                seen.add(start);
+                length++;
+                olderRun = newAbsences.contains(start) ? 0 : olderRun + 1;
+                longestOlderRun = Math.max(longestOlderRun, olderRun);
+            }
+
+            boolean reachesCutOff = !window.complete && start.equals(window.sessions.firstKey());
+            if (length >= threshold && longestOlderRun < threshold && !reachesCutOff) {
+                crossings.add(new AbsenceStreakAlertService.StreakCrossing(key.studentId(), key.classId(), start, end, length));
+            }
+        }
+    }
+
+    /**
+     * Keeps the sessions needed to tell whether a new absence completes a run: two runs just
+     * short of the threshold joined by one absence, plus the session before them.
+     */
+    private void trim(Window window) {
+        int capacity = 2 * threshold;
+        while (window.sessions.size() > capacity) {
+            window.sessions.pollFirstEntry();
+            window.complete = false;
+        }
+    }
+}
@@ -14,13 +14,19 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "attendance")
+@Table(name = "attendance", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_attendance_mark", columnNames = {"client_id", "class_id", "student_id", "attendance_date"})
+}, indexes = {
+        @Index(name = "idx_attendance_client_date", columnList = "client_id, attendance_date"),
+        @Index(name = "idx_attendance_client_updated", columnList = "client_id, updated_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 public class Attendance extends BaseEntity {
     
+    // The table's primary key is (id, attendance_date), as partitioning requires; ids stay unique
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -34,7 +40,8 @@ public class Attendance extends BaseEntity {
     @Column(name = "teacher_id")
     private Long teacherId;
     
-    @Column(name = "attendance_date")
+    // Partition key: rows with no date cannot be placed
+    @Column(name = "attendance_date", nullable = false)
     private LocalDate attendanceDate;
     
     @Enumerated(EnumType.STRING)
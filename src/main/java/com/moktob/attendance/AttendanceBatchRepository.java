@@ -0,0 +1,66 @@
+package com.moktob.attendance;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC batch writes for attendance. {@code Attendance} uses IDENTITY keys, which stops
+ * Hibernate from batching inserts, so bulk inserts go through here instead.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AttendanceBatchRepository {
+
+    private static final String INSERT_IGNORING_CONFLICTS = """
+        INSERT INTO attendance
+            (client_id, class_id, student_id, teacher_id, attendance_date, status, remarks, created_at, updated_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+        ON CONFLICT (client_id, class_id, student_id, attendance_date) DO NOTHING
+        """;
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the rows in batches, skipping any whose mark already exists (e.g. written by a
+     * concurrent request since it was looked up). Returns the rows that were skipped.
+     */
+    public List<Attendance> insertIgnoringConflicts(List<Attendance> rows) {
+        List<Attendance> skipped = new ArrayList<>();
+        if (rows.isEmpty()) {
+            return skipped;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_IGNORING_CONFLICTS, rows, BATCH_SIZE, (ps, row) -> {
+            ps.setLong(1, row.getClientId());
+            ps.setObject(2, row.getClassId());
+            ps.setObject(3, row.getStudentId());
+            ps.setObject(4, row.getTeacherId());
+            ps.setDate(5, row.getAttendanceDate() != null ? Date.valueOf(row.getAttendanceDate()) : null);
+            ps.setString(6, row.getStatus() != null ? row.getStatus().name() : null);
+            ps.setString(7, row.getRemarks());
+            ps.setTimestamp(8, now);
+            ps.setTimestamp(9, now);
+        });
+
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    skipped.add(rows.get(index));
+                }
+                index++;
+            }
+        }
+        return skipped;
+    }
+}
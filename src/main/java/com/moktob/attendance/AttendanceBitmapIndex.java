@@ -0,0 +1,206 @@
+package com.moktob.attendance;
+
+import com.moktob.common.AttendanceStatus;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One tenant's attendance held in memory. Every (student, class) pair has one bitmap per
+ * status, indexed by day offset from the tenant's earliest attendance date, so daily
+ * series are bit scans instead of SQL aggregates.
+ * <p>
+ * Built by {@link AttendanceBitmapService}; writes are applied as final mark states, so
+ * replaying a change the loader has already seen is harmless.
+ */
+public class AttendanceBitmapIndex {
+
+    private static final int PRESENT = 0;
+    private static final int ABSENT = 1;
+    private static final int LATE = 2;
+    private static final int STUDENTS = 3;
+
+    // Dates further than this past the epoch are treated as unrepresentable
+    private static final int MAX_DAY = 366 * 100;
+
+    private final LocalDate epoch;
+    private final Map<MarkKey, BitSet[]> bitmaps = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int lastDay = -1;
+
+    // Marks written by committed transactions while the initial load is running; the
+    // loader's snapshot may predate them, so it must not overwrite them
+    private Set<List<Object>> touchedWhileLoading = new HashSet<>();
+    private volatile long lastAccess = System.currentTimeMillis();
+
+    AttendanceBitmapIndex(LocalDate epoch) {
+        this.epoch = epoch;
+    }
+
+    /**
+     * One day's marks by status across all classes, and the number of distinct students
+     * marked, which is lower than the mark count when a student is in several classes.
+     */
+    public record DailyCounts(LocalDate date, long present, long absent, long late, long students) {
+    }
+
+    /**
+     * Per-day status counts across all classes for days in the range that have any mark.
+     */
+    public List<DailyCounts> dailyCounts(LocalDate from, LocalDate to) {
+        touch();
+        List<DailyCounts> result = new ArrayList<>();
+        long[][] counts;
+        int start = (int) Math.max(0, Math.min(offset(from), MAX_DAY + 1));
+        int end;
+        lock.readLock().lock();
+        try {
+            end = (int) Math.min(offset(to), lastDay);
+            if (end < start) {
+                return result;
+            }
+            counts = new long[4][end - start + 1];
+            Map<Long, BitSet> markedByStudent = new HashMap<>();
+            for (Map.Entry<MarkKey, BitSet[]> entry : bitmaps.entrySet()) {
+                BitSet[] statuses = entry.getValue();
+                BitSet marked = markedByStudent.computeIfAbsent(entry.getKey().studentId(), id -> new BitSet());
+                for (int status = 0; status < 3; status++) {
+                    BitSet bits = statuses[status];
+                    for (int day = bits.nextSetBit(start); day >= 0 && day <= end; day = bits.nextSetBit(day + 1)) {
+                        counts[status][day - start]++;
+                        marked.set(day);
+                    }
+                }
+            }
+            for (BitSet marked : markedByStudent.values()) {
+                for (int day = marked.nextSetBit(start); day >= 0; day = marked.nextSetBit(day + 1)) {
+                    counts[STUDENTS][day - start]++;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        for (int i = 0; i <= end - start; i++) {
+            if (counts[STUDENTS][i] > 0) {
+                result.add(new DailyCounts(epoch.plusDays(start + i),
+                        counts[PRESENT][i], counts[ABSENT][i], counts[LATE][i], counts[STUDENTS][i]));
+            }
+        }
+        return result;
+    }
+
+    long getLastAccess() {
+        return lastAccess;
+    }
+
+    boolean isLoading() {
+        lock.readLock().lock();
+        try {
+            return touchedWhileLoading != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a committed mark change. Returns false if the date falls outside the range
+     * the index can represent, in which case the index can no longer represent the tenant and must be dropped.
+     */
+    boolean applyChange(Long studentId, Long classId, LocalDate date, AttendanceStatus status) {
+        if (!isRepresentable(date)) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            if (touchedWhileLoading != null) {
+                touchedWhileLoading.add(List.of(studentId, classId, date));
+            }
+            set(studentId, classId, date, status);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a row read by the initial load, unless a newer committed change already set it.
+     * Returns false for a date the index cannot represent.
+     */
+    boolean applyLoaded(Long studentId, Long classId, LocalDate date, AttendanceStatus status) {
+        if (!isRepresentable(date)) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!touchedWhileLoading.contains(List.of(studentId, classId, date))) {
+                set(studentId, classId, date, status);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void finishLoading() {
+        lock.writeLock().lock();
+        try {
+            touchedWhileLoading = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void set(Long studentId, Long classId, LocalDate date, AttendanceStatus status) {
+        int day = (int) offset(date);
+        MarkKey key = new MarkKey(studentId, classId);
+        BitSet[] statuses = bitmaps.get(key);
+        if (statuses == null) {
+            if (status == null) {
+                return;
+            }
+            statuses = new BitSet[] {new BitSet(), new BitSet(), new BitSet()};
+            bitmaps.put(key, statuses);
+        }
+        statuses[PRESENT].clear(day);
+        statuses[ABSENT].clear(day);
+        statuses[LATE].clear(day);
+        if (status != null) {
+            statuses[statusIndex(status)].set(day);
+            lastDay = Math.max(lastDay, day);
+        }
+    }
+
+    private long offset(LocalDate date) {
+        return ChronoUnit.DAYS.between(epoch, date);
+    }
+
+    private boolean isRepresentable(LocalDate date) {
+        long day = offset(date);
+        return day >= 0 && day <= MAX_DAY;
+    }
+
+    private void touch() {
+        lastAccess = System.currentTimeMillis();
+    }
+
+    private static int statusIndex(AttendanceStatus status) {
+        return switch (status) {
+            case PRESENT -> PRESENT;
+            case ABSENT -> ABSENT;
+            case LATE -> LATE;
+        };
+    }
+
+    private record MarkKey(Long studentId, Long classId) {
+    }
+}
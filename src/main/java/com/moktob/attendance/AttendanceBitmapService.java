@@ -0,0 +1,181 @@
+package com.moktob.attendance;
+
+import com.moktob.common.AttendanceStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Keeps {@link AttendanceBitmapIndex}es for recently active tenants.
+ * <p>
+ * {@link #find(Long)} never blocks: a tenant that is not resident yet gets an empty result
+ * (callers fall back to SQL) and a background load. Committed changes arrive through
+ * {@link AttendanceDeltaEvent}. At most {@code attendance.bitmap.max-tenants} indexes are
+ * kept; the least recently read one is dropped to make room, and idle ones are swept.
+ */
+@Service
+@Slf4j
+public class AttendanceBitmapService {
+
+    private final AttendanceRepository attendanceRepository;
+    private final ThreadPoolTaskExecutor attendanceBitmapLoader;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ConcurrentMap<Long, AttendanceBitmapIndex> indexes = new ConcurrentHashMap<>();
+    private final Set<Long> loading = ConcurrentHashMap.newKeySet();
+
+    @Value("${attendance.bitmap.enabled:true}")
+    private boolean enabled;
+
+    @Value("${attendance.bitmap.max-tenants:50}")
+    private int maxTenants;
+
+    @Value("${attendance.bitmap.idle-minutes:30}")
+    private long idleMinutes;
+
+    public AttendanceBitmapService(AttendanceRepository attendanceRepository,
+                                   @Qualifier("attendanceBitmapLoader") ThreadPoolTaskExecutor attendanceBitmapLoader,
+                                   PlatformTransactionManager transactionManager) {
+        this.attendanceRepository = attendanceRepository;
+        this.attendanceBitmapLoader = attendanceBitmapLoader;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Returns the tenant's index if it is loaded, otherwise starts loading it and returns empty.
+     */
+    public Optional<AttendanceBitmapIndex> find(Long clientId) {
+        if (!enabled || clientId == null) {
+            return Optional.empty();
+        }
+        AttendanceBitmapIndex index = indexes.get(clientId);
+        if (index == null) {
+            startLoad(clientId);
+            return Optional.empty();
+        }
+        return index.isLoading() ? Optional.empty() : Optional.of(index);
+    }
+
+    @EventListener
+    public void onAttendanceDelta(AttendanceDeltaEvent event) {
+        AttendanceBitmapIndex index = indexes.get(event.clientId());
+        if (index == null) {
+            return;
+        }
+        for (AttendanceDeltaEvent.Mark mark : event.marks()) {
+            if (!index.applyChange(mark.studentId(), mark.classId(), mark.date(), mark.status())) {
+                // Back-dated before the tenant's epoch; rebuild on next read
+                indexes.remove(event.clientId(), index);
+                log.info("Dropped attendance bitmap index for client {}: mark on {} is out of range",
+                        event.clientId(), mark.date());
+                return;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${attendance.bitmap.sweep-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(idleMinutes);
+        indexes.forEach((clientId, index) -> {
+            if (!index.isLoading() && index.getLastAccess() < cutoff && indexes.remove(clientId, index)) {
+                log.debug("Evicted idle attendance bitmap index for client {}", clientId);
+            }
+        });
+    }
+
+    private void startLoad(Long clientId) {
+        if (!loading.add(clientId)) {
+            return;
+        }
+        try {
+            attendanceBitmapLoader.execute(() -> {
+                try {
+                    load(clientId);
+                } finally {
+                    loading.remove(clientId);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            loading.remove(clientId);
+            log.warn("Skipped loading attendance bitmap index for client {}: loader saturated", clientId);
+        }
+    }
+
+    private void load(Long clientId) {
+        long started = System.currentTimeMillis();
+        LocalDate earliest = attendanceRepository.findEarliestAttendanceDateByClientId(clientId);
+        AttendanceBitmapIndex index = new AttendanceBitmapIndex(earliest != null ? earliest : LocalDate.now());
+
+        // Registered before the rows are read, so changes committed from here on are either
+        // in the snapshot or delivered to the index by onAttendanceDelta
+        indexes.put(clientId, index);
+        makeRoom(clientId);
+        AtomicBoolean complete = new AtomicBoolean(true);
+        long[] rows = new long[1];
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<Object[]> marks = attendanceRepository.streamMarksByClientId(clientId)) {
+                    marks.forEach(row -> {
+                        Long studentId = (Long) row[0];
+                        Long classId = (Long) row[1];
+                        LocalDate date = (LocalDate) row[2];
+                        AttendanceStatus attendanceStatus = (AttendanceStatus) row[3];
+                        if (studentId == null || classId == null || date == null || attendanceStatus == null) {
+                            return;
+                        }
+                        if (!index.applyLoaded(studentId, classId, date, attendanceStatus)) {
+                            complete.set(false);
+                        }
+                        rows[0]++;
+                    });
+                }
+            });
+        } catch (RuntimeException e) {
+            indexes.remove(clientId, index);
+            log.error("Failed to load attendance bitmap index for client {}", clientId, e);
+            return;
+        }
+
+        if (!complete.get()) {
+            // A date too far from the epoch to index; keep serving this tenant from SQL
+            indexes.remove(clientId, index);
+            log.warn("Attendance for client {} spans more than the bitmap index can hold; using SQL", clientId);
+            return;
+        }
+        index.finishLoading();
+        log.info("Loaded attendance bitmap index for client {}: {} marks in {} ms",
+                clientId, rows[0], System.currentTimeMillis() - started);
+    }
+
+    private void makeRoom(Long loadingClientId) {
+        while (indexes.size() > maxTenants) {
+            Optional<Map.Entry<Long, AttendanceBitmapIndex>> coldest = indexes.entrySet().stream()
+                    .filter(entry -> !entry.getKey().equals(loadingClientId))
+                    .min(Comparator.comparingLong(entry -> entry.getValue().getLastAccess()));
+            if (coldest.isEmpty()) {
+                return;
+            }
+            indexes.remove(coldest.get().getKey(), coldest.get().getValue());
+            log.debug("Evicted attendance bitmap index for client {} to make room", coldest.get().getKey());
+        }
+    }
+}
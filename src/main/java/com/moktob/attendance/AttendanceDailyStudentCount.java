@@ -0,0 +1,38 @@
+package com.moktob.attendance;
+
+import com.moktob.common.BaseEntity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Per-tenant, per-day number of distinct students with a mark. Kept next to the per-class
+ * {@link AttendanceDailySummary} rows because a student in several classes has a mark in
+ * each, so adding up the per-class counts would count them more than once. Recounted by
+ * {@link AttendanceDailySummaryService} whenever a day gains or loses marks; databases that
+ * predate it are filled by a rebuild ({@code attendance.daily-summary.rebuild-on-startup}).
+ */
+@Entity
+@Table(name = "attendance_daily_student_count",
+        uniqueConstraints = @UniqueConstraint(name = "uk_attendance_daily_student_count",
+                columnNames = {"client_id", "summary_date"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class AttendanceDailyStudentCount extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "summary_date", nullable = false)
+    private LocalDate summaryDate;
+
+    @Column(name = "student_count", nullable = false)
+    private Long studentCount = 0L;
+}
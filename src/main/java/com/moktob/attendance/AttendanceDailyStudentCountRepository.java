@@ -0,0 +1,69 @@
+package com.moktob.attendance;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface AttendanceDailyStudentCountRepository extends JpaRepository<AttendanceDailyStudentCount, Long> {
+
+    /**
+     * Creates the row for the day if needed and locks it until the transaction ends, so
+     * concurrent writers to the same day recount one after the other.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO attendance_daily_student_count (client_id, summary_date, student_count, created_at, updated_at)
+        VALUES (:clientId, :date, 0, NOW(), NOW())
+        ON CONFLICT (client_id, summary_date) DO UPDATE SET updated_at = NOW()
+        """, nativeQuery = true)
+    int lockDay(@Param("clientId") Long clientId, @Param("date") LocalDate date);
+
+    /**
+     * Recounts the day's distinct students. Run after {@link #lockDay}: under READ COMMITTED
+     * this statement takes its snapshot once the lock is held, so it sees every mark
+     * committed by the writer that held the lock before.
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE attendance_daily_student_count SET
+            student_count = (SELECT COUNT(DISTINCT a.student_id) FROM attendance a
+                             WHERE a.client_id = :clientId AND a.attendance_date = :date),
+            updated_at = NOW()
+        WHERE client_id = :clientId AND summary_date = :date
+        """, nativeQuery = true)
+    int recount(@Param("clientId") Long clientId, @Param("date") LocalDate date);
+
+    @Modifying
+    @Query(value = """
+        DELETE FROM attendance_daily_student_count
+        WHERE client_id = :clientId AND summary_date BETWEEN :startDate AND :endDate
+        """, nativeQuery = true)
+    int deleteByClientIdAndSummaryDateBetween(@Param("clientId") Long clientId,
+                                              @Param("startDate") LocalDate startDate,
+                                              @Param("endDate") LocalDate endDate);
+
+    /**
+     * Recomputes the day rows for a date range. Upserts, so a day recounted by a concurrent
+     * write after the delete does not make the rebuild fail.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO attendance_daily_student_count (client_id, summary_date, student_count, created_at, updated_at)
+        SELECT a.client_id, a.attendance_date, COUNT(DISTINCT a.student_id), NOW(), NOW()
+        FROM attendance a
+        WHERE a.client_id = :clientId
+          AND a.attendance_date BETWEEN :startDate AND :endDate
+        GROUP BY a.client_id, a.attendance_date
+        ON CONFLICT (client_id, summary_date) DO UPDATE SET
+            student_count = EXCLUDED.student_count,
+            updated_at = NOW()
+        """, nativeQuery = true)
+    int rebuildFromAttendance(@Param("clientId") Long clientId,
+                              @Param("startDate") LocalDate startDate,
+                              @Param("endDate") LocalDate endDate);
+}
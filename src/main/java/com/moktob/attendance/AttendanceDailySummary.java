@@ -0,0 +1,48 @@
+package com.moktob.attendance;
+
+import com.moktob.common.BaseEntity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Per-tenant, per-class, per-day attendance rollup. Maintained incrementally by
+ * {@link AttendanceDailySummaryService} on every attendance write so dashboard
+ * queries scale with days x classes rather than raw attendance rows.
+ */
+@Entity
+@Table(name = "attendance_daily_summary",
+        uniqueConstraints = @UniqueConstraint(name = "uk_attendance_daily_summary",
+                columnNames = {"client_id", "class_id", "summary_date"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class AttendanceDailySummary extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "class_id", nullable = false)
+    private Long classId;
+
+    @Column(name = "summary_date", nullable = false)
+    private LocalDate summaryDate;
+
+    @Column(name = "present_count", nullable = false)
+    private Long presentCount = 0L;
+
+    @Column(name = "absent_count", nullable = false)
+    private Long absentCount = 0L;
+
+    @Column(name = "late_count", nullable = false)
+    private Long lateCount = 0L;
+
+    @Column(name = "student_count", nullable = false)
+    private Long studentCount = 0L;
+}
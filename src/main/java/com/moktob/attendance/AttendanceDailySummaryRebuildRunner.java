@@ -0,0 +1,28 @@
+package com.moktob.attendance;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-shot backfill of the attendance daily summary for every tenant. Enable with
+ * {@code --attendance.daily-summary.rebuild-on-startup=true}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "attendance.daily-summary.rebuild-on-startup", havingValue = "true")
+public class AttendanceDailySummaryRebuildRunner implements ApplicationRunner {
+
+    private final AttendanceDailySummaryService attendanceDailySummaryService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Rebuilding attendance daily summary for all clients");
+        int written = attendanceDailySummaryService.rebuildAll();
+        log.info("Attendance daily summary rebuild complete: {} rows written", written);
+    }
+}
@@ -0,0 +1,80 @@
+package com.moktob.attendance;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface AttendanceDailySummaryRepository extends JpaRepository<AttendanceDailySummary, Long> {
+
+    /**
+     * Atomically adds the given deltas to the rollup row for (client, class, date),
+     * creating it if needed. Runs as a single statement so concurrent roll calls
+     * for the same class never lose updates.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO attendance_daily_summary
+            (client_id, class_id, summary_date, present_count, absent_count, late_count, student_count, created_at, updated_at)
+        VALUES (:clientId, :classId, :date, :present, :absent, :late, :students, NOW(), NOW())
+        ON CONFLICT (client_id, class_id, summary_date) DO UPDATE SET
+            present_count = attendance_daily_summary.present_count + EXCLUDED.present_count,
+            absent_count = attendance_daily_summary.absent_count + EXCLUDED.absent_count,
+            late_count = attendance_daily_summary.late_count + EXCLUDED.late_count,
+            student_count = attendance_daily_summary.student_count + EXCLUDED.student_count,
+            updated_at = NOW()
+        """, nativeQuery = true)
+    int applyDelta(@Param("clientId") Long clientId,
+                   @Param("classId") Long classId,
+                   @Param("date") LocalDate date,
+                   @Param("present") long present,
+                   @Param("absent") long absent,
+                   @Param("late") long late,
+                   @Param("students") long students);
+
+    @Modifying
+    @Query(value = """
+        DELETE FROM attendance_daily_summary
+        WHERE client_id = :clientId AND summary_date BETWEEN :startDate AND :endDate
+        """, nativeQuery = true)
+    int deleteByClientIdAndSummaryDateBetween(@Param("clientId") Long clientId,
+                                              @Param("startDate") LocalDate startDate,
+                                              @Param("endDate") LocalDate endDate);
+
+    /**
+     * Recomputes the rollup rows for a date range. {@code student_count} counts marks, the
+     * same as {@link #applyDelta} does; {@code uk_attendance_mark} allows one mark per
+     * student, class and day, so that is also the number of students. Upserts, so a row
+     * created by a concurrent {@link #applyDelta} after the delete does not make the rebuild
+     * fail.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO attendance_daily_summary
+            (client_id, class_id, summary_date, present_count, absent_count, late_count, student_count, created_at, updated_at)
+        SELECT a.client_id, a.class_id, a.attendance_date,
+               COUNT(*) FILTER (WHERE a.status = 'PRESENT'),
+               COUNT(*) FILTER (WHERE a.status = 'ABSENT'),
+               COUNT(*) FILTER (WHERE a.status = 'LATE'),
+               COUNT(*),
+               NOW(), NOW()
+        FROM attendance a
+        WHERE a.client_id = :clientId
+          AND a.attendance_date BETWEEN :startDate AND :endDate
+          AND a.class_id IS NOT NULL
+        GROUP BY a.client_id, a.class_id, a.attendance_date
+        ON CONFLICT (client_id, class_id, summary_date) DO UPDATE SET
+            present_count = EXCLUDED.present_count,
+            absent_count = EXCLUDED.absent_count,
+            late_count = EXCLUDED.late_count,
+            student_count = EXCLUDED.student_count,
+            updated_at = NOW()
+        """, nativeQuery = true)
+    int rebuildFromAttendance(@Param("clientId") Long clientId,
+                              @Param("startDate") LocalDate startDate,
+                              @Param("endDate") LocalDate endDate);
+}
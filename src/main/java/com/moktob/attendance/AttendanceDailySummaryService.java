@@ -0,0 +1,268 @@
+package com.moktob.attendance;
+
+import com.moktob.common.AttendanceStatus;
+import com.moktob.core.Client;
+import com.moktob.core.ClientRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttendanceDailySummaryService {
+
+    private static final LocalDate REBUILD_FROM = LocalDate.of(1970, 1, 1);
+    private static final LocalDate REBUILD_TO = LocalDate.of(9999, 12, 31);
+
+    private final AttendanceDailySummaryRepository summaryRepository;
+    private final AttendanceDailyStudentCountRepository studentCountRepository;
+    private final ClientRepository clientRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AttendancePartitionService attendancePartitionService;
+
+    @Value("${attendance.daily-summary.rebuild-max-days:366}")
+    private int rebuildMaxDays;
+
+    /**
+     * Applies the rollup delta for a single attendance mark changing from {@code before}
+     * to {@code after}. Either side may be null for inserts and deletes. Must be called
+     * inside the transaction that writes the attendance row; the net counter changes and
+     * final mark states of the whole transaction are published as one
+     * {@link AttendanceDeltaEvent} after it commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(Long clientId, AttendanceSnapshot before, AttendanceSnapshot after) {
+        recordChanges(clientId, List.of(new AttendanceChange(before, after)));
+    }
+
+    /**
+     * {@link #recordChange} for many rows at once, with one rollup write per touched
+     * class and day instead of one per row.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChanges(Long clientId, List<AttendanceChange> changes) {
+        PendingDeltas pending = pendingDeltas(clientId);
+        Map<List<Object>, long[]> buckets = new LinkedHashMap<>();
+
+        for (AttendanceChange change : changes) {
+            AttendanceSnapshot before = change.before();
+            AttendanceSnapshot after = change.after();
+            if (before != null && !before.sameMark(after)) {
+                pending.mark(before, null);
+            }
+            if (after != null) {
+                pending.mark(after, after.status());
+            }
+
+            if (before != null && before.sameBucket(after)) {
+                if (before.status() != after.status()) {
+                    // Re-marking within the same class and day only flips the status counters
+                    accumulate(buckets, before, -1, 0);
+                    accumulate(buckets, after, 1, 0);
+                }
+                continue;
+            }
+            if (before != null) {
+                accumulate(buckets, before, -1, -1);
+            }
+            if (after != null) {
+                accumulate(buckets, after, 1, 1);
+            }
+        }
+
+        Set<LocalDate> recountDays = new TreeSet<>();
+        buckets.forEach((key, c) -> {
+            if (c[0] != 0 || c[1] != 0 || c[2] != 0 || c[3] != 0) {
+                summaryRepository.applyDelta(clientId, (Long) key.get(0), (LocalDate) key.get(1), c[0], c[1], c[2], c[3]);
+                pending.add(key, c);
+            }
+            if (c[3] != 0) {
+                recountDays.add((LocalDate) key.get(1));
+            }
+        });
+        // A day's distinct students cannot be derived from per-class deltas (the student may
+        // have a mark in another class), so days that gained or lost marks are recounted.
+        // Ascending order keeps concurrent writers from deadlocking on the day locks.
+        for (LocalDate day : recountDays) {
+            studentCountRepository.lockDay(clientId, day);
+            studentCountRepository.recount(clientId, day);
+        }
+    }
+
+    /**
+     * {@link #rebuild} for a caller-supplied range, as used by the API: both bounds are
+     * required and the range may span at most {@code attendance.daily-summary.rebuild-max-days}.
+     * Whole-history rebuilds stay with the startup runner.
+     */
+    @Transactional
+    public int rebuildRange(Long clientId, LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "startDate and endDate are required");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "endDate must not be before startDate");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) + 1 > rebuildMaxDays) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "The range may span at most " + rebuildMaxDays + " days");
+        }
+        return rebuild(clientId, startDate, endDate);
+    }
+
+    /**
+     * Recomputes the rollup for a tenant from raw attendance rows. Used for backfilling
+     * and for repairing drift; a null bound means "all history" on that side. Archived
+     * months are left as they are.
+     */
+    @Transactional
+    public int rebuild(Long clientId, LocalDate startDate, LocalDate endDate) {
+        LocalDate from = startDate != null ? startDate : REBUILD_FROM;
+        LocalDate to = endDate != null ? endDate : REBUILD_TO;
+
+        // Archived rows are no longer in attendance; their rollups are all that dashboards have
+        LocalDate archivedBefore = attendancePartitionService.archivedBefore();
+        if (archivedBefore != null && from.isBefore(archivedBefore)) {
+            from = archivedBefore;
+        }
+        if (to.isBefore(from)) {
+            return 0;
+        }
+
+        int removed = summaryRepository.deleteByClientIdAndSummaryDateBetween(clientId, from, to);
+        int written = summaryRepository.rebuildFromAttendance(clientId, from, to);
+        studentCountRepository.deleteByClientIdAndSummaryDateBetween(clientId, from, to);
+        studentCountRepository.rebuildFromAttendance(clientId, from, to);
+        log.info("Rebuilt attendance daily summary for client {} ({} to {}): {} rows removed, {} rows written",
+                clientId, from, to, removed, written);
+        return written;
+    }
+
+    @Transactional
+    public int rebuildAll() {
+        int written = 0;
+        for (Client client : clientRepository.findAll()) {
+            written += rebuild(client.getClientId(), null, null);
+        }
+        return written;
+    }
+
+    private static void accumulate(Map<List<Object>, long[]> buckets, AttendanceSnapshot snapshot, int delta,
+                                   int studentDelta) {
+        if (snapshot.classId() == null || snapshot.date() == null) {
+            return;
+        }
+        long[] c = buckets.computeIfAbsent(List.of(snapshot.classId(), snapshot.date()), k -> new long[4]);
+        if (snapshot.status() == AttendanceStatus.PRESENT) {
+            c[0] += delta;
+        } else if (snapshot.status() == AttendanceStatus.ABSENT) {
+            c[1] += delta;
+        } else if (snapshot.status() == AttendanceStatus.LATE) {
+            c[2] += delta;
+        }
+        c[3] += studentDelta;
+    }
+
+    private PendingDeltas pendingDeltas(Long clientId) {
+        PendingDeltas pending = (PendingDeltas) TransactionSynchronizationManager.getResource(PendingDeltas.class);
+        if (pending == null) {
+            pending = new PendingDeltas(clientId);
+            TransactionSynchronizationManager.bindResource(PendingDeltas.class, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    /**
+     * Per-transaction accumulator of rollup changes, keyed by class and day so a bulk save
+     * produces one delta per bucket rather than one per row, plus the last state of each
+     * touched mark.
+     */
+    private class PendingDeltas implements TransactionSynchronization {
+
+        private final Long clientId;
+        private final Map<List<Object>, long[]> counters = new LinkedHashMap<>();
+        private final Map<List<Object>, AttendanceDeltaEvent.Mark> marks = new LinkedHashMap<>();
+
+        PendingDeltas(Long clientId) {
+            this.clientId = clientId;
+        }
+
+        void mark(AttendanceSnapshot snapshot, AttendanceStatus status) {
+            if (snapshot.studentId() == null || snapshot.classId() == null || snapshot.date() == null) {
+                return;
+            }
+            List<Object> key = List.of(snapshot.studentId(), snapshot.classId(), snapshot.date());
+            marks.put(key, new AttendanceDeltaEvent.Mark(snapshot.studentId(), snapshot.classId(), snapshot.date(), status));
+        }
+
+        void add(List<Object> bucket, long[] delta) {
+            long[] c = counters.computeIfAbsent(bucket, k -> new long[4]);
+            for (int i = 0; i < c.length; i++) {
+                c[i] += delta[i];
+            }
+        }
+
+        @Override
+        public void afterCommit() {
+            List<AttendanceDeltaEvent.ClassDelta> deltas = new ArrayList<>();
+            counters.forEach((key, c) -> {
+                if (c[0] != 0 || c[1] != 0 || c[2] != 0 || c[3] != 0) {
+                    deltas.add(new AttendanceDeltaEvent.ClassDelta(
+                            (Long) key.get(0), (LocalDate) key.get(1), c[0], c[1], c[2], c[3]));
+                }
+            });
+            if (!deltas.isEmpty() || !marks.isEmpty()) {
+                eventPublisher.publishEvent(new AttendanceDeltaEvent(clientId, deltas, List.copyOf(marks.values())));
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(PendingDeltas.class);
+        }
+    }
+
+    /**
+     * One attendance row going from {@code before} to {@code after}; either may be null.
+     */
+    public record AttendanceChange(AttendanceSnapshot before, AttendanceSnapshot after) {
+    }
+
+    /**
+     * The rollup-relevant part of an attendance row, captured before it is mutated.
+     */
+    public record AttendanceSnapshot(Long studentId, Long classId, LocalDate date, AttendanceStatus status) {
+
+        public static AttendanceSnapshot of(Attendance attendance) {
+            return new AttendanceSnapshot(attendance.getStudentId(), attendance.getClassId(),
+                    attendance.getAttendanceDate(), attendance.getStatus());
+        }
+
+        boolean sameMark(AttendanceSnapshot other) {
+            return sameBucket(other) && Objects.equals(studentId, other.studentId);
+        }
+
+        boolean sameBucket(AttendanceSnapshot other) {
+            return other != null && Objects.equals(classId, other.classId) && Objects.equals(date, other.date);
+        }
+    }
+}
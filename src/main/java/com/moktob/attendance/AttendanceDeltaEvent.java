@@ -0,0 +1,24 @@
+package com.moktob.attendance;
+
+import com.moktob.common.AttendanceStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Attendance changes made by one committed transaction: net per-class, per-day counter
+ * changes and the final state of every touched mark. Published after commit by
+ * {@link AttendanceDailySummaryService}.
+ */
+public record AttendanceDeltaEvent(Long clientId, List<ClassDelta> deltas, List<Mark> marks) {
+
+    public record ClassDelta(Long classId, LocalDate date, long presentDelta, long absentDelta, long lateDelta,
+                             long studentDelta) {
+    }
+
+    /**
+     * A student's mark for a class and day after the transaction; a null status means the mark was removed.
+     */
+    public record Mark(Long studentId, Long classId, LocalDate date, AttendanceStatus status) {
+    }
+}
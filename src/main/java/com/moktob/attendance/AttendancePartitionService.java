@@ -0,0 +1,236 @@
+package com.moktob.attendance;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly range partitions of {@code attendance} (see schema.sql).
+ * <p>
+ * Partitions are named {@code attendance_pYYYY_MM}. The current month and the next
+ * {@code attendance.partitioning.months-ahead} months are created ahead of time, so new
+ * marks never land in the default partition in normal use. Months ending on or before
+ * {@code attendance.partitioning.archive-before} are detached from {@code attendance}
+ * and attached to {@code attendance_archive}, optionally moving to a separate
+ * tablespace. The entity and every JPQL query only see the hot months; the
+ * {@code attendance_all} view spans both. Archived months are closed: marks dated in
+ * them are rejected and the daily summary rebuild leaves their rollups alone.
+ * <p>
+ * Does nothing if the table is not partitioned (e.g. created by Hibernate).
+ */
+@Service
+@Slf4j
+public class AttendancePartitionService {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("attendance_p(\\d{4})_(\\d{2})");
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String IS_PARTITIONED = """
+        SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('attendance'))
+           AND to_regclass('attendance_archive') IS NOT NULL
+        """;
+
+    private static final String HOT_PARTITIONS = """
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = to_regclass('attendance')
+        ORDER BY c.relname
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor maintenanceExecutor;
+    private final LocalDate archiveBefore;
+    private final String archiveTablespace;
+    private volatile boolean active;
+
+    @Value("${attendance.partitioning.enabled:true}")
+    private boolean enabled;
+
+    @Value("${attendance.partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    public AttendancePartitionService(JdbcTemplate jdbcTemplate,
+                                      PlatformTransactionManager transactionManager,
+                                      ThreadPoolTaskExecutor maintenanceExecutor,
+                                      @Value("${attendance.partitioning.archive-before:}") String archiveBefore,
+                                      @Value("${attendance.partitioning.archive-tablespace:}") String archiveTablespace) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maintenanceExecutor = maintenanceExecutor;
+        this.archiveBefore = archiveBefore.isBlank() ? null : LocalDate.parse(archiveBefore);
+        if (!archiveTablespace.isBlank() && !IDENTIFIER.matcher(archiveTablespace).matches()) {
+            throw new IllegalArgumentException("Invalid attendance.partitioning.archive-tablespace: " + archiveTablespace);
+        }
+        this.archiveTablespace = archiveTablespace.isBlank() ? null : archiveTablespace;
+    }
+
+    /**
+     * True if {@code date} falls in a month that has been, or is due to be, archived.
+     */
+    public boolean isArchived(LocalDate date) {
+        LocalDate boundary = archivedBefore();
+        return boundary != null && date != null && date.isBefore(boundary);
+    }
+
+    /**
+     * Rejects writes to an archived month with 409.
+     */
+    public void requireWritable(LocalDate date) {
+        if (isArchived(date)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Attendance before " + archivedBefore() + " is archived and can no longer be changed");
+        }
+    }
+
+    /**
+     * True once the table is known to be partitioned, i.e. {@code attendance_all} exists.
+     */
+    public boolean isArchiveAvailable() {
+        return active;
+    }
+
+    /**
+     * First day that is not archived, or null if nothing is. Whole months only, and never
+     * past the start of the current month.
+     */
+    LocalDate archivedBefore() {
+        if (!active || archiveBefore == null) {
+            return null;
+        }
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+        LocalDate boundary = archiveBefore.withDayOfMonth(1);
+        return boundary.isBefore(currentMonth) ? boundary : currentMonth;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            active = Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_PARTITIONED, Boolean.class));
+        } catch (RuntimeException e) {
+            log.warn("Could not check attendance partitioning: {}", e.getMessage());
+        }
+        if (!active) {
+            log.info("Attendance table is not partitioned; partition maintenance is off");
+            return;
+        }
+        maintainPartitions();
+    }
+
+    /**
+     * Archiving can rewrite whole partitions, so it runs on {@code maintenanceExecutor}
+     * rather than holding a scheduler thread.
+     */
+    @Scheduled(cron = "${attendance.partitioning.cron:0 30 2 * * *}")
+    public void scheduleMaintenance() {
+        if (!active) {
+            return;
+        }
+        try {
+            maintenanceExecutor.execute(this::maintainPartitions);
+        } catch (TaskRejectedException e) {
+            log.warn("Skipped attendance partition maintenance: the previous run has not finished");
+        }
+    }
+
+    public void maintainPartitions() {
+        if (!active) {
+            return;
+        }
+        createUpcomingPartitions();
+        archiveClosedPartitions();
+    }
+
+    private void createUpcomingPartitions() {
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        for (int i = 0; i <= monthsAhead; i++, month = month.plusMonths(1)) {
+            String sql = "CREATE TABLE IF NOT EXISTS " + partitionName(month) + " PARTITION OF attendance"
+                    + " FOR VALUES FROM ('" + month + "') TO ('" + month.plusMonths(1) + "')";
+            try {
+                jdbcTemplate.execute(sql);
+            } catch (RuntimeException e) {
+                // Typically rows for that month already sit in attendance_default
+                log.error("Failed to create attendance partition {}", partitionName(month), e);
+            }
+        }
+    }
+
+    private void archiveClosedPartitions() {
+        LocalDate boundary = archivedBefore();
+        if (boundary == null) {
+            return;
+        }
+        List<String> partitions = jdbcTemplate.queryForList(HOT_PARTITIONS, String.class);
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            LocalDate month = LocalDate.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)), 1);
+            if (month.plusMonths(1).isAfter(boundary)) {
+                continue;
+            }
+            try {
+                archive(partition, month);
+            } catch (RuntimeException e) {
+                log.error("Failed to archive attendance partition {}", partition, e);
+            }
+        }
+    }
+
+    private void archive(String partition, LocalDate month) {
+        long started = System.currentTimeMillis();
+        String bound = partition + "_bound";
+        String from = "'" + month + "'";
+        String to = "'" + month.plusMonths(1) + "'";
+        try {
+            // A validated CHECK matching the bound lets ATTACH skip scanning the partition while
+            // it holds the lock on attendance_archive. NOT VALID plus VALIDATE does the scan
+            // without blocking reads or writes of attendance.
+            jdbcTemplate.execute("ALTER TABLE " + partition + " DROP CONSTRAINT IF EXISTS " + bound);
+            jdbcTemplate.execute("ALTER TABLE " + partition + " ADD CONSTRAINT " + bound
+                    + " CHECK (attendance_date >= " + from + " AND attendance_date < " + to + ") NOT VALID");
+            jdbcTemplate.execute("ALTER TABLE " + partition + " VALIDATE CONSTRAINT " + bound);
+
+            // Not CONCURRENTLY: that is not allowed while attendance has a default partition
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute("ALTER TABLE attendance DETACH PARTITION " + partition);
+                jdbcTemplate.execute("ALTER TABLE attendance_archive ATTACH PARTITION " + partition
+                        + " FOR VALUES FROM (" + from + ") TO (" + to + ")");
+            });
+        } finally {
+            // Redundant with the partition bound once attached
+            jdbcTemplate.execute("ALTER TABLE " + partition + " DROP CONSTRAINT IF EXISTS " + bound);
+        }
+        if (archiveTablespace != null) {
+            // Rewrites the partition; it is closed to writes by now, so the lock only blocks archive reads
+            jdbcTemplate.execute("ALTER TABLE " + partition + " SET TABLESPACE " + archiveTablespace);
+        }
+        log.info("Archived attendance partition {} in {} ms", partition, System.currentTimeMillis() - started);
+    }
+
+    private static String partitionName(LocalDate month) {
+        return "attendance_p" + month.format(PARTITION_SUFFIX);
+    }
+}
@@ -2,35 +2,51 @@ package com.moktob.attendance;
 
 import com.moktob.common.AttendanceStatus;
 import com.moktob.common.TenantContextHolder;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
-    List<Attendance> findByClientId(Long clientId);
+    @Query("SELECT a FROM Attendance a WHERE a.clientId = :clientId AND a.id < :beforeId ORDER BY a.id DESC")
+    List<Attendance> findPageByClientId(@Param("clientId") Long clientId, @Param("beforeId") Long beforeId, Pageable pageable);
     
-    @Query("SELECT a FROM Attendance a WHERE a.clientId = :clientId AND a.studentId = :studentId")
-    List<Attendance> findByClientIdAndStudentId(@Param("clientId") Long clientId, @Param("studentId") Long studentId);
+    @Query("SELECT a FROM Attendance a WHERE a.clientId = :clientId AND a.studentId = :studentId " +
+           "AND a.id < :beforeId ORDER BY a.id DESC")
+    List<Attendance> findPageByClientIdAndStudentId(@Param("clientId") Long clientId, @Param("studentId") Long studentId,
+                                                    @Param("beforeId") Long beforeId, Pageable pageable);
     
-    @Query("SELECT a FROM Attendance a WHERE a.clientId = :clientId AND a.classId = :classId")
-    List<Attendance> findByClientIdAndClassId(@Param("clientId") Long clientId, @Param("classId") Long classId);
+    @Query("SELECT a FROM Attendance a WHERE a.clientId = :clientId AND a.classId = :classId " +
+           "AND a.id < :beforeId ORDER BY a.id DESC")
+    List<Attendance> findPageByClientIdAndClassId(@Param("clientId") Long clientId, @Param("classId") Long classId,
+                                                  @Param("beforeId") Long beforeId, Pageable pageable);
     
-    @Query("SELECT a FROM Attendance a WHERE a.clientId = :clientId AND a.teacherId = :teacherId")
-    List<Attendance> findByClientIdAndTeacherId(@Param("clientId") Long clientId, @Param("teacherId") Long teacherId);
+    @Query("SELECT a FROM Attendance a WHERE a.clientId = :clientId AND a.teacherId = :teacherId " +
+           "AND a.id < :beforeId ORDER BY a.id DESC")
+    List<Attendance> findPageByClientIdAndTeacherId(@Param("clientId") Long clientId, @Param("teacherId") Long teacherId,
+                                                    @Param("beforeId") Long beforeId, Pageable pageable);
     
     Optional<Attendance> findByClientIdAndId(Long clientId, Long id);
     
     @Query("SELECT a FROM Attendance a WHERE a.clientId = :clientId AND a.attendanceDate = :date")
     List<Attendance> findByClientIdAndAttendanceDate(@Param("clientId") Long clientId, @Param("date") LocalDate date);
     
-    @Query("SELECT a FROM Attendance a WHERE a.clientId = :clientId AND a.status = :status")
-    List<Attendance> findByClientIdAndStatus(@Param("clientId") Long clientId, @Param("status") AttendanceStatus status);
+    @Query("SELECT a FROM Attendance a WHERE a.clientId = :clientId AND a.status = :status " +
+           "AND a.id < :beforeId ORDER BY a.id DESC")
+    List<Attendance> findPageByClientIdAndStatus(@Param("clientId") Long clientId, @Param("status") AttendanceStatus status,
+                                                 @Param("beforeId") Long beforeId, Pageable pageable);
     
     @Query("SELECT a FROM Attendance a WHERE a.clientId = :clientId AND a.attendanceDate BETWEEN :startDate AND :endDate")
     List<Attendance> findByClientIdAndAttendanceDateBetween(@Param("clientId") Long clientId, 
@@ -47,4 +63,35 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
                                                                               @Param("studentId") Long studentId, 
                                                                               @Param("classId") Long classId, 
                                                                               @Param("date") LocalDate date);
+
+    @Query("SELECT MIN(a.attendanceDate) FROM Attendance a WHERE a.clientId = :clientId")
+    LocalDate findEarliestAttendanceDateByClientId(@Param("clientId") Long clientId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT a.studentId, a.classId, a.attendanceDate, a.status FROM Attendance a WHERE a.clientId = :clientId")
+    Stream<Object[]> streamMarksByClientId(@Param("clientId") Long clientId);
+
+    @Query("SELECT a FROM Attendance a WHERE a.clientId = :clientId AND a.classId IN :classIds " +
+           "AND a.studentId IN :studentIds AND a.attendanceDate IN :dates")
+    List<Attendance> findMarks(@Param("clientId") Long clientId,
+                               @Param("classIds") Collection<Long> classIds,
+                               @Param("studentIds") Collection<Long> studentIds,
+                               @Param("dates") Collection<LocalDate> dates);
+
+    @Query("""
+        SELECT a FROM Attendance a
+        WHERE a.clientId = :clientId
+        AND (a.updatedAt > :since OR (a.updatedAt = :since AND a.id > :afterId))
+        ORDER BY a.updatedAt, a.id
+        """)
+    List<Attendance> findChangedSince(@Param("clientId") Long clientId, @Param("since") LocalDateTime since,
+                                      @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT a.studentId, a.classId, a.attendanceDate, a.status FROM Attendance a " +
+           "WHERE a.clientId = :clientId AND a.classId IN :classIds AND a.studentId IN :studentIds " +
+           "AND a.attendanceDate >= :since")
+    List<Object[]> findMarkStatesSince(@Param("clientId") Long clientId,
+                                       @Param("classIds") Collection<Long> classIds,
+                                       @Param("studentIds") Collection<Long> studentIds,
+                                       @Param("since") LocalDate since);
 }
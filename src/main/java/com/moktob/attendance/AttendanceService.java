@@ -1,24 +1,55 @@
 package com.moktob.attendance;
 
+import com.moktob.attendance.AttendanceDailySummaryService.AttendanceChange;
+import com.moktob.attendance.AttendanceDailySummaryService.AttendanceSnapshot;
 import com.moktob.common.AttendanceStatus;
+import com.moktob.common.CursorPaging;
+import com.moktob.common.TenantAggregate;
 import com.moktob.common.TenantContextHolder;
+import com.moktob.common.TenantDataChangedEvent;
+import com.moktob.education.StudentRepository;
 import com.moktob.dto.AttendanceRequest;
+import com.moktob.dto.AttendanceSheetRowDTO;
+import com.moktob.dto.BulkAttendanceResultDTO;
+import com.moktob.dto.CursorPageDTO;
+import com.moktob.sync.SyncEntityType;
+import com.moktob.sync.SyncTombstoneService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class AttendanceService {
     
     private final AttendanceRepository attendanceRepository;
+    private final AttendanceBatchRepository attendanceBatchRepository;
+    private final AttendanceDailySummaryService attendanceDailySummaryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AttendanceWriteBehindBuffer writeBehindBuffer;
+    private final StudentRepository studentRepository;
+    private final AttendancePartitionService attendancePartitionService;
+    private final SyncTombstoneService syncTombstoneService;
     
-    public List<Attendance> getAllAttendance() {
+    public CursorPageDTO<Attendance> getAllAttendance(String cursor, int limit) {
         Long clientId = TenantContextHolder.getTenantId();
-        return attendanceRepository.findByClientId(clientId);
+        List<Attendance> rows = attendanceRepository.findPageByClientId(clientId,
+                CursorPaging.beforeId(cursor), CursorPaging.rows(limit));
+        return CursorPaging.byId(rows, limit, Attendance::getId);
     }
     
     public Optional<Attendance> getAttendanceById(Long id) {
@@ -26,13 +57,23 @@ public class AttendanceService {
         return attendanceRepository.findByClientIdAndId(clientId, id);
     }
 
+    @Transactional
     public Attendance saveAttendance(AttendanceRequest attendanceRequest) {
         Long clientId = TenantContextHolder.getTenantId();
+        if (attendanceRequest.getId() == null) {
+            // One mark per student, class and day (uk_attendance_mark): marking again updates
+            // the existing mark, including one inserted concurrently, as the bulk upsert does
+            saveBulkAttendance(List.of(attendanceRequest));
+            return attendanceRepository.findByClientIdAndStudentIdAndClassIdAndAttendanceDate(clientId,
+                            attendanceRequest.getStudentId(), attendanceRequest.getClassId(),
+                            attendanceRequest.getAttendanceDate())
+                    .orElseThrow(() -> new RuntimeException("Attendance not saved"));
+        }
+        attendancePartitionService.requireWritable(attendanceRequest.getAttendanceDate());
 
-        Attendance attendance = attendanceRequest.getId() != null
-                ? attendanceRepository.findByClientIdAndId(clientId, attendanceRequest.getId())
-                .orElseThrow(() -> new RuntimeException("Attendance not found"))
-                : new Attendance();
+        Attendance attendance = attendanceRepository.findByClientIdAndId(clientId, attendanceRequest.getId())
+                .orElseThrow(() -> new RuntimeException("Attendance not found"));
+        AttendanceSnapshot before = AttendanceSnapshot.of(attendance);
 
         attendance.setStudentId(attendanceRequest.getStudentId());
         attendance.setClassId(attendanceRequest.getClassId());
@@ -41,27 +82,43 @@ public class AttendanceService {
         attendance.setStatus(attendanceRequest.getStatus());
         attendance.setClientId(clientId);
 
-        return attendanceRepository.save(attendance);
+        Attendance saved = attendanceRepository.save(attendance);
+        attendanceDailySummaryService.recordChange(clientId, before, AttendanceSnapshot.of(saved));
+        eventPublisher.publishEvent(new TenantDataChangedEvent(clientId, TenantAggregate.ATTENDANCE));
+        return saved;
     }
 
 
+    @Transactional
     public void deleteAttendance(Long id) {
-        attendanceRepository.deleteById(id);
+        Long clientId = TenantContextHolder.getTenantId();
+        attendanceRepository.findByClientIdAndId(clientId, id).ifPresent(attendance -> {
+            attendanceRepository.delete(attendance);
+            attendanceDailySummaryService.recordChange(clientId, AttendanceSnapshot.of(attendance), null);
+            syncTombstoneService.recordDeletion(SyncEntityType.ATTENDANCE, id);
+            eventPublisher.publishEvent(new TenantDataChangedEvent(clientId, TenantAggregate.ATTENDANCE));
+        });
     }
     
-    public List<Attendance> getAttendanceByStudent(Long studentId) {
+    public CursorPageDTO<Attendance> getAttendanceByStudent(Long studentId, String cursor, int limit) {
         Long clientId = TenantContextHolder.getTenantId();
-        return attendanceRepository.findByClientIdAndStudentId(clientId, studentId);
+        List<Attendance> rows = attendanceRepository.findPageByClientIdAndStudentId(clientId, studentId,
+                CursorPaging.beforeId(cursor), CursorPaging.rows(limit));
+        return CursorPaging.byId(rows, limit, Attendance::getId);
     }
     
-    public List<Attendance> getAttendanceByClass(Long classId) {
+    public CursorPageDTO<Attendance> getAttendanceByClass(Long classId, String cursor, int limit) {
         Long clientId = TenantContextHolder.getTenantId();
-        return attendanceRepository.findByClientIdAndClassId(clientId, classId);
+        List<Attendance> rows = attendanceRepository.findPageByClientIdAndClassId(clientId, classId,
+                CursorPaging.beforeId(cursor), CursorPaging.rows(limit));
+        return CursorPaging.byId(rows, limit, Attendance::getId);
     }
     
-    public List<Attendance> getAttendanceByTeacher(Long teacherId) {
+    public CursorPageDTO<Attendance> getAttendanceByTeacher(Long teacherId, String cursor, int limit) {
         Long clientId = TenantContextHolder.getTenantId();
-        return attendanceRepository.findByClientIdAndTeacherId(clientId, teacherId);
+        List<Attendance> rows = attendanceRepository.findPageByClientIdAndTeacherId(clientId, teacherId,
+                CursorPaging.beforeId(cursor), CursorPaging.rows(limit));
+        return CursorPaging.byId(rows, limit, Attendance::getId);
     }
     
     public List<Attendance> getAttendanceByDate(LocalDate date) {
@@ -69,9 +126,11 @@ public class AttendanceService {
         return attendanceRepository.findByClientIdAndAttendanceDate(clientId, date);
     }
     
-    public List<Attendance> getAttendanceByStatus(AttendanceStatus status) {
+    public CursorPageDTO<Attendance> getAttendanceByStatus(AttendanceStatus status, String cursor, int limit) {
         Long clientId = TenantContextHolder.getTenantId();
-        return attendanceRepository.findByClientIdAndStatus(clientId, status);
+        List<Attendance> rows = attendanceRepository.findPageByClientIdAndStatus(clientId, status,
+                CursorPaging.beforeId(cursor), CursorPaging.rows(limit));
+        return CursorPaging.byId(rows, limit, Attendance::getId);
     }
     
     public List<Attendance> getAttendanceByDateRange(LocalDate startDate, LocalDate endDate) {
@@ -81,35 +140,156 @@ public class AttendanceService {
     
     public List<Attendance> getAttendanceByDateAndClass(LocalDate date, Long classId) {
         Long clientId = TenantContextHolder.getTenantId();
-        if (classId != null) {
-            return attendanceRepository.findByClientIdAndAttendanceDateAndClassId(clientId, date, classId);
-        } else {
-            return attendanceRepository.findByClientIdAndAttendanceDate(clientId, date);
+        List<Attendance> stored = classId != null
+                ? attendanceRepository.findByClientIdAndAttendanceDateAndClassId(clientId, date, classId)
+                : attendanceRepository.findByClientIdAndAttendanceDate(clientId, date);
+        // Include marks accepted by the write-behind queue but not yet written
+        return writeBehindBuffer.overlay(clientId, date, classId, stored);
+    }
+
+    /**
+     * The class's current roster with each student's mark for the date, if any. Reads only
+     * the class's students and that day's rows for the class, so the cost follows class size.
+     */
+    public List<AttendanceSheetRowDTO> getAttendanceSheet(Long classId, LocalDate date) {
+        Long clientId = TenantContextHolder.getTenantId();
+        Map<Long, Attendance> marks = new HashMap<>();
+        for (Attendance attendance : getAttendanceByDateAndClass(date, classId)) {
+            marks.put(attendance.getStudentId(), attendance);
         }
+
+        List<Object[]> roster = studentRepository.findRosterByClientIdAndClassId(clientId, classId);
+        List<AttendanceSheetRowDTO> sheet = new ArrayList<>(roster.size());
+        for (Object[] row : roster) {
+            Long studentId = (Long) row[0];
+            Attendance mark = marks.get(studentId);
+            sheet.add(new AttendanceSheetRowDTO(
+                    studentId,
+                    (String) row[1],
+                    (String) row[2],
+                    (String) row[3],
+                    mark != null ? mark.getId() : null,
+                    mark != null ? mark.getStatus() : null,
+                    mark != null ? mark.getRemarks() : null));
+        }
+        return sheet;
     }
     
-    public List<Attendance> saveBulkAttendance(List<AttendanceRequest> attendanceRequests) {
+    /**
+     * Upserts a roll call in one transaction. Existing marks are read with one query and
+     * changed ones are flushed as batched UPDATEs. New marks go out as one JDBC batch, and
+     * the rollup gets one write per class and day. If the same mark appears twice, the
+     * last one wins.
+     */
+    @Transactional
+    public BulkAttendanceResultDTO saveBulkAttendance(List<AttendanceRequest> attendanceRequests) {
         Long clientId = TenantContextHolder.getTenantId();
-        
-        return attendanceRequests.stream()
-                .map(request -> {
-                    // Check if attendance already exists for this student, class, and date
-                    Optional<Attendance> existingAttendance = attendanceRepository
-                            .findByClientIdAndStudentIdAndClassIdAndAttendanceDate(
-                                    clientId, request.getStudentId(), request.getClassId(), request.getAttendanceDate());
-                    
-                    Attendance attendance = existingAttendance.orElse(new Attendance());
-                    
-                    attendance.setStudentId(request.getStudentId());
-                    attendance.setClassId(request.getClassId());
-                    attendance.setTeacherId(request.getTeacherId());
-                    attendance.setAttendanceDate(request.getAttendanceDate());
-                    attendance.setStatus(request.getStatus());
-                    attendance.setRemarks(request.getRemarks());
-                    attendance.setClientId(clientId);
-                    
-                    return attendanceRepository.save(attendance);
-                })
-                .toList();
+
+        Map<MarkKey, AttendanceRequest> requestsByMark = new LinkedHashMap<>();
+        for (AttendanceRequest request : attendanceRequests) {
+            attendancePartitionService.requireWritable(request.getAttendanceDate());
+            requestsByMark.put(MarkKey.of(request), request);
+        }
+
+        List<AttendanceChange> changes = new ArrayList<>();
+        BulkAttendanceResultDTO result = new BulkAttendanceResultDTO();
+        List<Attendance> newRows = applyToExisting(clientId, requestsByMark, changes, result);
+
+        List<Attendance> conflicted = attendanceBatchRepository.insertIgnoringConflicts(newRows);
+        Set<Attendance> skipped = Collections.newSetFromMap(new IdentityHashMap<>());
+        skipped.addAll(conflicted);
+        for (Attendance row : newRows) {
+            if (!skipped.contains(row)) {
+                changes.add(new AttendanceChange(null, AttendanceSnapshot.of(row)));
+            }
+        }
+        result.setInserted(newRows.size() - conflicted.size());
+
+        if (!conflicted.isEmpty()) {
+            // Marks inserted by a concurrent request after our lookup: update them instead
+            Map<MarkKey, AttendanceRequest> retry = new LinkedHashMap<>();
+            conflicted.forEach(row -> retry.put(MarkKey.of(row), requestsByMark.get(MarkKey.of(row))));
+            applyToExisting(clientId, retry, changes, result);
+        }
+
+        if (!changes.isEmpty()) {
+            attendanceDailySummaryService.recordChanges(clientId, changes);
+            eventPublisher.publishEvent(new TenantDataChangedEvent(clientId, TenantAggregate.ATTENDANCE));
+        }
+        return result;
+    }
+
+    /**
+     * Updates the managed entities for marks that already exist (flushed as batched UPDATEs
+     * at commit) and returns new, unsaved rows for the ones that do not.
+     */
+    private List<Attendance> applyToExisting(Long clientId, Map<MarkKey, AttendanceRequest> requestsByMark,
+                                             List<AttendanceChange> changes, BulkAttendanceResultDTO result) {
+        Map<MarkKey, Attendance> existingByMark = findExistingMarks(clientId, requestsByMark.keySet());
+        List<Attendance> newRows = new ArrayList<>();
+
+        requestsByMark.forEach((mark, request) -> {
+            Attendance existing = existingByMark.get(mark);
+            if (existing == null) {
+                Attendance attendance = new Attendance();
+                copyRequest(request, attendance);
+                attendance.setClientId(clientId);
+                newRows.add(attendance);
+            } else if (existing.getStatus() == request.getStatus()
+                    && Objects.equals(existing.getRemarks(), request.getRemarks())
+                    && Objects.equals(existing.getTeacherId(), request.getTeacherId())) {
+                result.setUnchanged(result.getUnchanged() + 1);
+            } else {
+                AttendanceSnapshot before = AttendanceSnapshot.of(existing);
+                copyRequest(request, existing);
+                changes.add(new AttendanceChange(before, AttendanceSnapshot.of(existing)));
+                result.setUpdated(result.getUpdated() + 1);
+            }
+        });
+        return newRows;
+    }
+
+    private Map<MarkKey, Attendance> findExistingMarks(Long clientId, Set<MarkKey> marks) {
+        if (marks.isEmpty()) {
+            return Map.of();
+        }
+        Set<Long> classIds = new HashSet<>();
+        Set<Long> studentIds = new HashSet<>();
+        Set<LocalDate> dates = new HashSet<>();
+        for (MarkKey mark : marks) {
+            classIds.add(mark.classId());
+            studentIds.add(mark.studentId());
+            dates.add(mark.date());
+        }
+
+        // The IN lists select a superset of the requested marks; keep only exact matches
+        Map<MarkKey, Attendance> existingByMark = new HashMap<>();
+        for (Attendance attendance : attendanceRepository.findMarks(clientId, classIds, studentIds, dates)) {
+            MarkKey mark = MarkKey.of(attendance);
+            if (marks.contains(mark)) {
+                existingByMark.put(mark, attendance);
+            }
+        }
+        return existingByMark;
+    }
+
+    private static void copyRequest(AttendanceRequest request, Attendance attendance) {
+        attendance.setStudentId(request.getStudentId());
+        attendance.setClassId(request.getClassId());
+        attendance.setTeacherId(request.getTeacherId());
+        attendance.setAttendanceDate(request.getAttendanceDate());
+        attendance.setStatus(request.getStatus());
+        attendance.setRemarks(request.getRemarks());
+    }
+
+    private record MarkKey(Long studentId, Long classId, LocalDate date) {
+
+        static MarkKey of(AttendanceRequest request) {
+            return new MarkKey(request.getStudentId(), request.getClassId(), request.getAttendanceDate());
+        }
+
+        static MarkKey of(Attendance attendance) {
+            return new MarkKey(attendance.getStudentId(), attendance.getClassId(), attendance.getAttendanceDate());
+        }
     }
 }
@@ -0,0 +1,361 @@
+package com.moktob.attendance;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moktob.common.TenantContextHolder;
+import com.moktob.dto.AttendanceMarkFailureDTO;
+import com.moktob.dto.AttendanceReceiptDTO;
+import com.moktob.dto.AttendanceRequest;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Optional write-behind queue for attendance marks ({@code attendance.write-behind.enabled}).
+ * <p>
+ * Accepted marks are held per (tenant, student, class, date); a newer mark for the same key
+ * replaces the queued one, so repeated taps during roll call cost one write. The queue is
+ * bounded and rejects new work with 503 when full. {@link AttendanceWriteBehindFlusher}
+ * drains it in batches. Marks stay visible to {@link #overlay} from acceptance until their
+ * batch has committed, so reads reflect the caller's own writes.
+ * <p>
+ * A mark is only dropped if it can never be written (a validation or constraint failure),
+ * and is then listed on its receipt. Marks that could not be written because the database
+ * was unavailable are queued again, and any still unwritten at shutdown are saved to
+ * {@code spool-file} and queued again on the next start.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttendanceWriteBehindBuffer {
+
+    public enum ReceiptStatus {
+        PENDING,
+        WRITTEN,
+        FAILED
+    }
+
+    record PendingMark(String receiptId, Long clientId, AttendanceRequest request) {
+    }
+
+    private record MarkKey(Long clientId, Long studentId, Long classId, LocalDate date) {
+
+        static MarkKey of(PendingMark mark) {
+            AttendanceRequest request = mark.request();
+            return new MarkKey(mark.clientId(), request.getStudentId(), request.getClassId(), request.getAttendanceDate());
+        }
+    }
+
+    private static final class Receipt {
+        private final Long clientId;
+        private final int marks;
+        private final AtomicInteger outstanding;
+        private final Queue<AttendanceMarkFailureDTO> failures = new ConcurrentLinkedQueue<>();
+        private volatile boolean failed;
+        private volatile long completedAt;
+
+        Receipt(Long clientId, int marks) {
+            this.clientId = clientId;
+            this.marks = marks;
+            this.outstanding = new AtomicInteger(marks);
+        }
+
+        ReceiptStatus status() {
+            if (outstanding.get() > 0) {
+                return ReceiptStatus.PENDING;
+            }
+            return failed ? ReceiptStatus.FAILED : ReceiptStatus.WRITTEN;
+        }
+    }
+
+    private final AttendancePartitionService attendancePartitionService;
+    private final ObjectMapper objectMapper;
+
+    private final ConcurrentMap<MarkKey, PendingMark> pending = new ConcurrentHashMap<>();
+    private final ConcurrentMap<MarkKey, PendingMark> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Receipt> receipts = new ConcurrentHashMap<>();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    @Value("${attendance.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${attendance.write-behind.capacity:20000}")
+    private int capacity;
+
+    @Value("${attendance.write-behind.receipt-ttl-minutes:60}")
+    private long receiptTtlMinutes;
+
+    @Value("${attendance.write-behind.spool-file:data/attendance-write-behind.json}")
+    private String spoolFile;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues the current tenant's marks and returns a receipt for them. The whole request is
+     * rejected if the queue cannot take it.
+     */
+    public AttendanceReceiptDTO accept(List<AttendanceRequest> requests) {
+        Long clientId = TenantContextHolder.getTenantId();
+        if (clientId == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "No tenant context");
+        }
+        for (AttendanceRequest request : requests) {
+            if (request.getStudentId() == null || request.getClassId() == null
+                    || request.getAttendanceDate() == null || request.getStatus() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "studentId, classId, attendanceDate and status are required");
+            }
+            attendancePartitionService.requireWritable(request.getAttendanceDate());
+        }
+        if (closed.get()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Attendance queue is shutting down");
+        }
+        if (pending.size() + requests.size() > capacity) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Attendance queue is full, retry shortly");
+        }
+
+        String receiptId = UUID.randomUUID().toString();
+        Receipt receipt = new Receipt(clientId, requests.size());
+        receipts.put(receiptId, receipt);
+        for (AttendanceRequest request : requests) {
+            PendingMark mark = new PendingMark(receiptId, clientId, request);
+            PendingMark superseded = pending.put(MarkKey.of(mark), mark);
+            if (superseded != null) {
+                // The newer mark carries the intent of the older one
+                resolve(superseded, true);
+            }
+        }
+        return new AttendanceReceiptDTO(receiptId, receipt.status().name(), requests.size(), List.of());
+    }
+
+    public Optional<AttendanceReceiptDTO> getReceipt(String receiptId) {
+        Receipt receipt = receipts.get(receiptId);
+        if (receipt == null || !Objects.equals(receipt.clientId, TenantContextHolder.getTenantId())) {
+            return Optional.empty();
+        }
+        return Optional.of(new AttendanceReceiptDTO(receiptId, receipt.status().name(), receipt.marks,
+                List.copyOf(receipt.failures)));
+    }
+
+    /**
+     * Returns {@code rows} with the tenant's queued and in-flight marks for the date (and
+     * class, if given) applied on top. Rows are copied, never modified.
+     */
+    public List<Attendance> overlay(Long clientId, LocalDate date, Long classId, List<Attendance> rows) {
+        if (!enabled || (pending.isEmpty() && inFlight.isEmpty())) {
+            return rows;
+        }
+        Map<List<Long>, PendingMark> overlay = new HashMap<>();
+        collect(inFlight, clientId, date, classId, overlay);
+        collect(pending, clientId, date, classId, overlay);
+        if (overlay.isEmpty()) {
+            return rows;
+        }
+
+        List<Attendance> result = new ArrayList<>(rows.size() + overlay.size());
+        for (Attendance row : rows) {
+            PendingMark mark = overlay.remove(List.of(row.getStudentId(), row.getClassId()));
+            result.add(mark != null ? toAttendance(mark, row) : row);
+        }
+        overlay.values().forEach(mark -> result.add(toAttendance(mark, null)));
+        return result;
+    }
+
+    /**
+     * Moves up to {@code max} queued marks to in-flight and returns them for writing.
+     */
+    List<PendingMark> drain(int max) {
+        List<PendingMark> batch = new ArrayList<>();
+        Iterator<Map.Entry<MarkKey, PendingMark>> entries = pending.entrySet().iterator();
+        while (entries.hasNext() && batch.size() < max) {
+            Map.Entry<MarkKey, PendingMark> entry = entries.next();
+            inFlight.put(entry.getKey(), entry.getValue());
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                batch.add(entry.getValue());
+            } else {
+                // Replaced by a newer mark since we read it; leave that one queued
+                inFlight.remove(entry.getKey(), entry.getValue());
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Marks in-flight marks as written.
+     */
+    void complete(List<PendingMark> marks) {
+        for (PendingMark mark : marks) {
+            inFlight.remove(MarkKey.of(mark), mark);
+            resolve(mark, true);
+        }
+    }
+
+    /**
+     * Drops an in-flight mark that can never be written, recording why on its receipt.
+     */
+    void reject(PendingMark mark, String reason) {
+        inFlight.remove(MarkKey.of(mark), mark);
+        Receipt receipt = receipts.get(mark.receiptId());
+        if (receipt != null) {
+            AttendanceRequest request = mark.request();
+            receipt.failures.add(new AttendanceMarkFailureDTO(request.getStudentId(), request.getClassId(),
+                    request.getAttendanceDate(), reason));
+        }
+        resolve(mark, false);
+    }
+
+    /**
+     * Puts in-flight marks back in the queue after a write that may succeed later. A mark
+     * replaced by a newer one in the meantime is resolved by that one instead.
+     */
+    void requeue(List<PendingMark> marks) {
+        for (PendingMark mark : marks) {
+            MarkKey key = MarkKey.of(mark);
+            if (pending.putIfAbsent(key, mark) != null) {
+                resolve(mark, true);
+            }
+            inFlight.remove(key, mark);
+        }
+    }
+
+    /**
+     * Saves every unwritten mark to {@code spool-file}, for when the queue cannot be drained
+     * before shutdown.
+     */
+    void spool() {
+        List<PendingMark> marks = new ArrayList<>(inFlight.values());
+        marks.addAll(pending.values());
+        if (marks.isEmpty()) {
+            return;
+        }
+        Path path = Path.of(spoolFile).toAbsolutePath();
+        try {
+            Files.createDirectories(path.getParent());
+            Path temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+            objectMapper.writeValue(temp.toFile(), marks);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.warn("Saved {} unwritten attendance marks to {}; they are queued again on the next start",
+                    marks.size(), path);
+        } catch (IOException e) {
+            log.error("Could not save {} unwritten attendance marks to {}: {}", marks.size(), path, e.getMessage());
+            marks.forEach(mark -> log.error("Unsaved attendance mark for client {}: {}", mark.clientId(), mark.request()));
+        }
+    }
+
+    /**
+     * Queues the marks saved by {@link #spool()} at the last shutdown, under their original
+     * receipts.
+     */
+    @PostConstruct
+    void restoreSpooled() {
+        Path path = Path.of(spoolFile).toAbsolutePath();
+        if (!enabled || !Files.exists(path)) {
+            return;
+        }
+        List<PendingMark> marks;
+        try {
+            marks = objectMapper.readValue(path.toFile(), new TypeReference<List<PendingMark>>() {});
+        } catch (IOException e) {
+            log.error("Could not read unwritten attendance marks from {}, left in place: {}", path, e.getMessage());
+            return;
+        }
+        Map<String, List<PendingMark>> byReceipt = new HashMap<>();
+        marks.forEach(mark -> byReceipt.computeIfAbsent(mark.receiptId(), id -> new ArrayList<>()).add(mark));
+        byReceipt.forEach((receiptId, receiptMarks) ->
+                receipts.put(receiptId, new Receipt(receiptMarks.get(0).clientId(), receiptMarks.size())));
+        marks.forEach(mark -> {
+            if (pending.putIfAbsent(MarkKey.of(mark), mark) != null) {
+                resolve(mark, true);
+            }
+        });
+        try {
+            Files.delete(path);
+        } catch (IOException e) {
+            log.error("Could not delete {} after queueing its marks: {}", path, e.getMessage());
+        }
+        log.info("Queued {} attendance marks saved at the last shutdown", marks.size());
+    }
+
+    void close() {
+        closed.set(true);
+    }
+
+    int size() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${attendance.write-behind.receipt-sweep-ms:60000}")
+    public void evictCompletedReceipts() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(receiptTtlMinutes);
+        receipts.values().removeIf(receipt -> receipt.completedAt > 0 && receipt.completedAt < cutoff);
+    }
+
+    private void resolve(PendingMark mark, boolean written) {
+        Receipt receipt = receipts.get(mark.receiptId());
+        if (receipt == null) {
+            return;
+        }
+        if (!written) {
+            receipt.failed = true;
+        }
+        if (receipt.outstanding.decrementAndGet() == 0) {
+            receipt.completedAt = System.currentTimeMillis();
+        }
+    }
+
+    private static void collect(Map<MarkKey, PendingMark> marks, Long clientId, LocalDate date, Long classId,
+                                Map<List<Long>, PendingMark> into) {
+        marks.forEach((key, mark) -> {
+            if (key.clientId().equals(clientId) && key.date().equals(date)
+                    && (classId == null || key.classId().equals(classId))) {
+                into.put(List.of(key.studentId(), key.classId()), mark);
+            }
+        });
+    }
+
+    private static Attendance toAttendance(PendingMark mark, Attendance stored) {
+        AttendanceRequest request = mark.request();
+        Attendance attendance = new Attendance();
+        attendance.setId(stored != null ? stored.getId() : null);
+        attendance.setClientId(mark.clientId());
+        attendance.setStudentId(request.getStudentId());
+        attendance.setClassId(request.getClassId());
+        attendance.setTeacherId(request.getTeacherId());
+        attendance.setAttendanceDate(request.getAttendanceDate());
+        attendance.setStatus(request.getStatus());
+        attendance.setRemarks(request.getRemarks());
+        if (stored != null) {
+            attendance.setCreatedAt(stored.getCreatedAt());
+            attendance.setUpdatedAt(stored.getUpdatedAt());
+        }
+        return attendance;
+    }
+}
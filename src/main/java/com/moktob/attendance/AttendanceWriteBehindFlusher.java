@@ -0,0 +1,186 @@
+package com.moktob.attendance;
+
+import com.moktob.attendance.AttendanceWriteBehindBuffer.PendingMark;
+import com.moktob.common.TenantContext;
+import com.moktob.common.TenantContextHolder;
+import com.moktob.dto.AttendanceRequest;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Writes queued attendance marks through {@link AttendanceService#saveBulkAttendance}, one
+ * batch per tenant, and drains the queue before the application context closes.
+ * <p>
+ * When the database is unavailable (connection loss, lock or statement timeout, failover)
+ * the batch goes back in the queue and flushing pauses with exponential backoff, from
+ * {@code retry-base-ms} up to {@code retry-max-ms}. A batch that fails for any other reason
+ * is retried one mark at a time, and only the marks that fail on their own are rejected.
+ * Marks still queued after {@code shutdown-attempts} flushes at shutdown are spooled to disk.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AttendanceWriteBehindFlusher {
+
+    private final AttendanceWriteBehindBuffer buffer;
+    private final AttendanceService attendanceService;
+
+    @Value("${attendance.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${attendance.write-behind.retry-base-ms:1000}")
+    private long retryBaseMs;
+
+    @Value("${attendance.write-behind.retry-max-ms:30000}")
+    private long retryMaxMs;
+
+    @Value("${attendance.write-behind.shutdown-attempts:3}")
+    private int shutdownAttempts;
+
+    // Guarded by this
+    private int consecutiveFailures;
+    private long retryAt;
+
+    @Scheduled(fixedDelayString = "${attendance.write-behind.flush-interval-ms:500}")
+    public void flush() {
+        if (buffer.isEnabled()) {
+            flushPending(false);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        if (!buffer.isEnabled()) {
+            return;
+        }
+        buffer.close();
+        log.info("Flushing {} queued attendance marks before shutdown", buffer.size());
+        for (int attempt = 1; attempt <= shutdownAttempts && buffer.size() > 0; attempt++) {
+            if (attempt > 1 && !pause(Math.min(retryBaseMs * attempt, retryMaxMs))) {
+                break;
+            }
+            flushPending(true);
+        }
+        buffer.spool();
+    }
+
+    private synchronized void flushPending(boolean ignoreBackoff) {
+        if (!ignoreBackoff && System.currentTimeMillis() < retryAt) {
+            return;
+        }
+        List<PendingMark> batch;
+        while (!(batch = buffer.drain(batchSize)).isEmpty()) {
+            Map<Long, List<PendingMark>> byClient = batch.stream()
+                    .collect(Collectors.groupingBy(PendingMark::clientId, LinkedHashMap::new, Collectors.toList()));
+            boolean unavailable = false;
+            for (Map.Entry<Long, List<PendingMark>> entry : byClient.entrySet()) {
+                if (unavailable) {
+                    buffer.requeue(entry.getValue());
+                } else {
+                    unavailable = !write(entry.getKey(), entry.getValue());
+                }
+            }
+            if (unavailable) {
+                consecutiveFailures++;
+                long delay = Math.min(retryMaxMs, retryBaseMs << Math.min(consecutiveFailures - 1, 16));
+                retryAt = System.currentTimeMillis() + delay;
+                return;
+            }
+            consecutiveFailures = 0;
+        }
+    }
+
+    /**
+     * Writes one tenant's marks. Returns false if the database was unavailable, in which
+     * case the marks not yet written are back in the queue.
+     */
+    private boolean write(Long clientId, List<PendingMark> marks) {
+        TenantContext previous = TenantContextHolder.switchTo(clientId);
+        try {
+            attendanceService.saveBulkAttendance(marks.stream().map(PendingMark::request).toList());
+            buffer.complete(marks);
+            return true;
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                log.warn("Could not write {} queued attendance marks for client {}, will retry: {}",
+                        marks.size(), clientId, e.getMessage());
+                buffer.requeue(marks);
+                return false;
+            }
+            // One bad mark must not sink the batch: retry individually and reject only the ones that still fail
+            log.warn("Batched attendance write failed for client {} ({} marks), retrying one by one: {}",
+                    clientId, marks.size(), e.getMessage());
+            for (int i = 0; i < marks.size(); i++) {
+                if (!writeOne(clientId, marks.get(i))) {
+                    buffer.requeue(marks.subList(i + 1, marks.size()));
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            TenantContextHolder.restore(previous);
+        }
+    }
+
+    private boolean writeOne(Long clientId, PendingMark mark) {
+        AttendanceRequest request = mark.request();
+        try {
+            attendanceService.saveBulkAttendance(List.of(request));
+            buffer.complete(List.of(mark));
+            return true;
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                buffer.requeue(List.of(mark));
+                return false;
+            }
+            log.error("Rejected queued attendance mark for client {} (student {}, class {}, {}): {}",
+                    clientId, request.getStudentId(), request.getClassId(), request.getAttendanceDate(), e.getMessage());
+            buffer.reject(mark, reason(e));
+            return true;
+        }
+    }
+
+    /**
+     * True for failures that say nothing about the marks themselves, so the same write may
+     * succeed later. Constraint violations and validation errors would fail again.
+     */
+    private static boolean isTransient(RuntimeException e) {
+        if (e instanceof DataIntegrityViolationException) {
+            return false;
+        }
+        return e instanceof DataAccessException || e instanceof TransactionException;
+    }
+
+    private static String reason(RuntimeException e) {
+        if (e instanceof ResponseStatusException statusException && statusException.getReason() != null) {
+            return statusException.getReason();
+        }
+        if (e instanceof DataIntegrityViolationException integrityViolation) {
+            return "Rejected by the database: " + integrityViolation.getMostSpecificCause().getMessage();
+        }
+        return e.getMessage();
+    }
+
+    private static boolean pause(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.moktob.common;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 CSV one record at a time, so uploads are parsed as they stream in.
+ * Handles quoted fields with embedded commas, quotes and line breaks, CRLF or LF line
+ * endings and a leading UTF-8 byte order mark. Wrap the source in a buffered reader.
+ */
+public class CsvRecordReader {
+
+    private final Reader reader;
+    private int peeked = -2;
+    private long records;
+    // Physical line the next record starts on, and the line the current one started on
+    private long line = 1;
+    private long recordLine;
+
+    public CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Returns the next record's fields, or null at end of input.
+     */
+    public List<String> next() throws IOException {
+        recordLine = line;
+        int c = read();
+        if (records == 0 && c == '\uFEFF') {
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field in the record starting on line " + recordLine);
+                }
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n' || (c == '\r' && peek() != '\n')) {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                fields.add(field.toString());
+                records++;
+                line++;
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Number of records returned so far.
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * 1-based line on which the last record returned, or the one being read, starts. Ahead
+     * of the record count once a quoted field has spanned lines.
+     */
+    public long getLineNumber() {
+        return recordLine;
+    }
+
+    private int read() throws IOException {
+        if (peeked != -2) {
+            int c = peeked;
+            peeked = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private int peek() throws IOException {
+        if (peeked == -2) {
+            peeked = reader.read();
+        }
+        return peeked;
+    }
+}
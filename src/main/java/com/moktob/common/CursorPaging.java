@@ -0,0 +1,116 @@
+package com.moktob.common;
+
+import com.moktob.dto.CursorPageDTO;
+import lombok.experimental.UtilityClass;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset (cursor) pagination for list endpoints.
+ * <p>
+ * A page query filters on the sort key of the last row the caller saw instead of using an
+ * offset, so every page costs the same however deep it is. Queries fetch one row more than
+ * the limit to learn whether another page exists without counting. Cursors are opaque to
+ * clients: Base64url of the sort key values, which the matching query decodes again.
+ * <p>
+ * Most history tables page newest first on {@code id}; it is unique, never null and grows
+ * with insertion, so it is a stable sort key on its own.
+ */
+@UtilityClass
+public class CursorPaging {
+
+    public static final String DEFAULT_LIMIT = "50";
+    public static final int MAX_LIMIT = 200;
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "\n";
+
+    /**
+     * The rows to fetch for a page of {@code limit}: one extra, to detect a next page.
+     */
+    public static Pageable rows(int limit) {
+        return PageRequest.of(0, clamp(limit) + 1);
+    }
+
+    /**
+     * The id to page below for newest-first queries; the first page starts above every id.
+     */
+    public static long beforeId(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return Long.MAX_VALUE;
+        }
+        return parseId(decode(cursor, 1)[0]);
+    }
+
+    /**
+     * Trims a page fetched with {@link #rows(int)} for a newest-first query on {@code id}.
+     */
+    public static <T> CursorPageDTO<T> byId(List<T> rows, int limit, Function<T, Long> idOf) {
+        return page(rows, limit, row -> encode(String.valueOf(idOf.apply(row))));
+    }
+
+    /**
+     * Trims a page fetched with {@link #rows(int)}; {@code cursorOf} encodes the sort key of
+     * a row so the next page starts after it.
+     */
+    public static <T> CursorPageDTO<T> page(List<T> rows, int limit, Function<T, String> cursorOf) {
+        int size = clamp(limit);
+        if (rows.size() <= size) {
+            return new CursorPageDTO<>(rows, null);
+        }
+        List<T> items = new ArrayList<>(rows.subList(0, size));
+        return new CursorPageDTO<>(items, cursorOf.apply(items.get(size - 1)));
+    }
+
+    public static String encode(String... keys) {
+        String token = VERSION + SEPARATOR + String.join(SEPARATOR, keys);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the {@code keys} sort key values from a cursor made by {@link #encode}. The
+     * last value may itself contain the separator.
+     */
+    public static String[] decode(String cursor, int keys) {
+        String[] parts;
+        try {
+            String token = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            parts = token.split(SEPARATOR, keys + 1);
+        } catch (IllegalArgumentException e) {
+            throw invalidCursor();
+        }
+        if (parts.length != keys + 1 || !VERSION.equals(parts[0])) {
+            throw invalidCursor();
+        }
+        String[] values = new String[keys];
+        System.arraycopy(parts, 1, values, 0, keys);
+        return values;
+    }
+
+    public static long parseId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw invalidCursor();
+        }
+    }
+
+    private static int clamp(int limit) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be at least 1");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    private static ResponseStatusException invalidCursor() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+}
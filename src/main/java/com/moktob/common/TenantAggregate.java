@@ -0,0 +1,12 @@
+package com.moktob.common;
+
+/**
+ * Tenant data sets whose writes invalidate derived reads (dashboard cache, ETags, live feeds).
+ */
+public enum TenantAggregate {
+    ATTENDANCE,
+    ASSESSMENT,
+    STUDENT,
+    TEACHER,
+    CLASS
+}
@@ -0,0 +1,13 @@
+package com.moktob.common;
+
+/**
+ * The tenant (and, for authenticated requests, the user) the current work runs for.
+ * Resolved once per request by {@code TenantContextFilter} and carried into pooled
+ * threads by {@link TenantTaskDecorator}; never modified, only replaced.
+ */
+public record TenantContext(Long tenantId, Long userId) {
+
+    public static TenantContext of(Long tenantId) {
+        return new TenantContext(tenantId, null);
+    }
+}
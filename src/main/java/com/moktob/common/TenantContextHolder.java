@@ -4,17 +4,45 @@ import lombok.experimental.UtilityClass;
 
 @UtilityClass
 public class TenantContextHolder {
-    private static final ThreadLocal<Long> tenantId = new ThreadLocal<>();
+    private static final ThreadLocal<TenantContext> context = new ThreadLocal<>();
 
-    public static void setTenantId(Long id) {
-        tenantId.set(id);
+    public static TenantContext getContext() {
+        return context.get();
     }
 
     public static Long getTenantId() {
-        return tenantId.get();
+        TenantContext current = context.get();
+        return current != null ? current.tenantId() : null;
+    }
+
+    public static void setContext(TenantContext tenantContext) {
+        if (tenantContext != null) {
+            context.set(tenantContext);
+        } else {
+            context.remove();
+        }
+    }
+
+    public static void setTenantId(Long id) {
+        setContext(id != null ? TenantContext.of(id) : null);
+    }
+
+    /**
+     * Switches to {@code tenantId} and returns the context to hand back to
+     * {@link #restore(TenantContext)} in a {@code finally} block, so nested work does not
+     * wipe its caller's tenant.
+     */
+    public static TenantContext switchTo(Long tenantId) {
+        TenantContext previous = context.get();
+        setTenantId(tenantId);
+        return previous;
+    }
+
+    public static void restore(TenantContext previous) {
+        setContext(previous);
     }
 
     public static void clear() {
-        tenantId.remove();
+        context.remove();
     }
 }
@@ -0,0 +1,8 @@
+package com.moktob.common;
+
+/**
+ * Published by services after writing tenant data. Listeners that derive state from the
+ * data should react in {@code AFTER_COMMIT} so they never observe rolled-back writes.
+ */
+public record TenantDataChangedEvent(Long clientId, TenantAggregate aggregate) {
+}
@@ -0,0 +1,25 @@
+package com.moktob.common;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Carries the submitting thread's {@link TenantContext} into pooled worker threads. The
+ * worker's previous context is restored afterwards, so a task that ends up running on the
+ * caller thread (e.g. under a caller-runs rejection policy) does not wipe the request's tenant.
+ */
+public class TenantTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        TenantContext submitted = TenantContextHolder.getContext();
+        return () -> {
+            TenantContext previous = TenantContextHolder.getContext();
+            TenantContextHolder.setContext(submitted);
+            try {
+                runnable.run();
+            } finally {
+                TenantContextHolder.restore(previous);
+            }
+        };
+    }
+}
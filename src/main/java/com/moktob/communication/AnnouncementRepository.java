@@ -1,6 +1,7 @@
 package com.moktob.communication;
 
 import com.moktob.common.TenantContextHolder;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,15 +13,20 @@ import java.util.Optional;
 
 @Repository
 public interface AnnouncementRepository extends JpaRepository<Announcement, Long> {
-    List<Announcement> findByClientId(Long clientId);
+    @Query("SELECT a FROM Announcement a WHERE a.clientId = :clientId AND a.id < :beforeId ORDER BY a.id DESC")
+    List<Announcement> findPageByClientId(@Param("clientId") Long clientId, @Param("beforeId") Long beforeId, Pageable pageable);
     
     Optional<Announcement> findByClientIdAndId(Long clientId, Long id);
     
-    @Query("SELECT a FROM Announcement a WHERE a.clientId = :clientId AND a.publishedBy = :publishedBy")
-    List<Announcement> findByClientIdAndPublishedBy(@Param("clientId") Long clientId, @Param("publishedBy") Long publishedBy);
+    @Query("SELECT a FROM Announcement a WHERE a.clientId = :clientId AND a.publishedBy = :publishedBy " +
+           "AND a.id < :beforeId ORDER BY a.id DESC")
+    List<Announcement> findPageByClientIdAndPublishedBy(@Param("clientId") Long clientId, @Param("publishedBy") Long publishedBy,
+                                                        @Param("beforeId") Long beforeId, Pageable pageable);
     
-    @Query("SELECT a FROM Announcement a WHERE a.clientId = :clientId AND a.targetRole = :targetRole")
-    List<Announcement> findByClientIdAndTargetRole(@Param("clientId") Long clientId, @Param("targetRole") String targetRole);
+    @Query("SELECT a FROM Announcement a WHERE a.clientId = :clientId AND a.targetRole = :targetRole " +
+           "AND a.id < :beforeId ORDER BY a.id DESC")
+    List<Announcement> findPageByClientIdAndTargetRole(@Param("clientId") Long clientId, @Param("targetRole") String targetRole,
+                                                       @Param("beforeId") Long beforeId, Pageable pageable);
     
     @Query("SELECT a FROM Announcement a WHERE a.clientId = :clientId AND a.publishedAt BETWEEN :startDate AND :endDate")
     List<Announcement> findByClientIdAndPublishedAtBetween(@Param("clientId") Long clientId, 
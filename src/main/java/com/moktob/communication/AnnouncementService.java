@@ -1,6 +1,8 @@
 package com.moktob.communication;
 
+import com.moktob.common.CursorPaging;
 import com.moktob.common.TenantContextHolder;
+import com.moktob.dto.CursorPageDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -14,9 +16,11 @@ public class AnnouncementService {
     
     private final AnnouncementRepository announcementRepository;
     
-    public List<Announcement> getAllAnnouncements() {
+    public CursorPageDTO<Announcement> getAllAnnouncements(String cursor, int limit) {
         Long clientId = TenantContextHolder.getTenantId();
-        return announcementRepository.findByClientId(clientId);
+        List<Announcement> rows = announcementRepository.findPageByClientId(clientId,
+                CursorPaging.beforeId(cursor), CursorPaging.rows(limit));
+        return CursorPaging.byId(rows, limit, Announcement::getId);
     }
     
     public Optional<Announcement> getAnnouncementById(Long id) {
@@ -35,14 +39,18 @@ public class AnnouncementService {
         announcementRepository.deleteById(id);
     }
     
-    public List<Announcement> getAnnouncementsByPublisher(Long publishedBy) {
+    public CursorPageDTO<Announcement> getAnnouncementsByPublisher(Long publishedBy, String cursor, int limit) {
         Long clientId = TenantContextHolder.getTenantId();
-        return announcementRepository.findByClientIdAndPublishedBy(clientId, publishedBy);
+        List<Announcement> rows = announcementRepository.findPageByClientIdAndPublishedBy(clientId, publishedBy,
+                CursorPaging.beforeId(cursor), CursorPaging.rows(limit));
+        return CursorPaging.byId(rows, limit, Announcement::getId);
     }
     
-    public List<Announcement> getAnnouncementsByTargetRole(String targetRole) {
+    public CursorPageDTO<Announcement> getAnnouncementsByTargetRole(String targetRole, String cursor, int limit) {
         Long clientId = TenantContextHolder.getTenantId();
-        return announcementRepository.findByClientIdAndTargetRole(clientId, targetRole);
+        List<Announcement> rows = announcementRepository.findPageByClientIdAndTargetRole(clientId, targetRole,
+                CursorPaging.beforeId(cursor), CursorPaging.rows(limit));
+        return CursorPaging.byId(rows, limit, Announcement::getId);
     }
     
     public List<Announcement> getAnnouncementsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
@@ -0,0 +1,88 @@
+package com.moktob.communication;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC access for {@link EmailOutboxDispatcher}. Messages are claimed with
+ * {@code FOR UPDATE SKIP LOCKED}, so several nodes can dispatch without sending the same
+ * message twice. A claim is a lease: it pushes {@code next_attempt_at} forward, so a node
+ * that dies mid-send leaves its messages to be retried once the lease runs out.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EmailOutboxBatchRepository {
+
+    private static final String CLAIM_DUE = """
+        UPDATE email_outbox SET next_attempt_at = ?, attempts = attempts + 1
+        WHERE id IN (
+            SELECT id FROM email_outbox
+            WHERE status = 'PENDING' AND next_attempt_at <= ?
+            ORDER BY next_attempt_at
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED)
+        RETURNING id, recipient, subject, body, attempts
+        """;
+
+    private static final String MARK_SENT = """
+        UPDATE email_outbox SET status = 'SENT', sent_at = ?, body = NULL, last_error = NULL
+        WHERE id = ?
+        """;
+
+    private static final String RECORD_FAILURE = """
+        UPDATE email_outbox SET status = ?, next_attempt_at = ?, last_error = ?
+        WHERE id = ?
+        """;
+
+    private static final String DELETE_SENT_BEFORE = "DELETE FROM email_outbox WHERE status = 'SENT' AND sent_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record ClaimedEmail(long id, String recipient, String subject, String body, int attempts) {
+    }
+
+    public record DeliveryFailure(long id, String status, LocalDateTime nextAttemptAt, String error) {
+    }
+
+    /**
+     * Claims up to {@code limit} due messages until {@code leaseUntil}, counting the attempt.
+     */
+    public List<ClaimedEmail> claimDue(int limit, LocalDateTime leaseUntil) {
+        return jdbcTemplate.query(CLAIM_DUE,
+                (rs, rowNum) -> new ClaimedEmail(rs.getLong("id"), rs.getString("recipient"),
+                        rs.getString("subject"), rs.getString("body"), rs.getInt("attempts")),
+                Timestamp.valueOf(leaseUntil), Timestamp.valueOf(LocalDateTime.now()), limit);
+    }
+
+    public void markSent(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(MARK_SENT, ids, ids.size(), (ps, id) -> {
+            ps.setTimestamp(1, now);
+            ps.setLong(2, id);
+        });
+    }
+
+    public void recordFailures(List<DeliveryFailure> failures) {
+        if (failures.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(RECORD_FAILURE, failures, failures.size(), (ps, failure) -> {
+            ps.setString(1, failure.status());
+            ps.setTimestamp(2, Timestamp.valueOf(failure.nextAttemptAt()));
+            ps.setString(3, failure.error());
+            ps.setLong(4, failure.id());
+        });
+    }
+
+    public int deleteSentBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update(DELETE_SENT_BEFORE, Timestamp.valueOf(cutoff));
+    }
+}
@@ -0,0 +1,210 @@
+package com.moktob.communication;
+
+import com.moktob.communication.EmailOutboxBatchRepository.ClaimedEmail;
+import com.moktob.communication.EmailOutboxBatchRepository.DeliveryFailure;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sends the email outbox on {@code emailOutboxExecutor}. It runs after each transaction
+ * that queued a message commits, and every {@code email.outbox.poll-interval-ms}.
+ * <p>
+ * Due messages are claimed in batches of {@code email.outbox.batch-size}. Each batch goes
+ * over a single SMTP connection. A failed message is retried with exponential backoff
+ * from {@code retry-base-ms} up to {@code retry-max-ms}, with jitter. After
+ * {@code max-attempts} it is marked {@code FAILED}, with its last error kept. Delivery is
+ * at least once: a node that dies between sending and recording resends after the claim's
+ * lease expires.
+ */
+@Component
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxBatchRepository outboxBatchRepository;
+    private final JavaMailSender mailSender;
+    private final ThreadPoolTaskExecutor emailOutboxExecutor;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean requested = new AtomicBoolean();
+
+    @Value("${spring.mail.username}")
+    private String fromEmail;
+
+    @Value("${email.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${email.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.retry-base-ms:30000}")
+    private long retryBaseMs;
+
+    @Value("${email.outbox.retry-max-ms:3600000}")
+    private long retryMaxMs;
+
+    @Value("${email.outbox.lease-ms:300000}")
+    private long leaseMs;
+
+    @Value("${email.outbox.retention-days:30}")
+    private int retentionDays;
+
+    public EmailOutboxDispatcher(EmailOutboxBatchRepository outboxBatchRepository,
+                                 JavaMailSender mailSender,
+                                 @Qualifier("emailOutboxExecutor") ThreadPoolTaskExecutor emailOutboxExecutor) {
+        this.outboxBatchRepository = outboxBatchRepository;
+        this.mailSender = mailSender;
+        this.emailOutboxExecutor = emailOutboxExecutor;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmailQueued(EmailQueuedEvent event) {
+        wakeUp();
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:5000}")
+    public void poll() {
+        wakeUp();
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.purge-interval-ms:3600000}")
+    public void purgeDelivered() {
+        if (!enabled) {
+            return;
+        }
+        int deleted = outboxBatchRepository.deleteSentBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.debug("Purged {} delivered emails older than {} days", deleted, retentionDays);
+        }
+    }
+
+    /**
+     * Starts a dispatch run unless one is already going, in which case that run goes round
+     * once more, so a message queued mid-run is not left for the next poll.
+     */
+    private void wakeUp() {
+        if (!enabled) {
+            return;
+        }
+        requested.set(true);
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            emailOutboxExecutor.execute(this::run);
+        } catch (TaskRejectedException e) {
+            running.set(false);
+        }
+    }
+
+    private void run() {
+        try {
+            while (requested.getAndSet(false)) {
+                dispatchDue();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Email outbox dispatch failed: {}", e.getMessage());
+        } finally {
+            running.set(false);
+        }
+        if (requested.get()) {
+            wakeUp();
+        }
+    }
+
+    private void dispatchDue() {
+        List<ClaimedEmail> batch;
+        do {
+            batch = outboxBatchRepository.claimDue(batchSize, LocalDateTime.now().plus(Duration.ofMillis(leaseMs)));
+            if (!batch.isEmpty()) {
+                send(batch);
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    private void send(List<ClaimedEmail> batch) {
+        Map<SimpleMailMessage, ClaimedEmail> byMessage = new IdentityHashMap<>();
+        for (ClaimedEmail email : batch) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom(fromEmail);
+            message.setTo(email.recipient());
+            message.setSubject(email.subject());
+            message.setText(email.body());
+            byMessage.put(message, email);
+        }
+
+        Map<Object, Exception> failed;
+        try {
+            // One connection for the whole batch
+            mailSender.send(byMessage.keySet().toArray(new SimpleMailMessage[0]));
+            failed = Map.of();
+        } catch (MailSendException e) {
+            failed = e.getFailedMessages().isEmpty() ? failAll(byMessage, e) : e.getFailedMessages();
+        } catch (MailException e) {
+            failed = failAll(byMessage, e);
+        }
+
+        List<Long> sent = new ArrayList<>();
+        List<DeliveryFailure> failures = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<SimpleMailMessage, ClaimedEmail> entry : byMessage.entrySet()) {
+            ClaimedEmail email = entry.getValue();
+            Exception error = failed.get(entry.getKey());
+            if (error == null) {
+                sent.add(email.id());
+            } else if (email.attempts() >= maxAttempts) {
+                log.error("Giving up on email {} to {} after {} attempts: {}",
+                        email.id(), email.recipient(), email.attempts(), error.getMessage());
+                failures.add(new DeliveryFailure(email.id(), EmailOutboxMessage.FAILED, now, truncate(error)));
+            } else {
+                log.warn("Email {} to {} failed (attempt {}), retrying: {}",
+                        email.id(), email.recipient(), email.attempts(), error.getMessage());
+                failures.add(new DeliveryFailure(email.id(), EmailOutboxMessage.PENDING,
+                        now.plus(Duration.ofMillis(backoffMs(email.attempts()))), truncate(error)));
+            }
+        }
+        outboxBatchRepository.markSent(sent);
+        outboxBatchRepository.recordFailures(failures);
+        log.debug("Email outbox batch: {} sent, {} failed", sent.size(), failures.size());
+    }
+
+    private long backoffMs(int attempts) {
+        long delay = retryBaseMs << Math.min(attempts - 1, 20);
+        delay = Math.min(delay, retryMaxMs);
+        // +/-20% so messages that failed together do not retry together
+        return (long) (delay * ThreadLocalRandom.current().nextDouble(0.8, 1.2));
+    }
+
+    private static Map<Object, Exception> failAll(Map<SimpleMailMessage, ClaimedEmail> byMessage, Exception e) {
+        Map<Object, Exception> failed = new IdentityHashMap<>();
+        byMessage.keySet().forEach(message -> failed.put(message, e));
+        return failed;
+    }
+
+    private static String truncate(Exception e) {
+        String message = String.valueOf(e.getMessage());
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
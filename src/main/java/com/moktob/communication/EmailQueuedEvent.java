@@ -0,0 +1,8 @@
+package com.moktob.communication;
+
+/**
+ * Published when a message is written to the outbox, so {@link EmailOutboxDispatcher} can
+ * send it as soon as the transaction commits instead of at its next poll.
+ */
+public record EmailQueuedEvent(Long messageId) {
+}
@@ -0,0 +1,44 @@
+package com.moktob.communication;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC batch inserts for notifications generated by background jobs, which can create
+ * many at once; {@code Notification} uses IDENTITY keys, so Hibernate would not batch them.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NotificationBatchRepository {
+
+    private static final String INSERT = """
+        INSERT INTO notification
+            (client_id, recipient_user_id, type, title, message, is_read, created_at, updated_at)
+        VALUES (?, ?, ?, ?, ?, FALSE, ?, ?)
+        """;
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insert(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT, notifications, BATCH_SIZE, (ps, notification) -> {
+            ps.setLong(1, notification.getClientId());
+            ps.setLong(2, notification.getRecipientUserId());
+            ps.setString(3, notification.getType());
+            ps.setString(4, notification.getTitle());
+            ps.setString(5, notification.getMessage());
+            ps.setTimestamp(6, now);
+            ps.setTimestamp(7, now);
+        });
+    }
+}
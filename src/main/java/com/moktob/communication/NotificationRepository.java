@@ -1,6 +1,7 @@
 package com.moktob.communication;
 
 import com.moktob.common.TenantContextHolder;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,15 +13,20 @@ import java.util.Optional;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
-    List<Notification> findByClientId(Long clientId);
+    @Query("SELECT n FROM Notification n WHERE n.clientId = :clientId AND n.id < :beforeId ORDER BY n.id DESC")
+    List<Notification> findPageByClientId(@Param("clientId") Long clientId, @Param("beforeId") Long beforeId, Pageable pageable);
     
     Optional<Notification> findByClientIdAndId(Long clientId, Long id);
     
-    @Query("SELECT n FROM Notification n WHERE n.clientId = :clientId AND n.recipientUserId = :userId")
-    List<Notification> findByClientIdAndRecipientUserId(@Param("clientId") Long clientId, @Param("userId") Long userId);
+    @Query("SELECT n FROM Notification n WHERE n.clientId = :clientId AND n.recipientUserId = :userId " +
+           "AND n.id < :beforeId ORDER BY n.id DESC")
+    List<Notification> findPageByClientIdAndRecipientUserId(@Param("clientId") Long clientId, @Param("userId") Long userId,
+                                                            @Param("beforeId") Long beforeId, Pageable pageable);
     
-    @Query("SELECT n FROM Notification n WHERE n.clientId = :clientId AND n.isRead = :isRead")
-    List<Notification> findByClientIdAndIsRead(@Param("clientId") Long clientId, @Param("isRead") Boolean isRead);
+    @Query("SELECT n FROM Notification n WHERE n.clientId = :clientId AND n.isRead = :isRead " +
+           "AND n.id < :beforeId ORDER BY n.id DESC")
+    List<Notification> findPageByClientIdAndIsRead(@Param("clientId") Long clientId, @Param("isRead") Boolean isRead,
+                                                   @Param("beforeId") Long beforeId, Pageable pageable);
     
     @Query("SELECT n FROM Notification n WHERE n.clientId = :clientId AND n.type = :type")
     List<Notification> findByClientIdAndType(@Param("clientId") Long clientId, @Param("type") String type);
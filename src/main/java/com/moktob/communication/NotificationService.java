@@ -1,6 +1,8 @@
 package com.moktob.communication;
 
+import com.moktob.common.CursorPaging;
 import com.moktob.common.TenantContextHolder;
+import com.moktob.dto.CursorPageDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -14,9 +16,11 @@ public class NotificationService {
     
     private final NotificationRepository notificationRepository;
     
-    public List<Notification> getAllNotifications() {
+    public CursorPageDTO<Notification> getAllNotifications(String cursor, int limit) {
         Long clientId = TenantContextHolder.getTenantId();
-        return notificationRepository.findByClientId(clientId);
+        List<Notification> rows = notificationRepository.findPageByClientId(clientId,
+                CursorPaging.beforeId(cursor), CursorPaging.rows(limit));
+        return CursorPaging.byId(rows, limit, Notification::getId);
     }
     
     public Optional<Notification> getNotificationById(Long id) {
@@ -35,14 +39,18 @@ public class NotificationService {
         notificationRepository.deleteById(id);
     }
     
-    public List<Notification> getNotificationsByUser(Long userId) {
+    public CursorPageDTO<Notification> getNotificationsByUser(Long userId, String cursor, int limit) {
         Long clientId = TenantContextHolder.getTenantId();
-        return notificationRepository.findByClientIdAndRecipientUserId(clientId, userId);
+        List<Notification> rows = notificationRepository.findPageByClientIdAndRecipientUserId(clientId, userId,
+                CursorPaging.beforeId(cursor), CursorPaging.rows(limit));
+        return CursorPaging.byId(rows, limit, Notification::getId);
     }
     
-    public List<Notification> getUnreadNotifications() {
+    public CursorPageDTO<Notification> getUnreadNotifications(String cursor, int limit) {
         Long clientId = TenantContextHolder.getTenantId();
-        return notificationRepository.findByClientIdAndIsRead(clientId, false);
+        List<Notification> rows = notificationRepository.findPageByClientIdAndIsRead(clientId, false,
+                CursorPaging.beforeId(cursor), CursorPaging.rows(limit));
+        return CursorPaging.byId(rows, limit, Notification::getId);
     }
     
     public List<Notification> getNotificationsByType(String type) {
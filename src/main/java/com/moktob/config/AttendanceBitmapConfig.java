@@ -0,0 +1,31 @@
+package com.moktob.config;
+
+import com.moktob.common.TenantTaskDecorator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AttendanceBitmapConfig {
+
+    @Value("${attendance.bitmap.loader.pool-size:1}")
+    private int poolSize;
+
+    /**
+     * Loads tenant bitmap indexes off the request path. One thread by default, so cold
+     * starts after a deploy cannot flood the database with full attendance scans.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor attendanceBitmapLoader() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("attendance-bitmap-");
+        executor.setTaskDecorator(new TenantTaskDecorator());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
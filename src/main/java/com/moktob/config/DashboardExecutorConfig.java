@@ -0,0 +1,57 @@
+package com.moktob.config;
+
+import com.moktob.common.TenantTaskDecorator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class DashboardExecutorConfig {
+
+    @Value("${dashboard.executor.pool-size:8}")
+    private int poolSize;
+
+    @Value("${dashboard.executor.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${dashboard.live.executor.pool-size:2}")
+    private int livePoolSize;
+
+    @Value("${dashboard.live.executor.queue-capacity:1000}")
+    private int liveQueueCapacity;
+
+    /**
+     * Bounded pool for dashboard section queries. Keep pool-size below the Hikari pool
+     * so a burst of overview requests cannot starve regular API calls of connections.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor dashboardExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("dashboard-");
+        executor.setTaskDecorator(new TenantTaskDecorator());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Fan-out pool for live dashboard pushes, so writing to slow SSE clients never
+     * happens on the request thread that committed the attendance change.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor dashboardLiveExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(livePoolSize);
+        executor.setMaxPoolSize(livePoolSize);
+        executor.setQueueCapacity(liveQueueCapacity);
+        executor.setThreadNamePrefix("dashboard-live-");
+        executor.setTaskDecorator(new TenantTaskDecorator());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,47 @@
+package com.moktob.config;
+
+import com.moktob.common.TenantTaskDecorator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class ExportConfig implements WebMvcConfigurer {
+
+    @Value("${export.max-concurrent:4}")
+    private int maxConcurrent;
+
+    @Value("${export.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    /**
+     * Threads that write streamed exports. Sized to the export cap, so an accepted export
+     * always gets a thread instead of queueing behind a year-long CSV.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor exportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(maxConcurrent);
+        executor.setThreadNamePrefix("export-");
+        executor.setTaskDecorator(new TenantTaskDecorator());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Spring MVC runs {@code StreamingResponseBody} on this executor. Exports are the only
+     * async handlers that need it (SSE emitters carry their own timeout and are written from
+     * {@code dashboardLiveExecutor}), so the default timeout is the export's.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(exportExecutor());
+        configurer.setDefaultTimeout(timeoutMs);
+    }
+}
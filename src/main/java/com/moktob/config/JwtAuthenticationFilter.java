@@ -1,7 +1,5 @@
 package com.moktob.config;
 
-import com.moktob.common.TenantContextHolder;
-import com.moktob.service.RedisTokenService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,57 +23,31 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
-    private final RedisTokenService redisTokenService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
 
-        final String requestTokenHeader = request.getHeader("Authorization");
-
-        String username = null;
-        String jwtToken = null;
-        Long clientId = null;
-
-        if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
-            try {
-                username = jwtUtil.extractUsername(jwtToken);
-                clientId = jwtUtil.getClientIdFromToken(jwtToken);
-            } catch (Exception e) {
-                log.error("Unable to get JWT Token or JWT Token has expired: {}", e.getMessage());
-            }
-        } else if (requestTokenHeader != null && !requestTokenHeader.startsWith("Bearer ")) {
-            log.debug("JWT Token does not begin with Bearer String");
-        }
+        VerifiedToken token = jwtUtil.verify(request).orElse(null);
+        String username = token != null ? token.username() : null;
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
-                // Check if a token exists in Redis (not logged out)
-//                if (!redisTokenService.isTokenValid(jwtToken)) {
-//                    log.debug("Token not found in Redis or has been logged out: {}", username);
-//                    chain.doFilter(request, response);
-//                    return;
-//                }
-                
+                // Revoked (logged out) tokens were already rejected by jwtUtil.verify
                 UserDetails userDetails = userDetailsService.loadUserByUsername(username);
 
-                if (jwtUtil.isTokenValid(jwtToken, userDetails)) {
+                if (jwtUtil.isTokenValid(token, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken = 
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
-                    
-                    TenantContextHolder.setTenantId(clientId);
-                    log.debug("Set tenant ID: {} for user: {}", clientId, username);
                 }
             } catch (Exception e) {
                 log.error("JWT authentication failed for user: {}", username, e);
             }
         }
 
+        // The tenant is resolved (and cleared) by TenantContextFilter
         chain.doFilter(request, response);
-        
-        TenantContextHolder.clear();
     }
 }
@@ -0,0 +1,74 @@
+package com.moktob.config;
+
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * HMAC keys for signing and verifying JWTs, derived once at startup.
+ * <p>
+ * {@code jwt.secret} is the key with id {@value #DEFAULT_KEY_ID}; tokens without a
+ * {@code kid} header (issued before key ids existed) are checked against it.
+ * {@code jwt.keys} adds more keys as {@code id:secret} pairs separated by commas, and
+ * {@code jwt.active-key-id} picks the one new tokens are signed with. To rotate, add the
+ * new key, make it active, and drop the old one once the tokens it signed have expired
+ * ({@code jwt.expiration}). Secrets are used as raw UTF-8 bytes and must be at least 32
+ * bytes long.
+ */
+@Component
+public class JwtKeyRing {
+
+    public static final String DEFAULT_KEY_ID = "default";
+
+    private final Map<String, SecretKey> keys = new LinkedHashMap<>();
+    private final String activeKeyId;
+    private final SecretKey activeKey;
+
+    public JwtKeyRing(@Value("${jwt.secret:c2VjcmV0S2V5Rm9ySldUU2lnbmF0dXJlVGhhdElzU2VjdXJlQW5kTG9uZ0Vub3VnaEZvckhhc2hpbmdBbGdvcml0aG1z}") String secret,
+                      @Value("${jwt.keys:}") String additionalKeys,
+                      @Value("${jwt.active-key-id:" + DEFAULT_KEY_ID + "}") String activeKeyId) {
+        if (!secret.isBlank()) {
+            keys.put(DEFAULT_KEY_ID, deriveKey(secret));
+        }
+        for (String entry : additionalKeys.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("jwt.keys entries must be id:secret");
+            }
+            keys.put(entry.substring(0, separator).trim(), deriveKey(entry.substring(separator + 1).trim()));
+        }
+        this.activeKeyId = activeKeyId;
+        this.activeKey = keys.get(activeKeyId);
+        if (activeKey == null) {
+            throw new IllegalArgumentException("jwt.active-key-id " + activeKeyId + " is not a configured key");
+        }
+    }
+
+    public String getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    public SecretKey getActiveKey() {
+        return activeKey;
+    }
+
+    /**
+     * The key for a token's {@code kid} header (null for tokens without one), or null if it
+     * is not configured.
+     */
+    public SecretKey getVerificationKey(String keyId) {
+        return keys.get(keyId != null ? keyId : DEFAULT_KEY_ID);
+    }
+
+    private static SecretKey deriveKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,31 +1,88 @@
 package com.moktob.config;
 
+import com.moktob.service.TokenRevocationService;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies the application's JWTs, signing with the active key of
+ * {@link JwtKeyRing} and naming it in the {@code kid} header.
+ */
 @Component
 @Slf4j
 public class JwtUtil {
 
-    @Value("${jwt.secret:c2VjcmV0S2V5Rm9ySldUU2lnbmF0dXJlVGhhdElzU2VjdXJlQW5kTG9uZ0Vub3VnaEZvckhhc2hpbmdBbGdvcml0aG1z}")
-    private String secretKey;
-    
-    @Value("${jwt.expiration:86400000}")
-    private long jwtExpiration;
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    /**
+     * Request attribute holding the outcome of verifying the request's bearer token: a
+     * {@link VerifiedToken}, or {@link #INVALID} if the token was rejected.
+     */
+    private static final String VERIFIED_TOKEN_ATTRIBUTE = JwtUtil.class.getName() + ".VERIFIED_TOKEN";
+    private static final Object INVALID = new Object();
+
+    /**
+     * Tokens verified recently, keyed by the whole token, so a hit needs the exact bytes that
+     * passed the signature check and repeat requests skip HMAC and JSON parsing.
+     */
+    private final ConcurrentMap<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    private final JwtKeyRing keyRing;
+    private final TokenRevocationService tokenRevocationService;
+    private final JwtParser parser;
+    private final long jwtExpiration;
+    private final int verifiedCacheMaxSize;
+
+    public JwtUtil(JwtKeyRing keyRing,
+                   TokenRevocationService tokenRevocationService,
+                   @Value("${jwt.expiration:86400000}") long jwtExpiration,
+                   @Value("${jwt.verified-cache.max-size:10000}") int verifiedCacheMaxSize) {
+        this.keyRing = keyRing;
+        this.tokenRevocationService = tokenRevocationService;
+        this.jwtExpiration = jwtExpiration;
+        this.verifiedCacheMaxSize = verifiedCacheMaxSize;
+        // Built once: building a parser looks up jjwt's services on the classpath
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    // jjwt 0.11 declares this parameter as a raw JwsHeader, so it cannot be narrowed here
+                    @Override
+                    @SuppressWarnings("rawtypes")
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return verificationKey(header);
+                    }
+                })
+                .build();
+    }
+
+    private Key verificationKey(JwsHeader<?> header) {
+        Key key = keyRing.getVerificationKey(header.getKeyId());
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown signing key id: " + header.getKeyId());
+        }
+        return key;
+    }
 
     public String generateToken(String username) {
         return generateToken(new HashMap<>(), username);
@@ -34,11 +91,13 @@ public class JwtUtil {
     public String generateToken(Map<String, Object> extraClaims, String username) {
         return Jwts
                 .builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyRing.getActiveKeyId())
                 .setClaims(extraClaims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(username)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(keyRing.getActiveKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -67,12 +126,83 @@ public class JwtUtil {
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return verify(token).map(verified -> isTokenValid(verified, userDetails)).orElse(false);
+    }
+
+    public boolean isTokenValid(VerifiedToken token, UserDetails userDetails) {
+        return token.username() != null && token.username().equals(userDetails.getUsername())
+                && !token.isExpired(Instant.now());
+    }
+
+    /**
+     * Checks the token's signature and expiry and returns its claims, or empty if it is not
+     * valid. Recently verified tokens are answered from memory.
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        Instant now = Instant.now();
+        VerifiedToken cached = verifiedTokens.get(token);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                return Optional.of(cached);
+            }
+            verifiedTokens.remove(token, cached);
+            return Optional.empty();
+        }
+
+        VerifiedToken verified;
+        try {
+            verified = parse(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("JWT token rejected: {}", e.getMessage());
+            return Optional.empty();
+        }
+        if (verifiedTokens.size() >= verifiedCacheMaxSize) {
+            evictVerifiedTokens(now);
+        }
+        verifiedTokens.put(token, verified);
+        return Optional.of(verified);
+    }
+
+    /**
+     * Checks the token's signature and expiry and returns its claims, bypassing the cache.
+     */
+    public VerifiedToken parse(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        return new VerifiedToken(
+                claims.getId() != null ? claims.getId() : token.substring(token.lastIndexOf('.') + 1),
+                claims.getSubject(),
+                claims.get("clientId", Long.class),
+                claims.get("userId", Long.class),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+    }
+
+    /**
+     * Verifies the request's bearer token at most once per request, rejecting revoked
+     * tokens; later callers (the tenant filter, the authentication filter) get the same result.
+     */
+    public Optional<VerifiedToken> verify(HttpServletRequest request) {
+        Object outcome = request.getAttribute(VERIFIED_TOKEN_ATTRIBUTE);
+        if (outcome == null) {
+            String header = request.getHeader("Authorization");
+            if (header == null || !header.startsWith(BEARER_PREFIX)) {
+                return Optional.empty();
+            }
+            VerifiedToken verified = verify(header.substring(BEARER_PREFIX.length())).orElse(null);
+            outcome = verified != null && !tokenRevocationService.isRevoked(verified.tokenId()) ? verified : INVALID;
+            request.setAttribute(VERIFIED_TOKEN_ATTRIBUTE, outcome);
+        }
+        return outcome instanceof VerifiedToken verified ? Optional.of(verified) : Optional.empty();
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private void evictVerifiedTokens(Instant now) {
+        verifiedTokens.values().removeIf(token -> token.isExpired(now));
+        // Still full of live tokens: drop an arbitrary tenth rather than grow
+        Iterator<String> tokens = verifiedTokens.keySet().iterator();
+        for (int excess = verifiedTokens.size() - verifiedCacheMaxSize * 9 / 10; excess > 0 && tokens.hasNext(); excess--) {
+            tokens.next();
+            tokens.remove();
+        }
     }
 
     private Date extractExpiration(String token) {
@@ -80,17 +210,7 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Key getSignInKey() {
-        byte[] keyBytes = secretKey.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return parser.parseClaimsJws(token).getBody();
     }
 
     // Legacy methods for backward compatibility
@@ -103,15 +223,6 @@ public class JwtUtil {
     }
 
     public Boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token);
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            log.error("JWT token validation failed: {}", e.getMessage());
-            return false;
-        }
+        return verify(token).isPresent();
     }
 }
@@ -0,0 +1,33 @@
+package com.moktob.config;
+
+import com.moktob.common.TenantContextHolder;
+import com.moktob.service.PasswordHashingService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * The application's {@link PasswordEncoder}. It hands every BCrypt call to
+ * {@link PasswordHashingService}'s pool and uses the current tenant as the queue.
+ */
+public class PooledPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordHashingService passwordHashingService;
+
+    public PooledPasswordEncoder(PasswordHashingService passwordHashingService) {
+        this.passwordHashingService = passwordHashingService;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return passwordHashingService.encode(TenantContextHolder.getTenantId(), rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return passwordHashingService.matches(TenantContextHolder.getTenantId(), rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordHashingService.upgradeEncoding(encodedPassword);
+    }
+}
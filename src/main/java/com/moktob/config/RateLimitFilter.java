@@ -0,0 +1,103 @@
+package com.moktob.config;
+
+import com.moktob.service.RateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Applies {@link RateLimiter} to {@code /api/**}, rejecting over-limit requests with 429 and
+ * {@code Retry-After} before any other work is done.
+ * <p>
+ * Sign-in, forgot-password and reset-password are limited per client IP ({@code auth}).
+ * Other calls are limited per user, or per IP when signed out ({@code default}), and each
+ * tenant's users together share a further limit ({@code tenant}). A limit of 0 turns that
+ * rule off.
+ */
+@Component
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final JwtUtil jwtUtil;
+    private final boolean enabled;
+    private final RateLimiter.Rule defaultRule;
+    private final RateLimiter.Rule tenantRule;
+    private final RateLimiter.Rule authRule;
+
+    public RateLimitFilter(RateLimiter rateLimiter,
+                           JwtUtil jwtUtil,
+                           @Value("${rate-limit.enabled:true}") boolean enabled,
+                           @Value("${rate-limit.default.limit:500}") int defaultLimit,
+                           @Value("${rate-limit.default.window-ms:1000}") long defaultWindowMs,
+                           @Value("${rate-limit.tenant.limit:2000}") int tenantLimit,
+                           @Value("${rate-limit.tenant.window-ms:1000}") long tenantWindowMs,
+                           @Value("${rate-limit.auth.limit:20}") int authLimit,
+                           @Value("${rate-limit.auth.window-ms:60000}") long authWindowMs) {
+        this.rateLimiter = rateLimiter;
+        this.jwtUtil = jwtUtil;
+        this.enabled = enabled;
+        this.defaultRule = new RateLimiter.Rule("default", defaultLimit, defaultWindowMs);
+        this.tenantRule = new RateLimiter.Rule("tenant", tenantLimit, tenantWindowMs);
+        this.authRule = new RateLimiter.Rule("auth", authLimit, authWindowMs);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !pathWithinApplication(request).startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        long retryAfterMs;
+        if (isCredentialEndpoint(pathWithinApplication(request))) {
+            retryAfterMs = acquire(authRule, "ip:" + request.getRemoteAddr());
+        } else {
+            // Verified once per request and shared with the tenant and authentication filters
+            VerifiedToken token = jwtUtil.verify(request).orElse(null);
+            if (token != null && token.userId() != null) {
+                retryAfterMs = acquire(defaultRule, "user:" + token.userId());
+                if (retryAfterMs == 0 && token.clientId() != null) {
+                    retryAfterMs = acquire(tenantRule, "tenant:" + token.clientId());
+                }
+            } else {
+                retryAfterMs = acquire(defaultRule, "ip:" + request.getRemoteAddr());
+            }
+        }
+
+        if (retryAfterMs > 0) {
+            log.debug("Rate limited {} {} from {}", request.getMethod(), request.getRequestURI(), request.getRemoteAddr());
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", Long.toString((retryAfterMs + 999) / 1000));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Too many requests, retry later\"}");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private long acquire(RateLimiter.Rule rule, String subject) {
+        return rule.limit() > 0 ? rateLimiter.tryAcquire(rule, subject) : 0;
+    }
+
+    private static String pathWithinApplication(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static boolean isCredentialEndpoint(String path) {
+        return path.equals("/api/auth/login")
+                || path.equals("/api/auth/forgot-password")
+                || path.equals("/api/auth/reset-password");
+    }
+}
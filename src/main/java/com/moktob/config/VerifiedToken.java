@@ -0,0 +1,15 @@
+package com.moktob.config;
+
+import java.time.Instant;
+
+/**
+ * The claims of a JWT whose signature has been checked. Produced once per token by
+ * {@link JwtUtil#verify(String)} and shared by the request filters. {@code tokenId} is the
+ * {@code jti} claim, or the signature for tokens issued without one.
+ */
+public record VerifiedToken(String tokenId, String username, Long clientId, Long userId, Instant issuedAt, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
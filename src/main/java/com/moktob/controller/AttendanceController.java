@@ -1,12 +1,20 @@
 package com.moktob.controller;
 
 import com.moktob.attendance.Attendance;
+import com.moktob.attendance.AttendanceDailySummaryService;
 import com.moktob.attendance.AttendanceService;
+import com.moktob.attendance.AttendanceWriteBehindBuffer;
+import com.moktob.common.CursorPaging;
+import com.moktob.common.TenantContextHolder;
 import com.moktob.common.AttendanceStatus;
+import com.moktob.dto.AttendanceReceiptDTO;
 import com.moktob.dto.AttendanceRequest;
+import com.moktob.dto.AttendanceSheetRowDTO;
+import com.moktob.dto.CursorPageDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
@@ -19,10 +27,14 @@ import java.util.Optional;
 public class AttendanceController {
     
     private final AttendanceService attendanceService;
+    private final AttendanceDailySummaryService attendanceDailySummaryService;
+    private final AttendanceWriteBehindBuffer writeBehindBuffer;
     
     @GetMapping
-    public ResponseEntity<List<Attendance>> getAllAttendance() {
-        return ResponseEntity.ok(attendanceService.getAllAttendance());
+    public ResponseEntity<CursorPageDTO<Attendance>> getAllAttendance(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(attendanceService.getAllAttendance(cursor, limit));
     }
     
     @GetMapping("/{id}")
@@ -32,7 +44,10 @@ public class AttendanceController {
     }
     
     @PostMapping
-    public ResponseEntity<Attendance> createAttendance(@RequestBody AttendanceRequest attendanceRequest) {
+    public ResponseEntity<?> createAttendance(@RequestBody AttendanceRequest attendanceRequest) {
+        if (writeBehindBuffer.isEnabled() && attendanceRequest.getId() == null) {
+            return ResponseEntity.accepted().body(writeBehindBuffer.accept(List.of(attendanceRequest)));
+        }
         return ResponseEntity.ok(attendanceService.saveAttendance(attendanceRequest));
     }
     
@@ -48,18 +63,27 @@ public class AttendanceController {
     }
     
     @GetMapping("/student/{studentId}")
-    public ResponseEntity<List<Attendance>> getAttendanceByStudent(@PathVariable Long studentId) {
-        return ResponseEntity.ok(attendanceService.getAttendanceByStudent(studentId));
+    public ResponseEntity<CursorPageDTO<Attendance>> getAttendanceByStudent(
+            @PathVariable Long studentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(attendanceService.getAttendanceByStudent(studentId, cursor, limit));
     }
     
     @GetMapping("/class/{classId}")
-    public ResponseEntity<List<Attendance>> getAttendanceByClass(@PathVariable Long classId) {
-        return ResponseEntity.ok(attendanceService.getAttendanceByClass(classId));
+    public ResponseEntity<CursorPageDTO<Attendance>> getAttendanceByClass(
+            @PathVariable Long classId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(attendanceService.getAttendanceByClass(classId, cursor, limit));
     }
     
     @GetMapping("/teacher/{teacherId}")
-    public ResponseEntity<List<Attendance>> getAttendanceByTeacher(@PathVariable Long teacherId) {
-        return ResponseEntity.ok(attendanceService.getAttendanceByTeacher(teacherId));
+    public ResponseEntity<CursorPageDTO<Attendance>> getAttendanceByTeacher(
+            @PathVariable Long teacherId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(attendanceService.getAttendanceByTeacher(teacherId, cursor, limit));
     }
     
     @GetMapping("/date/{date}")
@@ -68,8 +92,11 @@ public class AttendanceController {
     }
     
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Attendance>> getAttendanceByStatus(@PathVariable AttendanceStatus status) {
-        return ResponseEntity.ok(attendanceService.getAttendanceByStatus(status));
+    public ResponseEntity<CursorPageDTO<Attendance>> getAttendanceByStatus(
+            @PathVariable AttendanceStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(attendanceService.getAttendanceByStatus(status, cursor, limit));
     }
     
     @GetMapping("/by-date")
@@ -79,13 +106,39 @@ public class AttendanceController {
         return ResponseEntity.ok(attendanceService.getAttendanceByDateAndClass(date, classId));
     }
     
+    @GetMapping("/sheet")
+    public ResponseEntity<List<AttendanceSheetRowDTO>> getAttendanceSheet(
+            @RequestParam Long classId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(attendanceService.getAttendanceSheet(classId, date));
+    }
+    
     @PostMapping("/bulk")
-    public ResponseEntity<List<Attendance>> createBulkAttendance(@RequestBody List<AttendanceRequest> attendanceRequests) {
+    public ResponseEntity<?> createBulkAttendance(@RequestBody List<AttendanceRequest> attendanceRequests) {
+        if (writeBehindBuffer.isEnabled()) {
+            return ResponseEntity.accepted().body(writeBehindBuffer.accept(attendanceRequests));
+        }
         return ResponseEntity.ok(attendanceService.saveBulkAttendance(attendanceRequests));
     }
+
+    @GetMapping("/receipts/{receiptId}")
+    public ResponseEntity<AttendanceReceiptDTO> getReceipt(@PathVariable String receiptId) {
+        return writeBehindBuffer.getReceipt(receiptId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
     
     @GetMapping("/today")
     public ResponseEntity<List<Attendance>> getTodayAttendance() {
         return ResponseEntity.ok(attendanceService.getAttendanceByDate(LocalDate.now()));
     }
+    
+    @PostMapping("/daily-summary/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Integer> rebuildDailySummary(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        Long clientId = TenantContextHolder.getTenantId();
+        return ResponseEntity.ok(attendanceDailySummaryService.rebuildRange(clientId, startDate, endDate));
+    }
 }
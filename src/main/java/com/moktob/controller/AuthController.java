@@ -1,7 +1,9 @@
 package com.moktob.controller;
 
 import com.moktob.config.JwtUtil;
+import com.moktob.config.VerifiedToken;
 import com.moktob.core.UserAccount;
+import com.moktob.core.UserAccountChangedEvent;
 import com.moktob.core.UserAccountRepository;
 import com.moktob.dto.AuthenticationRequest;
 import com.moktob.dto.AuthenticationResponse;
@@ -9,9 +11,11 @@ import com.moktob.dto.ForgotPasswordRequest;
 import com.moktob.dto.ResetPasswordRequest;
 import com.moktob.service.RedisTokenService;
 import com.moktob.service.EmailService;
+import com.moktob.service.PasswordHashingService;
+import com.moktob.service.TokenRevocationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -31,11 +35,11 @@ public class AuthController {
     private final JwtUtil jwtUtil;
     private final UserAccountRepository userAccountRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final RedisTokenService redisTokenService;
+    private final TokenRevocationService tokenRevocationService;
     private final EmailService emailService;
-    
-    @Value("${jwt.expiration:86400000}")
-    private long jwtExpiration;
+    private final ApplicationEventPublisher eventPublisher;
 
     @PostMapping("/login")
     public ResponseEntity<?> createAuthenticationToken(@Valid @RequestBody AuthenticationRequest authenticationRequest) throws Exception {
@@ -49,11 +53,8 @@ public class AuthController {
 
         UserAccount user = userAccount.get();
         
-        // Custom password check using the same encoder used during registration
-        if (!passwordEncoder.matches(authenticationRequest.getPassword(), user.getPasswordHash())) {
-            String hashPass = passwordEncoder.encode(authenticationRequest.getPassword());
-            log.debug("Password hash of login request data: {} is {}", user.getUsername(), hashPass);
-            log.debug("Password in db: {}", user.getPasswordHash());
+        // Checked on the password-hashing pool, queued behind this tenant's other sign-ins
+        if (!passwordHashingService.matches(user.getClientId(), authenticationRequest.getPassword(), user.getPasswordHash())) {
             log.error("Bad credentials for user: {}", authenticationRequest.getUsername());
             return ResponseEntity.status(401).body("Incorrect username or password");
         }
@@ -63,6 +64,7 @@ public class AuthController {
             log.error("Inactive user attempted login: {}", authenticationRequest.getUsername());
             return ResponseEntity.status(401).body("Account is deactivated");
         }
+        passwordHashingService.rehashIfOutdated(user, authenticationRequest.getPassword());
 
         // Create UserDetails for JWT generation
         final UserDetails userDetails = new org.springframework.security.core.userdetails.User(
@@ -75,15 +77,6 @@ public class AuthController {
         
         final String jwt = jwtUtil.generateToken(userDetails, user.getClientId(), user.getId());
         
-        // Store token in Redis with expiration
-        redisTokenService.storeToken(
-            jwt, 
-            user.getUsername(), 
-            user.getClientId(), 
-            user.getId(), 
-            java.time.Duration.ofMillis(jwtExpiration)
-        );
-        
         String roleName = user.getRole() != null ? user.getRole().getRoleName() : "USER";
 
         return ResponseEntity.ok(new AuthenticationResponse(
@@ -98,13 +91,11 @@ public class AuthController {
     @PostMapping("/logout")
     public ResponseEntity<String> logout(HttpServletRequest request) {
         try {
-            final String requestTokenHeader = request.getHeader("Authorization");
+            Optional<VerifiedToken> token = jwtUtil.verify(request);
             
-            if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-                String jwtToken = requestTokenHeader.substring(7);
-                
-                // Remove token from Redis
-                redisTokenService.removeToken(jwtToken);
+            if (token.isPresent()) {
+                // Rejected on every node from now until it would have expired
+                tokenRevocationService.revoke(token.get().tokenId(), token.get().expiresAt());
                 
                 log.info("User logged out successfully");
                 return ResponseEntity.ok("Successfully logged out");
@@ -151,11 +142,10 @@ public class AuthController {
                 java.time.Duration.ofHours(1)
             );
             
-            // Send reset email
+            // Queue the reset email; it is sent in the background
             String resetUrl = "http://localhost:8080/moktob/reset-password?token=" + resetToken;
             emailService.sendPasswordResetEmail(user.getEmail(), user.getUsername(), resetUrl);
             
-            log.info("Password reset email sent to: {}", request.getEmail());
             return ResponseEntity.ok().body("If the email exists, a password reset link has been sent.");
             
         } catch (Exception e) {
@@ -193,6 +183,7 @@ public class AuthController {
             String encodedPassword = passwordEncoder.encode(request.getNewPassword());
             user.setPasswordHash(encodedPassword);
             userAccountRepository.save(user);
+            eventPublisher.publishEvent(new UserAccountChangedEvent(username));
             
             // Remove reset token
             redisTokenService.removeResetToken(request.getToken());
@@ -5,9 +5,12 @@ import com.moktob.dto.ClassResponseDTO;
 import com.moktob.dto.ClassDropdownDTO;
 import com.moktob.education.ClassEntity;
 import com.moktob.education.ClassEntityService;
+import com.moktob.common.TenantAggregate;
+import com.moktob.service.TenantDataVersionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,9 +21,13 @@ import java.util.Optional;
 public class ClassController {
     
     private final ClassEntityService classEntityService;
+    private final TenantDataVersionService dataVersionService;
     
     @GetMapping
-    public ResponseEntity<List<ClassResponseDTO>> getAllClasses() {
+    public ResponseEntity<List<ClassResponseDTO>> getAllClasses(ServletWebRequest webRequest) {
+        if (dataVersionService.checkNotModified(webRequest, TenantAggregate.CLASS, TenantAggregate.TEACHER)) {
+            return null;
+        }
         return ResponseEntity.ok(classEntityService.getAllClasses());
     }
     
@@ -53,7 +60,10 @@ public class ClassController {
     }
     
     @GetMapping("/dropdown")
-    public ResponseEntity<List<ClassDropdownDTO>> getClassesForDropdown() {
+    public ResponseEntity<List<ClassDropdownDTO>> getClassesForDropdown(ServletWebRequest webRequest) {
+        if (dataVersionService.checkNotModified(webRequest, TenantAggregate.CLASS, TenantAggregate.TEACHER)) {
+            return null;
+        }
         return ResponseEntity.ok(classEntityService.getClassesForDropdown());
     }
     
@@ -4,6 +4,8 @@ import com.moktob.communication.Announcement;
 import com.moktob.communication.AnnouncementService;
 import com.moktob.communication.Notification;
 import com.moktob.communication.NotificationService;
+import com.moktob.common.CursorPaging;
+import com.moktob.dto.CursorPageDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -22,8 +24,10 @@ public class CommunicationController {
     private final AnnouncementService announcementService;
     
     @GetMapping("/notifications")
-    public ResponseEntity<List<Notification>> getAllNotifications() {
-        return ResponseEntity.ok(notificationService.getAllNotifications());
+    public ResponseEntity<CursorPageDTO<Notification>> getAllNotifications(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(notificationService.getAllNotifications(cursor, limit));
     }
     
     @GetMapping("/notifications/{id}")
@@ -50,13 +54,18 @@ public class CommunicationController {
     }
     
     @GetMapping("/notifications/user/{userId}")
-    public ResponseEntity<List<Notification>> getNotificationsByUser(@PathVariable Long userId) {
-        return ResponseEntity.ok(notificationService.getNotificationsByUser(userId));
+    public ResponseEntity<CursorPageDTO<Notification>> getNotificationsByUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(notificationService.getNotificationsByUser(userId, cursor, limit));
     }
     
     @GetMapping("/notifications/unread")
-    public ResponseEntity<List<Notification>> getUnreadNotifications() {
-        return ResponseEntity.ok(notificationService.getUnreadNotifications());
+    public ResponseEntity<CursorPageDTO<Notification>> getUnreadNotifications(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(notificationService.getUnreadNotifications(cursor, limit));
     }
     
     @PutMapping("/notifications/{id}/mark-read")
@@ -66,8 +75,10 @@ public class CommunicationController {
     }
     
     @GetMapping("/announcements")
-    public ResponseEntity<List<Announcement>> getAllAnnouncements() {
-        return ResponseEntity.ok(announcementService.getAllAnnouncements());
+    public ResponseEntity<CursorPageDTO<Announcement>> getAllAnnouncements(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(announcementService.getAllAnnouncements(cursor, limit));
     }
     
     @GetMapping("/announcements/{id}")
@@ -94,12 +105,18 @@ public class CommunicationController {
     }
     
     @GetMapping("/announcements/publisher/{publishedBy}")
-    public ResponseEntity<List<Announcement>> getAnnouncementsByPublisher(@PathVariable Long publishedBy) {
-        return ResponseEntity.ok(announcementService.getAnnouncementsByPublisher(publishedBy));
+    public ResponseEntity<CursorPageDTO<Announcement>> getAnnouncementsByPublisher(
+            @PathVariable Long publishedBy,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(announcementService.getAnnouncementsByPublisher(publishedBy, cursor, limit));
     }
     
     @GetMapping("/announcements/role/{targetRole}")
-    public ResponseEntity<List<Announcement>> getAnnouncementsByTargetRole(@PathVariable String targetRole) {
-        return ResponseEntity.ok(announcementService.getAnnouncementsByTargetRole(targetRole));
+    public ResponseEntity<CursorPageDTO<Announcement>> getAnnouncementsByTargetRole(
+            @PathVariable String targetRole,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(announcementService.getAnnouncementsByTargetRole(targetRole, cursor, limit));
     }
 }
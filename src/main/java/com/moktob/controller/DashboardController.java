@@ -1,12 +1,21 @@
 package com.moktob.controller;
 
+import com.moktob.common.TenantAggregate;
+import com.moktob.common.TenantContextHolder;
 import com.moktob.dto.*;
 import com.moktob.service.DashboardService;
+import com.moktob.service.LiveAttendanceService;
+import com.moktob.service.TenantDataVersionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -18,18 +27,25 @@ import java.util.List;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final LiveAttendanceService liveAttendanceService;
+    private final TenantDataVersionService dataVersionService;
 
     @GetMapping("/overview")
     public ResponseEntity<DashboardOverviewDTO> getDashboardOverview(
             @RequestParam(defaultValue = "#{T(java.time.LocalDate).now().minusDays(30)}") 
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(defaultValue = "#{T(java.time.LocalDate).now()}") 
-            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            ServletWebRequest webRequest) {
         
+        if (dataVersionService.checkNotModified(webRequest, startDate + "_" + endDate, TenantAggregate.values())) {
+            return null;
+        }
+
         log.info("Getting dashboard overview for date range: {} to {}", startDate, endDate);
         
         try {
-            DashboardOverviewDTO overview = dashboardService.getDashboardOverview(startDate, endDate);
+            DashboardOverviewDTO overview = loadOverview(startDate, endDate, webRequest);
             return ResponseEntity.ok(overview);
         } catch (Exception e) {
             log.error("Error getting dashboard overview", e);
@@ -42,8 +58,13 @@ public class DashboardController {
             @RequestParam(defaultValue = "#{T(java.time.LocalDate).now().minusDays(30)}") 
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(defaultValue = "#{T(java.time.LocalDate).now()}") 
-            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            ServletWebRequest webRequest) {
         
+        if (dataVersionService.checkNotModified(webRequest, startDate + "_" + endDate, TenantAggregate.values())) {
+            return null;
+        }
+
         log.info("Getting class attendance summaries for date range: {} to {}", startDate, endDate);
         
         try {
@@ -60,8 +81,13 @@ public class DashboardController {
             @RequestParam(defaultValue = "#{T(java.time.LocalDate).now().minusDays(30)}") 
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(defaultValue = "#{T(java.time.LocalDate).now()}") 
-            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            ServletWebRequest webRequest) {
         
+        if (dataVersionService.checkNotModified(webRequest, startDate + "_" + endDate, TenantAggregate.values())) {
+            return null;
+        }
+
         log.info("Getting attendance trends for date range: {} to {}", startDate, endDate);
         
         try {
@@ -79,16 +105,18 @@ public class DashboardController {
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(defaultValue = "#{T(java.time.LocalDate).now()}") 
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
-            @RequestParam(defaultValue = "10") int limit) {
+            @RequestParam(defaultValue = "10") int limit,
+            ServletWebRequest webRequest) {
         
+        if (dataVersionService.checkNotModified(webRequest, startDate + "_" + endDate + "_" + limit, TenantAggregate.values())) {
+            return null;
+        }
+
         log.info("Getting top performing students for date range: {} to {}, limit: {}", startDate, endDate, limit);
         
         try {
-            List<StudentPerformanceDTO> students = dashboardService.getTopPerformingStudents(startDate, endDate);
-            List<StudentPerformanceDTO> limitedStudents = students.stream()
-                    .limit(limit)
-                    .toList();
-            return ResponseEntity.ok(limitedStudents);
+            List<StudentPerformanceDTO> students = dashboardService.getTopPerformingStudents(startDate, endDate, limit);
+            return ResponseEntity.ok(students);
         } catch (Exception e) {
             log.error("Error getting top performing students", e);
             return ResponseEntity.internalServerError().build();
@@ -100,8 +128,13 @@ public class DashboardController {
             @RequestParam(defaultValue = "#{T(java.time.LocalDate).now().minusDays(30)}") 
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(defaultValue = "#{T(java.time.LocalDate).now()}") 
-            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            ServletWebRequest webRequest) {
         
+        if (dataVersionService.checkNotModified(webRequest, startDate + "_" + endDate, TenantAggregate.values())) {
+            return null;
+        }
+
         log.info("Getting teacher performance for date range: {} to {}", startDate, endDate);
         
         try {
@@ -118,8 +151,13 @@ public class DashboardController {
             @RequestParam(defaultValue = "#{T(java.time.LocalDate).now().minusDays(30)}") 
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(defaultValue = "#{T(java.time.LocalDate).now()}") 
-            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            ServletWebRequest webRequest) {
         
+        if (dataVersionService.checkNotModified(webRequest, startDate + "_" + endDate, TenantAggregate.values())) {
+            return null;
+        }
+
         log.info("Getting class-wise students for date range: {} to {}", startDate, endDate);
         
         try {
@@ -136,8 +174,13 @@ public class DashboardController {
             @RequestParam(defaultValue = "#{T(java.time.LocalDate).now().minusDays(30)}") 
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(defaultValue = "#{T(java.time.LocalDate).now()}") 
-            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            ServletWebRequest webRequest) {
         
+        if (dataVersionService.checkNotModified(webRequest, startDate + "_" + endDate, TenantAggregate.values())) {
+            return null;
+        }
+
         log.info("Getting attendance analytics for date range: {} to {}", startDate, endDate);
         
         try {
@@ -154,12 +197,17 @@ public class DashboardController {
             @RequestParam(defaultValue = "#{T(java.time.LocalDate).now().minusDays(30)}") 
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(defaultValue = "#{T(java.time.LocalDate).now()}") 
-            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            ServletWebRequest webRequest) {
         
+        if (dataVersionService.checkNotModified(webRequest, startDate + "_" + endDate, TenantAggregate.values())) {
+            return null;
+        }
+
         log.info("Getting dashboard stats for date range: {} to {}", startDate, endDate);
         
         try {
-            DashboardOverviewDTO overview = dashboardService.getDashboardOverview(startDate, endDate);
+            DashboardOverviewDTO overview = loadOverview(startDate, endDate, webRequest);
             
             DashboardStatsDTO stats = new DashboardStatsDTO(
                     overview.getTotalStudents(),
@@ -178,4 +226,26 @@ public class DashboardController {
             return ResponseEntity.internalServerError().build();
         }
     }
+
+    @GetMapping(value = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLiveAttendance() {
+        Long clientId = TenantContextHolder.getTenantId();
+        if (clientId == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "No tenant context for live dashboard");
+        }
+        log.info("Opening live attendance stream for client {}", clientId);
+        return liveAttendanceService.subscribe(clientId);
+    }
+
+    /**
+     * Loads the overview behind {@code /overview} and {@code /stats}. Same rule as the Redis
+     * cache: a partial overview must not be revalidated into 304s.
+     */
+    private DashboardOverviewDTO loadOverview(LocalDate startDate, LocalDate endDate, ServletWebRequest webRequest) {
+        DashboardOverviewDTO overview = dashboardService.getDashboardOverview(startDate, endDate);
+        if (!DashboardService.isComplete(overview)) {
+            dataVersionService.preventCaching(webRequest);
+        }
+        return overview;
+    }
 }
@@ -2,6 +2,8 @@ package com.moktob.controller;
 
 import com.moktob.finance.Expense;
 import com.moktob.finance.ExpenseService;
+import com.moktob.common.CursorPaging;
+import com.moktob.dto.CursorPageDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -20,8 +22,10 @@ public class ExpenseController {
     private final ExpenseService expenseService;
     
     @GetMapping
-    public ResponseEntity<List<Expense>> getAllExpenses() {
-        return ResponseEntity.ok(expenseService.getAllExpenses());
+    public ResponseEntity<CursorPageDTO<Expense>> getAllExpenses(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(expenseService.getAllExpenses(cursor, limit));
     }
     
     @GetMapping("/{id}")
@@ -48,8 +52,11 @@ public class ExpenseController {
     }
     
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<Expense>> getExpensesByCategory(@PathVariable String category) {
-        return ResponseEntity.ok(expenseService.getExpensesByCategory(category));
+    public ResponseEntity<CursorPageDTO<Expense>> getExpensesByCategory(
+            @PathVariable String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(expenseService.getExpensesByCategory(category, cursor, limit));
     }
     
     @GetMapping("/date/{date}")
@@ -0,0 +1,90 @@
+package com.moktob.controller;
+
+import com.moktob.attendance.AttendancePartitionService;
+import com.moktob.common.TenantContextHolder;
+import com.moktob.service.ExportService;
+import com.moktob.service.ExportService.Dataset;
+import com.moktob.service.ExportService.Format;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+@Slf4j
+public class ExportController {
+
+    private final ExportService exportService;
+    private final AttendancePartitionService attendancePartitionService;
+
+    @GetMapping("/attendance")
+    public ResponseEntity<StreamingResponseBody> exportAttendance(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "#{T(java.time.LocalDate).now().minusYears(1)}")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(defaultValue = "#{T(java.time.LocalDate).now()}")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        // Archived months are only read when asked for; without partitioning there are none
+        Dataset dataset = includeArchived && attendancePartitionService.isArchiveAvailable()
+                ? Dataset.ATTENDANCE_WITH_ARCHIVE
+                : Dataset.ATTENDANCE;
+        return export(dataset, format, startDate, endDate);
+    }
+
+    @GetMapping("/payments")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "#{T(java.time.LocalDate).now().minusYears(1)}")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(defaultValue = "#{T(java.time.LocalDate).now()}")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return export(Dataset.PAYMENTS, format, startDate, endDate);
+    }
+
+    @GetMapping("/audit-logs")
+    public ResponseEntity<StreamingResponseBody> exportAuditLogs(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "#{T(java.time.LocalDate).now().minusYears(1)}")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(defaultValue = "#{T(java.time.LocalDate).now()}")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return export(Dataset.AUDIT_LOGS, format, startDate, endDate);
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(Dataset dataset, String formatName,
+                                                         LocalDate startDate, LocalDate endDate) {
+        Long clientId = TenantContextHolder.getTenantId();
+        if (clientId == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "No tenant context for export");
+        }
+        Format format;
+        try {
+            format = Format.valueOf(formatName.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be csv or ndjson");
+        }
+
+        log.info("Starting {} export for client {} from {} to {} as {}", dataset, clientId, startDate, endDate, format);
+        StreamingResponseBody body = exportService.export(clientId, dataset, format, startDate, endDate);
+        String fileName = dataset.getFileName() + "-" + startDate + "-" + endDate + "." + format.getExtension();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+}
@@ -4,6 +4,8 @@ import com.moktob.learning.Assessment;
 import com.moktob.learning.AssessmentService;
 import com.moktob.learning.MemorizationRecord;
 import com.moktob.learning.MemorizationRecordService;
+import com.moktob.common.CursorPaging;
+import com.moktob.dto.CursorPageDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -22,8 +24,10 @@ public class LearningController {
     private final AssessmentService assessmentService;
     
     @GetMapping("/memorization")
-    public ResponseEntity<List<MemorizationRecord>> getAllMemorizationRecords() {
-        return ResponseEntity.ok(memorizationRecordService.getAllRecords());
+    public ResponseEntity<CursorPageDTO<MemorizationRecord>> getAllMemorizationRecords(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(memorizationRecordService.getAllRecords(cursor, limit));
     }
     
     @GetMapping("/memorization/{id}")
@@ -50,18 +54,26 @@ public class LearningController {
     }
     
     @GetMapping("/memorization/student/{studentId}")
-    public ResponseEntity<List<MemorizationRecord>> getMemorizationRecordsByStudent(@PathVariable Long studentId) {
-        return ResponseEntity.ok(memorizationRecordService.getRecordsByStudent(studentId));
+    public ResponseEntity<CursorPageDTO<MemorizationRecord>> getMemorizationRecordsByStudent(
+            @PathVariable Long studentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(memorizationRecordService.getRecordsByStudent(studentId, cursor, limit));
     }
     
     @GetMapping("/memorization/surah/{surahName}")
-    public ResponseEntity<List<MemorizationRecord>> getMemorizationRecordsBySurah(@PathVariable String surahName) {
-        return ResponseEntity.ok(memorizationRecordService.getRecordsBySurah(surahName));
+    public ResponseEntity<CursorPageDTO<MemorizationRecord>> getMemorizationRecordsBySurah(
+            @PathVariable String surahName,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(memorizationRecordService.getRecordsBySurah(surahName, cursor, limit));
     }
     
     @GetMapping("/assessments")
-    public ResponseEntity<List<Assessment>> getAllAssessments() {
-        return ResponseEntity.ok(assessmentService.getAllAssessments());
+    public ResponseEntity<CursorPageDTO<Assessment>> getAllAssessments(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(assessmentService.getAllAssessments(cursor, limit));
     }
     
     @GetMapping("/assessments/{id}")
@@ -88,12 +100,18 @@ public class LearningController {
     }
     
     @GetMapping("/assessments/student/{studentId}")
-    public ResponseEntity<List<Assessment>> getAssessmentsByStudent(@PathVariable Long studentId) {
-        return ResponseEntity.ok(assessmentService.getAssessmentsByStudent(studentId));
+    public ResponseEntity<CursorPageDTO<Assessment>> getAssessmentsByStudent(
+            @PathVariable Long studentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(assessmentService.getAssessmentsByStudent(studentId, cursor, limit));
     }
     
     @GetMapping("/assessments/teacher/{teacherId}")
-    public ResponseEntity<List<Assessment>> getAssessmentsByTeacher(@PathVariable Long teacherId) {
-        return ResponseEntity.ok(assessmentService.getAssessmentsByTeacher(teacherId));
+    public ResponseEntity<CursorPageDTO<Assessment>> getAssessmentsByTeacher(
+            @PathVariable Long teacherId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(assessmentService.getAssessmentsByTeacher(teacherId, cursor, limit));
     }
 }
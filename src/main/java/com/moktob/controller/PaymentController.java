@@ -2,9 +2,11 @@ package com.moktob.controller;
 
 import com.moktob.finance.Payment;
 import com.moktob.finance.PaymentService;
+import com.moktob.common.CursorPaging;
 import com.moktob.common.PayerType;
 import com.moktob.common.PaymentMethod;
 import com.moktob.common.PaymentType;
+import com.moktob.dto.CursorPageDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -23,8 +25,10 @@ public class PaymentController {
     private final PaymentService paymentService;
     
     @GetMapping
-    public ResponseEntity<List<Payment>> getAllPayments() {
-        return ResponseEntity.ok(paymentService.getAllPayments());
+    public ResponseEntity<CursorPageDTO<Payment>> getAllPayments(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(paymentService.getAllPayments(cursor, limit));
     }
     
     @GetMapping("/{id}")
@@ -51,18 +55,27 @@ public class PaymentController {
     }
     
     @GetMapping("/payer-type/{payerType}")
-    public ResponseEntity<List<Payment>> getPaymentsByPayerType(@PathVariable PayerType payerType) {
-        return ResponseEntity.ok(paymentService.getPaymentsByPayerType(payerType));
+    public ResponseEntity<CursorPageDTO<Payment>> getPaymentsByPayerType(
+            @PathVariable PayerType payerType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(paymentService.getPaymentsByPayerType(payerType, cursor, limit));
     }
     
     @GetMapping("/payment-type/{paymentType}")
-    public ResponseEntity<List<Payment>> getPaymentsByPaymentType(@PathVariable PaymentType paymentType) {
-        return ResponseEntity.ok(paymentService.getPaymentsByPaymentType(paymentType));
+    public ResponseEntity<CursorPageDTO<Payment>> getPaymentsByPaymentType(
+            @PathVariable PaymentType paymentType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(paymentService.getPaymentsByPaymentType(paymentType, cursor, limit));
     }
     
     @GetMapping("/payment-method/{paymentMethod}")
-    public ResponseEntity<List<Payment>> getPaymentsByPaymentMethod(@PathVariable PaymentMethod paymentMethod) {
-        return ResponseEntity.ok(paymentService.getPaymentsByPaymentMethod(paymentMethod));
+    public ResponseEntity<CursorPageDTO<Payment>> getPaymentsByPaymentMethod(
+            @PathVariable PaymentMethod paymentMethod,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(paymentService.getPaymentsByPaymentMethod(paymentMethod, cursor, limit));
     }
     
     @GetMapping("/date/{date}")
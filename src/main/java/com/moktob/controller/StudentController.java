@@ -1,13 +1,24 @@
 package com.moktob.controller;
 
+import com.moktob.dto.CursorPageDTO;
+import com.moktob.dto.StudentImportResultDTO;
 import com.moktob.dto.StudentRequest;
 import com.moktob.dto.StudentResponseDTO;
 import com.moktob.education.Student;
+import com.moktob.education.StudentImportService;
 import com.moktob.education.StudentService;
+import com.moktob.common.CursorPaging;
+import com.moktob.common.TenantAggregate;
+import com.moktob.service.TenantDataVersionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,10 +28,26 @@ import java.util.Optional;
 public class StudentController {
     
     private final StudentService studentService;
+    private final StudentImportService studentImportService;
+    private final TenantDataVersionService dataVersionService;
     
     @GetMapping
-    public ResponseEntity<List<StudentResponseDTO>> getAllStudents() {
-        return ResponseEntity.ok(studentService.getAllStudents());
+    public ResponseEntity<CursorPageDTO<StudentResponseDTO>> getAllStudents(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit,
+            ServletWebRequest webRequest) {
+        String variant = (cursor != null ? cursor : "") + "_" + limit;
+        if (dataVersionService.checkNotModified(webRequest, variant, TenantAggregate.STUDENT, TenantAggregate.CLASS)) {
+            return null;
+        }
+        return ResponseEntity.ok(studentService.getAllStudents(cursor, limit));
+    }
+    
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StudentImportResultDTO> importStudents(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            return ResponseEntity.ok(studentImportService.importStudents(input));
+        }
     }
     
     @GetMapping("/{id}")
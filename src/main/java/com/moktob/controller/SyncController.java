@@ -0,0 +1,37 @@
+package com.moktob.controller;
+
+import com.moktob.common.CursorPaging;
+import com.moktob.dto.AttendanceRequest;
+import com.moktob.dto.SyncChangesDTO;
+import com.moktob.dto.SyncUploadResultDTO;
+import com.moktob.sync.SyncService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final SyncService syncService;
+
+    @GetMapping("/changes")
+    public ResponseEntity<SyncChangesDTO> getChanges(
+            @RequestParam(required = false) String token,
+            @RequestParam(defaultValue = "" + CursorPaging.MAX_LIMIT) int limit) {
+        return ResponseEntity.ok(syncService.getChanges(token, limit));
+    }
+
+    @PostMapping("/attendance")
+    public ResponseEntity<SyncUploadResultDTO> uploadAttendance(@RequestBody List<AttendanceRequest> marks) {
+        return ResponseEntity.ok(syncService.uploadAttendance(marks));
+    }
+}
@@ -1,9 +1,15 @@
 package com.moktob.controller;
 
+import com.moktob.dto.PasswordHashingStatsDTO;
+import com.moktob.dto.UserDetailsCacheStatsDTO;
+import com.moktob.service.PasswordHashingService;
+import com.moktob.service.UserDetailsCache;
 import com.moktob.system.AuditLog;
 import com.moktob.system.AuditLogService;
 import com.moktob.system.SystemSetting;
 import com.moktob.system.SystemSettingService;
+import com.moktob.common.CursorPaging;
+import com.moktob.dto.CursorPageDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -20,10 +26,14 @@ public class SystemController {
     
     private final AuditLogService auditLogService;
     private final SystemSettingService systemSettingService;
+    private final UserDetailsCache userDetailsCache;
+    private final PasswordHashingService passwordHashingService;
     
     @GetMapping("/audit-logs")
-    public ResponseEntity<List<AuditLog>> getAllAuditLogs() {
-        return ResponseEntity.ok(auditLogService.getAllAuditLogs());
+    public ResponseEntity<CursorPageDTO<AuditLog>> getAllAuditLogs(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(auditLogService.getAllAuditLogs(cursor, limit));
     }
     
     @GetMapping("/audit-logs/{id}")
@@ -33,18 +43,27 @@ public class SystemController {
     }
     
     @GetMapping("/audit-logs/user/{userId}")
-    public ResponseEntity<List<AuditLog>> getAuditLogsByUser(@PathVariable Long userId) {
-        return ResponseEntity.ok(auditLogService.getAuditLogsByUser(userId));
+    public ResponseEntity<CursorPageDTO<AuditLog>> getAuditLogsByUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(auditLogService.getAuditLogsByUser(userId, cursor, limit));
     }
     
     @GetMapping("/audit-logs/action/{action}")
-    public ResponseEntity<List<AuditLog>> getAuditLogsByAction(@PathVariable String action) {
-        return ResponseEntity.ok(auditLogService.getAuditLogsByAction(action));
+    public ResponseEntity<CursorPageDTO<AuditLog>> getAuditLogsByAction(
+            @PathVariable String action,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(auditLogService.getAuditLogsByAction(action, cursor, limit));
     }
     
     @GetMapping("/audit-logs/table/{tableName}")
-    public ResponseEntity<List<AuditLog>> getAuditLogsByTable(@PathVariable String tableName) {
-        return ResponseEntity.ok(auditLogService.getAuditLogsByTable(tableName));
+    public ResponseEntity<CursorPageDTO<AuditLog>> getAuditLogsByTable(
+            @PathVariable String tableName,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(auditLogService.getAuditLogsByTable(tableName, cursor, limit));
     }
     
     @GetMapping("/settings")
@@ -94,4 +113,14 @@ public class SystemController {
         systemSettingService.setSettingValue(keyName, keyValue, description);
         return ResponseEntity.ok().build();
     }
+    
+    @GetMapping("/user-cache/stats")
+    public ResponseEntity<UserDetailsCacheStatsDTO> getUserCacheStats() {
+        return ResponseEntity.ok(userDetailsCache.getStats());
+    }
+    
+    @GetMapping("/password-hashing/stats")
+    public ResponseEntity<PasswordHashingStatsDTO> getPasswordHashingStats() {
+        return ResponseEntity.ok(passwordHashingService.getStats());
+    }
 }
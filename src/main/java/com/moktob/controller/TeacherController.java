@@ -4,9 +4,12 @@ import com.moktob.dto.TeacherRequest;
 import com.moktob.dto.TeacherResponseDTO;
 import com.moktob.education.Teacher;
 import com.moktob.education.TeacherService;
+import com.moktob.common.TenantAggregate;
+import com.moktob.service.TenantDataVersionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,9 +20,13 @@ import java.util.Optional;
 public class TeacherController {
     
     private final TeacherService teacherService;
+    private final TenantDataVersionService dataVersionService;
     
     @GetMapping
-    public ResponseEntity<List<TeacherResponseDTO>> getAllTeachers() {
+    public ResponseEntity<List<TeacherResponseDTO>> getAllTeachers(ServletWebRequest webRequest) {
+        if (dataVersionService.checkNotModified(webRequest, TenantAggregate.TEACHER)) {
+            return null;
+        }
         return ResponseEntity.ok(teacherService.getAllTeachers());
     }
     
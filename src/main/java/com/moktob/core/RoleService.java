@@ -2,6 +2,7 @@ package com.moktob.core;
 
 import com.moktob.common.TenantContextHolder;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -12,6 +13,7 @@ import java.util.Optional;
 public class RoleService {
     
     private final RoleRepository roleRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     public List<Role> getAllRoles() {
         Long clientId = TenantContextHolder.getTenantId();
@@ -25,11 +27,14 @@ public class RoleService {
     public Role saveRole(Role role) {
         Long clientId = TenantContextHolder.getTenantId();
         role.setClientId(clientId);
-        return roleRepository.save(role);
+        Role saved = roleRepository.save(role);
+        eventPublisher.publishEvent(UserAccountChangedEvent.allUsers());
+        return saved;
     }
     
     public void deleteRole(Long id) {
         roleRepository.deleteById(id);
+        eventPublisher.publishEvent(UserAccountChangedEvent.allUsers());
     }
     
     public Optional<Role> getRoleByName(String roleName) {
@@ -0,0 +1,13 @@
+package com.moktob.core;
+
+/**
+ * Published after a write that changes how a user signs in: password, active flag, role,
+ * username or removal. A null username means any user may be affected (e.g. a role was
+ * edited).
+ */
+public record UserAccountChangedEvent(String username) {
+
+    public static UserAccountChangedEvent allUsers() {
+        return new UserAccountChangedEvent(null);
+    }
+}
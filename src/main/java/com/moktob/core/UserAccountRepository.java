@@ -1,10 +1,13 @@
 package com.moktob.core;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,4 +22,18 @@ public interface UserAccountRepository extends JpaRepository<UserAccount, Long>
     Optional<UserAccount> findByUsernameWithRole(@Param("username") String username);
     
     Optional<UserAccount> findByEmail(String email);
+
+    @Query("SELECT u.id FROM UserAccount u JOIN u.role r " +
+           "WHERE u.clientId = :clientId AND u.isActive = true AND r.roleName IN :roleNames")
+    List<Long> findActiveUserIdsByClientIdAndRoleNames(@Param("clientId") Long clientId,
+                                                       @Param("roleNames") Collection<String> roleNames);
+
+    /**
+     * Replaces the password hash only if it is still {@code expectedHash}, so a background
+     * re-hash never overwrites a password changed in the meantime.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserAccount u SET u.passwordHash = :newHash WHERE u.id = :id AND u.passwordHash = :expectedHash")
+    int updatePasswordHash(@Param("id") Long id, @Param("expectedHash") String expectedHash, @Param("newHash") String newHash);
 }
@@ -2,6 +2,7 @@ package com.moktob.core;
 
 import com.moktob.common.TenantContextHolder;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -14,6 +15,7 @@ public class UserAccountService {
     
     private final UserAccountRepository userAccountRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
     
     public List<UserAccount> getAllUsers() {
         Long clientId = TenantContextHolder.getTenantId();
@@ -32,11 +34,22 @@ public class UserAccountService {
             user.setPasswordHash(passwordEncoder.encode(user.getPasswordHash()));
         }
         
-        return userAccountRepository.save(user);
+        // The active flag, role or username may change; drop the cached sign-in details under the old name too
+        String previousUsername = user.getId() != null
+                ? userAccountRepository.findById(user.getId()).map(UserAccount::getUsername).orElse(null)
+                : null;
+        UserAccount saved = userAccountRepository.save(user);
+        if (previousUsername != null) {
+            eventPublisher.publishEvent(new UserAccountChangedEvent(previousUsername));
+        }
+        eventPublisher.publishEvent(new UserAccountChangedEvent(saved.getUsername()));
+        return saved;
     }
     
     public void deleteUser(Long id) {
+        Optional<UserAccount> user = userAccountRepository.findById(id);
         userAccountRepository.deleteById(id);
+        user.ifPresent(u -> eventPublisher.publishEvent(new UserAccountChangedEvent(u.getUsername())));
     }
     
     public Optional<UserAccount> getUserByUsername(String username) {
@@ -0,0 +1,17 @@
+package com.moktob.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceMarkFailureDTO {
+    private Long studentId;
+    private Long classId;
+    private LocalDate attendanceDate;
+    private String reason;
+}
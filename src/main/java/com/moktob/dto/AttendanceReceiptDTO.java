@@ -0,0 +1,17 @@
+package com.moktob.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceReceiptDTO {
+    private String receiptId;
+    private String status;
+    private int marks;
+    private List<AttendanceMarkFailureDTO> failures; // marks rejected for good (validation or constraint)
+}
@@ -4,6 +4,7 @@ import com.moktob.common.AttendanceStatus;
 import lombok.Data;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Data
 public class AttendanceRequest {
@@ -14,4 +15,5 @@ public class AttendanceRequest {
     private LocalDate attendanceDate;
     private AttendanceStatus status;
     private String remarks;
+    private LocalDateTime markedAt; // when the device took the mark (server local time); offline sync uploads only
 }
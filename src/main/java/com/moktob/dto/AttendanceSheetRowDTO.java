@@ -0,0 +1,19 @@
+package com.moktob.dto;
+
+import com.moktob.common.AttendanceStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceSheetRowDTO {
+    private Long studentId;
+    private String name;
+    private String guardianName;
+    private String guardianContact;
+    private Long attendanceId;
+    private AttendanceStatus status;
+    private String remarks;
+}
@@ -0,0 +1,14 @@
+package com.moktob.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkAttendanceResultDTO {
+    private int inserted;
+    private int updated;
+    private int unchanged;
+}
@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Map;
 
 @Data
 @NoArgsConstructor
@@ -22,4 +23,5 @@ public class DashboardOverviewDTO {
     private List<AttendanceTrendDTO> attendanceTrends;
     private List<StudentPerformanceDTO> topPerformingStudents;
     private List<TeacherPerformanceDTO> teacherPerformance;
+    private Map<String, DashboardSectionStatus> sectionStatus;
 }
@@ -0,0 +1,7 @@
+package com.moktob.dto;
+
+public enum DashboardSectionStatus {
+    OK,
+    TIMED_OUT,
+    FAILED
+}
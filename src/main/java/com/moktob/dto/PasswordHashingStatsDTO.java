@@ -0,0 +1,23 @@
+package com.moktob.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PasswordHashingStatsDTO {
+    private Integer bcryptStrength;
+    private Integer threads;
+    private Integer active;
+    private Integer queued;
+    private Integer tenantsWaiting;
+    private Long completed;
+    private Long rejected;
+    private Long timedOut;
+    private Long rehashed;
+    private Double averageHashMillis;
+    private Double maxHashMillis;
+    private Double averageQueueWaitMillis;
+}
@@ -0,0 +1,13 @@
+package com.moktob.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentImportErrorDTO {
+    private long line; // 1-based line in the file on which the record starts, header included
+    private String message;
+}
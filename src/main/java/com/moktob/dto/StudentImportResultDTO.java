@@ -0,0 +1,17 @@
+package com.moktob.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentImportResultDTO {
+    private long totalRows;
+    private long imported;
+    private long failed;
+    private List<StudentImportErrorDTO> errors; // first import.max-reported-errors failures only
+}
@@ -0,0 +1,21 @@
+package com.moktob.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncAssessmentDTO {
+    private Long id;
+    private Long studentId;
+    private Long teacherId;
+    private LocalDate assessmentDate;
+    private Integer recitationScore;
+    private Integer tajweedScore;
+    private Integer disciplineScore;
+    private String comments;
+}
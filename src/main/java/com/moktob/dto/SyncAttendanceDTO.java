@@ -0,0 +1,21 @@
+package com.moktob.dto;
+
+import com.moktob.common.AttendanceStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncAttendanceDTO {
+    private Long id;
+    private Long studentId;
+    private Long classId;
+    private Long teacherId;
+    private LocalDate attendanceDate;
+    private AttendanceStatus status;
+    private String remarks;
+}
@@ -0,0 +1,22 @@
+package com.moktob.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncChangesDTO {
+    private List<StudentResponseDTO> students;
+    private List<ClassResponseDTO> classes;
+    private List<SyncAttendanceDTO> attendance;
+    private List<SyncMemorizationRecordDTO> memorizationRecords;
+    private List<SyncAssessmentDTO> assessments;
+    private List<SyncDeletionDTO> deleted;
+    private String nextToken;
+    private boolean hasMore; // call again with nextToken before treating the device as up to date
+    private boolean resetRequired; // token too old to replay deletions: drop local data and sync without a token
+}
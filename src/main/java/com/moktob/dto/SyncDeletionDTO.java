@@ -0,0 +1,13 @@
+package com.moktob.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncDeletionDTO {
+    private String entityType; // STUDENT, CLASS, ATTENDANCE, MEMORIZATION_RECORD or ASSESSMENT
+    private Long id;
+}
@@ -0,0 +1,21 @@
+package com.moktob.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncMemorizationRecordDTO {
+    private Long id;
+    private Long studentId;
+    private String surahName;
+    private Integer startAyah;
+    private Integer endAyah;
+    private Integer timesRevised;
+    private LocalDate lastCheckedDate;
+    private String teacherComment;
+}
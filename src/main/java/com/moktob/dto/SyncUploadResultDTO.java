@@ -0,0 +1,17 @@
+package com.moktob.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncUploadResultDTO {
+    private int inserted;
+    private int updated;
+    private int unchanged;
+    private List<SyncAttendanceDTO> conflicts; // server marks that were newer than the device's and were kept
+}
@@ -0,0 +1,17 @@
+package com.moktob.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDetailsCacheStatsDTO {
+    private Boolean enabled;
+    private Integer size;
+    private Long hits;
+    private Long misses;
+    private Double hitRate;
+    private Long invalidations;
+}
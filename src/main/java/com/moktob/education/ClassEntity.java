@@ -11,7 +11,9 @@ import java.time.LocalTime;
 import java.util.List;
 
 @Entity
-@Table(name = "class_entity")
+@Table(name = "class_entity", indexes = {
+        @Index(name = "idx_class_entity_client_updated", columnList = "client_id, updated_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -1,11 +1,13 @@
 package com.moktob.education;
 
 import com.moktob.common.TenantContextHolder;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +20,9 @@ public interface ClassEntityRepository extends JpaRepository<ClassEntity, Long>
     
     long countByClientId(Long clientId);
     
+    @Query("SELECT c.id, c.className FROM ClassEntity c WHERE c.clientId = :clientId")
+    List<Object[]> findClassNamesByClientId(@Param("clientId") Long clientId);
+    
     @Query("SELECT c.id, c.className, c.teacherId, t.name, c.startTime, c.endTime, c.daysOfWeek, " +
            "COALESCE(COUNT(scm.studentId), 0) " +
            "FROM ClassEntity c " +
@@ -26,4 +31,13 @@ public interface ClassEntityRepository extends JpaRepository<ClassEntity, Long>
            "WHERE c.clientId = :clientId " +
            "GROUP BY c.id, c.className, c.teacherId, t.name, c.startTime, c.endTime, c.daysOfWeek")
     List<Object[]> findClassWithTeacherNamesAndStudentCountsByClientId(@Param("clientId") Long clientId);
+
+    @Query("""
+        SELECT c FROM ClassEntity c
+        WHERE c.clientId = :clientId
+        AND (c.updatedAt > :since OR (c.updatedAt = :since AND c.id > :afterId))
+        ORDER BY c.updatedAt, c.id
+        """)
+    List<ClassEntity> findChangedSince(@Param("clientId") Long clientId, @Param("since") LocalDateTime since,
+                                       @Param("afterId") Long afterId, Pageable pageable);
 }
@@ -1,13 +1,19 @@
 package com.moktob.education;
 
+import com.moktob.common.TenantAggregate;
 import com.moktob.common.TenantContextHolder;
+import com.moktob.common.TenantDataChangedEvent;
 import com.moktob.dto.ClassRequest;
 import com.moktob.dto.ClassResponseDTO;
 import com.moktob.dto.ClassDropdownDTO;
+import com.moktob.sync.SyncEntityType;
+import com.moktob.sync.SyncTombstoneService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalTime;
 import java.util.List;
@@ -20,6 +26,8 @@ import java.util.stream.Collectors;
 public class ClassEntityService {
     
     private final ClassEntityRepository classEntityRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SyncTombstoneService syncTombstoneService;
     
     public List<ClassResponseDTO> getAllClasses() {
         Long clientId = TenantContextHolder.getTenantId();
@@ -71,12 +79,20 @@ public class ClassEntityService {
         classEntity.setEndTime(classRequest.getEndTime());
         classEntity.setDaysOfWeek(classRequest.getDaysOfWeek());
 
-        return classEntityRepository.save(classEntity);
+        ClassEntity saved = classEntityRepository.save(classEntity);
+        eventPublisher.publishEvent(new TenantDataChangedEvent(clientId, TenantAggregate.CLASS));
+        return saved;
     }
 
 
+    @Transactional
     public void deleteClass(Long id) {
-        classEntityRepository.deleteById(id);
+        Long clientId = TenantContextHolder.getTenantId();
+        classEntityRepository.findByClientIdAndId(clientId, id).ifPresent(classEntity -> {
+            classEntityRepository.delete(classEntity);
+            syncTombstoneService.recordDeletion(SyncEntityType.CLASS, id);
+        });
+        eventPublisher.publishEvent(new TenantDataChangedEvent(clientId, TenantAggregate.CLASS));
     }
     
     public List<ClassEntity> getClassesByTeacher(Long teacherId) {
@@ -10,7 +10,11 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "student")
+@Table(name = "student", indexes = {
+        @Index(name = "idx_student_client_class", columnList = "client_id, current_class_id"),
+        @Index(name = "idx_student_client_name", columnList = "client_id, name, id"),
+        @Index(name = "idx_student_client_updated", columnList = "client_id, updated_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,52 @@
+package com.moktob.education;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC batch inserts for student imports. {@code Student} uses IDENTITY keys, which stops
+ * Hibernate from batching inserts.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StudentBatchRepository {
+
+    private static final String INSERT = """
+        INSERT INTO student
+            (client_id, name, date_of_birth, guardian_name, guardian_contact, address, enrollment_date,
+             current_class_id, created_at, updated_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insert(List<Student> students) {
+        if (students.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT, students, students.size(), (ps, student) -> {
+            ps.setLong(1, student.getClientId());
+            ps.setString(2, student.getName());
+            ps.setDate(3, student.getDateOfBirth() != null ? Date.valueOf(student.getDateOfBirth()) : null);
+            ps.setString(4, student.getGuardianName());
+            ps.setString(5, student.getGuardianContact());
+            ps.setString(6, student.getAddress());
+            ps.setDate(7, student.getEnrollmentDate() != null ? Date.valueOf(student.getEnrollmentDate()) : null);
+            if (student.getCurrentClassId() != null) {
+                ps.setLong(8, student.getCurrentClassId());
+            } else {
+                ps.setNull(8, Types.BIGINT);
+            }
+            ps.setTimestamp(9, now);
+            ps.setTimestamp(10, now);
+        });
+    }
+}
@@ -1,7 +1,10 @@
 package com.moktob.education;
 
+import com.moktob.common.TenantAggregate;
 import com.moktob.common.TenantContextHolder;
+import com.moktob.common.TenantDataChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -11,6 +14,7 @@ import java.util.List;
 public class StudentClassMapService {
     
     private final StudentClassMapRepository studentClassMapRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     public List<StudentClassMap> getAllMappings() {
         Long clientId = TenantContextHolder.getTenantId();
@@ -20,12 +24,15 @@ public class StudentClassMapService {
     public StudentClassMap saveMapping(StudentClassMap mapping) {
         Long clientId = TenantContextHolder.getTenantId();
         mapping.setClientId(clientId);
-        return studentClassMapRepository.save(mapping);
+        StudentClassMap saved = studentClassMapRepository.save(mapping);
+        eventPublisher.publishEvent(new TenantDataChangedEvent(clientId, TenantAggregate.CLASS));
+        return saved;
     }
     
     public void deleteMapping(Long studentId, Long classId) {
         Long clientId = TenantContextHolder.getTenantId();
         studentClassMapRepository.deleteByClientIdAndStudentIdAndClassId(clientId, studentId, classId);
+        eventPublisher.publishEvent(new TenantDataChangedEvent(clientId, TenantAggregate.CLASS));
     }
     
     public List<StudentClassMap> getMappingsByStudent(Long studentId) {
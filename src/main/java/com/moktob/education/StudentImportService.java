@@ -0,0 +1,280 @@
+package com.moktob.education;
+
+import com.moktob.common.CsvRecordReader;
+import com.moktob.common.TenantAggregate;
+import com.moktob.common.TenantContextHolder;
+import com.moktob.common.TenantDataChangedEvent;
+import com.moktob.dto.StudentImportErrorDTO;
+import com.moktob.dto.StudentImportResultDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Imports students from CSV.
+ * <p>
+ * The upload is parsed one record at a time and valid rows are written in batches of
+ * {@code import.batch-size}, each batch in its own transaction, so memory use is bounded
+ * by the batch and not the file. Invalid rows are reported and skipped; they never abort the
+ * rest of the file. A batch the database rejects is split in halves until the rejected rows
+ * are isolated, so only those fail. Rows are reported by the CSV line they start on. Class
+ * names are resolved against one map of the tenant's classes loaded up front.
+ * <p>
+ * Columns are matched by header, ignoring case, spaces and underscores: {@code name}
+ * (required), {@code date_of_birth}/{@code dob}, {@code guardian_name},
+ * {@code guardian_contact}, {@code address}, {@code enrollment_date} and
+ * {@code class_name}/{@code class}. Dates are ISO ({@code yyyy-MM-dd}).
+ */
+@Service
+@Slf4j
+public class StudentImportService {
+
+    private static final Map<String, String> COLUMN_ALIASES = Map.ofEntries(
+            Map.entry("name", "name"),
+            Map.entry("studentname", "name"),
+            Map.entry("dateofbirth", "dateOfBirth"),
+            Map.entry("dob", "dateOfBirth"),
+            Map.entry("guardianname", "guardianName"),
+            Map.entry("guardiancontact", "guardianContact"),
+            Map.entry("guardianphone", "guardianContact"),
+            Map.entry("address", "address"),
+            Map.entry("enrollmentdate", "enrollmentDate"),
+            Map.entry("classname", "className"),
+            Map.entry("class", "className"));
+
+    private final StudentBatchRepository studentBatchRepository;
+    private final ClassEntityRepository classEntityRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${import.max-rows:100000}")
+    private long maxRows;
+
+    @Value("${import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public StudentImportService(StudentBatchRepository studentBatchRepository,
+                                ClassEntityRepository classEntityRepository,
+                                ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager) {
+        this.studentBatchRepository = studentBatchRepository;
+        this.classEntityRepository = classEntityRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    private record PendingRow(long line, Student student) {
+    }
+
+    private static final class Report {
+        private final int maxErrors;
+        private final List<StudentImportErrorDTO> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        Report(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void fail(long line, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new StudentImportErrorDTO(line, message));
+            }
+        }
+    }
+
+    public StudentImportResultDTO importStudents(InputStream input) {
+        Long clientId = TenantContextHolder.getTenantId();
+        if (clientId == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "No tenant context");
+        }
+
+        long started = System.currentTimeMillis();
+        Map<String, Long> classIds = loadClassIds(clientId);
+        Report report = new Report(maxReportedErrors);
+        long rows = 0;
+        CsvRecordReader reader = new CsvRecordReader(
+                new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+        try {
+            List<String> header = reader.next();
+            if (header == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The file is empty");
+            }
+            String[] columns = mapColumns(header);
+
+            List<PendingRow> batch = new ArrayList<>(batchSize);
+            List<String> record;
+            while ((record = reader.next()) != null) {
+                long line = reader.getLineNumber();
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                if (rows == maxRows) {
+                    report.fail(line, "File has more than " + maxRows + " rows; the rest was not imported");
+                    break;
+                }
+                rows++;
+                Student student = toStudent(clientId, columns, record, classIds, line, report);
+                if (student != null) {
+                    batch.add(new PendingRow(line, student));
+                    if (batch.size() >= batchSize) {
+                        write(batch, report);
+                        batch.clear();
+                    }
+                }
+            }
+            write(batch, report);
+        } catch (IOException e) {
+            report.fail(reader.getLineNumber(), "Could not read the file: " + e.getMessage());
+        }
+
+        if (report.imported > 0) {
+            eventPublisher.publishEvent(new TenantDataChangedEvent(clientId, TenantAggregate.STUDENT));
+        }
+        log.info("Imported {} of {} student rows for client {} in {} ms ({} failed)",
+                report.imported, rows, clientId, System.currentTimeMillis() - started, report.failed);
+        return new StudentImportResultDTO(rows, report.imported, report.failed, report.errors);
+    }
+
+    private Map<String, Long> loadClassIds(Long clientId) {
+        Map<String, Long> classIds = new HashMap<>();
+        for (Object[] row : classEntityRepository.findClassNamesByClientId(clientId)) {
+            String key = ((String) row[1]).trim().toLowerCase(Locale.ROOT);
+            // A name shared by several classes cannot be resolved; marked with null
+            classIds.put(key, classIds.containsKey(key) ? null : (Long) row[0]);
+        }
+        return classIds;
+    }
+
+    private static String[] mapColumns(List<String> header) {
+        String[] columns = new String[header.size()];
+        boolean hasName = false;
+        for (int i = 0; i < header.size(); i++) {
+            String key = header.get(i).toLowerCase(Locale.ROOT).replaceAll("[^a-z]", "");
+            columns[i] = COLUMN_ALIASES.get(key);
+            hasName |= "name".equals(columns[i]);
+        }
+        if (!hasName) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The header must include a name column");
+        }
+        return columns;
+    }
+
+    private static Student toStudent(Long clientId, String[] columns, List<String> record,
+                                     Map<String, Long> classIds, long line, Report report) {
+        Student student = new Student();
+        student.setClientId(clientId);
+        List<String> problems = new ArrayList<>();
+        for (int i = 0; i < columns.length && i < record.size(); i++) {
+            if (columns[i] == null) {
+                continue;
+            }
+            String value = record.get(i).trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            switch (columns[i]) {
+                case "name" -> student.setName(checkLength(value, 100, "name", problems));
+                case "dateOfBirth" -> student.setDateOfBirth(parseDate(value, "date_of_birth", problems));
+                case "guardianName" -> student.setGuardianName(checkLength(value, 100, "guardian_name", problems));
+                case "guardianContact" -> student.setGuardianContact(checkLength(value, 20, "guardian_contact", problems));
+                case "address" -> student.setAddress(value);
+                case "enrollmentDate" -> student.setEnrollmentDate(parseDate(value, "enrollment_date", problems));
+                case "className" -> {
+                    String key = value.toLowerCase(Locale.ROOT);
+                    if (!classIds.containsKey(key)) {
+                        problems.add("unknown class '" + value + "'");
+                    } else if (classIds.get(key) == null) {
+                        problems.add("class name '" + value + "' matches more than one class");
+                    } else {
+                        student.setCurrentClassId(classIds.get(key));
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        if (record.size() > columns.length) {
+            problems.add("has " + record.size() + " fields but the header has " + columns.length);
+        }
+        if (student.getName() == null && problems.stream().noneMatch(problem -> problem.startsWith("name"))) {
+            problems.add("name is required");
+        }
+        if (!problems.isEmpty()) {
+            report.fail(line, String.join("; ", problems));
+            return null;
+        }
+        return student;
+    }
+
+    private static String checkLength(String value, int max, String column, List<String> problems) {
+        if (value.length() > max) {
+            problems.add(column + " is longer than " + max + " characters");
+            return null;
+        }
+        return value;
+    }
+
+    private static LocalDate parseDate(String value, String column, List<String> problems) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            problems.add(column + " '" + value + "' is not a yyyy-MM-dd date");
+            return null;
+        }
+    }
+
+    private void write(List<PendingRow> batch, Report report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long failedBefore = report.failed;
+        insert(batch, report);
+        if (report.failed > failedBefore) {
+            log.warn("Database rejected {} of {} rows in a student import batch", report.failed - failedBefore, batch.size());
+        }
+    }
+
+    /**
+     * Inserts the rows in one transaction. If the database rejects them, inserts each half
+     * separately, down to single rows, which are reported with the database's message.
+     */
+    private void insert(List<PendingRow> rows, Report report) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    studentBatchRepository.insert(rows.stream().map(PendingRow::student).toList()));
+            report.imported += rows.size();
+        } catch (DataAccessException e) {
+            if (rows.size() == 1) {
+                report.fail(rows.get(0).line(), "Database rejected the row: " + e.getMostSpecificCause().getMessage());
+                return;
+            }
+            int middle = rows.size() / 2;
+            insert(rows.subList(0, middle), report);
+            insert(rows.subList(middle, rows.size()), report);
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.moktob.education;
 
 import com.moktob.common.TenantContextHolder;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +28,29 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     @Query("SELECT s.id, s.name, s.dateOfBirth, s.guardianName, s.guardianContact, s.address, " +
            "s.enrollmentDate, s.currentClassId, s.photoUrl, c.className " +
            "FROM Student s LEFT JOIN ClassEntity c ON s.currentClassId = c.id " +
-           "WHERE s.clientId = :clientId")
-    List<Object[]> findStudentWithClassNamesByClientId(@Param("clientId") Long clientId);
+           "WHERE s.clientId = :clientId " +
+           "AND (s.name > :afterName OR (s.name = :afterName AND s.id > :afterId)) " +
+           "ORDER BY s.name, s.id")
+    List<Object[]> findStudentPageWithClassNamesByClientId(@Param("clientId") Long clientId,
+                                                          @Param("afterName") String afterName,
+                                                          @Param("afterId") Long afterId,
+                                                          Pageable pageable);
+
+    @Query("SELECT s.id, s.name, s.guardianName, s.guardianContact " +
+           "FROM Student s WHERE s.clientId = :clientId AND s.currentClassId = :classId " +
+           "ORDER BY s.name, s.id")
+    List<Object[]> findRosterByClientIdAndClassId(@Param("clientId") Long clientId, @Param("classId") Long classId);
+
+    @Query("""
+        SELECT s FROM Student s
+        WHERE s.clientId = :clientId
+        AND (s.updatedAt > :since OR (s.updatedAt = :since AND s.id > :afterId))
+        ORDER BY s.updatedAt, s.id
+        """)
+    List<Student> findChangedSince(@Param("clientId") Long clientId, @Param("since") LocalDateTime since,
+                                   @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT s.id, s.name, s.guardianName, s.guardianContact " +
+           "FROM Student s WHERE s.clientId = :clientId AND s.id IN :ids")
+    List<Object[]> findGuardiansByClientIdAndIds(@Param("clientId") Long clientId, @Param("ids") Collection<Long> ids);
 }
@@ -1,11 +1,19 @@
 package com.moktob.education;
 
+import com.moktob.common.CursorPaging;
+import com.moktob.common.TenantAggregate;
 import com.moktob.common.TenantContextHolder;
+import com.moktob.common.TenantDataChangedEvent;
+import com.moktob.dto.CursorPageDTO;
 import com.moktob.dto.StudentRequest;
 import com.moktob.dto.StudentResponseDTO;
+import com.moktob.sync.SyncEntityType;
+import com.moktob.sync.SyncTombstoneService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -18,18 +26,33 @@ import java.util.stream.Collectors;
 public class StudentService {
 
     private final StudentRepository studentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SyncTombstoneService syncTombstoneService;
 
-    public List<StudentResponseDTO> getAllStudents() {
+    /**
+     * Students ordered by name, then id; the cursor carries both so equal names page cleanly.
+     */
+    public CursorPageDTO<StudentResponseDTO> getAllStudents(String cursor, int limit) {
         Long clientId = TenantContextHolder.getTenantId();
         log.info("StudentService.getAllStudents() - clientId: {}", clientId);
         if (clientId == null) {
             log.warn("Client ID is null in TenantContextHolder!");
-            return List.of(); // Return empty list if no client ID
+            return new CursorPageDTO<>(List.of(), null); // Return empty page if no client ID
         }
-        List<Object[]> results = studentRepository.findStudentWithClassNamesByClientId(clientId);
-        return results.stream()
+        String afterName = "";
+        long afterId = 0L;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] keys = CursorPaging.decode(cursor, 2);
+            afterId = CursorPaging.parseId(keys[0]);
+            afterName = keys[1];
+        }
+        List<StudentResponseDTO> rows = studentRepository
+                .findStudentPageWithClassNamesByClientId(clientId, afterName, afterId, CursorPaging.rows(limit))
+                .stream()
                 .map(this::convertArrayToDTO)
                 .collect(Collectors.toList());
+        return CursorPaging.page(rows, limit,
+                student -> CursorPaging.encode(String.valueOf(student.getId()), student.getName()));
     }
     
     private StudentResponseDTO convertArrayToDTO(Object[] row) {
@@ -68,12 +91,20 @@ public class StudentService {
         student.setCurrentClassId(studentRequest.getClassId());
         student.setClientId(clientId);
 
-        return studentRepository.save(student);
+        Student saved = studentRepository.save(student);
+        eventPublisher.publishEvent(new TenantDataChangedEvent(clientId, TenantAggregate.STUDENT));
+        return saved;
     }
 
 
+    @Transactional
     public void deleteStudent(Long id) {
-        studentRepository.deleteById(id);
+        Long clientId = TenantContextHolder.getTenantId();
+        studentRepository.findByClientIdAndId(clientId, id).ifPresent(student -> {
+            studentRepository.delete(student);
+            syncTombstoneService.recordDeletion(SyncEntityType.STUDENT, id);
+        });
+        eventPublisher.publishEvent(new TenantDataChangedEvent(clientId, TenantAggregate.STUDENT));
     }
 
     public List<Student> getStudentsByClass(Long classId) {
@@ -1,9 +1,12 @@
 package com.moktob.education;
 
+import com.moktob.common.TenantAggregate;
 import com.moktob.common.TenantContextHolder;
+import com.moktob.common.TenantDataChangedEvent;
 import com.moktob.dto.TeacherRequest;
 import com.moktob.dto.TeacherResponseDTO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -18,6 +21,7 @@ import java.util.stream.Collectors;
 public class TeacherService {
     
     private final TeacherRepository teacherRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     public List<TeacherResponseDTO> getAllTeachers() {
         Long clientId = TenantContextHolder.getTenantId();
@@ -69,12 +73,16 @@ public class TeacherService {
         entity.setIsActive(teacher.getIsActive());
         entity.setClientId(clientId);
 
-        return teacherRepository.save(entity);
+        Teacher saved = teacherRepository.save(entity);
+        eventPublisher.publishEvent(new TenantDataChangedEvent(clientId, TenantAggregate.TEACHER));
+        return saved;
     }
 
 
     public void deleteTeacher(Long id) {
+        Long clientId = TenantContextHolder.getTenantId();
         teacherRepository.deleteById(id);
+        eventPublisher.publishEvent(new TenantDataChangedEvent(clientId, TenantAggregate.TEACHER));
     }
     
     public List<Teacher> getActiveTeachers() {
@@ -1,6 +1,7 @@
 package com.moktob.finance;
 
 import com.moktob.common.TenantContextHolder;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,12 +14,15 @@ import java.util.Optional;
 
 @Repository
 public interface ExpenseRepository extends JpaRepository<Expense, Long> {
-    List<Expense> findByClientId(Long clientId);
+    @Query("SELECT e FROM Expense e WHERE e.clientId = :clientId AND e.id < :beforeId ORDER BY e.id DESC")
+    List<Expense> findPageByClientId(@Param("clientId") Long clientId, @Param("beforeId") Long beforeId, Pageable pageable);
     
     Optional<Expense> findByClientIdAndId(Long clientId, Long id);
     
-    @Query("SELECT e FROM Expense e WHERE e.clientId = :clientId AND e.category = :category")
-    List<Expense> findByClientIdAndCategory(@Param("clientId") Long clientId, @Param("category") String category);
+    @Query("SELECT e FROM Expense e WHERE e.clientId = :clientId AND e.category = :category " +
+           "AND e.id < :beforeId ORDER BY e.id DESC")
+    List<Expense> findPageByClientIdAndCategory(@Param("clientId") Long clientId, @Param("category") String category,
+                                                @Param("beforeId") Long beforeId, Pageable pageable);
     
     @Query("SELECT e FROM Expense e WHERE e.clientId = :clientId AND e.expenseDate = :date")
     List<Expense> findByClientIdAndExpenseDate(@Param("clientId") Long clientId, @Param("date") LocalDate date);
@@ -1,6 +1,8 @@
 package com.moktob.finance;
 
+import com.moktob.common.CursorPaging;
 import com.moktob.common.TenantContextHolder;
+import com.moktob.dto.CursorPageDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -15,9 +17,11 @@ public class ExpenseService {
     
     private final ExpenseRepository expenseRepository;
     
-    public List<Expense> getAllExpenses() {
+    public CursorPageDTO<Expense> getAllExpenses(String cursor, int limit) {
         Long clientId = TenantContextHolder.getTenantId();
-        return expenseRepository.findByClientId(clientId);
+        List<Expense> rows = expenseRepository.findPageByClientId(clientId,
+                CursorPaging.beforeId(cursor), CursorPaging.rows(limit));
+        return CursorPaging.byId(rows, limit, Expense::getId);
     }
     
     public Optional<Expense> getExpenseById(Long id) {
@@ -35,9 +39,11 @@ public class ExpenseService {
         expenseRepository.deleteById(id);
     }
     
-    public List<Expense> getExpensesByCategory(String category) {
+    public CursorPageDTO<Expense> getExpensesByCategory(String category, String cursor, int limit) {
         Long clientId = TenantContextHolder.getTenantId();
-        return expenseRepository.findByClientIdAndCategory(clientId, category);
+        List<Expense> rows = expenseRepository.findPageByClientIdAndCategory(clientId, category,
+                CursorPaging.beforeId(cursor), CursorPaging.rows(limit));
+        return CursorPaging.byId(rows, limit, Expense::getId);
     }
     
     public List<Expense> getExpensesByDate(LocalDate date) {
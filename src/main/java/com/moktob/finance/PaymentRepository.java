@@ -4,6 +4,7 @@ import com.moktob.common.PayerType;
 import com.moktob.common.PaymentMethod;
 import com.moktob.common.PaymentType;
 import com.moktob.common.TenantContextHolder;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -16,18 +17,25 @@ import java.util.Optional;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
-    List<Payment> findByClientId(Long clientId);
+    @Query("SELECT p FROM Payment p WHERE p.clientId = :clientId AND p.id < :beforeId ORDER BY p.id DESC")
+    List<Payment> findPageByClientId(@Param("clientId") Long clientId, @Param("beforeId") Long beforeId, Pageable pageable);
     
     Optional<Payment> findByClientIdAndId(Long clientId, Long id);
     
-    @Query("SELECT p FROM Payment p WHERE p.clientId = :clientId AND p.payerType = :payerType")
-    List<Payment> findByClientIdAndPayerType(@Param("clientId") Long clientId, @Param("payerType") PayerType payerType);
+    @Query("SELECT p FROM Payment p WHERE p.clientId = :clientId AND p.payerType = :payerType " +
+           "AND p.id < :beforeId ORDER BY p.id DESC")
+    List<Payment> findPageByClientIdAndPayerType(@Param("clientId") Long clientId, @Param("payerType") PayerType payerType,
+                                                 @Param("beforeId") Long beforeId, Pageable pageable);
     
-    @Query("SELECT p FROM Payment p WHERE p.clientId = :clientId AND p.paymentType = :paymentType")
-    List<Payment> findByClientIdAndPaymentType(@Param("clientId") Long clientId, @Param("paymentType") PaymentType paymentType);
+    @Query("SELECT p FROM Payment p WHERE p.clientId = :clientId AND p.paymentType = :paymentType " +
+           "AND p.id < :beforeId ORDER BY p.id DESC")
+    List<Payment> findPageByClientIdAndPaymentType(@Param("clientId") Long clientId, @Param("paymentType") PaymentType paymentType,
+                                                   @Param("beforeId") Long beforeId, Pageable pageable);
     
-    @Query("SELECT p FROM Payment p WHERE p.clientId = :clientId AND p.paymentMethod = :paymentMethod")
-    List<Payment> findByClientIdAndPaymentMethod(@Param("clientId") Long clientId, @Param("paymentMethod") PaymentMethod paymentMethod);
+    @Query("SELECT p FROM Payment p WHERE p.clientId = :clientId AND p.paymentMethod = :paymentMethod " +
+           "AND p.id < :beforeId ORDER BY p.id DESC")
+    List<Payment> findPageByClientIdAndPaymentMethod(@Param("clientId") Long clientId, @Param("paymentMethod") PaymentMethod paymentMethod,
+                                                     @Param("beforeId") Long beforeId, Pageable pageable);
     
     @Query("SELECT p FROM Payment p WHERE p.clientId = :clientId AND p.paymentDate = :date")
     List<Payment> findByClientIdAndPaymentDate(@Param("clientId") Long clientId, @Param("date") LocalDate date);
@@ -1,9 +1,11 @@
 package com.moktob.finance;
 
+import com.moktob.common.CursorPaging;
 import com.moktob.common.PayerType;
 import com.moktob.common.PaymentMethod;
 import com.moktob.common.PaymentType;
 import com.moktob.common.TenantContextHolder;
+import com.moktob.dto.CursorPageDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -18,9 +20,11 @@ public class PaymentService {
     
     private final PaymentRepository paymentRepository;
     
-    public List<Payment> getAllPayments() {
+    public CursorPageDTO<Payment> getAllPayments(String cursor, int limit) {
         Long clientId = TenantContextHolder.getTenantId();
-        return paymentRepository.findByClientId(clientId);
+        List<Payment> rows = paymentRepository.findPageByClientId(clientId,
+                CursorPaging.beforeId(cursor), CursorPaging.rows(limit));
+        return CursorPaging.byId(rows, limit, Payment::getId);
     }
     
     public Optional<Payment> getPaymentById(Long id) {
@@ -38,19 +42,25 @@ public class PaymentService {
         paymentRepository.deleteById(id);
     }
     
-    public List<Payment> getPaymentsByPayerType(PayerType payerType) {
+    public CursorPageDTO<Payment> getPaymentsByPayerType(PayerType payerType, String cursor, int limit) {
         Long clientId = TenantContextHolder.getTenantId();
-        return paymentRepository.findByClientIdAndPayerType(clientId, payerType);
+        List<Payment> rows = paymentRepository.findPageByClientIdAndPayerType(clientId, payerType,
+                CursorPaging.beforeId(cursor), CursorPaging.rows(limit));
+        return CursorPaging.byId(rows, limit, Payment::getId);
     }
     
-    public List<Payment> getPaymentsByPaymentType(PaymentType paymentType) {
+    public CursorPageDTO<Payment> getPaymentsByPaymentType(PaymentType paymentType, String cursor, int limit) {
         Long clientId = TenantContextHolder.getTenantId();
-        return paymentRepository.findByClientIdAndPaymentType(clientId, paymentType);
+        List<Payment> rows = paymentRepository.findPageByClientIdAndPaymentType(clientId, paymentType,
+                CursorPaging.beforeId(cursor), CursorPaging.rows(limit));
+        return CursorPaging.byId(rows, limit, Payment::getId);
     }
     
-    public List<Payment> getPaymentsByPaymentMethod(PaymentMethod paymentMethod) {
+    public CursorPageDTO<Payment> getPaymentsByPaymentMethod(PaymentMethod paymentMethod, String cursor, int limit) {
         Long clientId = TenantContextHolder.getTenantId();
-        return paymentRepository.findByClientIdAndPaymentMethod(clientId, paymentMethod);
+        List<Payment> rows = paymentRepository.findPageByClientIdAndPaymentMethod(clientId, paymentMethod,
+                CursorPaging.beforeId(cursor), CursorPaging.rows(limit));
+        return CursorPaging.byId(rows, limit, Payment::getId);
     }
     
     public List<Payment> getPaymentsByDate(LocalDate date) {
@@ -12,7 +12,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "assessment")
+@Table(name = "assessment", indexes = {
+        @Index(name = "idx_assessment_client_updated", columnList = "client_id, updated_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
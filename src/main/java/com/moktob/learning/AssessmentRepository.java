@@ -1,24 +1,31 @@
 package com.moktob.learning;
 
 import com.moktob.common.TenantContextHolder;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AssessmentRepository extends JpaRepository<Assessment, Long> {
-    List<Assessment> findByClientId(Long clientId);
+    @Query("SELECT a FROM Assessment a WHERE a.clientId = :clientId AND a.id < :beforeId ORDER BY a.id DESC")
+    List<Assessment> findPageByClientId(@Param("clientId") Long clientId, @Param("beforeId") Long beforeId, Pageable pageable);
     
-    @Query("SELECT a FROM Assessment a WHERE a.clientId = :clientId AND a.studentId = :studentId")
-    List<Assessment> findByClientIdAndStudentId(@Param("clientId") Long clientId, @Param("studentId") Long studentId);
+    @Query("SELECT a FROM Assessment a WHERE a.clientId = :clientId AND a.studentId = :studentId " +
+           "AND a.id < :beforeId ORDER BY a.id DESC")
+    List<Assessment> findPageByClientIdAndStudentId(@Param("clientId") Long clientId, @Param("studentId") Long studentId,
+                                                    @Param("beforeId") Long beforeId, Pageable pageable);
     
-    @Query("SELECT a FROM Assessment a WHERE a.clientId = :clientId AND a.teacherId = :teacherId")
-    List<Assessment> findByClientIdAndTeacherId(@Param("clientId") Long clientId, @Param("teacherId") Long teacherId);
+    @Query("SELECT a FROM Assessment a WHERE a.clientId = :clientId AND a.teacherId = :teacherId " +
+           "AND a.id < :beforeId ORDER BY a.id DESC")
+    List<Assessment> findPageByClientIdAndTeacherId(@Param("clientId") Long clientId, @Param("teacherId") Long teacherId,
+                                                    @Param("beforeId") Long beforeId, Pageable pageable);
     
     Optional<Assessment> findByClientIdAndId(Long clientId, Long id);
     
@@ -26,4 +33,13 @@ public interface AssessmentRepository extends JpaRepository<Assessment, Long> {
     List<Assessment> findByClientIdAndAssessmentDateBetween(@Param("clientId") Long clientId, 
                                                            @Param("startDate") LocalDate startDate, 
                                                            @Param("endDate") LocalDate endDate);
+
+    @Query("""
+        SELECT a FROM Assessment a
+        WHERE a.clientId = :clientId
+        AND (a.updatedAt > :since OR (a.updatedAt = :since AND a.id > :afterId))
+        ORDER BY a.updatedAt, a.id
+        """)
+    List<Assessment> findChangedSince(@Param("clientId") Long clientId, @Param("since") LocalDateTime since,
+                                      @Param("afterId") Long afterId, Pageable pageable);
 }
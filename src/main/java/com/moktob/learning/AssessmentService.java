@@ -1,8 +1,16 @@
 package com.moktob.learning;
 
+import com.moktob.common.CursorPaging;
+import com.moktob.common.TenantAggregate;
 import com.moktob.common.TenantContextHolder;
+import com.moktob.common.TenantDataChangedEvent;
+import com.moktob.dto.CursorPageDTO;
+import com.moktob.sync.SyncEntityType;
+import com.moktob.sync.SyncTombstoneService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -13,10 +21,14 @@ import java.util.Optional;
 public class AssessmentService {
     
     private final AssessmentRepository assessmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SyncTombstoneService syncTombstoneService;
     
-    public List<Assessment> getAllAssessments() {
+    public CursorPageDTO<Assessment> getAllAssessments(String cursor, int limit) {
         Long clientId = TenantContextHolder.getTenantId();
-        return assessmentRepository.findByClientId(clientId);
+        List<Assessment> rows = assessmentRepository.findPageByClientId(clientId,
+                CursorPaging.beforeId(cursor), CursorPaging.rows(limit));
+        return CursorPaging.byId(rows, limit, Assessment::getId);
     }
     
     public Optional<Assessment> getAssessmentById(Long id) {
@@ -27,21 +39,33 @@ public class AssessmentService {
     public Assessment saveAssessment(Assessment assessment) {
         Long clientId = TenantContextHolder.getTenantId();
         assessment.setClientId(clientId);
-        return assessmentRepository.save(assessment);
+        Assessment saved = assessmentRepository.save(assessment);
+        eventPublisher.publishEvent(new TenantDataChangedEvent(clientId, TenantAggregate.ASSESSMENT));
+        return saved;
     }
     
+    @Transactional
     public void deleteAssessment(Long id) {
-        assessmentRepository.deleteById(id);
+        Long clientId = TenantContextHolder.getTenantId();
+        assessmentRepository.findByClientIdAndId(clientId, id).ifPresent(assessment -> {
+            assessmentRepository.delete(assessment);
+            syncTombstoneService.recordDeletion(SyncEntityType.ASSESSMENT, id);
+        });
+        eventPublisher.publishEvent(new TenantDataChangedEvent(clientId, TenantAggregate.ASSESSMENT));
     }
     
-    public List<Assessment> getAssessmentsByStudent(Long studentId) {
+    public CursorPageDTO<Assessment> getAssessmentsByStudent(Long studentId, String cursor, int limit) {
         Long clientId = TenantContextHolder.getTenantId();
-        return assessmentRepository.findByClientIdAndStudentId(clientId, studentId);
+        List<Assessment> rows = assessmentRepository.findPageByClientIdAndStudentId(clientId, studentId,
+                CursorPaging.beforeId(cursor), CursorPaging.rows(limit));
+        return CursorPaging.byId(rows, limit, Assessment::getId);
     }
     
-    public List<Assessment> getAssessmentsByTeacher(Long teacherId) {
+    public CursorPageDTO<Assessment> getAssessmentsByTeacher(Long teacherId, String cursor, int limit) {
         Long clientId = TenantContextHolder.getTenantId();
-        return assessmentRepository.findByClientIdAndTeacherId(clientId, teacherId);
+        List<Assessment> rows = assessmentRepository.findPageByClientIdAndTeacherId(clientId, teacherId,
+                CursorPaging.beforeId(cursor), CursorPaging.rows(limit));
+        return CursorPaging.byId(rows, limit, Assessment::getId);
     }
     
     public List<Assessment> getAssessmentsByDateRange(LocalDate startDate, LocalDate endDate) {
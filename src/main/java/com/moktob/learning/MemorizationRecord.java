@@ -11,7 +11,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "memorization_record")
+@Table(name = "memorization_record", indexes = {
+        @Index(name = "idx_memorization_record_client_updated", columnList = "client_id, updated_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -1,23 +1,39 @@
 package com.moktob.learning;
 
 import com.moktob.common.TenantContextHolder;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface MemorizationRecordRepository extends JpaRepository<MemorizationRecord, Long> {
-    List<MemorizationRecord> findByClientId(Long clientId);
+    @Query("SELECT mr FROM MemorizationRecord mr WHERE mr.clientId = :clientId AND mr.id < :beforeId ORDER BY mr.id DESC")
+    List<MemorizationRecord> findPageByClientId(@Param("clientId") Long clientId, @Param("beforeId") Long beforeId, Pageable pageable);
     
-    @Query("SELECT mr FROM MemorizationRecord mr WHERE mr.clientId = :clientId AND mr.studentId = :studentId")
-    List<MemorizationRecord> findByClientIdAndStudentId(@Param("clientId") Long clientId, @Param("studentId") Long studentId);
+    @Query("SELECT mr FROM MemorizationRecord mr WHERE mr.clientId = :clientId AND mr.studentId = :studentId " +
+           "AND mr.id < :beforeId ORDER BY mr.id DESC")
+    List<MemorizationRecord> findPageByClientIdAndStudentId(@Param("clientId") Long clientId, @Param("studentId") Long studentId,
+                                                            @Param("beforeId") Long beforeId, Pageable pageable);
     
     Optional<MemorizationRecord> findByClientIdAndId(Long clientId, Long id);
     
-    @Query("SELECT mr FROM MemorizationRecord mr WHERE mr.clientId = :clientId AND mr.surahName = :surahName")
-    List<MemorizationRecord> findByClientIdAndSurahName(@Param("clientId") Long clientId, @Param("surahName") String surahName);
+    @Query("SELECT mr FROM MemorizationRecord mr WHERE mr.clientId = :clientId AND mr.surahName = :surahName " +
+           "AND mr.id < :beforeId ORDER BY mr.id DESC")
+    List<MemorizationRecord> findPageByClientIdAndSurahName(@Param("clientId") Long clientId, @Param("surahName") String surahName,
+                                                            @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query("""
+        SELECT m FROM MemorizationRecord m
+        WHERE m.clientId = :clientId
+        AND (m.updatedAt > :since OR (m.updatedAt = :since AND m.id > :afterId))
+        ORDER BY m.updatedAt, m.id
+        """)
+    List<MemorizationRecord> findChangedSince(@Param("clientId") Long clientId, @Param("since") LocalDateTime since,
+                                              @Param("afterId") Long afterId, Pageable pageable);
 }
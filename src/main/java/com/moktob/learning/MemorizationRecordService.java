@@ -1,8 +1,13 @@
 package com.moktob.learning;
 
+import com.moktob.common.CursorPaging;
 import com.moktob.common.TenantContextHolder;
+import com.moktob.dto.CursorPageDTO;
+import com.moktob.sync.SyncEntityType;
+import com.moktob.sync.SyncTombstoneService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,10 +17,13 @@ import java.util.Optional;
 public class MemorizationRecordService {
     
     private final MemorizationRecordRepository memorizationRecordRepository;
+    private final SyncTombstoneService syncTombstoneService;
     
-    public List<MemorizationRecord> getAllRecords() {
+    public CursorPageDTO<MemorizationRecord> getAllRecords(String cursor, int limit) {
         Long clientId = TenantContextHolder.getTenantId();
-        return memorizationRecordRepository.findByClientId(clientId);
+        List<MemorizationRecord> rows = memorizationRecordRepository.findPageByClientId(clientId,
+                CursorPaging.beforeId(cursor), CursorPaging.rows(limit));
+        return CursorPaging.byId(rows, limit, MemorizationRecord::getId);
     }
     
     public Optional<MemorizationRecord> getRecordById(Long id) {
@@ -29,17 +37,26 @@ public class MemorizationRecordService {
         return memorizationRecordRepository.save(record);
     }
     
+    @Transactional
     public void deleteRecord(Long id) {
-        memorizationRecordRepository.deleteById(id);
+        Long clientId = TenantContextHolder.getTenantId();
+        memorizationRecordRepository.findByClientIdAndId(clientId, id).ifPresent(record -> {
+            memorizationRecordRepository.delete(record);
+            syncTombstoneService.recordDeletion(SyncEntityType.MEMORIZATION_RECORD, id);
+        });
     }
     
-    public List<MemorizationRecord> getRecordsByStudent(Long studentId) {
+    public CursorPageDTO<MemorizationRecord> getRecordsByStudent(Long studentId, String cursor, int limit) {
         Long clientId = TenantContextHolder.getTenantId();
-        return memorizationRecordRepository.findByClientIdAndStudentId(clientId, studentId);
+        List<MemorizationRecord> rows = memorizationRecordRepository.findPageByClientIdAndStudentId(clientId, studentId,
+                CursorPaging.beforeId(cursor), CursorPaging.rows(limit));
+        return CursorPaging.byId(rows, limit, MemorizationRecord::getId);
     }
     
-    public List<MemorizationRecord> getRecordsBySurah(String surahName) {
+    public CursorPageDTO<MemorizationRecord> getRecordsBySurah(String surahName, String cursor, int limit) {
         Long clientId = TenantContextHolder.getTenantId();
-        return memorizationRecordRepository.findByClientIdAndSurahName(clientId, surahName);
+        List<MemorizationRecord> rows = memorizationRecordRepository.findPageByClientIdAndSurahName(clientId, surahName,
+                CursorPaging.beforeId(cursor), CursorPaging.rows(limit));
+        return CursorPaging.byId(rows, limit, MemorizationRecord::getId);
     }
 }
@@ -1,6 +1,7 @@
 package com.moktob.repository;
 
 import com.moktob.attendance.Attendance;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -17,17 +18,17 @@ public interface DashboardRepository extends JpaRepository<Attendance, Long> {
             c.id as classId,
             c.className as className,
             t.name as teacherName,
-            COUNT(DISTINCT scm.studentId) as totalStudents,
-            COUNT(CASE WHEN a.status = 'PRESENT' THEN 1 END) as presentCount,
-            COUNT(CASE WHEN a.status = 'ABSENT' THEN 1 END) as absentCount,
-            COUNT(CASE WHEN a.status = 'LATE' THEN 1 END) as lateCount,
-            COUNT(a.id) as totalAttendanceRecords,
+            (SELECT COUNT(scm.studentId) FROM StudentClassMap scm WHERE scm.classId = c.id) as totalStudents,
+            COALESCE(SUM(ds.presentCount), 0) as presentCount,
+            COALESCE(SUM(ds.absentCount), 0) as absentCount,
+            COALESCE(SUM(ds.lateCount), 0) as lateCount,
+            COALESCE(SUM(ds.presentCount + ds.absentCount + ds.lateCount), 0) as totalAttendanceRecords,
             CONCAT(c.startTime, ' - ', c.endTime) as timeSlot,
             c.daysOfWeek as daysOfWeek
         FROM ClassEntity c
         LEFT JOIN Teacher t ON c.teacherId = t.id
-        LEFT JOIN StudentClassMap scm ON c.id = scm.classId
-        LEFT JOIN Attendance a ON c.id = a.classId AND a.attendanceDate BETWEEN :startDate AND :endDate
+        LEFT JOIN AttendanceDailySummary ds ON ds.classId = c.id AND ds.clientId = c.clientId
+            AND ds.summaryDate BETWEEN :startDate AND :endDate
         WHERE c.clientId = :clientId
         GROUP BY c.id, c.className, t.name, c.startTime, c.endTime, c.daysOfWeek
         ORDER BY c.className
@@ -36,69 +37,128 @@ public interface DashboardRepository extends JpaRepository<Attendance, Long> {
                                             @Param("startDate") LocalDate startDate, 
                                             @Param("endDate") LocalDate endDate);
     
+    /**
+     * Students come from the per-day distinct count: adding up the per-class counts would
+     * count a student once per class they were marked in.
+     */
     @Query("""
         SELECT 
-            a.attendanceDate as date,
-            COUNT(CASE WHEN a.status = 'PRESENT' THEN 1 END) as presentCount,
-            COUNT(CASE WHEN a.status = 'ABSENT' THEN 1 END) as absentCount,
-            COUNT(CASE WHEN a.status = 'LATE' THEN 1 END) as lateCount,
-            COUNT(DISTINCT a.studentId) as totalStudents
-        FROM Attendance a
-        WHERE a.clientId = :clientId 
-        AND a.attendanceDate BETWEEN :startDate AND :endDate
-        GROUP BY a.attendanceDate
-        ORDER BY a.attendanceDate
+            ds.summaryDate as date,
+            SUM(ds.presentCount) as presentCount,
+            SUM(ds.absentCount) as absentCount,
+            SUM(ds.lateCount) as lateCount,
+            COALESCE(MAX(dc.studentCount), 0) as totalStudents
+        FROM AttendanceDailySummary ds
+        LEFT JOIN AttendanceDailyStudentCount dc ON dc.clientId = ds.clientId AND dc.summaryDate = ds.summaryDate
+        WHERE ds.clientId = :clientId 
+        AND ds.summaryDate BETWEEN :startDate AND :endDate
+        GROUP BY ds.summaryDate
+        ORDER BY ds.summaryDate
         """)
     List<Object[]> getAttendanceTrends(@Param("clientId") Long clientId,
                                       @Param("startDate") LocalDate startDate,
                                       @Param("endDate") LocalDate endDate);
     
+    /**
+     * Attendance and assessments are aggregated per student before joining, so neither
+     * side multiplies the other's rows.
+     */
     @Query("""
         SELECT 
             s.id as studentId,
             s.name as studentName,
             c.className as className,
-            COUNT(a.id) as totalAttendanceRecords,
-            COUNT(CASE WHEN a.status = 'PRESENT' THEN 1 END) as presentCount,
-            AVG(ass.recitationScore) as avgRecitationScore,
-            AVG(ass.tajweedScore) as avgTajweedScore,
-            AVG(ass.disciplineScore) as avgDisciplineScore,
-            COUNT(ass.id) as totalAssessments
+            COALESCE(att.totalRecords, 0) as totalAttendanceRecords,
+            COALESCE(att.presentCount, 0) as presentCount,
+            asm.avgRecitationScore as avgRecitationScore,
+            asm.avgTajweedScore as avgTajweedScore,
+            asm.avgDisciplineScore as avgDisciplineScore,
+            COALESCE(asm.totalAssessments, 0) as totalAssessments
         FROM Student s
         LEFT JOIN ClassEntity c ON s.currentClassId = c.id
-        LEFT JOIN Attendance a ON s.id = a.studentId AND a.attendanceDate BETWEEN :startDate AND :endDate
-        LEFT JOIN Assessment ass ON s.id = ass.studentId AND ass.assessmentDate BETWEEN :startDate AND :endDate
+        LEFT JOIN (
+            SELECT 
+                a.studentId as studentId,
+                COUNT(a.id) as totalRecords,
+                COUNT(CASE WHEN a.status = 'PRESENT' THEN 1 END) as presentCount
+            FROM Attendance a
+            WHERE a.clientId = :clientId AND a.attendanceDate BETWEEN :startDate AND :endDate
+            GROUP BY a.studentId
+        ) att ON att.studentId = s.id
+        LEFT JOIN (
+            SELECT 
+                ass.studentId as studentId,
+                AVG(ass.recitationScore) as avgRecitationScore,
+                AVG(ass.tajweedScore) as avgTajweedScore,
+                AVG(ass.disciplineScore) as avgDisciplineScore,
+                AVG(COALESCE(ass.recitationScore, 0) + COALESCE(ass.tajweedScore, 0) + COALESCE(ass.disciplineScore, 0)) as avgTotalScore,
+                COUNT(ass.id) as totalAssessments
+            FROM Assessment ass
+            WHERE ass.clientId = :clientId AND ass.assessmentDate BETWEEN :startDate AND :endDate
+            GROUP BY ass.studentId
+        ) asm ON asm.studentId = s.id
         WHERE s.clientId = :clientId
-        GROUP BY s.id, s.name, c.className
         ORDER BY 
-            CASE WHEN COUNT(a.id) > 0 THEN COUNT(CASE WHEN a.status = 'PRESENT' THEN 1 END) * 1.0 / COUNT(a.id) ELSE 0 END DESC,
-            AVG(COALESCE(ass.recitationScore, 0) + COALESCE(ass.tajweedScore, 0) + COALESCE(ass.disciplineScore, 0)) DESC
+            CASE WHEN COALESCE(att.totalRecords, 0) > 0 THEN att.presentCount * 1.0 / att.totalRecords ELSE 0 END DESC,
+            COALESCE(asm.avgTotalScore, 0) DESC,
+            s.id
         """)
     List<Object[]> getTopPerformingStudents(@Param("clientId") Long clientId,
                                           @Param("startDate") LocalDate startDate,
-                                          @Param("endDate") LocalDate endDate);
+                                          @Param("endDate") LocalDate endDate,
+                                          Limit limit);
     
+    /**
+     * Class/enrolment counts, attendance (from the daily summary) and assessments are each
+     * aggregated per teacher before joining, so the counts and averages are not inflated
+     * by the cross product of attendance and assessment rows.
+     */
     @Query("""
         SELECT 
             t.id as teacherId,
             t.name as teacherName,
             t.qualification as qualification,
             t.isActive as isActive,
-            COUNT(DISTINCT c.id) as totalClasses,
-            COUNT(DISTINCT scm.studentId) as totalStudents,
-            COUNT(a.id) as totalAttendanceRecords,
-            COUNT(CASE WHEN a.status = 'PRESENT' THEN 1 END) as presentCount,
-            COUNT(ass.id) as totalAssessmentsConducted,
-            AVG(ass.recitationScore + ass.tajweedScore + ass.disciplineScore) as avgStudentScores
+            COALESCE(cls.totalClasses, 0) as totalClasses,
+            COALESCE(cls.totalStudents, 0) as totalStudents,
+            COALESCE(att.totalRecords, 0) as totalAttendanceRecords,
+            COALESCE(att.presentCount, 0) as presentCount,
+            COALESCE(asm.totalAssessments, 0) as totalAssessmentsConducted,
+            asm.avgScore as avgStudentScores
         FROM Teacher t
-        LEFT JOIN ClassEntity c ON t.id = c.teacherId
-        LEFT JOIN StudentClassMap scm ON c.id = scm.classId
-        LEFT JOIN Attendance a ON c.id = a.classId AND a.attendanceDate BETWEEN :startDate AND :endDate
-        LEFT JOIN Assessment ass ON t.id = ass.teacherId AND ass.assessmentDate BETWEEN :startDate AND :endDate
+        LEFT JOIN (
+            SELECT 
+                c.teacherId as teacherId,
+                COUNT(DISTINCT c.id) as totalClasses,
+                COUNT(DISTINCT scm.studentId) as totalStudents
+            FROM ClassEntity c
+            LEFT JOIN StudentClassMap scm ON c.id = scm.classId
+            WHERE c.clientId = :clientId
+            GROUP BY c.teacherId
+        ) cls ON cls.teacherId = t.id
+        LEFT JOIN (
+            SELECT 
+                c.teacherId as teacherId,
+                SUM(ds.presentCount + ds.absentCount + ds.lateCount) as totalRecords,
+                SUM(ds.presentCount) as presentCount
+            FROM AttendanceDailySummary ds
+            JOIN ClassEntity c ON c.id = ds.classId
+            WHERE ds.clientId = :clientId AND ds.summaryDate BETWEEN :startDate AND :endDate
+            GROUP BY c.teacherId
+        ) att ON att.teacherId = t.id
+        LEFT JOIN (
+            SELECT 
+                ass.teacherId as teacherId,
+                COUNT(ass.id) as totalAssessments,
+                AVG(ass.recitationScore + ass.tajweedScore + ass.disciplineScore) as avgScore
+            FROM Assessment ass
+            WHERE ass.clientId = :clientId AND ass.assessmentDate BETWEEN :startDate AND :endDate
+            GROUP BY ass.teacherId
+        ) asm ON asm.teacherId = t.id
         WHERE t.clientId = :clientId
-        GROUP BY t.id, t.name, t.qualification, t.isActive
         ORDER BY 
-            CASE WHEN COUNT(a.id) > 0 THEN COUNT(CASE WHEN a.status = 'PRESENT' THEN 1 END) * 1.0 / COUNT(a.id) ELSE 0 END DESC
+            CASE WHEN COALESCE(att.totalRecords, 0) > 0 THEN att.presentCount * 1.0 / att.totalRecords ELSE 0 END DESC,
+            t.id
         """)
     List<Object[]> getTeacherPerformance(@Param("clientId") Long clientId,
                                        @Param("startDate") LocalDate startDate,
@@ -111,13 +171,13 @@ public interface DashboardRepository extends JpaRepository<Attendance, Long> {
             t.name as teacherName,
             CONCAT(c.startTime, ' - ', c.endTime) as timeSlot,
             c.daysOfWeek as daysOfWeek,
-            COUNT(DISTINCT scm.studentId) as totalStudents,
-            COUNT(CASE WHEN a.status = 'PRESENT' THEN 1 END) as presentCount,
-            COUNT(a.id) as totalAttendanceRecords
+            (SELECT COUNT(scm.studentId) FROM StudentClassMap scm WHERE scm.classId = c.id) as totalStudents,
+            COALESCE(SUM(ds.presentCount), 0) as presentCount,
+            COALESCE(SUM(ds.presentCount + ds.absentCount + ds.lateCount), 0) as totalAttendanceRecords
         FROM ClassEntity c
         LEFT JOIN Teacher t ON c.teacherId = t.id
-        LEFT JOIN StudentClassMap scm ON c.id = scm.classId
-        LEFT JOIN Attendance a ON c.id = a.classId AND a.attendanceDate BETWEEN :startDate AND :endDate
+        LEFT JOIN AttendanceDailySummary ds ON ds.classId = c.id AND ds.clientId = c.clientId
+            AND ds.summaryDate BETWEEN :startDate AND :endDate
         WHERE c.clientId = :clientId
         GROUP BY c.id, c.className, t.name, c.startTime, c.endTime, c.daysOfWeek
         ORDER BY c.className
@@ -126,8 +186,13 @@ public interface DashboardRepository extends JpaRepository<Attendance, Long> {
                                             @Param("startDate") LocalDate startDate,
                                             @Param("endDate") LocalDate endDate);
     
+    /**
+     * Students of every class for a tenant in one statement, ordered by class. Assessment
+     * scores come from a correlated subquery so they are not multiplied by attendance rows.
+     */
     @Query("""
         SELECT 
+            s.currentClassId as classId,
             s.id as studentId,
             s.name as studentName,
             s.guardianName as guardianName,
@@ -135,16 +200,16 @@ public interface DashboardRepository extends JpaRepository<Attendance, Long> {
             s.enrollmentDate as enrollmentDate,
             COUNT(a.id) as totalAttendanceRecords,
             COUNT(CASE WHEN a.status = 'PRESENT' THEN 1 END) as presentCount,
-            AVG(ass.recitationScore + ass.tajweedScore + ass.disciplineScore) as averageScore
+            (SELECT AVG(ass.recitationScore + ass.tajweedScore + ass.disciplineScore)
+             FROM Assessment ass
+             WHERE ass.studentId = s.id AND ass.assessmentDate BETWEEN :startDate AND :endDate) as averageScore
         FROM Student s
         LEFT JOIN Attendance a ON s.id = a.studentId AND a.attendanceDate BETWEEN :startDate AND :endDate
-        LEFT JOIN Assessment ass ON s.id = ass.studentId AND ass.assessmentDate BETWEEN :startDate AND :endDate
-        WHERE s.clientId = :clientId AND s.currentClassId = :classId
-        GROUP BY s.id, s.name, s.guardianName, s.guardianContact, s.enrollmentDate
-        ORDER BY s.name
+        WHERE s.clientId = :clientId AND s.currentClassId IS NOT NULL
+        GROUP BY s.currentClassId, s.id, s.name, s.guardianName, s.guardianContact, s.enrollmentDate
+        ORDER BY s.currentClassId, s.name
         """)
-    List<Object[]> getStudentsByClass(@Param("clientId") Long clientId,
-                                    @Param("classId") Long classId,
-                                    @Param("startDate") LocalDate startDate,
-                                    @Param("endDate") LocalDate endDate);
+    List<Object[]> getStudentsForAllClasses(@Param("clientId") Long clientId,
+                                            @Param("startDate") LocalDate startDate,
+                                            @Param("endDate") LocalDate endDate);
 }
@@ -2,17 +2,19 @@ package com.moktob.service;
 
 import com.moktob.common.TenantContextHolder;
 import com.moktob.config.JwtAuthenticationResponse;
-import com.moktob.config.JwtTokenUtil;
+import com.moktob.config.JwtUtil;
 import com.moktob.config.LoginRequest;
 import com.moktob.core.Role;
 import com.moktob.core.RoleService;
 import com.moktob.core.UserAccount;
+import com.moktob.core.UserAccountChangedEvent;
 import com.moktob.core.UserAccountRepository;
 import com.moktob.dto.ChangePasswordRequest;
 import com.moktob.dto.CreateUserRequest;
 import com.moktob.dto.ResetPasswordRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -34,9 +36,10 @@ public class AuthenticationService {
 
     private final UserAccountRepository userAccountRepository;
     private final AuthenticationManager authenticationManager;
-    private final JwtTokenUtil jwtTokenUtil;
+    private final JwtUtil jwtUtil;
     private final PasswordEncoder passwordEncoder;
     private final RoleService roleService;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     public JwtAuthenticationResponse authenticate(LoginRequest loginRequest) {
@@ -56,7 +59,7 @@ public class AuthenticationService {
         }
 
         UserAccount user = userAccount.get();
-        String token = jwtTokenUtil.generateToken(userDetails, user.getClientId(), user.getId());
+        String token = jwtUtil.generateToken(userDetails, user.getClientId(), user.getId());
 
         String roleName = user.getRole() != null ? user.getRole().getRoleName() : "USER";
 
@@ -116,6 +119,7 @@ public class AuthenticationService {
         // Set new password
         user.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
         userAccountRepository.save(user);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(user.getUsername()));
 
         log.info("Password changed for user: {}", user.getUsername());
     }
@@ -129,6 +133,7 @@ public class AuthenticationService {
         UserAccount user = userOpt.get();
         user.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
         userAccountRepository.save(user);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(user.getUsername()));
 
         log.info("Password reset for user: {}", user.getUsername());
     }
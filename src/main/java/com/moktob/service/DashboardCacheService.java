@@ -0,0 +1,140 @@
+package com.moktob.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moktob.common.TenantDataChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Tenant-scoped Redis cache for dashboard results.
+ * <p>
+ * Keys embed a per-tenant generation counter; any committed write to a tenant's
+ * attendance, assessments, students, teachers or classes bumps the generation, so every
+ * entry for that tenant (and only that tenant) becomes unreachable at once and ages out
+ * via TTL. Concurrent misses for the same key on this node share one computation.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardCacheService {
+
+    private static final String GENERATION_PREFIX = "dashboard:gen:";
+    private static final String ENTRY_PREFIX = "dashboard:entry:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${dashboard.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${dashboard.cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    public <T> T get(Long clientId, String key, TypeReference<T> type, Supplier<T> loader) {
+        return get(clientId, key, type, loader, value -> true);
+    }
+
+    /**
+     * Returns the cached value for {@code key} in the tenant's current generation, computing
+     * and storing it on a miss. Values rejected by {@code cacheable} are returned but not stored.
+     */
+    public <T> T get(Long clientId, String key, TypeReference<T> type, Supplier<T> loader, Predicate<T> cacheable) {
+        if (!enabled || clientId == null) {
+            return loader.get();
+        }
+
+        String entryKey = ENTRY_PREFIX + clientId + ":" + currentGeneration(clientId) + ":" + key;
+        T cached = read(entryKey, type);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(entryKey, flight);
+        if (existing != null) {
+            return awaitFlight(existing);
+        }
+
+        try {
+            T value = loader.get();
+            if (value != null && cacheable.test(value)) {
+                write(entryKey, value);
+            }
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(entryKey, flight);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTenantDataChanged(TenantDataChangedEvent event) {
+        if (!enabled || event.clientId() == null) {
+            return;
+        }
+        try {
+            stringRedisTemplate.opsForValue().increment(GENERATION_PREFIX + event.clientId());
+            log.debug("Invalidated dashboard cache for client {} after {} change", event.clientId(), event.aggregate());
+        } catch (Exception e) {
+            log.error("Failed to invalidate dashboard cache for client {}", event.clientId(), e);
+        }
+    }
+
+    private String currentGeneration(Long clientId) {
+        try {
+            String generation = stringRedisTemplate.opsForValue().get(GENERATION_PREFIX + clientId);
+            return generation != null ? generation : "0";
+        } catch (Exception e) {
+            log.warn("Failed to read dashboard cache generation for client {}: {}", clientId, e.getMessage());
+            return "0";
+        }
+    }
+
+    private <T> T read(String entryKey, TypeReference<T> type) {
+        try {
+            String json = stringRedisTemplate.opsForValue().get(entryKey);
+            return json != null ? objectMapper.readValue(json, type) : null;
+        } catch (Exception e) {
+            log.warn("Failed to read dashboard cache entry {}: {}", entryKey, e.getMessage());
+            return null;
+        }
+    }
+
+    private void write(String entryKey, Object value) {
+        try {
+            stringRedisTemplate.opsForValue().set(entryKey, objectMapper.writeValueAsString(value), Duration.ofSeconds(ttlSeconds));
+        } catch (Exception e) {
+            log.warn("Failed to write dashboard cache entry {}: {}", entryKey, e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T awaitFlight(CompletableFuture<Object> flight) {
+        try {
+            return (T) flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package com.moktob.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.moktob.attendance.AttendanceBitmapIndex;
+import com.moktob.attendance.AttendanceBitmapService;
+import com.moktob.attendance.AttendancePartitionService;
 import com.moktob.common.TenantContextHolder;
 import com.moktob.dto.*;
 import com.moktob.education.ClassEntityRepository;
@@ -8,11 +12,23 @@ import com.moktob.education.TeacherRepository;
 import com.moktob.repository.DashboardRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,60 +36,200 @@ import java.util.stream.Collectors;
 @Slf4j
 public class DashboardService {
 
+    private static final int OVERVIEW_TOP_STUDENTS = 10;
+    private static final int MAX_TOP_STUDENTS = 100;
+
+    private static final TypeReference<DashboardOverviewDTO> OVERVIEW_TYPE = new TypeReference<>() {};
+    private static final TypeReference<List<ClassAttendanceSummaryDTO>> CLASS_ATTENDANCE_TYPE = new TypeReference<>() {};
+    private static final TypeReference<List<AttendanceTrendDTO>> TRENDS_TYPE = new TypeReference<>() {};
+    private static final TypeReference<List<StudentPerformanceDTO>> TOP_STUDENTS_TYPE = new TypeReference<>() {};
+    private static final TypeReference<List<TeacherPerformanceDTO>> TEACHER_PERFORMANCE_TYPE = new TypeReference<>() {};
+    private static final TypeReference<List<ClassWiseStudentDTO>> CLASS_WISE_TYPE = new TypeReference<>() {};
+    private static final TypeReference<AttendanceAnalyticsDTO> ANALYTICS_TYPE = new TypeReference<>() {};
+
+    private static final String SECTION_STUDENTS = "students";
+    private static final String SECTION_TEACHERS = "teachers";
+    private static final String SECTION_ACTIVE_TEACHERS = "activeTeachers";
+    private static final String SECTION_CLASSES = "classes";
+    private static final String SECTION_CLASS_ATTENDANCE = "classAttendance";
+    private static final String SECTION_ATTENDANCE_TRENDS = "attendanceTrends";
+    private static final String SECTION_TOP_STUDENTS = "topStudents";
+    private static final String SECTION_TEACHER_PERFORMANCE = "teacherPerformance";
+
     private final DashboardRepository dashboardRepository;
     private final StudentRepository studentRepository;
     private final TeacherRepository teacherRepository;
     private final ClassEntityRepository classEntityRepository;
+    private final ThreadPoolTaskExecutor dashboardExecutor;
+    private final DashboardCacheService dashboardCacheService;
+    private final AttendanceBitmapService attendanceBitmapService;
+    private final AttendancePartitionService attendancePartitionService;
+
+    @Value("${dashboard.overview.timeout-ms:5000}")
+    private long overviewTimeoutMs;
 
     public DashboardOverviewDTO getDashboardOverview(LocalDate startDate, LocalDate endDate) {
         Long clientId = TenantContextHolder.getTenantId();
-        log.debug("Getting dashboard overview for client: {}, date range: {} to {}", clientId, startDate, endDate);
+        // Partial overviews are returned to the caller but never cached
+        return dashboardCacheService.get(clientId, cacheKey("overview", startDate, endDate), OVERVIEW_TYPE,
+                () -> loadDashboardOverview(startDate, endDate),
+                DashboardService::isComplete);
+    }
 
-        // Get basic counts
-        long totalStudents = studentRepository.countByClientId(clientId);
-        long totalTeachers = teacherRepository.countByClientId(clientId);
-        long totalClasses = classEntityRepository.countByClientId(clientId);
+    /**
+     * True if every section of the overview loaded; only complete overviews may be cached,
+     * in Redis or by the browser.
+     */
+    public static boolean isComplete(DashboardOverviewDTO overview) {
+        return overview.getSectionStatus() == null || overview.getSectionStatus().values().stream()
+                .allMatch(status -> status == DashboardSectionStatus.OK);
+    }
 
-        // Get attendance summaries
-        List<ClassAttendanceSummaryDTO> classSummaries = getClassAttendanceSummaries(startDate, endDate);
-        List<AttendanceTrendDTO> attendanceTrends = getAttendanceTrends(startDate, endDate);
-        List<StudentPerformanceDTO> topStudents = getTopPerformingStudents(startDate, endDate);
-        List<TeacherPerformanceDTO> teacherPerformance = getTeacherPerformance(startDate, endDate);
+    public List<ClassAttendanceSummaryDTO> getClassAttendanceSummaries(LocalDate startDate, LocalDate endDate) {
+        Long clientId = TenantContextHolder.getTenantId();
+        return dashboardCacheService.get(clientId, cacheKey("class-attendance", startDate, endDate), CLASS_ATTENDANCE_TYPE,
+                () -> loadClassAttendanceSummaries(startDate, endDate));
+    }
 
-        // Calculate overall statistics
-        long totalAttendanceRecords = classSummaries.stream()
-                .mapToLong(ClassAttendanceSummaryDTO::getTotalAttendanceRecords)
-                .sum();
+    public List<AttendanceTrendDTO> getAttendanceTrends(LocalDate startDate, LocalDate endDate) {
+        Long clientId = TenantContextHolder.getTenantId();
+        return dashboardCacheService.get(clientId, cacheKey("attendance-trends", startDate, endDate), TRENDS_TYPE,
+                () -> loadAttendanceTrends(startDate, endDate));
+    }
 
-        long totalPresent = classSummaries.stream()
-                .mapToLong(ClassAttendanceSummaryDTO::getPresentCount)
-                .sum();
+    public List<StudentPerformanceDTO> getTopPerformingStudents(LocalDate startDate, LocalDate endDate, int limit) {
+        Long clientId = TenantContextHolder.getTenantId();
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_TOP_STUDENTS));
+        return dashboardCacheService.get(clientId, cacheKey("top-students:" + boundedLimit, startDate, endDate), TOP_STUDENTS_TYPE,
+                () -> loadTopPerformingStudents(startDate, endDate, boundedLimit));
+    }
 
-        double overallAttendanceRate = totalAttendanceRecords > 0 
-                ? (double) totalPresent / totalAttendanceRecords * 100 
-                : 0.0;
+    public List<TeacherPerformanceDTO> getTeacherPerformance(LocalDate startDate, LocalDate endDate) {
+        Long clientId = TenantContextHolder.getTenantId();
+        return dashboardCacheService.get(clientId, cacheKey("teacher-performance", startDate, endDate), TEACHER_PERFORMANCE_TYPE,
+                () -> loadTeacherPerformance(startDate, endDate));
+    }
+
+    public List<ClassWiseStudentDTO> getClassWiseStudents(LocalDate startDate, LocalDate endDate) {
+        Long clientId = TenantContextHolder.getTenantId();
+        return dashboardCacheService.get(clientId, cacheKey("class-wise-students", startDate, endDate), CLASS_WISE_TYPE,
+                () -> loadClassWiseStudents(startDate, endDate));
+    }
+
+    public AttendanceAnalyticsDTO getAttendanceAnalytics(LocalDate startDate, LocalDate endDate) {
+        Long clientId = TenantContextHolder.getTenantId();
+        return dashboardCacheService.get(clientId, cacheKey("attendance-analytics", startDate, endDate), ANALYTICS_TYPE,
+                () -> loadAttendanceAnalytics(startDate, endDate));
+    }
+
+    private static String cacheKey(String section, LocalDate startDate, LocalDate endDate) {
+        return section + ":" + startDate + ":" + endDate;
+    }
+
+    private DashboardOverviewDTO loadDashboardOverview(LocalDate startDate, LocalDate endDate) {
+        Long clientId = TenantContextHolder.getTenantId();
+        log.debug("Getting dashboard overview for client: {}, date range: {} to {}", clientId, startDate, endDate);
 
-        long activeStudents = studentRepository.countByClientId(clientId);
-        long activeTeachers = teacherRepository.countByClientIdAndIsActiveTrue(clientId);
-        long activeClasses = classEntityRepository.countByClientId(clientId);
+        // Fan the independent sections out on the dashboard pool; the task decorator
+        // carries this request's tenant into each worker thread
+        Map<String, DashboardSectionStatus> sectionStatus = new LinkedHashMap<>();
+        Future<Long> studentsFuture = submitSection(SECTION_STUDENTS, sectionStatus,
+                () -> studentRepository.countByClientId(clientId));
+        Future<Long> teachersFuture = submitSection(SECTION_TEACHERS, sectionStatus,
+                () -> teacherRepository.countByClientId(clientId));
+        Future<Long> activeTeachersFuture = submitSection(SECTION_ACTIVE_TEACHERS, sectionStatus,
+                () -> teacherRepository.countByClientIdAndIsActiveTrue(clientId));
+        Future<Long> classesFuture = submitSection(SECTION_CLASSES, sectionStatus,
+                () -> classEntityRepository.countByClientId(clientId));
+        Future<List<ClassAttendanceSummaryDTO>> classSummariesFuture = submitSection(SECTION_CLASS_ATTENDANCE, sectionStatus,
+                () -> getClassAttendanceSummaries(startDate, endDate));
+        Future<List<AttendanceTrendDTO>> trendsFuture = submitSection(SECTION_ATTENDANCE_TRENDS, sectionStatus,
+                () -> getAttendanceTrends(startDate, endDate));
+        Future<List<StudentPerformanceDTO>> topStudentsFuture = submitSection(SECTION_TOP_STUDENTS, sectionStatus,
+                () -> getTopPerformingStudents(startDate, endDate, OVERVIEW_TOP_STUDENTS));
+        Future<List<TeacherPerformanceDTO>> teacherPerformanceFuture = submitSection(SECTION_TEACHER_PERFORMANCE, sectionStatus,
+                () -> getTeacherPerformance(startDate, endDate));
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(overviewTimeoutMs);
+        Long totalStudents = awaitSection(SECTION_STUDENTS, studentsFuture, deadline, sectionStatus);
+        Long totalTeachers = awaitSection(SECTION_TEACHERS, teachersFuture, deadline, sectionStatus);
+        Long activeTeachers = awaitSection(SECTION_ACTIVE_TEACHERS, activeTeachersFuture, deadline, sectionStatus);
+        Long totalClasses = awaitSection(SECTION_CLASSES, classesFuture, deadline, sectionStatus);
+        List<ClassAttendanceSummaryDTO> classSummaries = awaitSection(SECTION_CLASS_ATTENDANCE, classSummariesFuture, deadline, sectionStatus);
+        List<AttendanceTrendDTO> attendanceTrends = awaitSection(SECTION_ATTENDANCE_TRENDS, trendsFuture, deadline, sectionStatus);
+        List<StudentPerformanceDTO> topStudents = awaitSection(SECTION_TOP_STUDENTS, topStudentsFuture, deadline, sectionStatus);
+        List<TeacherPerformanceDTO> teacherPerformance = awaitSection(SECTION_TEACHER_PERFORMANCE, teacherPerformanceFuture, deadline, sectionStatus);
 
+        // Calculate overall statistics
+        Long totalAttendanceRecords = null;
+        Double overallAttendanceRate = null;
+        if (classSummaries != null) {
+            totalAttendanceRecords = classSummaries.stream()
+                    .mapToLong(ClassAttendanceSummaryDTO::getTotalAttendanceRecords)
+                    .sum();
+
+            long totalPresent = classSummaries.stream()
+                    .mapToLong(ClassAttendanceSummaryDTO::getPresentCount)
+                    .sum();
+
+            overallAttendanceRate = totalAttendanceRecords > 0
+                    ? (double) totalPresent / totalAttendanceRecords * 100
+                    : 0.0;
+        }
+
+        // Students and classes have no active flag, so the active counts are the totals
         return new DashboardOverviewDTO(
                 totalStudents,
                 totalTeachers,
                 totalClasses,
                 totalAttendanceRecords,
                 overallAttendanceRate,
-                activeStudents,
+                totalStudents,
                 activeTeachers,
-                activeClasses,
+                totalClasses,
                 classSummaries,
                 attendanceTrends,
                 topStudents,
-                teacherPerformance
+                teacherPerformance,
+                sectionStatus
         );
     }
 
-    public List<ClassAttendanceSummaryDTO> getClassAttendanceSummaries(LocalDate startDate, LocalDate endDate) {
+    private <T> Future<T> submitSection(String section, Map<String, DashboardSectionStatus> sectionStatus, Callable<T> task) {
+        try {
+            return dashboardExecutor.submit(task);
+        } catch (TaskRejectedException e) {
+            log.warn("Dashboard executor rejected section {}: {}", section, e.getMessage());
+            sectionStatus.put(section, DashboardSectionStatus.FAILED);
+            return null;
+        }
+    }
+
+    private <T> T awaitSection(String section, Future<T> future, long deadline,
+                               Map<String, DashboardSectionStatus> sectionStatus) {
+        if (future == null) {
+            return null;
+        }
+        try {
+            T result = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            sectionStatus.put(section, DashboardSectionStatus.OK);
+            return result;
+        } catch (TimeoutException e) {
+            log.warn("Dashboard section {} did not finish within {} ms", section, overviewTimeoutMs);
+            future.cancel(true);
+            sectionStatus.put(section, DashboardSectionStatus.TIMED_OUT);
+        } catch (ExecutionException e) {
+            log.error("Dashboard section {} failed", section, e.getCause());
+            sectionStatus.put(section, DashboardSectionStatus.FAILED);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            sectionStatus.put(section, DashboardSectionStatus.FAILED);
+        }
+        return null;
+    }
+
+    private List<ClassAttendanceSummaryDTO> loadClassAttendanceSummaries(LocalDate startDate, LocalDate endDate) {
         Long clientId = TenantContextHolder.getTenantId();
         List<Object[]> results = dashboardRepository.getClassAttendanceSummary(clientId, startDate, endDate);
 
@@ -81,11 +237,11 @@ public class DashboardService {
             Long classId = (Long) row[0];
             String className = (String) row[1];
             String teacherName = (String) row[2];
-            Long totalStudents = (Long) row[3];
-            Long presentCount = (Long) row[4];
-            Long absentCount = (Long) row[5];
-            Long lateCount = (Long) row[6];
-            Long totalAttendanceRecords = (Long) row[7];
+            Long totalStudents = ((Number) row[3]).longValue();
+            Long presentCount = ((Number) row[4]).longValue();
+            Long absentCount = ((Number) row[5]).longValue();
+            Long lateCount = ((Number) row[6]).longValue();
+            Long totalAttendanceRecords = ((Number) row[7]).longValue();
             String timeSlot = (String) row[8];
             String daysOfWeek = (String) row[9];
 
@@ -101,39 +257,55 @@ public class DashboardService {
         }).collect(Collectors.toList());
     }
 
-    public List<AttendanceTrendDTO> getAttendanceTrends(LocalDate startDate, LocalDate endDate) {
+    private List<AttendanceTrendDTO> loadAttendanceTrends(LocalDate startDate, LocalDate endDate) {
         Long clientId = TenantContextHolder.getTenantId();
+
+        // Served from the in-memory bitmaps when the tenant is resident, SQL otherwise. The
+        // bitmaps only hold hot attendance, so ranges reaching into archived months use SQL
+        Optional<AttendanceBitmapIndex> index = attendancePartitionService.isArchived(startDate)
+                ? Optional.empty()
+                : attendanceBitmapService.find(clientId);
+        if (index.isPresent()) {
+            return index.get().dailyCounts(startDate, endDate).stream()
+                    .map(day -> toAttendanceTrend(day.date(), day.present(), day.absent(), day.late(), day.students()))
+                    .collect(Collectors.toList());
+        }
+
         List<Object[]> results = dashboardRepository.getAttendanceTrends(clientId, startDate, endDate);
 
-        return results.stream().map(row -> {
-            LocalDate date = (LocalDate) row[0];
-            Long presentCount = (Long) row[1];
-            Long absentCount = (Long) row[2];
-            Long lateCount = (Long) row[3];
-            Long totalStudents = (Long) row[4];
-
-            double attendanceRate = totalStudents > 0 
-                    ? (double) presentCount / totalStudents * 100 
-                    : 0.0;
+        return results.stream().map(row -> toAttendanceTrend(
+                (LocalDate) row[0],
+                ((Number) row[1]).longValue(),
+                ((Number) row[2]).longValue(),
+                ((Number) row[3]).longValue(),
+                ((Number) row[4]).longValue()
+        )).collect(Collectors.toList());
+    }
 
-            return new AttendanceTrendDTO(date, presentCount, absentCount, lateCount, attendanceRate, totalStudents);
-        }).collect(Collectors.toList());
+    private AttendanceTrendDTO toAttendanceTrend(LocalDate date, long presentCount, long absentCount, long lateCount,
+                                                 long totalStudents) {
+        double attendanceRate = totalStudents > 0 
+                ? (double) presentCount / totalStudents * 100 
+                : 0.0;
+
+        return new AttendanceTrendDTO(date, presentCount, absentCount, lateCount, attendanceRate, totalStudents);
     }
 
-    public List<StudentPerformanceDTO> getTopPerformingStudents(LocalDate startDate, LocalDate endDate) {
+    private List<StudentPerformanceDTO> loadTopPerformingStudents(LocalDate startDate, LocalDate endDate, int limit) {
         Long clientId = TenantContextHolder.getTenantId();
-        List<Object[]> results = dashboardRepository.getTopPerformingStudents(clientId, startDate, endDate);
+        List<Object[]> results = dashboardRepository.getTopPerformingStudents(clientId, startDate, endDate,
+                Limit.of(limit));
 
         return results.stream().map(row -> {
             Long studentId = (Long) row[0];
             String studentName = (String) row[1];
             String className = (String) row[2];
-            Long totalAttendanceRecords = (Long) row[3];
-            Long presentCount = (Long) row[4];
+            Long totalAttendanceRecords = ((Number) row[3]).longValue();
+            Long presentCount = ((Number) row[4]).longValue();
             Double avgRecitationScore = (Double) row[5];
             Double avgTajweedScore = (Double) row[6];
             Double avgDisciplineScore = (Double) row[7];
-            Long totalAssessments = (Long) row[8];
+            Long totalAssessments = ((Number) row[8]).longValue();
 
             double attendanceRate = totalAttendanceRecords > 0 
                     ? (double) presentCount / totalAttendanceRecords * 100 
@@ -154,7 +326,7 @@ public class DashboardService {
         }).collect(Collectors.toList());
     }
 
-    public List<TeacherPerformanceDTO> getTeacherPerformance(LocalDate startDate, LocalDate endDate) {
+    private List<TeacherPerformanceDTO> loadTeacherPerformance(LocalDate startDate, LocalDate endDate) {
         Long clientId = TenantContextHolder.getTenantId();
         List<Object[]> results = dashboardRepository.getTeacherPerformance(clientId, startDate, endDate);
 
@@ -163,11 +335,11 @@ public class DashboardService {
             String teacherName = (String) row[1];
             String qualification = (String) row[2];
             Boolean isActive = (Boolean) row[3];
-            Long totalClasses = (Long) row[4];
-            Long totalStudents = (Long) row[5];
-            Long totalAttendanceRecords = (Long) row[6];
-            Long presentCount = (Long) row[7];
-            Long totalAssessmentsConducted = (Long) row[8];
+            Long totalClasses = ((Number) row[4]).longValue();
+            Long totalStudents = ((Number) row[5]).longValue();
+            Long totalAttendanceRecords = ((Number) row[6]).longValue();
+            Long presentCount = ((Number) row[7]).longValue();
+            Long totalAssessmentsConducted = ((Number) row[8]).longValue();
             Double avgStudentScores = (Double) row[9];
 
             double averageClassAttendanceRate = totalAttendanceRecords > 0 
@@ -183,10 +355,17 @@ public class DashboardService {
         }).collect(Collectors.toList());
     }
 
-    public List<ClassWiseStudentDTO> getClassWiseStudents(LocalDate startDate, LocalDate endDate) {
+    private List<ClassWiseStudentDTO> loadClassWiseStudents(LocalDate startDate, LocalDate endDate) {
         Long clientId = TenantContextHolder.getTenantId();
         List<Object[]> classSummaries = dashboardRepository.getClassWiseStudentSummary(clientId, startDate, endDate);
 
+        // One query for all classes' students, grouped here instead of a query per class
+        Map<Long, List<StudentDetailDTO>> studentsByClass = dashboardRepository
+                .getStudentsForAllClasses(clientId, startDate, endDate).stream()
+                .collect(Collectors.groupingBy(
+                        studentRow -> (Long) studentRow[0],
+                        Collectors.mapping(this::toStudentDetail, Collectors.toList())));
+
         List<ClassWiseStudentDTO> result = new ArrayList<>();
 
         for (Object[] row : classSummaries) {
@@ -195,47 +374,46 @@ public class DashboardService {
             String teacherName = (String) row[2];
             String timeSlot = (String) row[3];
             String daysOfWeek = (String) row[4];
-            Long totalStudents = (Long) row[5];
-            Long presentCount = (Long) row[6];
-            Long totalAttendanceRecords = (Long) row[7];
+            Long totalStudents = ((Number) row[5]).longValue();
+            Long presentCount = ((Number) row[6]).longValue();
+            Long totalAttendanceRecords = ((Number) row[7]).longValue();
 
             double classAttendanceRate = totalAttendanceRecords > 0 
                     ? (double) presentCount / totalAttendanceRecords * 100 
                     : 0.0;
 
-            // Get students for this class
-            List<Object[]> studentData = dashboardRepository.getStudentsByClass(clientId, classId, startDate, endDate);
-            List<StudentDetailDTO> students = studentData.stream().map(studentRow -> {
-                Long studentId = (Long) studentRow[0];
-                String studentName = (String) studentRow[1];
-                String guardianName = (String) studentRow[2];
-                String guardianContact = (String) studentRow[3];
-                LocalDate enrollmentDate = (LocalDate) studentRow[4];
-                Long studentAttendanceRecords = (Long) studentRow[5];
-                Long studentPresentCount = (Long) studentRow[6];
-                Double averageScore = (Double) studentRow[7];
-
-                double studentAttendanceRate = studentAttendanceRecords > 0 
-                        ? (double) studentPresentCount / studentAttendanceRecords * 100 
-                        : 0.0;
-
-                return new StudentDetailDTO(
-                        studentId, studentName, guardianName, guardianContact,
-                        enrollmentDate, studentAttendanceRate,
-                        averageScore != null ? averageScore : 0.0, true
-                );
-            }).collect(Collectors.toList());
-
             result.add(new ClassWiseStudentDTO(
                     classId, className, teacherName, totalStudents,
-                    students, classAttendanceRate, timeSlot, daysOfWeek
+                    studentsByClass.getOrDefault(classId, List.of()),
+                    classAttendanceRate, timeSlot, daysOfWeek
             ));
         }
 
         return result;
     }
 
-    public AttendanceAnalyticsDTO getAttendanceAnalytics(LocalDate startDate, LocalDate endDate) {
+    private StudentDetailDTO toStudentDetail(Object[] studentRow) {
+        Long studentId = (Long) studentRow[1];
+        String studentName = (String) studentRow[2];
+        String guardianName = (String) studentRow[3];
+        String guardianContact = (String) studentRow[4];
+        LocalDate enrollmentDate = (LocalDate) studentRow[5];
+        Long studentAttendanceRecords = (Long) studentRow[6];
+        Long studentPresentCount = (Long) studentRow[7];
+        Double averageScore = (Double) studentRow[8];
+
+        double studentAttendanceRate = studentAttendanceRecords > 0 
+                ? (double) studentPresentCount / studentAttendanceRecords * 100 
+                : 0.0;
+
+        return new StudentDetailDTO(
+                studentId, studentName, guardianName, guardianContact,
+                enrollmentDate, studentAttendanceRate,
+                averageScore != null ? averageScore : 0.0, true
+        );
+    }
+
+    private AttendanceAnalyticsDTO loadAttendanceAnalytics(LocalDate startDate, LocalDate endDate) {
         Long clientId = TenantContextHolder.getTenantId();
         
         List<AttendanceTrendDTO> dailyBreakdown = getAttendanceTrends(startDate, endDate);
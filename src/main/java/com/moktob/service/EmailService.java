@@ -3,6 +3,10 @@ package com.moktob.service;
 import com.moktob.core.Client;
 import com.moktob.core.UserAccount;
 
+/**
+ * Account emails. Each call queues the message in the email outbox as part of the caller's
+ * transaction; it is delivered in the background once that transaction commits.
+ */
 public interface EmailService {
     void sendClientRegistrationEmail(Client client, UserAccount adminUser, String temporaryPassword);
     void sendPasswordResetEmail(String toEmail, String username, String resetUrl);
@@ -0,0 +1,307 @@
+package com.moktob.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams a tenant's attendance, payments or audit log as CSV or NDJSON.
+ * <p>
+ * Rows are read with a forward-only cursor in a read-only transaction (PostgreSQL only
+ * honours the fetch size with auto-commit off) and written to the response as they
+ * arrive, so heap use does not depend on the export's size. Names are joined in SQL
+ * rather than loaded through entity associations. A failed write means the client went
+ * away; it aborts the query and releases the connection.
+ */
+@Service
+@Slf4j
+public class ExportService {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    public enum Dataset {
+        ATTENDANCE("attendance", attendanceSql("attendance")),
+        // Includes months moved to attendance_archive; only valid when attendance is partitioned
+        ATTENDANCE_WITH_ARCHIVE("attendance", attendanceSql("attendance_all")),
+        PAYMENTS("payments", """
+            SELECT p.id, p.payment_date, p.payer_type, p.payer_id, p.amount, p.payment_type,
+                   p.payment_method, p.reference_no, p.remarks
+            FROM payment p
+            WHERE p.client_id = ? AND p.payment_date >= ? AND p.payment_date < ?
+            ORDER BY p.payment_date, p.id
+            """),
+        AUDIT_LOGS("audit-logs", """
+            SELECT l.id, l.timestamp, l.user_id, u.username, l.action, l.table_name, l.record_id, l.details
+            FROM audit_log l
+            LEFT JOIN user_account u ON u.id = l.user_id AND u.client_id = l.client_id
+            WHERE l.client_id = ? AND l.timestamp >= ? AND l.timestamp < ?
+            ORDER BY l.timestamp, l.id
+            """);
+
+        private final String fileName;
+        private final String sql;
+
+        Dataset(String fileName, String sql) {
+            this.fileName = fileName;
+            this.sql = sql;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        private static String attendanceSql(String table) {
+            return """
+                SELECT a.id, a.attendance_date, a.class_id, c.class_name, a.student_id, s.name AS student_name,
+                       a.teacher_id, t.name AS teacher_name, a.status, a.remarks
+                FROM %s a
+                LEFT JOIN class_entity c ON c.id = a.class_id AND c.client_id = a.client_id
+                LEFT JOIN student s ON s.id = a.student_id AND s.client_id = a.client_id
+                LEFT JOIN teacher t ON t.id = a.teacher_id AND t.client_id = a.client_id
+                WHERE a.client_id = ? AND a.attendance_date >= ? AND a.attendance_date < ?
+                ORDER BY a.attendance_date, a.id
+                """.formatted(table);
+        }
+    }
+
+    private final JdbcTemplate exportJdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final AtomicInteger running = new AtomicInteger();
+
+    @Value("${export.max-concurrent:4}")
+    private int maxConcurrent;
+
+    public ExportService(JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper,
+                         @Value("${export.fetch-size:1000}") int fetchSize) {
+        this.exportJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.exportJdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns a body that writes the tenant's rows dated {@code startDate} through
+     * {@code endDate}. The tenant is fixed here, on the request thread, because the body
+     * runs on an export thread. Rejects with 503 when {@code export.max-concurrent}
+     * exports are already running.
+     */
+    public StreamingResponseBody export(Long clientId, Dataset dataset, Format format,
+                                        LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "endDate is before startDate");
+        }
+        if (running.incrementAndGet() > maxConcurrent) {
+            running.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many exports running, retry shortly");
+        }
+
+        // Half-open bounds, so timestamps on endDate are included
+        Object from = dataset == Dataset.AUDIT_LOGS ? startDate.atStartOfDay() : startDate;
+        Object to = dataset == Dataset.AUDIT_LOGS ? endDate.plusDays(1).atStartOfDay() : endDate.plusDays(1);
+        return outputStream -> {
+            long started = System.currentTimeMillis();
+            long[] rows = new long[1];
+            try {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+                RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+                readOnlyTransaction.executeWithoutResult(status ->
+                        exportJdbcTemplate.query(dataset.sql, (ResultSetExtractor<Void>) resultSet -> {
+                            try {
+                                rowWriter.start(resultSet.getMetaData());
+                                while (resultSet.next()) {
+                                    rowWriter.write(resultSet);
+                                    rows[0]++;
+                                }
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                            return null;
+                        }, clientId, from, to));
+                rowWriter.finish();
+                writer.flush();
+                log.info("Exported {} {} rows for client {} as {} in {} ms",
+                        rows[0], dataset, clientId, format, System.currentTimeMillis() - started);
+            } catch (IOException | UncheckedIOException e) {
+                log.info("{} export for client {} stopped after {} rows: client disconnected",
+                        dataset, clientId, rows[0]);
+            } finally {
+                running.decrementAndGet();
+            }
+        };
+    }
+
+    private interface RowWriter {
+
+        void start(ResultSetMetaData metaData) throws SQLException, IOException;
+
+        void write(ResultSet resultSet) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+        private int columns;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void start(ResultSetMetaData metaData) throws SQLException, IOException {
+            columns = metaData.getColumnCount();
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                writer.write(metaData.getColumnLabel(i));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ResultSet resultSet) throws SQLException, IOException {
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                Object value = value(resultSet, i);
+                if (value instanceof String text) {
+                    writer.write(quote(text));
+                } else if (value instanceof BigDecimal number) {
+                    writer.write(number.toPlainString());
+                } else if (value != null) {
+                    writer.write(value.toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void finish() {
+        }
+
+        private static String quote(String text) {
+            // Keep spreadsheet apps from evaluating free text (remarks, details) as formulas
+            if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+                text = "'" + text;
+            }
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                return text;
+            }
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+        private final Writer writer;
+        private JsonGenerator generator;
+        private String[] labels;
+
+        NdjsonRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void start(ResultSetMetaData metaData) throws SQLException, IOException {
+            labels = new String[metaData.getColumnCount()];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = metaData.getColumnLabel(i + 1);
+            }
+            generator = objectMapper.getFactory().createGenerator(writer);
+            generator.setRootValueSeparator(null);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void write(ResultSet resultSet) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < labels.length; i++) {
+                Object value = value(resultSet, i + 1);
+                generator.writeFieldName(labels[i]);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof BigDecimal number) {
+                    generator.writeNumber(number);
+                } else if (value instanceof Long number) {
+                    generator.writeNumber(number);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (generator != null) {
+                generator.flush();
+            }
+        }
+    }
+
+    private static Object value(ResultSet resultSet, int column) throws SQLException {
+        Object value = resultSet.getObject(column);
+        if (value instanceof Date date) {
+            return date.toLocalDate().toString();
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        if (value instanceof BigDecimal number) {
+            return number;
+        }
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        return value != null ? value.toString() : null;
+    }
+}
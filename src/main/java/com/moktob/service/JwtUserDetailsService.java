@@ -4,6 +4,7 @@ import com.moktob.core.UserAccount;
 import com.moktob.core.UserAccountRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -11,7 +12,8 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -20,11 +22,16 @@ import java.util.Optional;
 public class JwtUserDetailsService implements UserDetailsService {
 
     private final UserAccountRepository userAccountRepository;
+    private final UserDetailsCache userDetailsCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return userDetailsCache.get(username, this::loadFromDatabase);
+    }
+
+    private UserDetails loadFromDatabase(String username) {
         log.debug("Loading user by username: {}", username);
-        Optional<UserAccount> userAccount = userAccountRepository.findByUsername(username);
+        Optional<UserAccount> userAccount = userAccountRepository.findByUsernameWithRole(username);
         
         if (userAccount.isEmpty()) {
             log.error("User not found: {}", username);
@@ -47,7 +54,20 @@ public class JwtUserDetailsService implements UserDetailsService {
             true, // accountNonExpired
             true, // credentialsNonExpired
             true, // accountNonLocked
-            Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
+            authorities(user)
         );
     }
+
+    /**
+     * Every account is a {@code ROLE_USER}; its role (ADMIN, TEACHER, ...) is granted as
+     * {@code ROLE_<name>} as well, for {@code @PreAuthorize} checks.
+     */
+    private static List<GrantedAuthority> authorities(UserAccount user) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
+        if (user.getRole() != null && user.getRole().getRoleName() != null) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + user.getRole().getRoleName().toUpperCase()));
+        }
+        return authorities;
+    }
 }
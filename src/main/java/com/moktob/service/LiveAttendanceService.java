@@ -0,0 +1,215 @@
+package com.moktob.service;
+
+import com.moktob.attendance.AttendanceDeltaEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes committed attendance changes to open dashboards over Server-Sent Events.
+ * <p>
+ * Subscribers are grouped by tenant and only ever receive their own tenant's deltas.
+ * Clients apply the deltas to the counts they loaded from {@code /class-attendance};
+ * they never trigger a re-query. A periodic comment keeps idle connections open through
+ * proxies.
+ * <p>
+ * Every subscriber has its own queue, drained by at most one {@code dashboardLiveExecutor}
+ * task at a time, so a client that stops reading ties up one thread rather than delaying
+ * everyone else. A subscriber whose queue reaches {@code max-pending-events} is dropped.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LiveAttendanceService {
+
+    private static final String DELTA_EVENT = "attendance-delta";
+
+    private final ThreadPoolTaskExecutor dashboardLiveExecutor;
+
+    private final ConcurrentMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    @Value("${dashboard.live.max-connections:500}")
+    private int maxConnections;
+
+    @Value("${dashboard.live.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${dashboard.live.max-pending-events:100}")
+    private int maxPendingEvents;
+
+    private final class Subscriber {
+        private final Long clientId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        // Held by whichever thread may touch the emitter: a drain task, or the one completing it
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+        private volatile Exception closeCause;
+
+        Subscriber(Long clientId, SseEmitter emitter) {
+            this.clientId = clientId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (queued.incrementAndGet() > maxPendingEvents) {
+                close(new IOException("client is not reading (" + maxPendingEvents + " events pending)"));
+                return;
+            }
+            pending.add(event);
+            scheduleDrain();
+        }
+
+        /**
+         * Stops sending to the subscriber. The emitter is completed by whoever holds it:
+         * never from here while a send may be blocked on it, since completing waits for
+         * the send to finish.
+         */
+        void close(Exception cause) {
+            if (closed) {
+                return;
+            }
+            closeCause = cause;
+            closed = true;
+            unsubscribe(this);
+            completeIfIdle();
+        }
+
+        private void scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                dashboardLiveExecutor.execute(this::drain);
+            } catch (TaskRejectedException e) {
+                // Left queued; the next event or heartbeat tries again
+                draining.set(false);
+                log.warn("Delayed live attendance update for client {}: executor saturated", clientId);
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = pending.poll()) != null) {
+                    queued.decrementAndGet();
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                close(e);
+            }
+            if (closed) {
+                complete();
+                return;
+            }
+            draining.set(false);
+            if (closed) {
+                completeIfIdle();
+            } else if (!pending.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void completeIfIdle() {
+            if (draining.compareAndSet(false, true)) {
+                complete();
+            }
+        }
+
+        private void complete() {
+            Exception cause = closeCause;
+            if (cause == null) {
+                // Closed by the container (completion, timeout or error); nothing left to do
+                return;
+            }
+            log.debug("Dropping live dashboard subscriber for client {}: {}", clientId, cause.getMessage());
+            try {
+                emitter.completeWithError(cause);
+            } catch (RuntimeException e) {
+                log.debug("Live dashboard subscriber for client {} was already closed", clientId);
+            }
+        }
+    }
+
+    public SseEmitter subscribe(Long clientId) {
+        return register(clientId, new SseEmitter(timeoutMs));
+    }
+
+    SseEmitter register(Long clientId, SseEmitter emitter) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many live dashboard connections");
+        }
+
+        Subscriber subscriber = new Subscriber(clientId, emitter);
+        subscribers.compute(clientId, (id, set) -> {
+            Set<Subscriber> result = set != null ? set : ConcurrentHashMap.newKeySet();
+            result.add(subscriber);
+            return result;
+        });
+        emitter.onCompletion(() -> subscriber.close(null));
+        emitter.onTimeout(() -> subscriber.close(null));
+        emitter.onError(e -> subscriber.close(null));
+
+        log.debug("Live dashboard subscriber added for client {} ({} open)", clientId, connections.get());
+        return emitter;
+    }
+
+    @EventListener
+    public void onAttendanceDelta(AttendanceDeltaEvent event) {
+        Set<Subscriber> tenantSubscribers = subscribers.get(event.clientId());
+        if (tenantSubscribers == null || event.deltas().isEmpty()) {
+            return;
+        }
+        for (Subscriber subscriber : tenantSubscribers) {
+            subscriber.enqueue(SseEmitter.event()
+                    .name(DELTA_EVENT)
+                    .data(event.deltas(), MediaType.APPLICATION_JSON));
+        }
+    }
+
+    /**
+     * Only queues the heartbeats; the sends run on {@code dashboardLiveExecutor}. A
+     * subscriber that still has events queued needs no heartbeat.
+     */
+    @Scheduled(fixedDelayString = "${dashboard.live.heartbeat-ms:25000}")
+    public void sendHeartbeats() {
+        subscribers.values().forEach(tenantSubscribers -> tenantSubscribers.forEach(subscriber -> {
+            if (subscriber.queued.get() == 0) {
+                subscriber.enqueue(SseEmitter.event().comment("heartbeat"));
+            }
+        }));
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.clientId, (id, set) -> {
+            if (set.remove(subscriber)) {
+                connections.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+    }
+}
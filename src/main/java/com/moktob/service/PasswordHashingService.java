@@ -0,0 +1,289 @@
+package com.moktob.service;
+
+import com.moktob.core.UserAccount;
+import com.moktob.core.UserAccountChangedEvent;
+import com.moktob.core.UserAccountRepository;
+import com.moktob.dto.PasswordHashingStatsDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt on a small dedicated pool instead of the request thread, so a burst of
+ * sign-ins cannot use up the CPU the rest of the API needs.
+ * <p>
+ * Every tenant has its own queue, and the workers take from the tenants in turn. A tenant
+ * under a credential-stuffing attempt therefore waits behind its own requests, not other
+ * tenants' requests. A request fails with 503 in two cases: the tenant already has
+ * {@code max-queued-per-tenant} hashes waiting, or the pool already has {@code max-queued}.
+ * A hash that waited longer than {@code queue-timeout-ms} is dropped unrun. The caller
+ * still blocks while its hash runs. Keep max-queued well below the Tomcat thread count.
+ */
+@Service
+@Slf4j
+public class PasswordHashingService {
+
+    private static final Long NO_TENANT = -1L;
+
+    private final UserAccountRepository userAccountRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final Map<Long, ArrayDeque<HashTask<?>>> queues = new HashMap<>();
+    // Tenants with queued hashes, in the order the workers serve them
+    private final ArrayDeque<Long> turns = new ArrayDeque<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private int queued;
+    private boolean shutdown;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder rehashed = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAccumulator maxHashNanos = new LongAccumulator(Math::max, 0);
+
+    private BCryptPasswordEncoder encoder;
+
+    @Value("${security.password-hashing.bcrypt-strength:10}")
+    private int strength;
+
+    @Value("${security.password-hashing.threads:0}")
+    private int threads;
+
+    @Value("${security.password-hashing.max-queued:64}")
+    private int maxQueued;
+
+    @Value("${security.password-hashing.max-queued-per-tenant:16}")
+    private int maxQueuedPerTenant;
+
+    @Value("${security.password-hashing.queue-timeout-ms:2000}")
+    private long queueTimeoutMs;
+
+    public PasswordHashingService(UserAccountRepository userAccountRepository, ApplicationEventPublisher eventPublisher) {
+        this.userAccountRepository = userAccountRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    private record HashTask<T>(Supplier<T> work, CompletableFuture<T> result, long enqueuedAt) {
+    }
+
+    @PostConstruct
+    void start() {
+        encoder = new BCryptPasswordEncoder(strength);
+        int count = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        for (int i = 0; i < count; i++) {
+            Thread worker = new Thread(this::work, "password-hash-" + (i + 1));
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        lock.lock();
+        try {
+            shutdown = true;
+            queues.values().forEach(queue -> queue.forEach(task ->
+                    task.result().completeExceptionally(unavailable("Password hashing is shutting down"))));
+            queues.clear();
+            turns.clear();
+            queued = 0;
+            workAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        workers.forEach(Thread::interrupt);
+    }
+
+    public boolean matches(Long tenantId, CharSequence rawPassword, String encodedPassword) {
+        return await(submit(tenantId, () -> encoder.matches(rawPassword, encodedPassword)));
+    }
+
+    public String encode(Long tenantId, CharSequence rawPassword) {
+        return await(submit(tenantId, () -> encoder.encode(rawPassword)));
+    }
+
+    /**
+     * True if the hash was made with a lower cost factor than
+     * {@code security.password-hashing.bcrypt-strength}.
+     */
+    public boolean upgradeEncoding(String encodedPassword) {
+        try {
+            return encoder.upgradeEncoding(encodedPassword);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * After a successful sign-in, re-hashes the password at the configured cost if the
+     * stored hash is weaker. Runs in the background without delaying the sign-in. It is
+     * skipped when the pool is busy and tried again at the next sign-in.
+     */
+    public void rehashIfOutdated(UserAccount user, String rawPassword) {
+        String currentHash = user.getPasswordHash();
+        if (!upgradeEncoding(currentHash)) {
+            return;
+        }
+        CompletableFuture<String> newHash;
+        try {
+            newHash = submit(user.getClientId(), () -> encoder.encode(rawPassword));
+        } catch (ResponseStatusException e) {
+            return;
+        }
+        newHash.thenAccept(hash -> {
+            // Only if the password was not changed in the meantime
+            if (userAccountRepository.updatePasswordHash(user.getId(), currentHash, hash) > 0) {
+                rehashed.increment();
+                eventPublisher.publishEvent(new UserAccountChangedEvent(user.getUsername()));
+            }
+        }).exceptionally(e -> {
+            log.warn("Could not re-hash password for user {}: {}", user.getUsername(), e.getMessage());
+            return null;
+        });
+    }
+
+    public PasswordHashingStatsDTO getStats() {
+        int queuedNow;
+        int tenantsWaiting;
+        lock.lock();
+        try {
+            queuedNow = queued;
+            tenantsWaiting = turns.size();
+        } finally {
+            lock.unlock();
+        }
+        long count = completed.sum();
+        return new PasswordHashingStatsDTO(strength, workers.size(), active.get(), queuedNow, tenantsWaiting,
+                count, rejected.sum(), timedOut.sum(), rehashed.sum(),
+                count == 0 ? 0.0 : hashNanos.sum() / 1e6 / count,
+                maxHashNanos.get() / 1e6,
+                count == 0 ? 0.0 : waitNanos.sum() / 1e6 / count);
+    }
+
+    private <T> CompletableFuture<T> submit(Long tenantId, Supplier<T> work) {
+        Long tenant = tenantId != null ? tenantId : NO_TENANT;
+        HashTask<T> task = new HashTask<>(work, new CompletableFuture<>(), System.nanoTime());
+        lock.lock();
+        try {
+            if (shutdown) {
+                throw unavailable("Password hashing is shutting down");
+            }
+            ArrayDeque<HashTask<?>> queue = queues.get(tenant);
+            if (queued >= maxQueued || (queue != null && queue.size() >= maxQueuedPerTenant)) {
+                rejected.increment();
+                throw unavailable("Too many sign-in attempts, retry shortly");
+            }
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                queues.put(tenant, queue);
+                turns.addLast(tenant);
+            }
+            queue.addLast(task);
+            queued++;
+            workAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+        return task.result();
+    }
+
+    private void work() {
+        while (true) {
+            HashTask<?> task;
+            lock.lock();
+            try {
+                while (turns.isEmpty() && !shutdown) {
+                    workAvailable.awaitUninterruptibly();
+                }
+                if (shutdown) {
+                    return;
+                }
+                Long tenant = turns.pollFirst();
+                ArrayDeque<HashTask<?>> queue = queues.get(tenant);
+                task = queue.pollFirst();
+                if (queue.isEmpty()) {
+                    queues.remove(tenant);
+                } else {
+                    turns.addLast(tenant);
+                }
+                queued--;
+            } finally {
+                lock.unlock();
+            }
+            run(task);
+        }
+    }
+
+    private <T> void run(HashTask<T> task) {
+        long started = System.nanoTime();
+        long waited = started - task.enqueuedAt();
+        if (waited > TimeUnit.MILLISECONDS.toNanos(queueTimeoutMs)) {
+            timedOut.increment();
+            task.result().completeExceptionally(unavailable("Sign-in is busy, retry shortly"));
+            return;
+        }
+        T value;
+        active.incrementAndGet();
+        try {
+            value = task.work().get();
+        } catch (RuntimeException e) {
+            task.result().completeExceptionally(e);
+            return;
+        } finally {
+            active.decrementAndGet();
+            long elapsed = System.nanoTime() - started;
+            completed.increment();
+            hashNanos.add(elapsed);
+            waitNanos.add(waited);
+            maxHashNanos.accumulate(elapsed);
+        }
+        // Outside the timing: dependent actions (a re-hash's UPDATE) run here
+        task.result().complete(value);
+    }
+
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            // Always completed by a worker: with the hash, a timeout, or at shutdown
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw unavailable("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static ResponseStatusException unavailable(String reason) {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, reason);
+    }
+}
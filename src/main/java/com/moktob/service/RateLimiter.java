@@ -0,0 +1,200 @@
+package com.moktob.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Request rate limits shared by every node.
+ * <p>
+ * Each node decides locally from a token bucket per key, so a check costs a map lookup and
+ * a short lock, with no network round trip. Every {@code rate-limit.sync-interval-ms}, the
+ * requests each node admitted are added to a Redis sliding-window counter, with the script
+ * calls for all keys sent in one pipeline from {@code rateLimitSyncExecutor}. The
+ * cluster-wide count that comes back then caps the local bucket. A key can therefore
+ * exceed its limit across the cluster only for about one sync interval. If Redis is
+ * unreachable, each node enforces the limit on its own.
+ */
+@Service
+@Slf4j
+public class RateLimiter {
+
+    private static final String KEY_PREFIX = "ratelimit:";
+    private static final RedisSerializer<String> STRINGS = RedisSerializer.string();
+
+    /**
+     * Adds this node's admitted requests to the current fixed window and returns the sliding
+     * estimate: the current window plus the previous window weighted by its remaining overlap.
+     */
+    private static final RedisScript<Long> SLIDING_WINDOW_SCRIPT = new DefaultRedisScript<>("""
+            local current = redis.call('INCRBY', KEYS[1], ARGV[1])
+            if current == tonumber(ARGV[1]) then
+                redis.call('PEXPIRE', KEYS[1], ARGV[2] * 2)
+            end
+            local previous = tonumber(redis.call('GET', KEYS[2]) or '0')
+            return math.floor(previous * (ARGV[2] - ARGV[3]) / ARGV[2]) + current
+            """, Long.class);
+
+    public record Rule(String name, int limit, long windowMs) {
+    }
+
+    private static final class Bucket {
+        final Rule rule;
+        final String subject;
+        double tokens;
+        long refilledAt;
+        // Admitted since the last sync
+        int unsynced;
+        long lastUsed;
+
+        Bucket(Rule rule, String subject, long now) {
+            this.rule = rule;
+            this.subject = subject;
+            this.tokens = rule.limit();
+            this.refilledAt = now;
+            this.lastUsed = now;
+        }
+    }
+
+    private record Admitted(Bucket bucket, int count) {
+    }
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ThreadPoolTaskExecutor rateLimitSyncExecutor;
+    private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    @Value("${rate-limit.redis-sync:true}")
+    private boolean redisSync;
+
+    @Value("${rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    public RateLimiter(StringRedisTemplate stringRedisTemplate, ThreadPoolTaskExecutor rateLimitSyncExecutor) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.rateLimitSyncExecutor = rateLimitSyncExecutor;
+    }
+
+    /**
+     * Takes one request from the subject's allowance under {@code rule}. Returns 0 if the
+     * request is allowed, otherwise the milliseconds until one would be.
+     */
+    public long tryAcquire(Rule rule, String subject) {
+        long now = System.currentTimeMillis();
+        String key = rule.name() + ':' + subject;
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(rule, subject, now));
+        }
+        synchronized (bucket) {
+            refill(bucket, now);
+            bucket.lastUsed = now;
+            if (bucket.tokens < 1) {
+                return (long) Math.ceil((1 - bucket.tokens) * rule.windowMs() / rule.limit());
+            }
+            bucket.tokens--;
+            bucket.unsynced++;
+            return 0;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.sync-interval-ms:200}")
+    public void scheduleSync() {
+        try {
+            rateLimitSyncExecutor.execute(() -> sync(System.currentTimeMillis()));
+        } catch (TaskRejectedException e) {
+            // The previous pass is still waiting on Redis; the next one carries these counts
+            log.debug("Skipped rate limit sync: the previous pass has not finished");
+        }
+    }
+
+    void sync(long now) {
+        List<Admitted> unsynced = new ArrayList<>();
+        for (Iterator<Map.Entry<String, Bucket>> it = buckets.entrySet().iterator(); it.hasNext(); ) {
+            Bucket bucket = it.next().getValue();
+            synchronized (bucket) {
+                refill(bucket, now);
+                int admitted = bucket.unsynced;
+                bucket.unsynced = 0;
+                if (admitted == 0 && bucket.tokens >= bucket.rule.limit() && now - bucket.lastUsed > bucket.rule.windowMs()) {
+                    // Idle and full: recreated as full on the next request
+                    it.remove();
+                } else if (admitted > 0) {
+                    unsynced.add(new Admitted(bucket, admitted));
+                }
+            }
+        }
+        if (redisSync && !unsynced.isEmpty()) {
+            try {
+                List<Object> counts = countInCluster(unsynced, now);
+                for (int i = 0; i < unsynced.size(); i++) {
+                    Bucket bucket = unsynced.get(i).bucket();
+                    long clusterCount = counts.get(i) instanceof Long count ? count : 0;
+                    synchronized (bucket) {
+                        bucket.tokens = Math.min(bucket.tokens, bucket.rule.limit() - clusterCount);
+                    }
+                }
+            } catch (RuntimeException e) {
+                // Local limits still apply
+                log.warn("Rate limit sync with Redis failed: {}", e.getMessage());
+            }
+        }
+        if (buckets.size() > maxKeys) {
+            log.warn("{} rate limit keys exceed rate-limit.max-keys ({}); dropping the least recent",
+                    buckets.size(), maxKeys);
+            buckets.values().removeIf(bucket -> now - bucket.lastUsed > bucket.rule.windowMs());
+        }
+    }
+
+    /**
+     * Runs the sliding-window script for every key in one pipeline and returns the
+     * cluster-wide counts in the order of {@code unsynced}. The script is loaded first in the
+     * same pipeline, so EVALSHA cannot miss after a Redis restart.
+     */
+    private List<Object> countInCluster(List<Admitted> unsynced, long now) {
+        byte[] script = STRINGS.serialize(SLIDING_WINDOW_SCRIPT.getScriptAsString());
+        String sha = SLIDING_WINDOW_SCRIPT.getSha1();
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            RedisScriptingCommands scripting = connection.scriptingCommands();
+            scripting.scriptLoad(script);
+            for (Admitted admitted : unsynced) {
+                Rule rule = admitted.bucket().rule;
+                long window = now / rule.windowMs();
+                String prefix = KEY_PREFIX + rule.name() + ':' + admitted.bucket().subject + ':';
+                scripting.evalSha(sha, ReturnType.INTEGER, 2,
+                        STRINGS.serialize(prefix + window), STRINGS.serialize(prefix + (window - 1)),
+                        STRINGS.serialize(Integer.toString(admitted.count())),
+                        STRINGS.serialize(Long.toString(rule.windowMs())),
+                        STRINGS.serialize(Long.toString(now % rule.windowMs())));
+            }
+            return null;
+        });
+        // Drop the SCRIPT LOAD reply
+        return results.subList(1, results.size());
+    }
+
+    private static void refill(Bucket bucket, long now) {
+        long elapsed = now - bucket.refilledAt;
+        if (elapsed > 0) {
+            Rule rule = bucket.rule;
+            bucket.tokens = Math.min(rule.limit(), bucket.tokens + (double) elapsed * rule.limit() / rule.windowMs());
+            bucket.refilledAt = now;
+        }
+    }
+}
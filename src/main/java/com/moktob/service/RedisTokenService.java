@@ -14,80 +14,8 @@ public class RedisTokenService {
 
     private final RedisTemplate<String, Object> redisTemplate;
     
-    private static final String TOKEN_PREFIX = "jwt:token:";
-    private static final String USER_PREFIX = "jwt:user:";
     private static final String RESET_TOKEN_PREFIX = "reset:token:";
     
-    public void storeToken(String token, String username, Long clientId, Long userId, Duration expiration) {
-        try {
-            String tokenKey = TOKEN_PREFIX + token;
-            String userKey = USER_PREFIX + username;
-            
-            // Store token with user info
-            TokenInfo tokenInfo = new TokenInfo(username, clientId, userId, System.currentTimeMillis());
-            redisTemplate.opsForValue().set(tokenKey, tokenInfo, expiration);
-            
-            // Store user's current token for logout purposes
-            redisTemplate.opsForValue().set(userKey, token, expiration);
-            
-            log.debug("Stored token for user: {} with expiration: {} seconds", username, expiration.getSeconds());
-        } catch (Exception e) {
-            log.error("Failed to store token in Redis for user: {}", username, e);
-        }
-    }
-    
-    public boolean isTokenValid(String token) {
-        try {
-            String tokenKey = TOKEN_PREFIX + token;
-            return Boolean.TRUE.equals(redisTemplate.hasKey(tokenKey));
-        } catch (Exception e) {
-            log.error("Failed to check token validity in Redis", e);
-            return false;
-        }
-    }
-    
-    public TokenInfo getTokenInfo(String token) {
-        try {
-            String tokenKey = TOKEN_PREFIX + token;
-            return (TokenInfo) redisTemplate.opsForValue().get(tokenKey);
-        } catch (Exception e) {
-            log.error("Failed to get token info from Redis", e);
-            return null;
-        }
-    }
-    
-    public void removeToken(String token) {
-        try {
-            String tokenKey = TOKEN_PREFIX + token;
-            TokenInfo tokenInfo = getTokenInfo(token);
-            
-            if (tokenInfo != null) {
-                String userKey = USER_PREFIX + tokenInfo.getUsername();
-                redisTemplate.delete(tokenKey);
-                redisTemplate.delete(userKey);
-                log.debug("Removed token for user: {}", tokenInfo.getUsername());
-            }
-        } catch (Exception e) {
-            log.error("Failed to remove token from Redis", e);
-        }
-    }
-    
-    public void removeUserToken(String username) {
-        try {
-            String userKey = USER_PREFIX + username;
-            String token = (String) redisTemplate.opsForValue().get(userKey);
-            
-            if (token != null) {
-                String tokenKey = TOKEN_PREFIX + token;
-                redisTemplate.delete(tokenKey);
-                redisTemplate.delete(userKey);
-                log.debug("Removed token for user: {}", username);
-            }
-        } catch (Exception e) {
-            log.error("Failed to remove user token from Redis", e);
-        }
-    }
-    
     // Reset token methods
     public void storeResetToken(String resetToken, String username, Long clientId, Long userId, Duration expiration) {
         try {
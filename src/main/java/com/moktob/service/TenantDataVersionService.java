@@ -0,0 +1,135 @@
+package com.moktob.service;
+
+import com.moktob.common.TenantAggregate;
+import com.moktob.common.TenantContextHolder;
+import com.moktob.common.TenantDataChangedEvent;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Per-tenant, per-aggregate data versions in Redis, used as strong ETags for list and
+ * dashboard reads.
+ * <p>
+ * A version is bumped after every committed write to the aggregate. Controllers check
+ * {@code If-None-Match} against the current versions before calling any repository, so
+ * an unchanged list costs one MGET. The versions are read before the data, so a response
+ * can only ever carry an ETag that is older than its body, never newer.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TenantDataVersionService {
+
+    private static final String VERSION_PREFIX = "data:version:";
+    private static final String REVALIDATE = CacheControl.noCache().cachePrivate().getHeaderValue();
+    private static final String NO_STORE = CacheControl.noStore().getHeaderValue();
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Value("${conditional-get.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Sets the ETag for the current tenant's view of {@code aggregates} and returns true if
+     * the client's copy is current, in which case the response is already a 304 and the
+     * caller should return without a body.
+     */
+    public boolean checkNotModified(ServletWebRequest request, TenantAggregate... aggregates) {
+        return checkNotModified(request, null, aggregates);
+    }
+
+    /**
+     * As {@link #checkNotModified(ServletWebRequest, TenantAggregate...)}, for responses that
+     * also depend on request parameters; {@code variant} must capture all of them and must
+     * not contain double quotes.
+     */
+    public boolean checkNotModified(ServletWebRequest request, String variant, TenantAggregate... aggregates) {
+        String etag = currentEtag(variant, aggregates);
+        if (etag == null) {
+            return false;
+        }
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            // Overrides Spring Security's no-store default so browsers keep the body and revalidate
+            response.setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE);
+        }
+        return request.checkNotModified(etag);
+    }
+
+    /**
+     * Tells the client not to keep this response, after {@link #checkNotModified} has set an
+     * ETag for it. For bodies that are not the full data the ETag stands for, such as a
+     * partial dashboard overview: a stored copy would be revalidated into 304s until the
+     * next write.
+     */
+    public void preventCaching(ServletWebRequest request) {
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, NO_STORE);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTenantDataChanged(TenantDataChangedEvent event) {
+        if (!enabled || event.clientId() == null) {
+            return;
+        }
+        String key = versionKey(event.clientId(), event.aggregate());
+        try {
+            Long version = stringRedisTemplate.opsForValue().increment(key);
+            if (version != null && version == 1L) {
+                // The key was missing (first write or Redis was flushed); start from a value
+                // that cannot collide with ETags issued before the reset
+                stringRedisTemplate.opsForValue().set(key, String.valueOf(System.currentTimeMillis()));
+            }
+        } catch (Exception e) {
+            log.error("Failed to bump {} data version for client {}", event.aggregate(), event.clientId(), e);
+        }
+    }
+
+    private String currentEtag(String variant, TenantAggregate... aggregates) {
+        Long clientId = TenantContextHolder.getTenantId();
+        if (!enabled || clientId == null) {
+            return null;
+        }
+        List<String> keys = Arrays.stream(aggregates).map(aggregate -> versionKey(clientId, aggregate)).toList();
+        try {
+            List<String> versions = stringRedisTemplate.opsForValue().multiGet(keys);
+            if (versions == null) {
+                return null;
+            }
+            StringBuilder etag = new StringBuilder("\"").append(clientId);
+            for (int i = 0; i < keys.size(); i++) {
+                String version = versions.get(i);
+                if (version == null) {
+                    String initial = String.valueOf(System.currentTimeMillis());
+                    Boolean created = stringRedisTemplate.opsForValue().setIfAbsent(keys.get(i), initial);
+                    version = Boolean.TRUE.equals(created) ? initial : stringRedisTemplate.opsForValue().get(keys.get(i));
+                }
+                etag.append('-').append(version);
+            }
+            if (variant != null) {
+                etag.append('-').append(variant);
+            }
+            return etag.append('"').toString();
+        } catch (Exception e) {
+            log.warn("Failed to read data versions for client {}: {}", clientId, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String versionKey(Long clientId, TenantAggregate aggregate) {
+        return VERSION_PREFIX + clientId + ":" + aggregate.name();
+    }
+}
@@ -0,0 +1,168 @@
+package com.moktob.service;
+
+import com.moktob.common.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revoked JWTs, by token id ({@code jti}).
+ * <p>
+ * Redis holds one key per revoked token, expiring with the token, and is the source of
+ * truth. Each node keeps a Bloom filter of revoked ids and a near-cache of the ones it has
+ * confirmed, kept current by a pub/sub channel, so the usual case (a token that was never
+ * revoked) is answered in-process. Redis is asked only when the filter reports a probable
+ * hit. The filter is rebuilt from Redis every {@code security.token-revocation.resync-ms},
+ * which drops expired ids and repairs anything missed while the subscription was down.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+    private static final String REVOKED_PREFIX = "jwt:revoked:";
+    private static final String REVOCATION_CHANNEL = "jwt:revocations";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisConnectionFactory redisConnectionFactory;
+    // Token id -> expiry (epoch millis) of revocations this node has seen or confirmed
+    private final ConcurrentMap<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Value("${security.token-revocation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${security.token-revocation.expected-revocations:100000}")
+    private int expectedRevocations;
+
+    @Value("${security.token-revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    public TokenRevocationService(StringRedisTemplate stringRedisTemplate, RedisConnectionFactory redisConnectionFactory) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.redisConnectionFactory = redisConnectionFactory;
+    }
+
+    @PostConstruct
+    void subscribe() {
+        filter = new BloomFilter(expectedRevocations, falsePositiveRate);
+        if (!enabled) {
+            return;
+        }
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(redisConnectionFactory);
+        listenerContainer.addMessageListener((message, pattern) -> {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            int separator = body.lastIndexOf(' ');
+            remember(body.substring(0, separator), Long.parseLong(body.substring(separator + 1)));
+        }, new ChannelTopic(REVOCATION_CHANNEL));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+    }
+
+    @PreDestroy
+    void unsubscribe() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+    }
+
+    /**
+     * Revokes the token until it expires and tells every node.
+     */
+    public void revoke(String tokenId, Instant expiresAt) {
+        long expiresAtMillis = expiresAt != null ? expiresAt.toEpochMilli() : Long.MAX_VALUE;
+        long ttl = expiresAtMillis - System.currentTimeMillis();
+        if (!enabled || ttl <= 0) {
+            return;
+        }
+        stringRedisTemplate.opsForValue().set(REVOKED_PREFIX + tokenId, "1",
+                expiresAt != null ? Duration.ofMillis(ttl) : Duration.ofDays(1));
+        remember(tokenId, expiresAtMillis);
+        try {
+            stringRedisTemplate.convertAndSend(REVOCATION_CHANNEL, tokenId + " " + expiresAtMillis);
+        } catch (RuntimeException e) {
+            // Other nodes pick it up at the next resync
+            log.warn("Failed to broadcast revocation of token {}: {}", tokenId, e.getMessage());
+        }
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (!enabled || tokenId == null) {
+            return false;
+        }
+        Long expiresAt = revoked.get(tokenId);
+        if (expiresAt != null) {
+            return expiresAt > System.currentTimeMillis();
+        }
+        if (!filter.mightContain(tokenId)) {
+            return false;
+        }
+
+        Long ttl;
+        try {
+            ttl = stringRedisTemplate.getExpire(REVOKED_PREFIX + tokenId, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            // A probable hit we cannot check: treat the token as revoked
+            log.warn("Could not check revocation of token {}: {}", tokenId, e.getMessage());
+            return true;
+        }
+        if (ttl == null || ttl == -2) {
+            return false;
+        }
+        remember(tokenId, ttl < 0 ? Long.MAX_VALUE : System.currentTimeMillis() + ttl);
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${security.token-revocation.resync-ms:600000}")
+    public void resync() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+
+        BloomFilter rebuilt = new BloomFilter(expectedRevocations, falsePositiveRate);
+        int count = 0;
+        ScanOptions options = ScanOptions.scanOptions().match(REVOKED_PREFIX + "*").count(1000).build();
+        try (Cursor<String> keys = stringRedisTemplate.scan(options)) {
+            while (keys.hasNext()) {
+                rebuilt.add(keys.next().substring(REVOKED_PREFIX.length()));
+                count++;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not resync revoked tokens from Redis: {}", e.getMessage());
+            return;
+        }
+        // Revocations that arrived during the scan
+        revoked.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+
+        if (count > expectedRevocations) {
+            log.warn("{} revoked tokens exceed security.token-revocation.expected-revocations ({}); "
+                    + "more requests will need a Redis lookup", count, expectedRevocations);
+        }
+        log.debug("Resynced {} revoked tokens", count);
+    }
+
+    private void remember(String tokenId, long expiresAt) {
+        revoked.put(tokenId, expiresAt);
+        filter.add(tokenId);
+    }
+}
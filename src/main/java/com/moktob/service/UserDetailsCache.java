@@ -0,0 +1,164 @@
+package com.moktob.service;
+
+import com.moktob.core.UserAccountChangedEvent;
+import com.moktob.dto.UserDetailsCacheStatsDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Local cache of {@link UserDetails} by username for {@link JwtUserDetailsService}, so an
+ * authenticated request does not cost a {@code user_account} SELECT.
+ * <p>
+ * Entries live for {@code security.user-cache.ttl-seconds} and at most
+ * {@code security.user-cache.max-size} are kept. A {@link UserAccountChangedEvent} drops
+ * the user's entry once the change commits. With
+ * {@code security.user-cache.redis-invalidation} on, invalidations are also broadcast over a
+ * Redis channel so every node drops its copy; the details themselves (password hash
+ * included) never leave the JVM.
+ */
+@Service
+@Slf4j
+public class UserDetailsCache {
+
+    private static final String INVALIDATION_CHANNEL = "user-cache:invalidate";
+    private static final String ALL_USERS = "*";
+
+    private record Entry(UserDetails details, long expiresAt) {
+    }
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisConnectionFactory redisConnectionFactory;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    // Bumped by every invalidation, so a load that raced with one is not cached
+    private final AtomicLong generation = new AtomicLong();
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Value("${security.user-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${security.user-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${security.user-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${security.user-cache.redis-invalidation:false}")
+    private boolean redisInvalidation;
+
+    public UserDetailsCache(StringRedisTemplate stringRedisTemplate, RedisConnectionFactory redisConnectionFactory) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.redisConnectionFactory = redisConnectionFactory;
+    }
+
+    @PostConstruct
+    void subscribe() {
+        if (!enabled || !redisInvalidation) {
+            return;
+        }
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(redisConnectionFactory);
+        listenerContainer.addMessageListener((message, pattern) ->
+                evict(new String(message.getBody(), StandardCharsets.UTF_8)), new ChannelTopic(INVALIDATION_CHANNEL));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+    }
+
+    @PreDestroy
+    void unsubscribe() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+    }
+
+    /**
+     * Returns the cached details for {@code username}, loading and caching them on a miss.
+     * Exceptions from the loader (unknown or disabled user) are not cached.
+     */
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        if (!enabled) {
+            return loader.apply(username);
+        }
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(username);
+        if (entry != null && entry.expiresAt() > now) {
+            hits.increment();
+            return entry.details();
+        }
+        misses.increment();
+
+        long loadedIn = generation.get();
+        UserDetails details = loader.apply(username);
+        if (entries.size() >= maxSize) {
+            evictExpired(now);
+        }
+        entries.put(username, new Entry(details, now + TimeUnit.SECONDS.toMillis(ttlSeconds)));
+        if (generation.get() != loadedIn) {
+            // Invalidated while loading; the details may predate the change
+            entries.remove(username);
+        }
+        return details;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        String key = event.username() != null ? event.username() : ALL_USERS;
+        evict(key);
+        if (listenerContainer != null) {
+            try {
+                stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, key);
+            } catch (RuntimeException e) {
+                // Other nodes catch up within the TTL
+                log.warn("Failed to broadcast user cache invalidation for {}: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    public UserDetailsCacheStatsDTO getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+        return new UserDetailsCacheStatsDTO(enabled, entries.size(), hitCount, missCount,
+                requests == 0 ? 0.0 : (double) hitCount / requests, invalidations.sum());
+    }
+
+    private void evict(String username) {
+        generation.incrementAndGet();
+        invalidations.increment();
+        if (ALL_USERS.equals(username)) {
+            entries.clear();
+        } else {
+            entries.remove(username);
+        }
+    }
+
+    private void evictExpired(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+        // Still full of live entries: drop an arbitrary tenth rather than grow
+        Iterator<String> usernames = entries.keySet().iterator();
+        for (int excess = entries.size() - maxSize * 9 / 10; excess > 0 && usernames.hasNext(); excess--) {
+            usernames.next();
+            usernames.remove();
+        }
+    }
+}
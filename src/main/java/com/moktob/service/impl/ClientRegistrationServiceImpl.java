@@ -1,5 +1,6 @@
 package com.moktob.service.impl;
 
+import com.moktob.common.TenantContext;
 import com.moktob.common.TenantContextHolder;
 import com.moktob.core.Client;
 import com.moktob.core.ClientService;
@@ -44,15 +45,8 @@ public class ClientRegistrationServiceImpl implements ClientRegistrationService
         // Create an admin user for the client
         UserAccount adminUser = createAdminUser(savedClient.getClientId(), request);
         
-        // Send registration email with credentials
-        try {
-            emailService.sendClientRegistrationEmail(savedClient, adminUser, tempPasswordForResponse);
-            log.info("Registration email sent successfully to: {}", savedClient.getContactEmail());
-        } catch (Exception e) {
-            log.error("Failed to send registration email to: {}. Error: {}", 
-                     savedClient.getContactEmail(), e.getMessage(), e);
-            // Continue with registration even if email fails
-        }
+        // Queued with the registration and sent once it commits; SMTP is never in this transaction
+        emailService.sendClientRegistrationEmail(savedClient, adminUser, tempPasswordForResponse);
         
         log.debug("Creating response with tempPasswordForResponse: {}", tempPasswordForResponse);
         return new ClientRegistrationResponse(
@@ -78,7 +72,7 @@ public class ClientRegistrationServiceImpl implements ClientRegistrationService
     }
 
     private void createDefaultRoles(Long clientId) {
-        TenantContextHolder.setTenantId(clientId);
+        TenantContext previous = TenantContextHolder.switchTo(clientId);
         
         try {
             // Create ADMIN role
@@ -106,12 +100,12 @@ public class ClientRegistrationServiceImpl implements ClientRegistrationService
             roleService.saveRole(parentRole);
             
         } finally {
-            TenantContextHolder.clear();
+            TenantContextHolder.restore(previous);
         }
     }
 
     private UserAccount createAdminUser(Long clientId, ClientRegistrationRequest request) {
-        TenantContextHolder.setTenantId(clientId);
+        TenantContext previous = TenantContextHolder.switchTo(clientId);
         
         try {
             // Get the ADMIN role
@@ -144,7 +138,7 @@ public class ClientRegistrationServiceImpl implements ClientRegistrationService
             return savedUser;
             
         } finally {
-            TenantContextHolder.clear();
+            TenantContextHolder.restore(previous);
         }
     }
 
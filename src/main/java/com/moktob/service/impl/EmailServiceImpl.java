@@ -1,13 +1,15 @@
 package com.moktob.service.impl;
 
+import com.moktob.common.TenantContextHolder;
+import com.moktob.communication.EmailOutboxMessage;
+import com.moktob.communication.EmailOutboxRepository;
+import com.moktob.communication.EmailQueuedEvent;
 import com.moktob.core.Client;
 import com.moktob.core.UserAccount;
 import com.moktob.service.EmailService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -15,30 +17,15 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class EmailServiceImpl implements EmailService {
 
-    private final JavaMailSender mailSender;
-
-    @Value("${spring.mail.username}")
-    private String fromEmail;
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public void sendClientRegistrationEmail(Client client, UserAccount adminUser, String temporaryPassword) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(client.getContactEmail());
-            message.setSubject("Welcome to Moktob Management System - Your Account Details");
-            
-            String emailBody = buildRegistrationEmailBody(client, adminUser, temporaryPassword);
-            message.setText(emailBody);
-            
-            mailSender.send(message);
-            log.info("Registration email sent successfully to: {}", client.getContactEmail());
-            
-        } catch (Exception e) {
-            log.error("Failed to send registration email to: {}. Error: {}", 
-                     client.getContactEmail(), e.getMessage(), e);
-            throw new RuntimeException("Failed to send registration email", e);
-        }
+        enqueue(client.getClientId(), client.getContactEmail(),
+                "Welcome to Moktob Management System - Your Account Details",
+                buildRegistrationEmailBody(client, adminUser, temporaryPassword));
+        log.info("Registration email queued for: {}", client.getContactEmail());
     }
 
     private String buildRegistrationEmailBody(Client client, UserAccount adminUser, String temporaryPassword) {
@@ -76,22 +63,9 @@ public class EmailServiceImpl implements EmailService {
 
     @Override
     public void sendPasswordResetEmail(String toEmail, String username, String resetUrl) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setSubject("Password Reset - Moktob Management System");
-            
-            String emailBody = buildPasswordResetEmailBody(username, resetUrl);
-            message.setText(emailBody);
-            
-            mailSender.send(message);
-            log.info("Password reset email sent successfully to: {}", toEmail);
-            
-        } catch (Exception e) {
-            log.error("Failed to send password reset email to: {}", toEmail, e);
-            throw new RuntimeException("Failed to send password reset email", e);
-        }
+        enqueue(TenantContextHolder.getTenantId(), toEmail, "Password Reset - Moktob Management System",
+                buildPasswordResetEmailBody(username, resetUrl));
+        log.info("Password reset email queued for: {}", toEmail);
     }
     
     private String buildPasswordResetEmailBody(String username, String resetUrl) {
@@ -119,22 +93,9 @@ public class EmailServiceImpl implements EmailService {
 
     @Override
     public void sendWelcomeEmail(String toEmail, String username, String temporaryPassword) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setSubject("Welcome to Moktob Management System");
-            
-            String emailBody = buildWelcomeEmailBody(username, temporaryPassword);
-            message.setText(emailBody);
-            
-            mailSender.send(message);
-            log.info("Welcome email sent successfully to: {}", toEmail);
-            
-        } catch (Exception e) {
-            log.error("Failed to send welcome email to: {}", toEmail, e);
-            throw new RuntimeException("Failed to send welcome email", e);
-        }
+        enqueue(TenantContextHolder.getTenantId(), toEmail, "Welcome to Moktob Management System",
+                buildWelcomeEmailBody(username, temporaryPassword));
+        log.info("Welcome email queued for: {}", toEmail);
     }
     
     private String buildWelcomeEmailBody(String username, String temporaryPassword) {
@@ -161,4 +122,17 @@ public class EmailServiceImpl implements EmailService {
             This is an automated message. Please do not reply to this email.
             """, username, username, temporaryPassword);
     }
+
+    /**
+     * Writes the message to the outbox in the caller's transaction; it is sent after commit.
+     */
+    private void enqueue(Long clientId, String to, String subject, String body) {
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setClientId(clientId);
+        message.setRecipient(to);
+        message.setSubject(subject);
+        message.setBody(body);
+        EmailOutboxMessage saved = emailOutboxRepository.save(message);
+        eventPublisher.publishEvent(new EmailQueuedEvent(saved.getId()));
+    }
 }
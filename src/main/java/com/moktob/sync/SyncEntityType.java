@@ -0,0 +1,13 @@
+package com.moktob.sync;
+
+/**
+ * Data sets carried by the offline sync change feed, in the order their positions appear
+ * in a sync token.
+ */
+public enum SyncEntityType {
+    STUDENT,
+    CLASS,
+    ATTENDANCE,
+    MEMORIZATION_RECORD,
+    ASSESSMENT
+}
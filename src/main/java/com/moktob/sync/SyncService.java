@@ -0,0 +1,297 @@
+package com.moktob.sync;
+
+import com.moktob.attendance.Attendance;
+import com.moktob.attendance.AttendanceRepository;
+import com.moktob.attendance.AttendanceService;
+import com.moktob.common.BaseEntity;
+import com.moktob.common.CursorPaging;
+import com.moktob.common.TenantContextHolder;
+import com.moktob.dto.AttendanceRequest;
+import com.moktob.dto.BulkAttendanceResultDTO;
+import com.moktob.dto.ClassResponseDTO;
+import com.moktob.dto.StudentResponseDTO;
+import com.moktob.dto.SyncAssessmentDTO;
+import com.moktob.dto.SyncAttendanceDTO;
+import com.moktob.dto.SyncChangesDTO;
+import com.moktob.dto.SyncDeletionDTO;
+import com.moktob.dto.SyncMemorizationRecordDTO;
+import com.moktob.dto.SyncUploadResultDTO;
+import com.moktob.education.ClassEntity;
+import com.moktob.education.ClassEntityRepository;
+import com.moktob.education.Student;
+import com.moktob.education.StudentRepository;
+import com.moktob.learning.Assessment;
+import com.moktob.learning.AssessmentRepository;
+import com.moktob.learning.MemorizationRecord;
+import com.moktob.learning.MemorizationRecordRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Change feed and attendance upload for offline teacher devices.
+ * <p>
+ * A device holds an opaque sync token with a position ({@code updatedAt}, id) per data set
+ * and one for deletions. Each call returns the rows changed after those positions, oldest
+ * first and at most {@code limit} per data set, so a resync costs what changed rather than
+ * the whole tenant. A transaction may commit rows stamped slightly earlier than rows
+ * already returned, so a caught-up position is never moved past
+ * {@code now - sync.overlap-seconds}; rows in that window can be sent again, and devices
+ * upsert by id. Deletions come from {@link SyncTombstone}s. A token older than their
+ * retention gets {@code resetRequired}.
+ * <p>
+ * Uploaded marks are resolved one by one: the device's mark wins unless the server's copy
+ * was changed after the device took it.
+ */
+@Service
+@RequiredArgsConstructor
+public class SyncService {
+
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final int TOMBSTONES = SyncEntityType.values().length;
+    private static final Comparator<Position> POSITION_ORDER =
+            Comparator.comparing(Position::updatedAt).thenComparingLong(Position::id);
+
+    private final StudentRepository studentRepository;
+    private final ClassEntityRepository classEntityRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final MemorizationRecordRepository memorizationRecordRepository;
+    private final AssessmentRepository assessmentRepository;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final SyncTombstoneService syncTombstoneService;
+    private final AttendanceService attendanceService;
+
+    @Value("${sync.overlap-seconds:60}")
+    private long overlapSeconds;
+
+    private record Position(LocalDateTime updatedAt, long id) {
+    }
+
+    @FunctionalInterface
+    private interface ChangeQuery<T> {
+        List<T> find(Long clientId, LocalDateTime since, Long afterId, Pageable pageable);
+    }
+
+    /**
+     * Returns what changed for the current tenant since {@code token}, or everything if the
+     * token is null.
+     */
+    @Transactional(readOnly = true)
+    public SyncChangesDTO getChanges(String token, int limit) {
+        Long clientId = TenantContextHolder.getTenantId();
+        Position settled = new Position(LocalDateTime.now().minusSeconds(overlapSeconds), 0);
+        Position[] from = token != null ? decodeToken(token) : initialPositions(settled);
+
+        if (from[TOMBSTONES].updatedAt().isBefore(syncTombstoneService.retainedSince())) {
+            return new SyncChangesDTO(List.of(), List.of(), List.of(), List.of(), List.of(), List.of(),
+                    null, false, true);
+        }
+
+        FeedReader reader = new FeedReader(clientId, from, settled, CursorPaging.rows(limit));
+        SyncChangesDTO changes = new SyncChangesDTO();
+        changes.setStudents(reader.read(SyncEntityType.STUDENT.ordinal(),
+                studentRepository::findChangedSince, Student::getId).stream()
+                .map(SyncService::toStudentDTO).toList());
+        changes.setClasses(reader.read(SyncEntityType.CLASS.ordinal(),
+                classEntityRepository::findChangedSince, ClassEntity::getId).stream()
+                .map(SyncService::toClassDTO).toList());
+        changes.setAttendance(reader.read(SyncEntityType.ATTENDANCE.ordinal(),
+                attendanceRepository::findChangedSince, Attendance::getId).stream()
+                .map(SyncService::toAttendanceDTO).toList());
+        changes.setMemorizationRecords(reader.read(SyncEntityType.MEMORIZATION_RECORD.ordinal(),
+                memorizationRecordRepository::findChangedSince, MemorizationRecord::getId).stream()
+                .map(SyncService::toMemorizationRecordDTO).toList());
+        changes.setAssessments(reader.read(SyncEntityType.ASSESSMENT.ordinal(),
+                assessmentRepository::findChangedSince, Assessment::getId).stream()
+                .map(SyncService::toAssessmentDTO).toList());
+        changes.setDeleted(reader.read(TOMBSTONES,
+                syncTombstoneRepository::findChangedSince, SyncTombstone::getId).stream()
+                .map(tombstone -> new SyncDeletionDTO(tombstone.getEntityType().name(), tombstone.getEntityId()))
+                .toList());
+        changes.setNextToken(encodeToken(reader.next));
+        changes.setHasMore(reader.hasMore);
+        return changes;
+    }
+
+    /**
+     * Writes attendance marks taken offline. {@code markedAt} is required on every mark;
+     * for repeated marks the latest one counts. A mark whose server copy was updated after
+     * {@code markedAt} is not applied, and the server copy is returned as a conflict for the
+     * device to adopt.
+     */
+    @Transactional
+    public SyncUploadResultDTO uploadAttendance(List<AttendanceRequest> marks) {
+        Long clientId = TenantContextHolder.getTenantId();
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<List<Object>, AttendanceRequest> latest = new LinkedHashMap<>();
+        for (AttendanceRequest mark : marks) {
+            if (mark.getStudentId() == null || mark.getClassId() == null || mark.getAttendanceDate() == null
+                    || mark.getStatus() == null || mark.getMarkedAt() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "studentId, classId, attendanceDate, status and markedAt are required");
+            }
+            List<Object> key = List.of(mark.getStudentId(), mark.getClassId(), mark.getAttendanceDate());
+            AttendanceRequest seen = latest.get(key);
+            if (seen == null || !mark.getMarkedAt().isBefore(seen.getMarkedAt())) {
+                latest.put(key, mark);
+            }
+        }
+
+        Map<List<Object>, Attendance> stored = findStoredMarks(clientId, latest.values());
+        List<AttendanceRequest> accepted = new ArrayList<>();
+        List<SyncAttendanceDTO> conflicts = new ArrayList<>();
+        latest.forEach((key, mark) -> {
+            Attendance current = stored.get(key);
+            // A device clock running ahead must not make its marks beat later server edits
+            LocalDateTime markedAt = mark.getMarkedAt().isAfter(now) ? now : mark.getMarkedAt();
+            if (current != null && current.getUpdatedAt() != null && current.getUpdatedAt().isAfter(markedAt)) {
+                conflicts.add(toAttendanceDTO(current));
+            } else {
+                accepted.add(mark);
+            }
+        });
+
+        BulkAttendanceResultDTO written = accepted.isEmpty()
+                ? new BulkAttendanceResultDTO()
+                : attendanceService.saveBulkAttendance(accepted);
+        return new SyncUploadResultDTO(written.getInserted(), written.getUpdated(), written.getUnchanged(), conflicts);
+    }
+
+    private Map<List<Object>, Attendance> findStoredMarks(Long clientId, Iterable<AttendanceRequest> marks) {
+        Set<Long> classIds = new HashSet<>();
+        Set<Long> studentIds = new HashSet<>();
+        Set<LocalDate> dates = new HashSet<>();
+        for (AttendanceRequest mark : marks) {
+            classIds.add(mark.getClassId());
+            studentIds.add(mark.getStudentId());
+            dates.add(mark.getAttendanceDate());
+        }
+        Map<List<Object>, Attendance> stored = new HashMap<>();
+        if (classIds.isEmpty()) {
+            return stored;
+        }
+        for (Attendance attendance : attendanceRepository.findMarks(clientId, classIds, studentIds, dates)) {
+            stored.put(List.of(attendance.getStudentId(), attendance.getClassId(), attendance.getAttendanceDate()),
+                    attendance);
+        }
+        return stored;
+    }
+
+    /**
+     * Reads one data set after its position and works out the position to hand back.
+     */
+    private static final class FeedReader {
+
+        private final Long clientId;
+        private final Position[] from;
+        private final Position settled;
+        private final Pageable rows;
+        private final Position[] next = new Position[TOMBSTONES + 1];
+        private boolean hasMore;
+
+        FeedReader(Long clientId, Position[] from, Position settled, Pageable rows) {
+            this.clientId = clientId;
+            this.from = from;
+            this.settled = settled;
+            this.rows = rows;
+        }
+
+        <T extends BaseEntity> List<T> read(int slot, ChangeQuery<T> query, Function<T, Long> idOf) {
+            Position since = from[slot];
+            List<T> found = query.find(clientId, since.updatedAt(), since.id(), rows);
+            int size = rows.getPageSize() - 1;
+            if (found.size() > size) {
+                found = found.subList(0, size);
+                hasMore = true;
+                next[slot] = positionOf(found.get(size - 1), idOf);
+                return found;
+            }
+            Position reached = found.isEmpty() ? since : positionOf(found.get(found.size() - 1), idOf);
+            next[slot] = POSITION_ORDER.compare(reached, settled) < 0 ? reached : settled;
+            return found;
+        }
+
+        private static <T extends BaseEntity> Position positionOf(T row, Function<T, Long> idOf) {
+            return new Position(row.getUpdatedAt(), idOf.apply(row));
+        }
+    }
+
+    private static Position[] initialPositions(Position settled) {
+        Position[] positions = new Position[TOMBSTONES + 1];
+        for (int i = 0; i < TOMBSTONES; i++) {
+            positions[i] = new Position(ORIGIN, 0);
+        }
+        // A device starting from nothing has nothing to delete from before this call
+        positions[TOMBSTONES] = settled;
+        return positions;
+    }
+
+    private static String encodeToken(Position[] positions) {
+        String[] keys = new String[positions.length * 2];
+        for (int i = 0; i < positions.length; i++) {
+            keys[i * 2] = positions[i].updatedAt().toString();
+            keys[i * 2 + 1] = String.valueOf(positions[i].id());
+        }
+        return CursorPaging.encode(keys);
+    }
+
+    private static Position[] decodeToken(String token) {
+        String[] keys = CursorPaging.decode(token, (TOMBSTONES + 1) * 2);
+        Position[] positions = new Position[TOMBSTONES + 1];
+        for (int i = 0; i < positions.length; i++) {
+            try {
+                positions[i] = new Position(LocalDateTime.parse(keys[i * 2]), CursorPaging.parseId(keys[i * 2 + 1]));
+            } catch (DateTimeParseException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid sync token");
+            }
+        }
+        return positions;
+    }
+
+    private static StudentResponseDTO toStudentDTO(Student student) {
+        return new StudentResponseDTO(student.getId(), student.getName(), student.getDateOfBirth(),
+                student.getGuardianName(), student.getGuardianContact(), student.getAddress(),
+                student.getEnrollmentDate(), student.getCurrentClassId(), student.getPhotoUrl(), null);
+    }
+
+    private static ClassResponseDTO toClassDTO(ClassEntity classEntity) {
+        return new ClassResponseDTO(classEntity.getId(), classEntity.getClassName(), classEntity.getTeacherId(),
+                null, classEntity.getStartTime(), classEntity.getEndTime(), classEntity.getDaysOfWeek(), null);
+    }
+
+    private static SyncAttendanceDTO toAttendanceDTO(Attendance attendance) {
+        return new SyncAttendanceDTO(attendance.getId(), attendance.getStudentId(), attendance.getClassId(),
+                attendance.getTeacherId(), attendance.getAttendanceDate(), attendance.getStatus(),
+                attendance.getRemarks());
+    }
+
+    private static SyncMemorizationRecordDTO toMemorizationRecordDTO(MemorizationRecord record) {
+        return new SyncMemorizationRecordDTO(record.getId(), record.getStudentId(), record.getSurahName(),
+                record.getStartAyah(), record.getEndAyah(), record.getTimesRevised(), record.getLastCheckedDate(),
+                record.getTeacherComment());
+    }
+
+    private static SyncAssessmentDTO toAssessmentDTO(Assessment assessment) {
+        return new SyncAssessmentDTO(assessment.getId(), assessment.getStudentId(), assessment.getTeacherId(),
+                assessment.getAssessmentDate(), assessment.getRecitationScore(), assessment.getTajweedScore(),
+                assessment.getDisciplineScore(), assessment.getComments());
+    }
+}
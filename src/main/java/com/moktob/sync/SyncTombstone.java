@@ -0,0 +1,35 @@
+package com.moktob.sync;
+
+import com.moktob.common.BaseEntity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * Records that a synced row was deleted, so offline devices can drop their copy. Written
+ * in the deleting transaction; {@code updatedAt} is the deletion time and orders the feed
+ * like it does for live rows.
+ */
+@Entity
+@Table(name = "sync_tombstone", indexes = {
+        @Index(name = "idx_sync_tombstone_client_updated", columnList = "client_id, updated_at, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class SyncTombstone extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 30)
+    private SyncEntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+}
@@ -0,0 +1,28 @@
+package com.moktob.sync;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SyncTombstoneRepository extends JpaRepository<SyncTombstone, Long> {
+
+    @Query("""
+        SELECT t FROM SyncTombstone t
+        WHERE t.clientId = :clientId
+        AND (t.updatedAt > :since OR (t.updatedAt = :since AND t.id > :afterId))
+        ORDER BY t.updatedAt, t.id
+        """)
+    List<SyncTombstone> findChangedSince(@Param("clientId") Long clientId, @Param("since") LocalDateTime since,
+                                         @Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM SyncTombstone t WHERE t.updatedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
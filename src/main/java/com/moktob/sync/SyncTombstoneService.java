@@ -0,0 +1,50 @@
+package com.moktob.sync;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SyncTombstoneService {
+
+    private final SyncTombstoneRepository syncTombstoneRepository;
+
+    @Value("${sync.tombstone-retention-days:90}")
+    private int retentionDays;
+
+    /**
+     * Records the deletion of a synced row for the current tenant. Must be called inside
+     * the transaction that deletes it, so the tombstone exists exactly when the row is gone.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeletion(SyncEntityType entityType, Long entityId) {
+        SyncTombstone tombstone = new SyncTombstone();
+        tombstone.setEntityType(entityType);
+        tombstone.setEntityId(entityId);
+        syncTombstoneRepository.save(tombstone);
+    }
+
+    /**
+     * Oldest sync position that still sees every deletion; devices behind it must resync.
+     */
+    public LocalDateTime retainedSince() {
+        return LocalDateTime.now().minusDays(retentionDays);
+    }
+
+    @Scheduled(cron = "${sync.tombstone-purge-cron:0 0 3 * * *}")
+    @Transactional
+    public void purgeExpired() {
+        int removed = syncTombstoneRepository.deleteOlderThan(retainedSince());
+        if (removed > 0) {
+            log.info("Purged {} sync tombstones older than {} days", removed, retentionDays);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.moktob.system;
 
 import com.moktob.common.TenantContextHolder;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,18 +13,25 @@ import java.util.Optional;
 
 @Repository
 public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
-    List<AuditLog> findByClientId(Long clientId);
+    @Query("SELECT a FROM AuditLog a WHERE a.clientId = :clientId AND a.id < :beforeId ORDER BY a.id DESC")
+    List<AuditLog> findPageByClientId(@Param("clientId") Long clientId, @Param("beforeId") Long beforeId, Pageable pageable);
     
     Optional<AuditLog> findByClientIdAndId(Long clientId, Long id);
     
-    @Query("SELECT a FROM AuditLog a WHERE a.clientId = :clientId AND a.userId = :userId")
-    List<AuditLog> findByClientIdAndUserId(@Param("clientId") Long clientId, @Param("userId") Long userId);
+    @Query("SELECT a FROM AuditLog a WHERE a.clientId = :clientId AND a.userId = :userId " +
+           "AND a.id < :beforeId ORDER BY a.id DESC")
+    List<AuditLog> findPageByClientIdAndUserId(@Param("clientId") Long clientId, @Param("userId") Long userId,
+                                               @Param("beforeId") Long beforeId, Pageable pageable);
     
-    @Query("SELECT a FROM AuditLog a WHERE a.clientId = :clientId AND a.action = :action")
-    List<AuditLog> findByClientIdAndAction(@Param("clientId") Long clientId, @Param("action") String action);
+    @Query("SELECT a FROM AuditLog a WHERE a.clientId = :clientId AND a.action = :action " +
+           "AND a.id < :beforeId ORDER BY a.id DESC")
+    List<AuditLog> findPageByClientIdAndAction(@Param("clientId") Long clientId, @Param("action") String action,
+                                               @Param("beforeId") Long beforeId, Pageable pageable);
     
-    @Query("SELECT a FROM AuditLog a WHERE a.clientId = :clientId AND a.tableName = :tableName")
-    List<AuditLog> findByClientIdAndTableName(@Param("clientId") Long clientId, @Param("tableName") String tableName);
+    @Query("SELECT a FROM AuditLog a WHERE a.clientId = :clientId AND a.tableName = :tableName " +
+           "AND a.id < :beforeId ORDER BY a.id DESC")
+    List<AuditLog> findPageByClientIdAndTableName(@Param("clientId") Long clientId, @Param("tableName") String tableName,
+                                                  @Param("beforeId") Long beforeId, Pageable pageable);
     
     @Query("SELECT a FROM AuditLog a WHERE a.clientId = :clientId AND a.timestamp BETWEEN :startDate AND :endDate")
     List<AuditLog> findByClientIdAndTimestampBetween(@Param("clientId") Long clientId, 
@@ -1,6 +1,8 @@
 package com.moktob.system;
 
+import com.moktob.common.CursorPaging;
 import com.moktob.common.TenantContextHolder;
+import com.moktob.dto.CursorPageDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -14,9 +16,11 @@ public class AuditLogService {
     
     private final AuditLogRepository auditLogRepository;
     
-    public List<AuditLog> getAllAuditLogs() {
+    public CursorPageDTO<AuditLog> getAllAuditLogs(String cursor, int limit) {
         Long clientId = TenantContextHolder.getTenantId();
-        return auditLogRepository.findByClientId(clientId);
+        List<AuditLog> rows = auditLogRepository.findPageByClientId(clientId,
+                CursorPaging.beforeId(cursor), CursorPaging.rows(limit));
+        return CursorPaging.byId(rows, limit, AuditLog::getId);
     }
     
     public Optional<AuditLog> getAuditLogById(Long id) {
@@ -35,19 +39,25 @@ public class AuditLogService {
         auditLogRepository.deleteById(id);
     }
     
-    public List<AuditLog> getAuditLogsByUser(Long userId) {
+    public CursorPageDTO<AuditLog> getAuditLogsByUser(Long userId, String cursor, int limit) {
         Long clientId = TenantContextHolder.getTenantId();
-        return auditLogRepository.findByClientIdAndUserId(clientId, userId);
+        List<AuditLog> rows = auditLogRepository.findPageByClientIdAndUserId(clientId, userId,
+                CursorPaging.beforeId(cursor), CursorPaging.rows(limit));
+        return CursorPaging.byId(rows, limit, AuditLog::getId);
     }
     
-    public List<AuditLog> getAuditLogsByAction(String action) {
+    public CursorPageDTO<AuditLog> getAuditLogsByAction(String action, String cursor, int limit) {
         Long clientId = TenantContextHolder.getTenantId();
-        return auditLogRepository.findByClientIdAndAction(clientId, action);
+        List<AuditLog> rows = auditLogRepository.findPageByClientIdAndAction(clientId, action,
+                CursorPaging.beforeId(cursor), CursorPaging.rows(limit));
+        return CursorPaging.byId(rows, limit, AuditLog::getId);
     }
     
-    public List<AuditLog> getAuditLogsByTable(String tableName) {
+    public CursorPageDTO<AuditLog> getAuditLogsByTable(String tableName, String cursor, int limit) {
         Long clientId = TenantContextHolder.getTenantId();
-        return auditLogRepository.findByClientIdAndTableName(clientId, tableName);
+        List<AuditLog> rows = auditLogRepository.findPageByClientIdAndTableName(clientId, tableName,
+                CursorPaging.beforeId(cursor), CursorPaging.rows(limit));
+        return CursorPaging.byId(rows, limit, AuditLog::getId);
     }
     
     public List<AuditLog> getAuditLogsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
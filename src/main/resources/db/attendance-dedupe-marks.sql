@@ -0,0 +1,41 @@
+-- Removes duplicate attendance marks so that uk_attendance_mark (one mark per client, class,
+-- student and day) can be created on an existing database, then creates it if it is missing.
+-- Run once with the application stopped, and before db/attendance-partitioning.sql if that
+-- is still to be run. Of each set of duplicates the most recently updated mark (then the
+-- highest id) is kept; the others are moved to attendance_duplicate_marks for review.
+-- Afterwards start the application once with
+-- --attendance.daily-summary.rebuild-on-startup=true, since the rollup counted the duplicates.
+
+BEGIN;
+
+LOCK TABLE attendance IN SHARE ROW EXCLUSIVE MODE;
+
+CREATE TABLE IF NOT EXISTS attendance_duplicate_marks (LIKE attendance INCLUDING DEFAULTS);
+
+INSERT INTO attendance_duplicate_marks
+SELECT * FROM attendance
+WHERE id IN (
+    SELECT id FROM (
+        SELECT id,
+               ROW_NUMBER() OVER (PARTITION BY client_id, class_id, student_id, attendance_date
+                                  ORDER BY updated_at DESC NULLS LAST, id DESC) AS duplicate_rank
+        FROM attendance
+        -- Rows with a NULL key column never conflict under a unique constraint
+        WHERE client_id IS NOT NULL AND class_id IS NOT NULL
+          AND student_id IS NOT NULL AND attendance_date IS NOT NULL
+    ) ranked
+    WHERE duplicate_rank > 1
+);
+
+DELETE FROM attendance WHERE id IN (SELECT id FROM attendance_duplicate_marks);
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conname = 'uk_attendance_mark' AND conrelid = 'attendance'::regclass) THEN
+        ALTER TABLE attendance
+            ADD CONSTRAINT uk_attendance_mark UNIQUE (client_id, class_id, student_id, attendance_date);
+    END IF;
+END $$;
+
+COMMIT;
@@ -0,0 +1,90 @@
+-- Converts an existing, unpartitioned attendance table (as created by Hibernate or an
+-- older schema.sql) into the monthly range-partitioned layout of schema.sql.
+-- Run once with the application stopped. The old rows stay in attendance_unpartitioned
+-- until you drop it; rows without an attendance_date cannot be partitioned and are left there.
+-- Run db/attendance-dedupe-marks.sql first: it removes duplicate marks, which the new table's
+-- uk_attendance_mark rejects, and adds the constraint this script expects on the old table.
+
+BEGIN;
+
+ALTER TABLE attendance RENAME TO attendance_unpartitioned;
+ALTER TABLE attendance_unpartitioned RENAME CONSTRAINT attendance_pkey TO attendance_unpartitioned_pkey;
+ALTER TABLE attendance_unpartitioned RENAME CONSTRAINT uk_attendance_mark TO uk_attendance_unpartitioned_mark;
+DROP INDEX IF EXISTS idx_attendance_client;
+DROP INDEX IF EXISTS idx_attendance_client_date;
+DROP INDEX IF EXISTS idx_attendance_student;
+DROP INDEX IF EXISTS idx_attendance_class;
+DROP INDEX IF EXISTS idx_attendance_date;
+DROP INDEX IF EXISTS idx_attendance_client_updated;
+DROP TRIGGER IF EXISTS update_attendance_updated_at ON attendance_unpartitioned;
+
+-- The old id sequence (serial or identity) stays with the old table; continue after its ids
+CREATE SEQUENCE attendance_partitioned_id_seq;
+
+CREATE TABLE attendance (
+    id BIGINT NOT NULL DEFAULT nextval('attendance_partitioned_id_seq'),
+    client_id BIGINT NOT NULL,
+    class_id BIGINT NOT NULL,
+    student_id BIGINT NOT NULL,
+    teacher_id BIGINT NOT NULL,
+    attendance_date DATE NOT NULL,
+    status VARCHAR(20) CHECK (status IN ('PRESENT', 'ABSENT', 'LATE')),
+    remarks TEXT,
+    created_at TIMESTAMP DEFAULT NOW(),
+    updated_at TIMESTAMP DEFAULT NOW(),
+    PRIMARY KEY (id, attendance_date),
+    FOREIGN KEY (client_id) REFERENCES client(client_id) ON DELETE CASCADE,
+    FOREIGN KEY (class_id) REFERENCES class_entity(id) ON DELETE CASCADE,
+    FOREIGN KEY (student_id) REFERENCES student(id) ON DELETE CASCADE,
+    FOREIGN KEY (teacher_id) REFERENCES teacher(id) ON DELETE CASCADE,
+    CONSTRAINT uk_attendance_mark UNIQUE (client_id, class_id, student_id, attendance_date)
+) PARTITION BY RANGE (attendance_date);
+ALTER SEQUENCE attendance_partitioned_id_seq OWNED BY attendance.id;
+
+CREATE TABLE attendance_default PARTITION OF attendance DEFAULT;
+
+CREATE TABLE attendance_archive (LIKE attendance INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (attendance_date);
+
+CREATE VIEW attendance_all AS
+    SELECT id, client_id, class_id, student_id, teacher_id, attendance_date, status, remarks, created_at, updated_at
+    FROM attendance
+    UNION ALL
+    SELECT id, client_id, class_id, student_id, teacher_id, attendance_date, status, remarks, created_at, updated_at
+    FROM attendance_archive;
+
+-- One partition per month from the earliest mark to three months ahead
+DO $$
+DECLARE
+    month DATE := date_trunc('month', COALESCE((SELECT MIN(attendance_date) FROM attendance_unpartitioned), CURRENT_DATE));
+BEGIN
+    WHILE month <= date_trunc('month', CURRENT_DATE) + INTERVAL '3 months' LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF attendance FOR VALUES FROM (%L) TO (%L)',
+                       'attendance_p' || to_char(month, 'YYYY_MM'), month, (month + INTERVAL '1 month')::date);
+        month := (month + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+INSERT INTO attendance
+    (id, client_id, class_id, student_id, teacher_id, attendance_date, status, remarks, created_at, updated_at)
+SELECT id, client_id, class_id, student_id, teacher_id, attendance_date, status, remarks, created_at, updated_at
+FROM attendance_unpartitioned
+WHERE attendance_date IS NOT NULL;
+
+SELECT setval('attendance_partitioned_id_seq', COALESCE((SELECT MAX(id) FROM attendance_unpartitioned), 0) + 1, false);
+
+CREATE INDEX idx_attendance_client_date ON attendance(client_id, attendance_date);
+CREATE INDEX idx_attendance_archive_client_date ON attendance_archive(client_id, attendance_date);
+CREATE INDEX idx_attendance_student ON attendance(student_id);
+CREATE INDEX idx_attendance_class ON attendance(class_id);
+CREATE INDEX idx_attendance_client_updated ON attendance(client_id, updated_at, id);
+
+DO $$
+BEGIN
+    IF to_regproc('update_updated_at_column') IS NOT NULL THEN
+        CREATE TRIGGER update_attendance_updated_at BEFORE UPDATE ON attendance
+            FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+    END IF;
+END $$;
+
+COMMIT;
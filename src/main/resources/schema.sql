@@ -139,21 +139,103 @@ CREATE TABLE assessment (
 );
 
 -- Attendance Module Tables
+-- Range-partitioned by month on attendance_date (partitions attendance_pYYYY_MM, kept
+-- ahead by AttendancePartitionService). The primary key has to include the partition key.
 CREATE TABLE attendance (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGSERIAL,
     client_id BIGINT NOT NULL,
     class_id BIGINT NOT NULL,
     student_id BIGINT NOT NULL,
     teacher_id BIGINT NOT NULL,
-    attendance_date DATE,
+    attendance_date DATE NOT NULL,
     status VARCHAR(20) CHECK (status IN ('PRESENT', 'ABSENT', 'LATE')),
     remarks TEXT,
     created_at TIMESTAMP DEFAULT NOW(),
     updated_at TIMESTAMP DEFAULT NOW(),
+    PRIMARY KEY (id, attendance_date),
     FOREIGN KEY (client_id) REFERENCES client(client_id) ON DELETE CASCADE,
     FOREIGN KEY (class_id) REFERENCES class_entity(id) ON DELETE CASCADE,
     FOREIGN KEY (student_id) REFERENCES student(id) ON DELETE CASCADE,
-    FOREIGN KEY (teacher_id) REFERENCES teacher(id) ON DELETE CASCADE
+    FOREIGN KEY (teacher_id) REFERENCES teacher(id) ON DELETE CASCADE,
+    -- Existing databases: db/attendance-dedupe-marks.sql removes duplicates and adds this
+    CONSTRAINT uk_attendance_mark UNIQUE (client_id, class_id, student_id, attendance_date)
+) PARTITION BY RANGE (attendance_date);
+
+-- Catches marks outside every monthly partition (e.g. far back-dated ones)
+CREATE TABLE attendance_default PARTITION OF attendance DEFAULT;
+
+-- Closed months, detached from attendance by AttendancePartitionService
+CREATE TABLE attendance_archive (LIKE attendance INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (attendance_date);
+
+-- Hot and archived attendance together, for reports that explicitly reach into closed years
+CREATE VIEW attendance_all AS
+    SELECT id, client_id, class_id, student_id, teacher_id, attendance_date, status, remarks, created_at, updated_at
+    FROM attendance
+    UNION ALL
+    SELECT id, client_id, class_id, student_id, teacher_id, attendance_date, status, remarks, created_at, updated_at
+    FROM attendance_archive;
+
+DO $$
+DECLARE
+    month DATE := date_trunc('month', CURRENT_DATE);
+BEGIN
+    FOR i IN 0..3 LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF attendance FOR VALUES FROM (%L) TO (%L)',
+                       'attendance_p' || to_char(month, 'YYYY_MM'), month, (month + INTERVAL '1 month')::date);
+        month := (month + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+-- Per-class, per-day attendance rollup maintained by AttendanceService writes
+CREATE TABLE attendance_daily_summary (
+    id BIGSERIAL PRIMARY KEY,
+    client_id BIGINT NOT NULL,
+    class_id BIGINT NOT NULL,
+    summary_date DATE NOT NULL,
+    present_count BIGINT NOT NULL DEFAULT 0,
+    absent_count BIGINT NOT NULL DEFAULT 0,
+    late_count BIGINT NOT NULL DEFAULT 0,
+    student_count BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP DEFAULT NOW(),
+    updated_at TIMESTAMP DEFAULT NOW(),
+    FOREIGN KEY (client_id) REFERENCES client(client_id) ON DELETE CASCADE,
+    FOREIGN KEY (class_id) REFERENCES class_entity(id) ON DELETE CASCADE,
+    CONSTRAINT uk_attendance_daily_summary UNIQUE (client_id, class_id, summary_date)
+);
+
+-- Distinct students marked per tenant and day; a student in several classes appears in
+-- several attendance_daily_summary rows, so those counts cannot be added up
+CREATE TABLE attendance_daily_student_count (
+    id BIGSERIAL PRIMARY KEY,
+    client_id BIGINT NOT NULL,
+    summary_date DATE NOT NULL,
+    student_count BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP DEFAULT NOW(),
+    updated_at TIMESTAMP DEFAULT NOW(),
+    FOREIGN KEY (client_id) REFERENCES client(client_id) ON DELETE CASCADE,
+    CONSTRAINT uk_attendance_daily_student_count UNIQUE (client_id, summary_date)
+);
+
+-- Runs of consecutive absences that reached the alert threshold (AbsenceStreakTracker);
+-- PENDING rows are guardian alerts still to be delivered
+CREATE TABLE absence_streak_alert (
+    id BIGSERIAL PRIMARY KEY,
+    client_id BIGINT NOT NULL,
+    student_id BIGINT NOT NULL,
+    class_id BIGINT NOT NULL,
+    run_start_date DATE NOT NULL,
+    last_absent_date DATE NOT NULL,
+    streak_length INTEGER NOT NULL,
+    guardian_name VARCHAR(100),
+    guardian_contact VARCHAR(20),
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    created_at TIMESTAMP DEFAULT NOW(),
+    updated_at TIMESTAMP DEFAULT NOW(),
+    FOREIGN KEY (client_id) REFERENCES client(client_id) ON DELETE CASCADE,
+    FOREIGN KEY (student_id) REFERENCES student(id) ON DELETE CASCADE,
+    FOREIGN KEY (class_id) REFERENCES class_entity(id) ON DELETE CASCADE,
+    CONSTRAINT uk_absence_streak_alert UNIQUE (client_id, student_id, class_id, run_start_date)
 );
 
 -- Finance Module Tables
@@ -214,6 +296,24 @@ CREATE TABLE announcement (
     FOREIGN KEY (published_by) REFERENCES user_account(id) ON DELETE CASCADE
 );
 
+-- Outgoing email, written in the business transaction and sent by EmailOutboxDispatcher;
+-- the body is cleared once the message is delivered
+CREATE TABLE email_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    client_id BIGINT,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    last_error TEXT,
+    sent_at TIMESTAMP,
+    created_at TIMESTAMP DEFAULT NOW(),
+    updated_at TIMESTAMP DEFAULT NOW(),
+    FOREIGN KEY (client_id) REFERENCES client(client_id) ON DELETE CASCADE
+);
+
 -- System Module Tables
 CREATE TABLE audit_log (
     id BIGSERIAL PRIMARY KEY,
@@ -242,16 +342,36 @@ CREATE TABLE system_setting (
     UNIQUE(client_id, key_name)
 );
 
+-- Deletions of rows carried by the offline sync change feed (SyncService)
+CREATE TABLE sync_tombstone (
+    id BIGSERIAL PRIMARY KEY,
+    client_id BIGINT NOT NULL,
+    entity_type VARCHAR(30) NOT NULL CHECK (entity_type IN ('STUDENT', 'CLASS', 'ATTENDANCE', 'MEMORIZATION_RECORD', 'ASSESSMENT')),
+    entity_id BIGINT NOT NULL,
+    created_at TIMESTAMP DEFAULT NOW(),
+    updated_at TIMESTAMP DEFAULT NOW(),
+    FOREIGN KEY (client_id) REFERENCES client(client_id) ON DELETE CASCADE
+);
+
 -- Create Indexes for Performance
 CREATE INDEX idx_student_client ON student(client_id);
 CREATE INDEX idx_student_class ON student(current_class_id);
+CREATE INDEX idx_student_client_class ON student(client_id, current_class_id);
+CREATE INDEX idx_student_client_name ON student(client_id, name, id);
+CREATE INDEX idx_student_client_updated ON student(client_id, updated_at, id);
 CREATE INDEX idx_teacher_client ON teacher(client_id);
 CREATE INDEX idx_class_client ON class_entity(client_id);
 CREATE INDEX idx_class_teacher ON class_entity(teacher_id);
-CREATE INDEX idx_attendance_client ON attendance(client_id);
+CREATE INDEX idx_class_entity_client_updated ON class_entity(client_id, updated_at, id);
+CREATE INDEX idx_memorization_record_client_updated ON memorization_record(client_id, updated_at, id);
+CREATE INDEX idx_assessment_client_updated ON assessment(client_id, updated_at, id);
+CREATE INDEX idx_attendance_client_date ON attendance(client_id, attendance_date);
+CREATE INDEX idx_attendance_archive_client_date ON attendance_archive(client_id, attendance_date);
 CREATE INDEX idx_attendance_student ON attendance(student_id);
 CREATE INDEX idx_attendance_class ON attendance(class_id);
-CREATE INDEX idx_attendance_date ON attendance(attendance_date);
+CREATE INDEX idx_attendance_client_updated ON attendance(client_id, updated_at, id);
+CREATE INDEX idx_attendance_daily_summary_date ON attendance_daily_summary(client_id, summary_date);
+CREATE INDEX idx_absence_streak_alert_status ON absence_streak_alert(client_id, status);
 CREATE INDEX idx_payment_client ON payment(client_id);
 CREATE INDEX idx_payment_date ON payment(payment_date);
 CREATE INDEX idx_expense_client ON expense(client_id);
@@ -259,9 +379,11 @@ CREATE INDEX idx_expense_date ON expense(expense_date);
 CREATE INDEX idx_notification_client ON notification(client_id);
 CREATE INDEX idx_notification_user ON notification(recipient_user_id);
 CREATE INDEX idx_announcement_client ON announcement(client_id);
+CREATE INDEX idx_email_outbox_due ON email_outbox(next_attempt_at) WHERE status = 'PENDING';
 CREATE INDEX idx_audit_log_client ON audit_log(client_id);
 CREATE INDEX idx_audit_log_user ON audit_log(user_id);
 CREATE INDEX idx_system_setting_client ON system_setting(client_id);
+CREATE INDEX idx_sync_tombstone_client_updated ON sync_tombstone(client_id, updated_at, id);
 
 -- Insert Sample Data
 INSERT INTO client (client_name, contact_email, contact_phone, address, subscription_plan, expiry_date, is_active) 
@@ -300,10 +422,13 @@ CREATE TRIGGER update_student_class_map_updated_at BEFORE UPDATE ON student_clas
 CREATE TRIGGER update_memorization_record_updated_at BEFORE UPDATE ON memorization_record FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
 CREATE TRIGGER update_assessment_updated_at BEFORE UPDATE ON assessment FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
 CREATE TRIGGER update_attendance_updated_at BEFORE UPDATE ON attendance FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+CREATE TRIGGER update_attendance_daily_summary_updated_at BEFORE UPDATE ON attendance_daily_summary FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+CREATE TRIGGER update_absence_streak_alert_updated_at BEFORE UPDATE ON absence_streak_alert FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
 CREATE TRIGGER update_payment_updated_at BEFORE UPDATE ON payment FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
 CREATE TRIGGER update_expense_updated_at BEFORE UPDATE ON expense FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
 CREATE TRIGGER update_notification_updated_at BEFORE UPDATE ON notification FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
 CREATE TRIGGER update_announcement_updated_at BEFORE UPDATE ON announcement FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+CREATE TRIGGER update_email_outbox_updated_at BEFORE UPDATE ON email_outbox FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
 CREATE TRIGGER update_audit_log_updated_at BEFORE UPDATE ON audit_log FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
 CREATE TRIGGER update_system_setting_updated_at BEFORE UPDATE ON system_setting FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
 
@@ -120,14 +120,14 @@ function initializeClassAttendanceChart(canvas) {
         }
     });
     
-    // Load data from API
+    // Load data from API, then keep it current from the live stream
     loadClassAttendanceData(chart);
+    subscribeLiveAttendance(chart);
 }
 
 // Load attendance trend data from API
 function loadAttendanceTrendData(chart) {
-    fetch('/moktob/api/dashboard/attendance-trends')
-        .then(response => response.json())
+    apiRequest('/moktob/api/dashboard/attendance-trends')
         .then(data => {
             const labels = data.map(item => new Date(item.date).toLocaleDateString());
             const attendanceRates = data.map(item => item.attendanceRate);
@@ -143,8 +143,7 @@ function loadAttendanceTrendData(chart) {
 
 // Load class attendance data from API
 function loadClassAttendanceData(chart) {
-    fetch('/moktob/api/dashboard/overview')
-        .then(response => response.json())
+    apiRequest('/moktob/api/dashboard/overview')
         .then(data => {
             const presentCount = data.classAttendanceSummaries.reduce((sum, item) => sum + item.presentCount, 0);
             const absentCount = data.classAttendanceSummaries.reduce((sum, item) => sum + item.absentCount, 0);
@@ -158,6 +157,113 @@ function loadClassAttendanceData(chart) {
         });
 }
 
+// Apply live attendance deltas pushed by the server to the doughnut counts.
+// The stream is read with fetch rather than EventSource, which cannot send the
+// bearer token the server resolves the tenant from. After a reconnect the counts
+// are reloaded once, since deltas sent while disconnected are not replayed.
+function subscribeLiveAttendance(chart) {
+    if (!window.ReadableStream || !window.TextDecoder || !getToken()) {
+        return;
+    }
+
+    let connectedBefore = false;
+    let retryMs = 1000;
+
+    function applyDeltas(deltas) {
+        const counts = chart.data.datasets[0].data;
+        // The doughnut covers the overview's default window of the last 30 days
+        const windowStart = new Date();
+        windowStart.setDate(windowStart.getDate() - 30);
+        const windowStartIso = windowStart.toISOString().slice(0, 10);
+        deltas.forEach(delta => {
+            if (delta.date < windowStartIso) {
+                return;
+            }
+            counts[0] += delta.presentDelta;
+            counts[1] += delta.absentDelta;
+            counts[2] += delta.lateDelta;
+        });
+        chart.update();
+    }
+
+    async function connect() {
+        try {
+            const response = await fetch('/moktob/api/dashboard/live', {
+                headers: {
+                    'Accept': 'text/event-stream',
+                    'Authorization': `Bearer ${getToken()}`
+                },
+                cache: 'no-store'
+            });
+            if (response.status === 401 || response.status === 403) {
+                // Signed out or token revoked: stop rather than retry forever
+                return;
+            }
+            if (!response.ok || !response.body) {
+                throw new Error(`HTTP error! status: ${response.status}`);
+            }
+            if (connectedBefore) {
+                loadClassAttendanceData(chart);
+            }
+            connectedBefore = true;
+            retryMs = 1000;
+            await readEventStream(response.body, (name, data) => {
+                if (name === 'attendance-delta') {
+                    applyDeltas(JSON.parse(data));
+                }
+            });
+        } catch (error) {
+            console.error('Live attendance stream interrupted:', error);
+        }
+        setTimeout(connect, retryMs);
+        retryMs = Math.min(retryMs * 2, 30000);
+    }
+
+    connect();
+}
+
+// Reads a text/event-stream body, calling onEvent(name, data) for each event.
+// Comment lines (the server's heartbeats) are skipped.
+async function readEventStream(body, onEvent) {
+    const reader = body.getReader();
+    const decoder = new TextDecoder();
+    let buffer = '';
+    let name = 'message';
+    let data = [];
+
+    for (;;) {
+        const { done, value } = await reader.read();
+        if (done) {
+            return;
+        }
+        buffer += decoder.decode(value, { stream: true });
+        const lines = buffer.split('\n');
+        buffer = lines.pop();
+        for (const rawLine of lines) {
+            const line = rawLine.endsWith('\r') ? rawLine.slice(0, -1) : rawLine;
+            if (line === '') {
+                if (data.length > 0) {
+                    onEvent(name, data.join('\n'));
+                }
+                name = 'message';
+                data = [];
+            } else if (!line.startsWith(':')) {
+                const colon = line.indexOf(':');
+                const field = colon < 0 ? line : line.slice(0, colon);
+                let fieldValue = colon < 0 ? '' : line.slice(colon + 1);
+                if (fieldValue.startsWith(' ')) {
+                    fieldValue = fieldValue.slice(1);
+                }
+                if (field === 'event') {
+                    name = fieldValue;
+                } else if (field === 'data') {
+                    data.push(fieldValue);
+                }
+            }
+        }
+    }
+}
+
 // Data Tables initialization
 function initializeDataTables() {
     const tables = document.querySelectorAll('.table');
@@ -268,6 +374,20 @@ function apiRequest(url, options = {}) {
         });
 }
 
+// Follows nextCursor through a paged list endpoint and returns every item
+async function apiRequestAll(url, options = {}) {
+    const separator = url.includes('?') ? '&' : '?';
+    let items = [];
+    let cursor = null;
+    do {
+        const pageUrl = cursor ? `${url}${separator}cursor=${encodeURIComponent(cursor)}` : url;
+        const page = await apiRequest(pageUrl, options);
+        items = items.concat(page.items || []);
+        cursor = page.nextCursor;
+    } while (cursor);
+    return items;
+}
+
 function getToken() {
     return localStorage.getItem('authToken') || sessionStorage.getItem('authToken');
 }
@@ -289,6 +409,7 @@ function removeToken() {
 window.MoktobApp = {
     showAlert,
     apiRequest,
+    apiRequestAll,
     getToken,
     setToken,
     removeToken
@@ -70,12 +70,20 @@ async function loadClassStudents() {
     }
     
     try {
-        // Load students for the selected class
-        const allStudents = await MoktobApp.apiRequest('/moktob/api/students');
-        students = allStudents.filter(student => student.currentClassId == selectedClassId);
+        // Load the class roster merged with any attendance already taken for the date
+        const sheet = await MoktobApp.apiRequest(`/moktob/api/attendance/sheet?classId=${selectedClassId}&date=${selectedDate}`);
+        students = sheet.map(row => ({
+            id: row.studentId,
+            name: row.name,
+            guardianName: row.guardianName,
+            guardianContact: row.guardianContact
+        }));
         
-        // Load existing attendance for the date
-        await loadExistingAttendance();
+        // Unmarked students default to present
+        attendanceData = {};
+        sheet.forEach(row => {
+            attendanceData[row.studentId] = row.status || 'PRESENT';
+        });
         
         // Update class info
         updateClassInfo();
@@ -92,33 +100,6 @@ async function loadClassStudents() {
     }
 }
 
-async function loadExistingAttendance() {
-    try {
-        const existingAttendance = await MoktobApp.apiRequest(`/moktob/api/attendance/by-date?date=${selectedDate}&classId=${selectedClassId}`);
-        
-        // Initialize attendance data
-        attendanceData = {};
-        students.forEach(student => {
-            attendanceData[student.id] = 'PRESENT'; // Default to present
-        });
-        
-        // Apply existing attendance
-        existingAttendance.forEach(attendance => {
-            if (attendanceData.hasOwnProperty(attendance.studentId)) {
-                attendanceData[attendance.studentId] = attendance.status;
-            }
-        });
-        
-    } catch (error) {
-        console.error('Error loading existing attendance:', error);
-        // Initialize with default values
-        attendanceData = {};
-        students.forEach(student => {
-            attendanceData[student.id] = 'PRESENT';
-        });
-    }
-}
-
 function updateClassInfo() {
     const classInfo = document.getElementById('classInfo');
     const selectedOption = document.getElementById('classSelect').selectedOptions[0];
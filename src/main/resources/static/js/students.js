@@ -14,7 +14,7 @@ async function loadStudents() {
     `;
 
     try {
-        const students = await MoktobApp.apiRequest('/moktob/api/students');
+        const students = await MoktobApp.apiRequestAll('/moktob/api/students?limit=200');
         renderStudentsTable(students);
     } catch (error) {
         console.error('Error loading students:', error);
@@ -0,0 +1,134 @@
+package com.moktob.attendance;
+
+import com.moktob.attendance.AttendanceDailySummaryService.AttendanceChange;
+import com.moktob.attendance.AttendanceDailySummaryService.AttendanceSnapshot;
+import com.moktob.common.AttendanceStatus;
+import com.moktob.common.TenantContextHolder;
+import com.moktob.education.ClassEntity;
+import com.moktob.education.Student;
+import com.moktob.education.Teacher;
+import com.moktob.repository.DashboardRepository;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseType.POSTGRES;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The rollup against PostgreSQL: trends count a student marked in two classes once, as the
+ * query on raw attendance did, and a rebuild does not trip over rollup rows written after
+ * its delete.
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.show_sql=false"
+})
+@AutoConfigureEmbeddedDatabase(type = POSTGRES, provider = ZONKY)
+@Import(AttendanceDailySummaryService.class)
+class AttendanceDailySummaryServiceTest {
+
+    private static final long CLIENT_ID = 1L;
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 4);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AttendanceDailySummaryService summaryService;
+
+    @Autowired
+    private AttendanceDailySummaryRepository summaryRepository;
+
+    @Autowired
+    private DashboardRepository dashboardRepository;
+
+    @MockBean
+    private AttendancePartitionService attendancePartitionService;
+
+    private final List<AttendanceChange> changes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        TenantContextHolder.setTenantId(CLIENT_ID);
+        Teacher teacher = new Teacher();
+        teacher.setName("Teacher");
+        entityManager.persist(teacher);
+        ClassEntity quran = newClass("Quran", teacher);
+        ClassEntity arabic = newClass("Arabic", teacher);
+        Student inBoth = newStudent("Aisha", quran);
+        Student inOne = newStudent("Bilal", quran);
+
+        mark(inBoth, quran, AttendanceStatus.PRESENT);
+        mark(inBoth, arabic, AttendanceStatus.LATE);
+        mark(inOne, quran, AttendanceStatus.ABSENT);
+        entityManager.flush();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContextHolder.clear();
+    }
+
+    @Test
+    void trendsCountEachStudentOncePerDay() {
+        summaryService.recordChanges(CLIENT_ID, changes);
+
+        Object[] day = dashboardRepository.getAttendanceTrends(CLIENT_ID, DAY, DAY).get(0);
+        assertThat(((Number) day[1]).longValue()).isEqualTo(1);
+        assertThat(((Number) day[2]).longValue()).isEqualTo(1);
+        assertThat(((Number) day[3]).longValue()).isEqualTo(1);
+        assertThat(((Number) day[4]).longValue()).isEqualTo(2);
+    }
+
+    @Test
+    void rebuildOverwritesRowsWrittenAfterItsDelete() {
+        // The rows a concurrent write leaves between the rebuild's delete and insert
+        summaryService.recordChanges(CLIENT_ID, changes);
+        summaryService.recordChanges(CLIENT_ID, changes);
+
+        summaryRepository.rebuildFromAttendance(CLIENT_ID, DAY, DAY);
+        summaryService.rebuild(CLIENT_ID, DAY, DAY);
+
+        Object[] day = dashboardRepository.getAttendanceTrends(CLIENT_ID, DAY, DAY).get(0);
+        assertThat(((Number) day[1]).longValue()).isEqualTo(1);
+        assertThat(((Number) day[4]).longValue()).isEqualTo(2);
+    }
+
+    private ClassEntity newClass(String name, Teacher teacher) {
+        ClassEntity classEntity = new ClassEntity();
+        classEntity.setClassName(name);
+        classEntity.setTeacherId(teacher.getId());
+        return entityManager.persist(classEntity);
+    }
+
+    private Student newStudent(String name, ClassEntity classEntity) {
+        Student student = new Student();
+        student.setName(name);
+        student.setCurrentClassId(classEntity.getId());
+        student.setEnrollmentDate(DAY.minusMonths(1));
+        return entityManager.persist(student);
+    }
+
+    private void mark(Student student, ClassEntity classEntity, AttendanceStatus status) {
+        Attendance attendance = new Attendance();
+        attendance.setStudentId(student.getId());
+        attendance.setClassId(classEntity.getId());
+        attendance.setAttendanceDate(DAY);
+        attendance.setStatus(status);
+        entityManager.persist(attendance);
+        changes.add(new AttendanceChange(null, AttendanceSnapshot.of(attendance)));
+    }
+}
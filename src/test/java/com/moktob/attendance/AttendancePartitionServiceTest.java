@@ -0,0 +1,85 @@
+package com.moktob.attendance;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseType.POSTGRES;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Archiving moves closed months from {@code attendance} to {@code attendance_archive} with
+ * their rows, and leaves no trace of the CHECK constraint that lets ATTACH skip its scan.
+ */
+@JdbcTest(properties = "spring.sql.init.mode=never")
+@AutoConfigureEmbeddedDatabase(type = POSTGRES, provider = ZONKY)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AttendancePartitionServiceTest {
+
+    private static final String PARENT = """
+        SELECT i.inhparent::regclass::text
+        FROM pg_inherits i
+        WHERE i.inhrelid = to_regclass(?)
+        """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("""
+            CREATE TABLE attendance (
+                id BIGINT NOT NULL,
+                client_id BIGINT,
+                attendance_date DATE NOT NULL,
+                PRIMARY KEY (id, attendance_date)
+            ) PARTITION BY RANGE (attendance_date)
+            """);
+        jdbcTemplate.execute("CREATE TABLE attendance_default PARTITION OF attendance DEFAULT");
+        jdbcTemplate.execute("CREATE TABLE attendance_archive (LIKE attendance INCLUDING DEFAULTS INCLUDING CONSTRAINTS)"
+                + " PARTITION BY RANGE (attendance_date)");
+        jdbcTemplate.execute("CREATE TABLE attendance_p2024_01 PARTITION OF attendance"
+                + " FOR VALUES FROM ('2024-01-01') TO ('2024-02-01')");
+        jdbcTemplate.execute("CREATE TABLE attendance_p2024_02 PARTITION OF attendance"
+                + " FOR VALUES FROM ('2024-02-01') TO ('2024-03-01')");
+        jdbcTemplate.update("INSERT INTO attendance (id, client_id, attendance_date) VALUES"
+                + " (1, 1, '2024-01-08'), (2, 1, '2024-01-31'), (3, 1, '2024-02-05')");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS attendance, attendance_archive CASCADE");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS attendance_p2024_01, attendance_p2024_02");
+    }
+
+    @Test
+    void archivesClosedMonthsWithTheirRows() {
+        ThreadPoolTaskExecutor maintenanceExecutor = new ThreadPoolTaskExecutor();
+        AttendancePartitionService service = new AttendancePartitionService(jdbcTemplate, transactionManager,
+                maintenanceExecutor, "2024-02-01", "");
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "monthsAhead", 0);
+
+        service.onApplicationReady();
+
+        assertThat(jdbcTemplate.queryForObject(PARENT, String.class, "attendance_p2024_01")).isEqualTo("attendance_archive");
+        assertThat(jdbcTemplate.queryForObject(PARENT, String.class, "attendance_p2024_02")).isEqualTo("attendance");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM attendance_archive", Long.class)).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM attendance", Long.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_constraint WHERE conname LIKE 'attendance_p%_bound'",
+                Long.class)).isZero();
+    }
+}
@@ -0,0 +1,155 @@
+package com.moktob.attendance;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.moktob.common.AttendanceStatus;
+import com.moktob.common.TenantContextHolder;
+import com.moktob.dto.AttendanceMarkFailureDTO;
+import com.moktob.dto.AttendanceReceiptDTO;
+import com.moktob.dto.AttendanceRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Queued marks survive an unavailable database and a shutdown, and are only dropped, with a
+ * reason on their receipt, when the database rejects them.
+ */
+class AttendanceWriteBehindFlusherTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 3, 2);
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private AttendanceService attendanceService;
+    private AttendanceWriteBehindBuffer buffer;
+    private AttendanceWriteBehindFlusher flusher;
+
+    @BeforeEach
+    void setUp() {
+        attendanceService = mock(AttendanceService.class);
+        buffer = newBuffer();
+        flusher = newFlusher(buffer);
+        TenantContextHolder.setTenantId(7L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContextHolder.clear();
+    }
+
+    @Test
+    void unavailableDatabaseRequeuesTheBatchAndBacksOff() {
+        AttendanceReceiptDTO receipt = buffer.accept(List.of(mark(1L), mark(2L)));
+        doThrow(new QueryTimeoutException("statement timeout")).when(attendanceService).saveBulkAttendance(anyList());
+
+        flusher.flush();
+
+        assertThat(buffer.size()).isEqualTo(2);
+        assertThat(status(receipt)).isEqualTo("PENDING");
+
+        // Still backing off: the next scheduled flush does not touch the database
+        reset(attendanceService);
+        flusher.flush();
+        verify(attendanceService, never()).saveBulkAttendance(anyList());
+
+        ReflectionTestUtils.setField(flusher, "retryAt", 0L);
+        flusher.flush();
+        assertThat(buffer.size()).isZero();
+        assertThat(status(receipt)).isEqualTo("WRITTEN");
+    }
+
+    @Test
+    void constraintFailureRejectsOnlyTheOffendingMark() {
+        AttendanceReceiptDTO receipt = buffer.accept(List.of(mark(1L), mark(2L), mark(3L)));
+        // Student 2 violates a foreign key, alone or in a batch
+        doAnswer(invocation -> {
+            List<AttendanceRequest> requests = invocation.getArgument(0);
+            if (requests.stream().anyMatch(request -> request.getStudentId().equals(2L))) {
+                throw new DataIntegrityViolationException("fk_attendance_student");
+            }
+            return null;
+        }).when(attendanceService).saveBulkAttendance(anyList());
+
+        flusher.flush();
+
+        AttendanceReceiptDTO result = buffer.getReceipt(receipt.getReceiptId()).orElseThrow();
+        assertThat(result.getStatus()).isEqualTo("FAILED");
+        assertThat(result.getFailures()).extracting(AttendanceMarkFailureDTO::getStudentId).containsExactly(2L);
+        assertThat(result.getFailures().get(0).getReason()).contains("fk_attendance_student");
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void marksUnwrittenAtShutdownAreQueuedAgainOnTheNextStart() {
+        AttendanceReceiptDTO receipt = buffer.accept(List.of(mark(1L), mark(2L)));
+        doThrow(new QueryTimeoutException("database down")).when(attendanceService).saveBulkAttendance(anyList());
+
+        flusher.flushOnShutdown();
+
+        assertThat(Files.exists(tempDir.resolve("spool.json"))).isTrue();
+
+        AttendanceWriteBehindBuffer restarted = newBuffer();
+        restarted.restoreSpooled();
+        assertThat(restarted.size()).isEqualTo(2);
+        assertThat(Files.exists(tempDir.resolve("spool.json"))).isFalse();
+
+        reset(attendanceService);
+        newFlusher(restarted).flush();
+        assertThat(restarted.getReceipt(receipt.getReceiptId()).orElseThrow().getStatus()).isEqualTo("WRITTEN");
+    }
+
+    private AttendanceWriteBehindBuffer newBuffer() {
+        AttendanceWriteBehindBuffer newBuffer =
+                new AttendanceWriteBehindBuffer(mock(AttendancePartitionService.class), objectMapper);
+        ReflectionTestUtils.setField(newBuffer, "enabled", true);
+        ReflectionTestUtils.setField(newBuffer, "capacity", 100);
+        ReflectionTestUtils.setField(newBuffer, "spoolFile", tempDir.resolve("spool.json").toString());
+        return newBuffer;
+    }
+
+    private AttendanceWriteBehindFlusher newFlusher(AttendanceWriteBehindBuffer target) {
+        AttendanceWriteBehindFlusher newFlusher = new AttendanceWriteBehindFlusher(target, attendanceService);
+        ReflectionTestUtils.setField(newFlusher, "batchSize", 500);
+        ReflectionTestUtils.setField(newFlusher, "retryBaseMs", 60_000L);
+        ReflectionTestUtils.setField(newFlusher, "retryMaxMs", 60_000L);
+        ReflectionTestUtils.setField(newFlusher, "shutdownAttempts", 1);
+        return newFlusher;
+    }
+
+    private String status(AttendanceReceiptDTO receipt) {
+        return buffer.getReceipt(receipt.getReceiptId()).orElseThrow().getStatus();
+    }
+
+    private static AttendanceRequest mark(Long studentId) {
+        AttendanceRequest request = new AttendanceRequest();
+        request.setStudentId(studentId);
+        request.setClassId(10L);
+        request.setAttendanceDate(DATE);
+        request.setStatus(AttendanceStatus.PRESENT);
+        return request;
+    }
+}
@@ -0,0 +1,78 @@
+package com.moktob.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * RFC 4180 parsing of uploads, and the line numbers import errors are reported against.
+ */
+class CsvRecordReaderTest {
+
+    @Test
+    void quotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+        CsvRecordReader reader = reader("""
+                name,address
+                "Khan, Aisha","12 ""Green"" Lane
+                Dhaka"
+                Bilal,
+                """);
+
+        assertThat(reader.next()).containsExactly("name", "address");
+        assertThat(reader.next()).containsExactly("Khan, Aisha", "12 \"Green\" Lane\nDhaka");
+        assertThat(reader.next()).containsExactly("Bilal", "");
+        assertThat(reader.next()).isNull();
+        assertThat(reader.getRecords()).isEqualTo(3);
+    }
+
+    @Test
+    void reportsTheLineEachRecordStartsOn() throws IOException {
+        CsvRecordReader reader = reader("name,address\r\n\"Aisha\",\"line one\r\nline two\r\nline three\"\r\nBilal,x\r\n");
+
+        reader.next();
+        assertThat(reader.getLineNumber()).isEqualTo(1);
+        assertThat(reader.next()).containsExactly("Aisha", "line one\r\nline two\r\nline three");
+        assertThat(reader.getLineNumber()).isEqualTo(2);
+        assertThat(reader.next()).containsExactly("Bilal", "x");
+        assertThat(reader.getLineNumber()).isEqualTo(5);
+        assertThat(reader.getRecords()).isEqualTo(3);
+    }
+
+    @Test
+    void shortAndLongRowsAreReturnedAsRead() throws IOException {
+        CsvRecordReader reader = reader("a,b,c\nonly\n1,2,3,4");
+
+        reader.next();
+        assertThat(reader.next()).containsExactly("only");
+        assertThat(reader.next()).containsExactly("1", "2", "3", "4");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void skipsTheByteOrderMarkOfTheFirstRecordOnly() throws IOException {
+        CsvRecordReader reader = reader("\uFEFFname\n\uFEFFx\n");
+
+        assertThat(reader.next()).containsExactly("name");
+        assertThat(reader.next()).containsExactly("\uFEFFx");
+    }
+
+    @Test
+    void unterminatedQuoteNamesTheLineTheRecordStartsOn() throws IOException {
+        CsvRecordReader reader = reader("name\nAisha\n\"Bilal\nno closing quote\n");
+
+        reader.next();
+        reader.next();
+        assertThatThrownBy(reader::next)
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("starting on line 3");
+    }
+
+    private static CsvRecordReader reader(String csv) {
+        return new CsvRecordReader(new BufferedReader(new StringReader(csv)));
+    }
+}
@@ -0,0 +1,194 @@
+package com.moktob.communication;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import jakarta.mail.SendFailedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseType.POSTGRES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Against PostgreSQL, for the claim's SKIP LOCKED lease: a claimed message is not sent again
+ * until its lease runs out, a recipient the server refuses is retried on its own with
+ * backoff, and a message that keeps failing is given up on.
+ */
+@JdbcTest(properties = "spring.sql.init.mode=never")
+@AutoConfigureEmbeddedDatabase(type = POSTGRES, provider = ZONKY)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmailOutboxDispatcherTest {
+
+    private static final long RETRY_BASE_MS = 60_000;
+    private static final long LEASE_MS = 300_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private JavaMailSender mailSender;
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("""
+            CREATE TABLE email_outbox (
+                id BIGSERIAL PRIMARY KEY,
+                recipient VARCHAR(255) NOT NULL,
+                subject VARCHAR(255) NOT NULL,
+                body TEXT,
+                status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+                attempts INTEGER NOT NULL DEFAULT 0,
+                next_attempt_at TIMESTAMP NOT NULL,
+                last_error TEXT,
+                sent_at TIMESTAMP
+            )
+            """);
+
+        mailSender = mock(JavaMailSender.class);
+        // Runs each dispatch on the calling thread, so the outcome is there when poll() returns
+        ThreadPoolTaskExecutor inline = new ThreadPoolTaskExecutor() {
+            @Override
+            public void execute(Runnable task) {
+                task.run();
+            }
+        };
+        dispatcher = new EmailOutboxDispatcher(new EmailOutboxBatchRepository(jdbcTemplate), mailSender, inline);
+        ReflectionTestUtils.setField(dispatcher, "fromEmail", "noreply@moktob.test");
+        ReflectionTestUtils.setField(dispatcher, "enabled", true);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 10);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "retryBaseMs", RETRY_BASE_MS);
+        ReflectionTestUtils.setField(dispatcher, "retryMaxMs", 3_600_000L);
+        ReflectionTestUtils.setField(dispatcher, "leaseMs", LEASE_MS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE email_outbox");
+    }
+
+    @Test
+    void onlyTheRefusedRecipientIsRetriedWithBackoff() {
+        long aisha = queue("aisha@example.com", 0);
+        long bilal = queue("bilal@example.com", 0);
+        long hamza = queue("hamza@example.com", 0);
+        doAnswer(invocation -> {
+            // Mockito hands the varargs over expanded
+            SimpleMailMessage refused = Arrays.stream(invocation.getArguments())
+                    .map(SimpleMailMessage.class::cast)
+                    .filter(message -> message.getTo()[0].equals("bilal@example.com"))
+                    .findFirst().orElseThrow();
+            throw new MailSendException(Map.of(refused, new SendFailedException("550 mailbox unavailable")));
+        }).when(mailSender).send(any(SimpleMailMessage[].class));
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.poll();
+        LocalDateTime after = LocalDateTime.now();
+
+        assertThat(status(aisha)).isEqualTo(EmailOutboxMessage.SENT);
+        assertThat(status(hamza)).isEqualTo(EmailOutboxMessage.SENT);
+        assertThat(jdbcTemplate.queryForObject("SELECT body FROM email_outbox WHERE id = ?", String.class, aisha)).isNull();
+        assertThat(status(bilal)).isEqualTo(EmailOutboxMessage.PENDING);
+        assertThat(attempts(bilal)).isEqualTo(1);
+        assertThat(lastError(bilal)).isEqualTo("550 mailbox unavailable");
+        assertThat(nextAttemptAt(bilal))
+                .isAfterOrEqualTo(before.plusNanos((long) (RETRY_BASE_MS * 0.8 * 1_000_000)))
+                .isBeforeOrEqualTo(after.plusNanos((long) (RETRY_BASE_MS * 1.2 * 1_000_000)));
+    }
+
+    @Test
+    void backoffDoublesPerAttemptAndTheLastAttemptGivesUp() {
+        long first = queue("first@example.com", 0);
+        long second = queue("second@example.com", 1);
+        long last = queue("last@example.com", 2);
+        // No per-recipient detail, as when the connection itself fails
+        doThrow(new MailSendException("Couldn't connect to host")).when(mailSender).send(any(SimpleMailMessage[].class));
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.poll();
+        LocalDateTime after = LocalDateTime.now();
+
+        assertThat(status(first)).isEqualTo(EmailOutboxMessage.PENDING);
+        assertThat(nextAttemptAt(first))
+                .isAfterOrEqualTo(before.plusNanos((long) (RETRY_BASE_MS * 0.8 * 1_000_000)))
+                .isBeforeOrEqualTo(after.plusNanos((long) (RETRY_BASE_MS * 1.2 * 1_000_000)));
+        assertThat(status(second)).isEqualTo(EmailOutboxMessage.PENDING);
+        assertThat(nextAttemptAt(second))
+                .isAfterOrEqualTo(before.plusNanos((long) (2 * RETRY_BASE_MS * 0.8 * 1_000_000)))
+                .isBeforeOrEqualTo(after.plusNanos((long) (2 * RETRY_BASE_MS * 1.2 * 1_000_000)));
+        assertThat(status(last)).isEqualTo(EmailOutboxMessage.FAILED);
+        assertThat(attempts(last)).isEqualTo(3);
+        assertThat(lastError(last)).isEqualTo("Couldn't connect to host");
+    }
+
+    @Test
+    void claimedMessageIsOnlyResentOnceItsLeaseRunsOut() {
+        long id = queue("aisha@example.com", 0);
+        // The node dies between claiming and recording the outcome
+        doThrow(new IllegalStateException("node went away")).when(mailSender).send(any(SimpleMailMessage[].class));
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.poll();
+        assertThat(status(id)).isEqualTo(EmailOutboxMessage.PENDING);
+        assertThat(attempts(id)).isEqualTo(1);
+        assertThat(nextAttemptAt(id)).isAfterOrEqualTo(before.plusNanos(LEASE_MS * 1_000_000));
+
+        reset(mailSender);
+        dispatcher.poll();
+        verify(mailSender, times(0)).send(any(SimpleMailMessage[].class));
+
+        jdbcTemplate.update("UPDATE email_outbox SET next_attempt_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)), id);
+        dispatcher.poll();
+        verify(mailSender, times(1)).send(any(SimpleMailMessage[].class));
+        assertThat(status(id)).isEqualTo(EmailOutboxMessage.SENT);
+        assertThat(attempts(id)).isEqualTo(2);
+    }
+
+    private long queue(String recipient, int attempts) {
+        return jdbcTemplate.queryForObject("""
+            INSERT INTO email_outbox (recipient, subject, body, attempts, next_attempt_at)
+            VALUES (?, 'Attendance', 'Body', ?, ?) RETURNING id
+            """, Long.class, recipient, attempts, Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)));
+    }
+
+    private String status(long id) {
+        return jdbcTemplate.queryForObject("SELECT status FROM email_outbox WHERE id = ?", String.class, id);
+    }
+
+    private int attempts(long id) {
+        return jdbcTemplate.queryForObject("SELECT attempts FROM email_outbox WHERE id = ?", Integer.class, id);
+    }
+
+    private String lastError(long id) {
+        return jdbcTemplate.queryForObject("SELECT last_error FROM email_outbox WHERE id = ?", String.class, id);
+    }
+
+    private LocalDateTime nextAttemptAt(long id) {
+        return jdbcTemplate.queryForObject("SELECT next_attempt_at FROM email_outbox WHERE id = ?",
+                Timestamp.class, id).toLocalDateTime();
+    }
+}
@@ -0,0 +1,167 @@
+package com.moktob.config;
+
+import com.moktob.common.TenantContext;
+import com.moktob.common.TenantContextHolder;
+import com.moktob.common.TenantTaskDecorator;
+import com.moktob.service.TokenRevocationService;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Many requests for alternating tenants pass through {@link TenantContextFilter} at once and
+ * hand work to every executor built with {@link TenantTaskDecorator}: the dashboard section,
+ * live push, export (also Spring MVC's async executor) and bitmap loader pools. Each task must
+ * see exactly its request's tenant, and no thread, request or pooled, may keep a tenant once
+ * its work is done. Tenants alternate between consecutive requests, so every pool thread runs
+ * tasks for different tenants back to back.
+ */
+class TenantContextPropagationTest {
+
+    private static final String SECRET = "tenant-propagation-test-secret-0123456789";
+    private static final int REQUEST_THREADS = 8;
+    private static final int REQUESTS = 400;
+    private static final int TENANTS = 3;
+
+    private final Queue<String> violations = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger tasksRun = new AtomicInteger();
+    private final List<ThreadPoolTaskExecutor> executors = new ArrayList<>();
+    private JwtUtil jwtUtil;
+    private TenantContextFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(new JwtKeyRing(SECRET, "", JwtKeyRing.DEFAULT_KEY_ID),
+                mock(TokenRevocationService.class), 60_000L, 100);
+        filter = new TenantContextFilter(jwtUtil);
+
+        DashboardExecutorConfig dashboardConfig = new DashboardExecutorConfig();
+        ReflectionTestUtils.setField(dashboardConfig, "poolSize", 2);
+        ReflectionTestUtils.setField(dashboardConfig, "queueCapacity", 100);
+        ReflectionTestUtils.setField(dashboardConfig, "livePoolSize", 2);
+        ReflectionTestUtils.setField(dashboardConfig, "liveQueueCapacity", 1000);
+        ExportConfig exportConfig = new ExportConfig();
+        // Pool plus queue hold two tasks per request thread (the current one and the previous
+        // one, which may still be returning its thread), so none is rejected
+        ReflectionTestUtils.setField(exportConfig, "maxConcurrent", REQUEST_THREADS);
+        AttendanceBitmapConfig bitmapConfig = new AttendanceBitmapConfig();
+        ReflectionTestUtils.setField(bitmapConfig, "poolSize", 1);
+
+        executors.add(checkingPoolThreads(dashboardConfig.dashboardExecutor()));
+        executors.add(checkingPoolThreads(dashboardConfig.dashboardLiveExecutor()));
+        executors.add(checkingPoolThreads(exportConfig.exportExecutor()));
+        executors.add(checkingPoolThreads(bitmapConfig.attendanceBitmapLoader()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executors.forEach(ThreadPoolTaskExecutor::shutdown);
+        TenantContextHolder.clear();
+    }
+
+    @Test
+    void everyTaskSeesItsOwnTenantAndNoThreadKeepsOne() throws Exception {
+        List<String> tokens = new ArrayList<>();
+        for (long tenant = 1; tenant <= TENANTS; tenant++) {
+            tokens.add(jwtUtil.generateToken(Map.of("clientId", tenant, "userId", 100 + tenant), "user" + tenant));
+        }
+
+        ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+        try {
+            List<Future<?>> requests = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                long tenant = 1 + i % TENANTS;
+                String token = tokens.get((int) tenant - 1);
+                requests.add(requestThreads.submit(() -> {
+                    handle(token, new TenantContext(tenant, 100 + tenant));
+                    return null;
+                }));
+            }
+            for (Future<?> request : requests) {
+                request.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            requestThreads.shutdown();
+        }
+
+        assertThat(violations).isEmpty();
+        assertThat(tasksRun).hasValue(REQUESTS * executors.size());
+    }
+
+    private void handle(String token, TenantContext expected) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/dashboard/overview");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        FilterChain chain = (req, res) -> {
+            expect(expected, "request thread");
+            List<CompletableFuture<Void>> tasks = executors.stream()
+                    .map(executor -> CompletableFuture.runAsync(() -> {
+                        expect(expected, Thread.currentThread().getName());
+                        tasksRun.incrementAndGet();
+                    }, executor))
+                    .toList();
+            CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+        };
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        if (TenantContextHolder.getContext() != null) {
+            violations.add("request thread kept " + TenantContextHolder.getContext() + " after the filter");
+        }
+    }
+
+    private void expect(TenantContext expected, String where) {
+        TenantContext actual = TenantContextHolder.getContext();
+        if (!expected.equals(actual)) {
+            violations.add(where + " saw " + actual + " instead of " + expected);
+        }
+    }
+
+    /**
+     * Rebuilds the executor with its own decorator wrapped in one that records whether the
+     * pool thread still holds a tenant after the decorated task has finished.
+     */
+    private ThreadPoolTaskExecutor checkingPoolThreads(ThreadPoolTaskExecutor executor) {
+        Object configured = ReflectionTestUtils.getField(executor, "taskDecorator");
+        assertThat(configured).isInstanceOf(TenantTaskDecorator.class);
+        TaskDecorator tenantDecorator = (TaskDecorator) configured;
+
+        executor.shutdown();
+        executor.setTaskDecorator(runnable -> {
+            Runnable decorated = tenantDecorator.decorate(runnable);
+            return () -> {
+                try {
+                    decorated.run();
+                } finally {
+                    if (TenantContextHolder.getContext() != null) {
+                        violations.add(Thread.currentThread().getName() + " kept "
+                                + TenantContextHolder.getContext() + " after its task");
+                    }
+                }
+            };
+        });
+        executor.initialize();
+        return executor;
+    }
+}
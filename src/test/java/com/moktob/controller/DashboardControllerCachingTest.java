@@ -0,0 +1,111 @@
+package com.moktob.controller;
+
+import com.moktob.common.TenantContextHolder;
+import com.moktob.dto.DashboardOverviewDTO;
+import com.moktob.dto.DashboardSectionStatus;
+import com.moktob.service.DashboardService;
+import com.moktob.service.LiveAttendanceService;
+import com.moktob.service.TenantDataVersionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * {@code /overview} and {@code /stats} are built from the same overview, so a partial one
+ * must be kept out of the browser cache by both, while a complete one is revalidated.
+ */
+class DashboardControllerCachingTest {
+
+    private static final String REVALIDATE = "no-cache, private";
+    private static final String NO_STORE = "no-store";
+    private static final MultiValueMap<String, String> RANGE = new LinkedMultiValueMap<>(Map.of(
+            "startDate", List.of("2024-03-01"),
+            "endDate", List.of("2024-03-31")));
+
+    private DashboardService dashboardService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(anyList()))
+                .thenAnswer(invocation -> Collections.nCopies(((List<?>) invocation.getArgument(0)).size(), "1"));
+        TenantDataVersionService dataVersionService = new TenantDataVersionService(stringRedisTemplate);
+        ReflectionTestUtils.setField(dataVersionService, "enabled", true);
+
+        dashboardService = mock(DashboardService.class);
+        DashboardController controller = new DashboardController(dashboardService,
+                mock(LiveAttendanceService.class), dataVersionService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        TenantContextHolder.setTenantId(7L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContextHolder.clear();
+    }
+
+    @Test
+    void partialOverviewIsNotStored() throws Exception {
+        when(dashboardService.getDashboardOverview(any(), any()))
+                .thenReturn(overview(DashboardSectionStatus.TIMED_OUT));
+
+        mockMvc.perform(get("/api/dashboard/overview").params(RANGE))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, NO_STORE));
+    }
+
+    @Test
+    void statsFromPartialOverviewAreNotStored() throws Exception {
+        when(dashboardService.getDashboardOverview(any(), any()))
+                .thenReturn(overview(DashboardSectionStatus.FAILED));
+
+        mockMvc.perform(get("/api/dashboard/stats").params(RANGE))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, NO_STORE));
+    }
+
+    @Test
+    void statsFromCompleteOverviewAreRevalidated() throws Exception {
+        when(dashboardService.getDashboardOverview(any(), any()))
+                .thenReturn(overview(DashboardSectionStatus.OK));
+
+        mockMvc.perform(get("/api/dashboard/stats").params(RANGE))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, REVALIDATE));
+    }
+
+    private static DashboardOverviewDTO overview(DashboardSectionStatus attendanceStatus) {
+        DashboardOverviewDTO overview = new DashboardOverviewDTO();
+        overview.setTotalStudents(3L);
+        overview.setSectionStatus(Map.of(
+                "counts", DashboardSectionStatus.OK,
+                "attendance", attendanceStatus));
+        return overview;
+    }
+}
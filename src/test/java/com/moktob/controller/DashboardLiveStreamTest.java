@@ -0,0 +1,107 @@
+package com.moktob.controller;
+
+import com.moktob.attendance.AttendanceDeltaEvent;
+import com.moktob.config.JwtKeyRing;
+import com.moktob.config.JwtUtil;
+import com.moktob.config.TenantContextFilter;
+import com.moktob.service.DashboardService;
+import com.moktob.service.LiveAttendanceService;
+import com.moktob.service.TenantDataVersionService;
+import com.moktob.service.TokenRevocationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The live dashboard stream is opened with the bearer token the browser holds, the tenant
+ * being resolved from it by {@link TenantContextFilter} like any other API call.
+ */
+class DashboardLiveStreamTest {
+
+    private static final String SECRET = "live-stream-test-secret-0123456789abcdef";
+
+    private ThreadPoolTaskExecutor liveExecutor;
+    private LiveAttendanceService liveAttendanceService;
+    private JwtUtil jwtUtil;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        liveExecutor = new ThreadPoolTaskExecutor();
+        liveExecutor.initialize();
+        liveAttendanceService = new LiveAttendanceService(liveExecutor);
+        ReflectionTestUtils.setField(liveAttendanceService, "maxConnections", 10);
+        ReflectionTestUtils.setField(liveAttendanceService, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(liveAttendanceService, "maxPendingEvents", 100);
+
+        jwtUtil = new JwtUtil(new JwtKeyRing(SECRET, "", JwtKeyRing.DEFAULT_KEY_ID),
+                mock(TokenRevocationService.class), 60_000L, 100);
+        DashboardController controller = new DashboardController(mock(DashboardService.class),
+                liveAttendanceService, mock(TenantDataVersionService.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .addFilters(new TenantContextFilter(jwtUtil))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        liveExecutor.shutdown();
+    }
+
+    @Test
+    void signedInClientConnectsAndReceivesOnlyItsTenantsDeltas() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/dashboard/live")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token(7L))
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockHttpServletResponse response = result.getResponse();
+
+        liveAttendanceService.onAttendanceDelta(delta(8L, 800L));
+        liveAttendanceService.onAttendanceDelta(delta(7L, 700L));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!response.getContentAsString().contains("\"classId\":700") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(response.getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+        String stream = response.getContentAsString();
+        assertThat(stream).contains("event:attendance-delta").contains("\"classId\":700");
+        assertThat(stream).doesNotContain("\"classId\":800");
+    }
+
+    @Test
+    void requestWithoutBearerTokenIsRejected() throws Exception {
+        mockMvc.perform(get("/api/dashboard/live").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private String token(Long clientId) {
+        return jwtUtil.generateToken(Map.of("clientId", clientId, "userId", 1L), "admin");
+    }
+
+    private static AttendanceDeltaEvent delta(Long clientId, Long classId) {
+        return new AttendanceDeltaEvent(clientId,
+                List.of(new AttendanceDeltaEvent.ClassDelta(classId, LocalDate.now(), 1, 0, 0, 1)),
+                List.of());
+    }
+}
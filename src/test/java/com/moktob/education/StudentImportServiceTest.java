@@ -0,0 +1,115 @@
+package com.moktob.education;
+
+import com.moktob.common.TenantContextHolder;
+import com.moktob.dto.StudentImportErrorDTO;
+import com.moktob.dto.StudentImportResultDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A row the database rejects fails on its own, reported by the CSV line it starts on,
+ * while the rest of its batch is imported.
+ */
+class StudentImportServiceTest {
+
+    private static final long CLIENT_ID = 7L;
+
+    private final List<String> inserted = new ArrayList<>();
+    private StudentImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        StudentBatchRepository studentBatchRepository = mock(StudentBatchRepository.class);
+        doAnswer(invocation -> {
+            List<Student> students = invocation.getArgument(0);
+            if (students.stream().anyMatch(student -> student.getName().startsWith("Rejected"))) {
+                throw new DataIntegrityViolationException("batch failed",
+                        new IllegalStateException("violates check constraint"));
+            }
+            students.forEach(student -> inserted.add(student.getName()));
+            return null;
+        }).when(studentBatchRepository).insert(anyList());
+
+        ClassEntityRepository classEntityRepository = mock(ClassEntityRepository.class);
+        when(classEntityRepository.findClassNamesByClientId(CLIENT_ID))
+                .thenReturn(List.<Object[]>of(new Object[] {10L, "Quran"}));
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        importService = new StudentImportService(studentBatchRepository, classEntityRepository,
+                mock(ApplicationEventPublisher.class), transactionManager);
+        ReflectionTestUtils.setField(importService, "batchSize", 4);
+        ReflectionTestUtils.setField(importService, "maxRows", 100L);
+        ReflectionTestUtils.setField(importService, "maxReportedErrors", 100);
+        TenantContextHolder.setTenantId(CLIENT_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContextHolder.clear();
+    }
+
+    @Test
+    void onlyTheRowsTheDatabaseRejectsFail() {
+        StudentImportResultDTO result = importCsv("""
+                name,class,address
+                Aisha,Quran,"12 Green Lane
+                Dhaka"
+                Rejected One,Quran,
+                Bilal,Quran
+                Fatima,Quran,
+                Hamza,Quran,
+                Rejected Two,,
+                Zainab,,
+                """);
+
+        assertThat(result.getTotalRows()).isEqualTo(7);
+        assertThat(result.getImported()).isEqualTo(5);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(inserted).containsExactlyInAnyOrder("Aisha", "Bilal", "Fatima", "Hamza", "Zainab");
+        assertThat(result.getErrors()).extracting(StudentImportErrorDTO::getLine).containsExactly(4L, 8L);
+        assertThat(result.getErrors()).extracting(StudentImportErrorDTO::getMessage)
+                .allMatch(message -> message.equals("Database rejected the row: violates check constraint"));
+    }
+
+    @Test
+    void invalidRowsAreReportedByLineWithoutReachingTheDatabase() {
+        StudentImportResultDTO result = importCsv("""
+                name,class
+                "Aisha
+                Khan",Quran
+                ,Quran
+                Bilal,Arabic
+                Hamza
+                """);
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(inserted).containsExactly("Aisha\nKhan", "Hamza");
+        assertThat(result.getErrors()).extracting(StudentImportErrorDTO::getLine).containsExactly(4L, 5L);
+        assertThat(result.getErrors().get(0).getMessage()).isEqualTo("name is required");
+        assertThat(result.getErrors().get(1).getMessage()).isEqualTo("unknown class 'Arabic'");
+    }
+
+    private StudentImportResultDTO importCsv(String csv) {
+        return importService.importStudents(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,148 @@
+package com.moktob.service;
+
+import com.moktob.attendance.Attendance;
+import com.moktob.attendance.AttendanceBitmapService;
+import com.moktob.attendance.AttendancePartitionService;
+import com.moktob.common.AttendanceStatus;
+import com.moktob.common.TenantContextHolder;
+import com.moktob.dto.ClassWiseStudentDTO;
+import com.moktob.education.ClassEntity;
+import com.moktob.education.Student;
+import com.moktob.education.StudentClassMap;
+import com.moktob.education.Teacher;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Guards against the class-wise students section going back to a query per class: the
+ * number of statements it prepares must not depend on how many classes a tenant has.
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.show_sql=false"
+})
+@Import(DashboardService.class)
+class DashboardServiceClassWiseStudentsTest {
+
+    private static final long SMALL_TENANT = 1L;
+    private static final long LARGE_TENANT = 2L;
+    private static final int LARGE_TENANT_CLASSES = 25;
+    private static final int STUDENTS_PER_CLASS = 4;
+    private static final LocalDate START = LocalDate.of(2024, 3, 1);
+    private static final LocalDate END = LocalDate.of(2024, 3, 31);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @MockBean
+    private DashboardCacheService dashboardCacheService;
+
+    @MockBean
+    private ThreadPoolTaskExecutor dashboardExecutor;
+
+    @MockBean
+    private AttendanceBitmapService attendanceBitmapService;
+
+    @MockBean
+    private AttendancePartitionService attendancePartitionService;
+
+    @BeforeEach
+    void setUp() {
+        // Bypass the cache so every call reaches the database
+        when(dashboardCacheService.get(anyLong(), anyString(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(3).get());
+
+        createTenant(SMALL_TENANT, 1);
+        createTenant(LARGE_TENANT, LARGE_TENANT_CLASSES);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContextHolder.clear();
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithClassCount() {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+
+        TenantContextHolder.setTenantId(SMALL_TENANT);
+        statistics.clear();
+        List<ClassWiseStudentDTO> oneClass = dashboardService.getClassWiseStudents(START, END);
+        long statementsForOneClass = statistics.getPrepareStatementCount();
+
+        TenantContextHolder.setTenantId(LARGE_TENANT);
+        statistics.clear();
+        List<ClassWiseStudentDTO> manyClasses = dashboardService.getClassWiseStudents(START, END);
+        long statementsForManyClasses = statistics.getPrepareStatementCount();
+
+        assertThat(oneClass).hasSize(1);
+        assertThat(manyClasses).hasSize(LARGE_TENANT_CLASSES);
+        assertThat(manyClasses).allSatisfy(dto -> assertThat(dto.getStudents()).hasSize(STUDENTS_PER_CLASS));
+        assertThat(statementsForManyClasses).isEqualTo(statementsForOneClass);
+        assertThat(statementsForOneClass).isEqualTo(2);
+    }
+
+    private void createTenant(long clientId, int classes) {
+        TenantContextHolder.setTenantId(clientId);
+        Teacher teacher = new Teacher();
+        teacher.setName("Teacher " + clientId);
+        entityManager.persist(teacher);
+
+        for (int c = 0; c < classes; c++) {
+            ClassEntity classEntity = new ClassEntity();
+            classEntity.setClassName(String.format("Class %02d", c));
+            classEntity.setTeacherId(teacher.getId());
+            entityManager.persist(classEntity);
+
+            for (int s = 0; s < STUDENTS_PER_CLASS; s++) {
+                Student student = new Student();
+                student.setName("Student " + c + "-" + s);
+                student.setCurrentClassId(classEntity.getId());
+                student.setEnrollmentDate(START.minusMonths(1));
+                entityManager.persist(student);
+
+                StudentClassMap map = new StudentClassMap();
+                map.setStudentId(student.getId());
+                map.setClassId(classEntity.getId());
+                entityManager.persist(map);
+
+                Attendance attendance = new Attendance();
+                attendance.setClassId(classEntity.getId());
+                attendance.setStudentId(student.getId());
+                attendance.setTeacherId(teacher.getId());
+                attendance.setAttendanceDate(START.plusDays(s));
+                attendance.setStatus(s % 2 == 0 ? AttendanceStatus.PRESENT : AttendanceStatus.ABSENT);
+                entityManager.persist(attendance);
+            }
+        }
+        TenantContextHolder.clear();
+    }
+}
@@ -0,0 +1,149 @@
+package com.moktob.service;
+
+import com.moktob.attendance.AttendanceDeltaEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A client that stops reading, or whose connection fails, must not hold up the other
+ * subscribers, and is dropped.
+ */
+class LiveAttendanceServiceTest {
+
+    private static final long CLIENT_ID = 7L;
+
+    private ThreadPoolTaskExecutor liveExecutor;
+    private LiveAttendanceService liveAttendanceService;
+
+    @BeforeEach
+    void setUp() {
+        liveExecutor = new ThreadPoolTaskExecutor();
+        liveExecutor.setCorePoolSize(2);
+        liveExecutor.setMaxPoolSize(2);
+        liveExecutor.initialize();
+        liveAttendanceService = new LiveAttendanceService(liveExecutor);
+        ReflectionTestUtils.setField(liveAttendanceService, "maxConnections", 10);
+        ReflectionTestUtils.setField(liveAttendanceService, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(liveAttendanceService, "maxPendingEvents", 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        liveExecutor.shutdown();
+    }
+
+    @Test
+    void stalledClientDoesNotDelayOthersAndIsDroppedOnceItsQueueFills() throws Exception {
+        CountDownLatch unblock = new CountDownLatch(1);
+        RecordingEmitter stalled = new RecordingEmitter(unblock, null);
+        RecordingEmitter healthy = new RecordingEmitter(null, null);
+        liveAttendanceService.register(CLIENT_ID, stalled);
+        liveAttendanceService.register(CLIENT_ID, healthy);
+
+        liveAttendanceService.onAttendanceDelta(delta());
+        await(() -> healthy.sends.get() == 1 && stalled.sends.get() == 1);
+        liveAttendanceService.sendHeartbeats();
+        await(() -> healthy.sends.get() == 2);
+        assertThat(stalled.sends).hasValue(1);
+
+        // The stalled client's queue fills up and it is dropped; the healthy one keeps up
+        for (int i = 0; i < 4; i++) {
+            liveAttendanceService.onAttendanceDelta(delta());
+        }
+        await(() -> healthy.sends.get() == 6);
+        assertThat(stalled.completedWith.get()).isNull();
+
+        // Completed once the blocked send returns, not while it holds the emitter
+        unblock.countDown();
+        await(() -> stalled.completedWith.get() != null);
+        assertThat(stalled.completedWith.get()).hasMessageContaining("not reading");
+        assertThat(stalled.sends).hasValue(1);
+
+        liveAttendanceService.onAttendanceDelta(delta());
+        await(() -> healthy.sends.get() == 7);
+        assertThat(stalled.sends).hasValue(1);
+    }
+
+    @Test
+    void clientWhoseSendFailsIsDropped() throws Exception {
+        RecordingEmitter broken = new RecordingEmitter(null, new IOException("Broken pipe"));
+        liveAttendanceService.register(CLIENT_ID, broken);
+
+        liveAttendanceService.onAttendanceDelta(delta());
+        await(() -> broken.completedWith.get() != null);
+        assertThat(broken.completedWith.get()).hasMessage("Broken pipe");
+
+        liveAttendanceService.onAttendanceDelta(delta());
+        liveAttendanceService.sendHeartbeats();
+        Thread.sleep(100);
+        assertThat(broken.sends).hasValue(1);
+    }
+
+    private static AttendanceDeltaEvent delta() {
+        return new AttendanceDeltaEvent(CLIENT_ID,
+                List.of(new AttendanceDeltaEvent.ClassDelta(10L, LocalDate.now(), 1, 0, 0, 1)),
+                List.of());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    /**
+     * Counts sends instead of writing them; optionally blocks in, or fails, every send.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final CountDownLatch blockUntil;
+        private final IOException failure;
+        private final AtomicInteger sends = new AtomicInteger();
+        private final AtomicReference<Throwable> completedWith = new AtomicReference<>();
+        private final List<SseEventBuilder> events = new CopyOnWriteArrayList<>();
+
+        RecordingEmitter(CountDownLatch blockUntil, IOException failure) {
+            this.blockUntil = blockUntil;
+            this.failure = failure;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sends.incrementAndGet();
+            events.add(builder);
+            if (failure != null) {
+                throw failure;
+            }
+            if (blockUntil != null) {
+                try {
+                    blockUntil.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            completedWith.set(ex);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.moktob.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The local token bucket, and the sliding-window count two nodes reconcile through Redis.
+ * Windows are a minute long so refill during a test stays well under one token.
+ */
+class RateLimiterTest {
+
+    private static final RateLimiter.Rule RULE = new RateLimiter.Rule("api", 100, 60_000);
+    private static final long WINDOW_MS = RULE.windowMs();
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate stringRedisTemplate;
+
+    private final ThreadPoolTaskExecutor syncExecutor = new ThreadPoolTaskExecutor();
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        syncExecutor.initialize();
+        stringRedisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            // As after a Redis restart: the sync must load its script again
+            connection.scriptingCommands().scriptFlush();
+            return null;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        syncExecutor.shutdown();
+    }
+
+    @Test
+    void bucketAdmitsItsLimitThenReportsTheWaitForOneToken() {
+        RateLimiter rateLimiter = newRateLimiter(stringRedisTemplate, false);
+
+        assertThat(admitAll(rateLimiter, "u1")).isEqualTo(100);
+        // One token refills every windowMs / limit
+        assertThat(rateLimiter.tryAcquire(RULE, "u1")).isBetween(1L, WINDOW_MS / RULE.limit());
+        assertThat(rateLimiter.tryAcquire(RULE, "u2")).isZero();
+    }
+
+    @Test
+    void nodesAreCappedByTheSlidingCountAcrossTheCluster() {
+        RateLimiter nodeA = newRateLimiter(stringRedisTemplate, true);
+        RateLimiter nodeB = newRateLimiter(stringRedisTemplate, true);
+        // A quarter into the window, in the past so the buckets do not refill from it
+        long window = System.currentTimeMillis() / WINDOW_MS - 1;
+        long now = window * WINDOW_MS + WINDOW_MS / 4;
+        stringRedisTemplate.opsForValue().set("ratelimit:api:u1:" + (window - 1), "40");
+
+        admit(nodeA, "u1", 10);
+        nodeA.sync(now);
+        admit(nodeB, "u1", 1);
+        nodeB.sync(now);
+
+        // 40 previous * 3/4 still overlapping + 11 current = 41 across the cluster
+        assertThat(stringRedisTemplate.opsForValue().get("ratelimit:api:u1:" + window)).isEqualTo("11");
+        assertThat(admitAll(nodeB, "u1")).isEqualTo(100 - 41);
+        // Node A has not synced since B's request: it still allows 100 - 40
+        assertThat(admitAll(nodeA, "u1")).isEqualTo(100 - 40);
+    }
+
+    @Test
+    void keepsLimitingLocallyWhenRedisIsDown() {
+        StringRedisTemplate unreachable = mock(StringRedisTemplate.class);
+        when(unreachable.executePipelined(any(RedisCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("Connection refused"));
+        RateLimiter rateLimiter = newRateLimiter(unreachable, true);
+
+        admit(rateLimiter, "u1", 30);
+        rateLimiter.sync(System.currentTimeMillis());
+
+        assertThat(admitAll(rateLimiter, "u1")).isEqualTo(70);
+    }
+
+    private RateLimiter newRateLimiter(StringRedisTemplate template, boolean redisSync) {
+        RateLimiter rateLimiter = new RateLimiter(template, syncExecutor);
+        ReflectionTestUtils.setField(rateLimiter, "redisSync", redisSync);
+        ReflectionTestUtils.setField(rateLimiter, "maxKeys", 1000);
+        return rateLimiter;
+    }
+
+    private static void admit(RateLimiter rateLimiter, String subject, int requests) {
+        for (int i = 0; i < requests; i++) {
+            assertThat(rateLimiter.tryAcquire(RULE, subject)).isZero();
+        }
+    }
+
+    private static int admitAll(RateLimiter rateLimiter, String subject) {
+        int admitted = 0;
+        while (rateLimiter.tryAcquire(RULE, subject) == 0) {
+            admitted++;
+        }
+        return admitted;
+    }
+}